@@ -0,0 +1,118 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import rtt.core.loader.ArchiveLoader;
+
+/**
+ * Reads or writes single entries of an archive with an
+ * {@link ArchiveLoader}. The archive contains {@link #ENTRY_COUNT}
+ * entries, which are accessed in turn. The size is the number of bytes
+ * of each entry.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class ArchiveBenchmark extends Benchmark {
+
+	public static final int ENTRY_COUNT = 16;
+
+	private static final String FOLDER = "entries";
+
+	private final boolean zip;
+	private final boolean write;
+
+	private Path tempFolder;
+	private ArchiveLoader loader;
+	private byte[] content;
+	private byte[] buffer = new byte[8192];
+	private int nextEntry = 0;
+
+	/**
+	 * @param zip {@code true} for a zip archive, {@code false} for a
+	 * 		directory archive
+	 * @param write {@code true}, if entries should be written, otherwise
+	 * 		they will be read
+	 */
+	public ArchiveBenchmark(boolean zip, boolean write) {
+		super("archive." + (zip ? "zip" : "directory") + (write ? ".write" : ".read"), "bytes");
+		this.zip = zip;
+		this.write = write;
+	}
+
+	@Override
+	// the deprecated directory loader is still measured for comparison;
+	// ArchiveLoader.create always returns a zip loader. The loader is not
+	// imported, as javac 8 reports deprecated imports despite this annotation.
+	@SuppressWarnings("deprecation")
+	public void setUp(int size) throws Exception {
+		tempFolder = Files.createTempDirectory("rtt-benchmark");
+
+		if (zip) {
+			File archive = tempFolder.resolve("archive.zip").toFile();
+			loader = ArchiveLoader.create(archive);
+			loader.setBasePath(archive);
+		} else {
+			loader = new rtt.core.loader.DirectoryArchiveLoader(
+					tempFolder.resolve("archive").toString());
+		}
+
+		// random content can not be compressed
+		content = new byte[size];
+		new Random(size).nextBytes(content);
+
+		for (int index = 0; index < ENTRY_COUNT; index++) {
+			writeEntry(index);
+		}
+	}
+
+	@Override
+	public Object run() throws Exception {
+		int index = nextEntry;
+		nextEntry = (nextEntry + 1) % ENTRY_COUNT;
+
+		if (write) {
+			writeEntry(index);
+			return index;
+		}
+
+		long count = 0;
+		try (InputStream stream = loader.getInputStream(getName(index), FOLDER)) {
+			int read;
+			while ((read = stream.read(buffer)) >= 0) {
+				count += read;
+			}
+		}
+
+		return count;
+	}
+
+	private void writeEntry(int index) throws Exception {
+		try (OutputStream stream = loader.getOutputStream(getName(index), FOLDER)) {
+			stream.write(content);
+		}
+	}
+
+	private static String getName(int index) {
+		return "entry" + index + ".bin";
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		loader.close();
+		deleteDirectory(tempFolder);
+	}
+}
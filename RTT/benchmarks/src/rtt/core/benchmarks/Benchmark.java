@@ -0,0 +1,101 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A single benchmark of the {@link BenchmarkRunner}. The runner calls
+ * {@link #setUp(int)} once for each size, then {@link #run()} repeatedly
+ * within the warm-up and measured iterations and {@link #tearDown()}
+ * at last. Only {@link #run()} is measured.
+ * <p>
+ * The meaning of the size depends on the benchmark, e.g. the number of
+ * elements of an output or the number of versions of a history.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public abstract class Benchmark {
+
+	private final String name;
+	private final String unit;
+
+	/**
+	 * @param name the name of the benchmark, e.g. "generation.deep"
+	 * @param unit the unit of the size, e.g. "elements"
+	 */
+	protected Benchmark(String name, String unit) {
+		this.name = name;
+		this.unit = unit;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getUnit() {
+		return unit;
+	}
+
+	/**
+	 * Prepares the data of this benchmark.
+	 *
+	 * @param size the size of the data
+	 * @throws Exception thrown, if the data could not be prepared
+	 */
+	public void setUp(int size) throws Exception {}
+
+	/**
+	 * Executes a single operation. The result will be consumed by the
+	 * runner, so the operation can not be removed by the compiler.
+	 *
+	 * @return any result of the operation
+	 * @throws Exception thrown, if the operation failed
+	 */
+	public abstract Object run() throws Exception;
+
+	/**
+	 * Releases the data of this benchmark.
+	 *
+	 * @throws Exception thrown, if the data could not be released
+	 */
+	public void tearDown() throws Exception {}
+
+	/**
+	 * Deletes the given directory with all its contents.
+	 *
+	 * @param directory the directory, may be {@code null}
+	 * @throws IOException thrown, if a file could not be deleted
+	 */
+	protected static void deleteDirectory(Path directory) throws IOException {
+		if (directory == null || Files.notExists(directory)) {
+			return;
+		}
+
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+}
@@ -0,0 +1,357 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Executes the benchmarks of RTT's hot paths: the generation, comparison
+ * and (un)marshalling of output data, the loading of histories and the
+ * access to archive entries. Each benchmark is executed for each size
+ * with a number of warm-up iterations, which are discarded, and a number
+ * of measured iterations. Each iteration runs the operation of the
+ * benchmark repeatedly for a fixed time, the score of an iteration is
+ * the average time of a single operation.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * BenchmarkRunner [--sizes 100,1000,10000] [--warmup 5] [--iterations 10]
+ *                 [--time 200] [--filter regex] [--output results.csv]
+ * </pre>
+ *
+ * The time is given in milliseconds. The filter selects benchmarks by
+ * their names, e.g. "generation.*". If an output file is given, the
+ * results will be written to it as comma separated values.
+ * <p>
+ * The benchmarks run within a thread with a large stack, so deep graphs
+ * can be generated.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class BenchmarkRunner {
+
+	private static final long STACK_SIZE = 512L * 1024 * 1024;
+
+	/**
+	 * The result of a benchmark for a single size.
+	 */
+	public static final class Result {
+
+		private final String name;
+		private final int size;
+		private final String unit;
+		private final long operations;
+		private final double[] scores;
+
+		Result(String name, int size, String unit, long operations, double[] scores) {
+			this.name = name;
+			this.size = size;
+			this.unit = unit;
+			this.operations = operations;
+			this.scores = scores;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * @return the mean time of an operation in nanoseconds
+		 */
+		public double getMean() {
+			double sum = 0;
+			for (double score : scores) {
+				sum += score;
+			}
+
+			return sum / scores.length;
+		}
+
+		/**
+		 * @return the standard deviation of the iteration scores in nanoseconds
+		 */
+		public double getStdDev() {
+			if (scores.length < 2) {
+				return 0;
+			}
+
+			double mean = getMean();
+			double squares = 0;
+			for (double score : scores) {
+				squares += (score - mean) * (score - mean);
+			}
+
+			return Math.sqrt(squares / (scores.length - 1));
+		}
+
+		/**
+		 * @return the best iteration score in nanoseconds
+		 */
+		public double getMin() {
+			double min = Double.MAX_VALUE;
+			for (double score : scores) {
+				min = Math.min(min, score);
+			}
+
+			return min;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-28s %8d %-9s %16.1f %14.1f %16.1f",
+					name, size, unit, getMean(), getStdDev(), getMin());
+		}
+
+		String toCSV() {
+			return String.format(Locale.ROOT, "%s,%d,%s,%d,%d,%.1f,%.1f,%.1f",
+					name, size, unit, scores.length, operations,
+					getMean(), getStdDev(), getMin());
+		}
+	}
+
+	// consumes the results of the operations
+	private static volatile int blackhole;
+
+	private int[] sizes = {100, 1000, 10000};
+	private int warmup = 5;
+	private int iterations = 10;
+	private long time = 200;
+	private Pattern filter = null;
+	private File output = null;
+
+	/**
+	 * @return all benchmarks
+	 */
+	public static List<Benchmark> createBenchmarks() {
+		List<Benchmark> benchmarks = new ArrayList<>();
+		benchmarks.add(new GenerationBenchmark("deep"));
+		benchmarks.add(new GenerationBenchmark("wide"));
+		benchmarks.add(new GenerationBenchmark("balanced"));
+		benchmarks.add(new CompareBenchmark(false));
+		benchmarks.add(new CompareBenchmark(true));
+		benchmarks.add(new MarshalBenchmark(false));
+		benchmarks.add(new MarshalBenchmark(true));
+		benchmarks.add(new CodecBenchmark(false));
+		benchmarks.add(new CodecBenchmark(true));
+		benchmarks.add(new DeltaBenchmark(false));
+		benchmarks.add(new DeltaBenchmark(true));
+		benchmarks.add(new HistoryBenchmark());
+		benchmarks.add(new ArchiveBenchmark(true, true));
+		benchmarks.add(new ArchiveBenchmark(true, false));
+		benchmarks.add(new ArchiveBenchmark(false, true));
+		benchmarks.add(new ArchiveBenchmark(false, false));
+
+		return benchmarks;
+	}
+
+	public void setSizes(int... sizes) {
+		this.sizes = sizes;
+	}
+
+	public void setWarmup(int warmup) {
+		this.warmup = warmup;
+	}
+
+	public void setIterations(int iterations) {
+		if (iterations < 1) {
+			throw new IllegalArgumentException("At least one iteration is required.");
+		}
+
+		this.iterations = iterations;
+	}
+
+	/**
+	 * @param time the time of an iteration in milliseconds
+	 */
+	public void setTime(long time) {
+		this.time = time;
+	}
+
+	/**
+	 * @param filter a regular expression, which selects the benchmarks by
+	 * 		their names, or {@code null} for all benchmarks
+	 */
+	public void setFilter(String filter) {
+		this.filter = filter != null ? Pattern.compile(filter) : null;
+	}
+
+	/**
+	 * @param output the file receiving the results as comma separated
+	 * 		values, or {@code null}
+	 */
+	public void setOutput(File output) {
+		this.output = output;
+	}
+
+	/**
+	 * Executes all selected benchmarks and prints their results.
+	 *
+	 * @return the results
+	 * @throws Exception thrown, if a benchmark failed
+	 */
+	public List<Result> run() throws Exception {
+		List<Result> results = new ArrayList<>();
+
+		System.out.println(String.format(Locale.ROOT, "%-28s %8s %-9s %16s %14s %16s",
+				"Benchmark", "Size", "Unit", "Mean [ns/op]", "StdDev", "Min [ns/op]"));
+
+		for (Benchmark benchmark : createBenchmarks()) {
+			if (filter != null && !filter.matcher(benchmark.getName()).matches()) {
+				continue;
+			}
+
+			for (int size : sizes) {
+				Result result = measure(benchmark, size);
+				System.out.println(result);
+
+				results.add(result);
+			}
+		}
+
+		if (output != null) {
+			writeResults(results);
+		}
+
+		return results;
+	}
+
+	/**
+	 * Executes a single benchmark for the given size.
+	 */
+	public Result measure(Benchmark benchmark, int size) throws Exception {
+		benchmark.setUp(size);
+		try {
+			for (int iteration = 0; iteration < warmup; iteration++) {
+				runIteration(benchmark);
+			}
+
+			// start all measured iterations with a clean heap
+			System.gc();
+
+			long operations = 0;
+			double[] scores = new double[iterations];
+			for (int iteration = 0; iteration < iterations; iteration++) {
+				long[] measured = runIteration(benchmark);
+
+				operations += measured[0];
+				scores[iteration] = (double) measured[1] / measured[0];
+			}
+
+			return new Result(benchmark.getName(), size, benchmark.getUnit(),
+					operations, scores);
+		} finally {
+			benchmark.tearDown();
+		}
+	}
+
+	/**
+	 * Runs the operation until the time of an iteration has passed.
+	 *
+	 * @return the number of operations and the elapsed nanoseconds
+	 */
+	private long[] runIteration(Benchmark benchmark) throws Exception {
+		long limit = TimeUnit.MILLISECONDS.toNanos(time);
+		long start = System.nanoTime();
+
+		long operations = 0;
+		long elapsed;
+		do {
+			Object result = benchmark.run();
+			blackhole ^= System.identityHashCode(result);
+
+			operations++;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < limit);
+
+		return new long[] {operations, elapsed};
+	}
+
+	private void writeResults(List<Result> results) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(output))) {
+			writer.println("benchmark,size,unit,iterations,operations,mean_ns,stddev_ns,min_ns");
+			for (Result result : results) {
+				writer.println(result.toCSV());
+			}
+		}
+	}
+
+	private static int[] parseSizes(String value) {
+		String[] parts = value.split(",");
+
+		int[] sizes = new int[parts.length];
+		for (int index = 0; index < parts.length; index++) {
+			sizes[index] = Integer.parseInt(parts[index].trim());
+		}
+
+		return sizes;
+	}
+
+	public static void main(String[] args) throws Exception {
+		final BenchmarkRunner runner = new BenchmarkRunner();
+
+		for (int index = 0; index + 1 < args.length; index += 2) {
+			String value = args[index + 1];
+			switch (args[index]) {
+			case "--sizes":
+				runner.setSizes(parseSizes(value));
+				break;
+			case "--warmup":
+				runner.setWarmup(Integer.parseInt(value));
+				break;
+			case "--iterations":
+				runner.setIterations(Integer.parseInt(value));
+				break;
+			case "--time":
+				runner.setTime(Long.parseLong(value));
+				break;
+			case "--filter":
+				runner.setFilter(value.isEmpty() ? null : value);
+				break;
+			case "--output":
+				runner.setOutput(value.isEmpty() ? null : new File(value));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[index]);
+			}
+		}
+
+		final Exception[] failure = new Exception[1];
+		Thread thread = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					runner.run();
+				} catch (Exception e) {
+					failure[0] = e;
+				}
+			}
+		}, "RTT-Benchmark", STACK_SIZE);
+
+		thread.start();
+		thread.join();
+
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.output.Output;
+import rtt.core.manager.data.history.OutputCodec;
+
+/**
+ * Encodes or decodes the output data of a balanced {@link SyntheticGraph}
+ * in memory with the binary {@link OutputCodec}. The results can be
+ * compared directly with the {@link MarshalBenchmark}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class CodecBenchmark extends Benchmark {
+
+	private final boolean decode;
+	private final OutputCodec codec = OutputCodec.getCodec(OutputFormat.BINARY);
+
+	private Output output;
+	private byte[] data;
+
+	/**
+	 * @param decode {@code true}, if the output should be decoded,
+	 * 		otherwise it will be encoded
+	 */
+	public CodecBenchmark(boolean decode) {
+		super(decode ? "binary.decode" : "binary.encode", "nodes");
+		this.decode = decode;
+	}
+
+	@Override
+	public void setUp(int size) throws Exception {
+		output = SyntheticGraph.createOutput("balanced", size, false);
+		data = encode().toByteArray();
+	}
+
+	@Override
+	public Object run() throws Exception {
+		if (decode) {
+			return codec.read(new ByteArrayInputStream(data));
+		}
+
+		return encode();
+	}
+
+	private ByteArrayOutputStream encode() throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream(
+				data != null ? data.length : 8192);
+
+		codec.write(output, stream);
+
+		return stream;
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		output = null;
+		data = null;
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import rtt.core.archive.output.Output;
+import rtt.core.testing.compare.OutputCompare;
+
+/**
+ * Compares two balanced {@link SyntheticGraph} outputs with the
+ * {@link OutputCompare}. Both outputs are generated separately, so they
+ * don't share any elements. If the outputs differ, only the value of the
+ * last element is changed, so the whole tree has to be compared.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class CompareBenchmark extends Benchmark {
+
+	private final boolean changed;
+
+	private Output refData;
+	private Output testData;
+
+	/**
+	 * @param changed {@code true}, if the compared outputs should differ
+	 */
+	public CompareBenchmark(boolean changed) {
+		super(changed ? "compare.different" : "compare.equal", "nodes");
+		this.changed = changed;
+	}
+
+	@Override
+	public void setUp(int size) throws Exception {
+		refData = SyntheticGraph.createOutput("balanced", size, false);
+		testData = SyntheticGraph.createOutput("balanced", size, changed);
+	}
+
+	@Override
+	public Object run() throws Exception {
+		return OutputCompare.compareOutput(refData, testData, false);
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		refData = null;
+		testData = null;
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import rtt.annotations.Node;
+
+/**
+ * A language independent initial node for the {@link MacroBenchmark}.
+ * It splits its input into non-empty lines and each line into tokens:
+ * identifiers, numbers, string literals and single other characters. The
+ * resulting tree has the size and the shape of a simple parse tree of
+ * the input, so storing and comparing it costs like real output data.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+@Node
+public final class CorpusNode {
+
+	private static final Pattern TOKEN = Pattern.compile(
+			"[\\p{L}_][\\p{L}\\p{N}_]*|\\p{N}+(\\.\\p{N}+)?|'[^']*'|\"[^\"]*\"|\\S");
+
+	@Node
+	public static final class Line {
+
+		@Node.Value
+		public int number;
+
+		@Node.Value
+		public List<Token> tokens = new ArrayList<>();
+
+		public Line(int number) {
+			this.number = number;
+		}
+	}
+
+	@Node
+	public static final class Token {
+
+		@Node.Value
+		public String text;
+
+		@Node.Value(informational=true)
+		public int column;
+
+		public Token(String text, int column) {
+			this.text = text;
+			this.column = column;
+		}
+	}
+
+	private final List<Line> lines = new ArrayList<>();
+
+	@Node.Initialize
+	public CorpusNode(InputStream is) throws IOException {
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(is, StandardCharsets.UTF_8));
+
+		int number = 0;
+		String text;
+		while ((text = reader.readLine()) != null) {
+			number++;
+
+			Line line = new Line(number);
+			Matcher matcher = TOKEN.matcher(text);
+			while (matcher.find()) {
+				line.tokens.add(new Token(matcher.group(), matcher.start() + 1));
+			}
+
+			if (!line.tokens.isEmpty()) {
+				lines.add(line);
+			}
+		}
+	}
+
+	@Node.Value
+	public List<Line> lines() {
+		return lines;
+	}
+}
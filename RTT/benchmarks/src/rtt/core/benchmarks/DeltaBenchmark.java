@@ -0,0 +1,79 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.Output;
+import rtt.core.manager.data.history.OutputDelta;
+
+/**
+ * Writes or applies the {@link OutputDelta} between two versions of the
+ * output data of a balanced {@link SyntheticGraph}, which differ in the
+ * value of their last element.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class DeltaBenchmark extends Benchmark {
+
+	private final boolean apply;
+
+	private Output base;
+	private Output target;
+	private byte[] delta;
+
+	/**
+	 * @param apply {@code true}, if the delta should be applied,
+	 * 		otherwise it will be written
+	 */
+	public DeltaBenchmark(boolean apply) {
+		super(apply ? "delta.apply" : "delta.write", "nodes");
+		this.apply = apply;
+	}
+
+	@Override
+	public void setUp(int size) throws Exception {
+		base = SyntheticGraph.createOutput("balanced", size, false);
+		target = SyntheticGraph.createOutput("balanced", size, false);
+
+		Element element = target.getInitialElement();
+		while (!element.getElements().isEmpty()) {
+			element = element.getElements().get(element.getElements().size() - 1);
+		}
+		element.setValue("changed");
+
+		delta = write().toByteArray();
+	}
+
+	@Override
+	public Object run() throws Exception {
+		if (apply) {
+			return OutputDelta.apply(base, new ByteArrayInputStream(delta));
+		}
+
+		return write();
+	}
+
+	private ByteArrayOutputStream write() throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		OutputDelta.write(base, target, stream);
+
+		return stream;
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		base = null;
+		target = null;
+		delta = null;
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import rtt.core.archive.input.Input;
+import rtt.core.testing.generation.DataGenerator;
+import rtt.core.testing.generation.Executor;
+
+/**
+ * Generates the output data of a {@link SyntheticGraph} with the
+ * {@link DataGenerator}, including the initialization of the graph.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class GenerationBenchmark extends Benchmark {
+
+	private final String shape;
+
+	private Input input;
+	private List<String> params = Collections.emptyList();
+	private Executor executor;
+
+	/**
+	 * @param shape the shape of the graph, see {@link SyntheticGraph}
+	 */
+	public GenerationBenchmark(String shape) {
+		super("generation." + shape, "nodes");
+		this.shape = shape;
+	}
+
+	@Override
+	public void setUp(int size) throws Exception {
+		input = SyntheticGraph.createInput(shape, size, false);
+		executor = new Executor(SyntheticGraph.class);
+	}
+
+	@Override
+	public Object run() throws Exception {
+		try {
+			return DataGenerator.generateOutput(input, params, executor);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new Exception(t);
+		}
+	}
+}
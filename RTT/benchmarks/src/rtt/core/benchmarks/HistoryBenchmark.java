@@ -0,0 +1,99 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.transform.stream.StreamResult;
+
+import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.history.History;
+import rtt.core.archive.history.Version;
+import rtt.core.loader.ArchiveLoader;
+import rtt.core.loader.LoaderUtils;
+import rtt.core.manager.data.JAXBRegistry;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+
+/**
+ * Loads the history of a test case with the {@link OutputDataManager}
+ * from a zip archive. The history contains one version for each unit
+ * of the size.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class HistoryBenchmark extends Benchmark {
+
+	private static final String SUITE_NAME = "suite";
+	private static final String CASE_NAME = "case";
+
+	private Path tempFolder;
+	private ArchiveLoader loader;
+	private Configuration config;
+
+	public HistoryBenchmark() {
+		super("history.load", "versions");
+	}
+
+	@Override
+	public void setUp(int size) throws Exception {
+		tempFolder = Files.createTempDirectory("rtt-benchmark");
+		File archive = tempFolder.resolve("archive.zip").toFile();
+
+		loader = ArchiveLoader.create(archive);
+		loader.setBasePath(archive);
+
+		config = new Configuration();
+		config.setName("config");
+
+		History history = new History();
+		for (int nr = 1; nr <= size; nr++) {
+			Version version = new Version();
+			version.setNr(nr);
+			version.setDate(Calendar.getInstance());
+			version.setInputBase(1);
+			version.setHash(String.format("%064x", nr));
+
+			history.getVersion().add(version);
+		}
+
+		String path = LoaderUtils.getPath(SUITE_NAME, CASE_NAME,
+				config.getName(), OutputDataType.REFERENCE.getPath());
+
+		try (OutputStream stream = loader.getOutputStream("history.xml", path)) {
+			Marshaller marshaller = JAXBRegistry.getMarshaller(History.class);
+			marshaller.marshal(history, new StreamResult(stream));
+		}
+
+		int loaded = (Integer) run();
+		if (loaded != size) {
+			throw new IllegalStateException("Loaded " + loaded + " of " + size + " versions.");
+		}
+	}
+
+	@Override
+	public Object run() throws Exception {
+		OutputDataManager manager = new OutputDataManager(loader,
+				SUITE_NAME, CASE_NAME, config, OutputDataType.REFERENCE);
+
+		return manager.getHistory().getVersion().size();
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		loader.close();
+		deleteDirectory(tempFolder);
+	}
+}
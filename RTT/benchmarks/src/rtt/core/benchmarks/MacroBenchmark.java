@@ -0,0 +1,424 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import rtt.core.manager.Manager;
+import rtt.core.manager.Manager.TestCaseMode;
+import rtt.core.utils.GenerationInformation;
+
+/**
+ * Measures RTT end to end on the example corpora: the SiPLE test programs
+ * and the OCL files of the DresdenOCL parser tests. Each corpus becomes a
+ * test suite, whose files are replicated by the scale factor, so a corpus
+ * of 15 files results in 150 test cases with a scale of 10. The phases
+ * create, add, generate, run, export and save are timed separately. For
+ * each phase, the throughput in test cases per second and the peak heap
+ * are reported. The peak heap is the sum of the peak usages of all heap
+ * memory pools, which have been reset before the phase.
+ * <p>
+ * The initial node defaults to the {@link CorpusNode}, which builds a
+ * token tree of each input. An annotated build of the example languages
+ * can be used with the initial node and class path options instead.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * MacroBenchmark --corpus dir [--corpus dir]* [--extensions .siple,.ocl]
+ *                [--scale 10] [--initial class] [--classpath a;b]
+ *                [--workers 1] [--batch true] [--streaming false]
+ *                [--output results.csv]
+ * </pre>
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class MacroBenchmark {
+
+	private static final String CONFIG_NAME = "benchmark";
+
+	/**
+	 * The measurement of a single phase.
+	 */
+	public static final class Phase {
+
+		private final String name;
+		private final int cases;
+		private final long nanos;
+		private final long peakHeap;
+
+		Phase(String name, int cases, long nanos, long peakHeap) {
+			this.name = name;
+			this.cases = cases;
+			this.nanos = nanos;
+			this.peakHeap = peakHeap;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the throughput in test cases per second
+		 */
+		public double getThroughput() {
+			return cases / (nanos / 1e9);
+		}
+
+		/**
+		 * @return the peak heap in bytes
+		 */
+		public long getPeakHeap() {
+			return peakHeap;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "%-10s %8d %12.1f %14.1f %14.1f",
+					name, cases, nanos / 1e6, getThroughput(), peakHeap / (1024.0 * 1024.0));
+		}
+
+		String toCSV() {
+			return String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%d",
+					name, cases, nanos / 1e6, getThroughput(), peakHeap);
+		}
+	}
+
+	/**
+	 * An action of a phase.
+	 */
+	private interface Action {
+		void execute() throws Exception;
+	}
+
+	private final List<File> corpora = new ArrayList<>();
+	private List<String> extensions = Arrays.asList(".siple", ".ocl");
+	private int scale = 10;
+	private String initialNode = CorpusNode.class.getName();
+	private List<String> classpath = Collections.emptyList();
+	private int workers = 1;
+	private boolean batch = true;
+	private boolean streaming = false;
+	private File output = null;
+
+	private Manager manager;
+
+	public void addCorpus(File corpus) {
+		corpora.add(corpus);
+	}
+
+	public void setExtensions(List<String> extensions) {
+		this.extensions = extensions;
+	}
+
+	/**
+	 * @param scale the number of test cases created of each corpus file
+	 */
+	public void setScale(int scale) {
+		if (scale < 1) {
+			throw new IllegalArgumentException("The scale must be at least 1.");
+		}
+
+		this.scale = scale;
+	}
+
+	public void setInitialNode(String initialNode, List<String> classpath) {
+		this.initialNode = initialNode;
+		this.classpath = classpath;
+	}
+
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+
+	public void setBatch(boolean batch) {
+		this.batch = batch;
+	}
+
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	public void setOutput(File output) {
+		this.output = output;
+	}
+
+	/**
+	 * Executes all phases within a temporary directory.
+	 *
+	 * @return the measured phases
+	 * @throws Exception thrown, if a phase failed
+	 */
+	public List<Phase> run() throws Exception {
+		Path workFolder = Files.createTempDirectory("rtt-macro");
+		try {
+			return run(workFolder);
+		} finally {
+			if (manager != null) {
+				manager.close();
+			}
+
+			Benchmark.deleteDirectory(workFolder);
+		}
+	}
+
+	private List<Phase> run(Path workFolder) throws Exception {
+		final Map<String, List<File>> suites = replicateCorpora(workFolder.resolve("inputs"));
+
+		int count = 0;
+		for (List<File> files : suites.values()) {
+			count += files.size();
+		}
+
+		if (count == 0) {
+			throw new IllegalStateException("The corpora contain no input files.");
+		}
+
+		System.out.println("Test cases: " + count + " in " + suites.size() + " test suites");
+
+		final File archive = workFolder.resolve("archive.zip").toFile();
+		final File log = workFolder.resolve("log.xml").toFile();
+
+		List<Phase> phases = new ArrayList<>();
+		phases.add(measure("create", count, new Action() {
+			@Override
+			public void execute() throws Exception {
+				manager = new Manager(archive, false, batch);
+				manager.setWorkerCount(workers);
+				manager.setStreamingOutput(streaming);
+				manager.createArchive(archive);
+				manager.setConfiguration(CONFIG_NAME, initialNode,
+						new ArrayList<>(classpath), true, true);
+			}
+		}));
+
+		phases.add(measure("add", count, new Action() {
+			@Override
+			public void execute() throws Exception {
+				for (Map.Entry<String, List<File>> suite : suites.entrySet()) {
+					manager.addAllFiles(suite.getValue(), suite.getKey(), TestCaseMode.OVERWRITE);
+				}
+			}
+		}));
+
+		phases.add(measure("generate", count, new Action() {
+			@Override
+			public void execute() throws Exception {
+				for (String suiteName : suites.keySet()) {
+					check(manager.generateTests(suiteName));
+				}
+			}
+		}));
+
+		phases.add(measure("run", count, new Action() {
+			@Override
+			public void execute() throws Exception {
+				for (String suiteName : suites.keySet()) {
+					check(manager.runTests(suiteName, false));
+				}
+			}
+		}));
+
+		phases.add(measure("export", count, new Action() {
+			@Override
+			public void execute() throws Exception {
+				manager.exportLog(log);
+			}
+		}));
+
+		phases.add(measure("save", count, new Action() {
+			@Override
+			public void execute() throws Exception {
+				manager.saveArchive(archive);
+				manager.close();
+				manager = null;
+			}
+		}));
+
+		System.out.println(String.format(Locale.ROOT, "%-10s %8s %12s %14s %14s",
+				"Phase", "Cases", "Time [ms]", "Cases/s", "Peak heap [MB]"));
+
+		for (Phase phase : phases) {
+			System.out.println(phase);
+		}
+
+		System.out.println("Archive size: " + archive.length() + " bytes");
+
+		if (output != null) {
+			writeResults(phases);
+		}
+
+		return phases;
+	}
+
+	private Map<String, List<File>> replicateCorpora(Path inputFolder) throws IOException {
+		Map<String, List<File>> suites = new LinkedHashMap<>();
+
+		for (File corpus : corpora) {
+			final Path corpusPath = corpus.toPath();
+			final List<Path> sources = new ArrayList<>();
+
+			Files.walkFileTree(corpusPath, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					for (String extension : extensions) {
+						if (file.getFileName().toString().endsWith(extension)) {
+							sources.add(file);
+						}
+					}
+
+					return FileVisitResult.CONTINUE;
+				}
+			});
+
+			// the order of the file system must not change the test cases
+			Collections.sort(sources);
+
+			String suiteName = corpus.getName();
+			Path suiteFolder = inputFolder.resolve(suiteName);
+			Files.createDirectories(suiteFolder);
+
+			List<File> files = new ArrayList<>();
+			for (Path source : sources) {
+				String name = corpusPath.relativize(source).toString().replaceAll("[\\\\/]", "_");
+				int dot = name.lastIndexOf('.');
+
+				for (int copy = 1; copy <= scale; copy++) {
+					Path target = suiteFolder.resolve(name.substring(0, dot)
+							+ "-" + copy + name.substring(dot));
+
+					Files.copy(source, target);
+					files.add(target.toFile());
+				}
+			}
+
+			suites.put(suiteName, files);
+		}
+
+		return suites;
+	}
+
+	private static void check(GenerationInformation infos) {
+		if (infos.hasErrors()) {
+			System.out.println("Warning: " + infos.getResults(false).size()
+					+ " test cases could not be executed");
+		}
+	}
+
+	private static Phase measure(String name, int cases, Action action) throws Exception {
+		System.gc();
+
+		List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				pool.resetPeakUsage();
+				heapPools.add(pool);
+			}
+		}
+
+		long start = System.nanoTime();
+		action.execute();
+		long nanos = System.nanoTime() - start;
+
+		long peakHeap = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			peakHeap += pool.getPeakUsage().getUsed();
+		}
+
+		return new Phase(name, cases, nanos, peakHeap);
+	}
+
+	private void writeResults(List<Phase> phases) throws IOException {
+		try (PrintWriter writer = new PrintWriter(new FileWriter(output))) {
+			writer.println("phase,cases,time_ms,cases_per_s,peak_heap_bytes");
+			for (Phase phase : phases) {
+				writer.println(phase.toCSV());
+			}
+		}
+	}
+
+	private static List<String> split(String value, String separator) {
+		List<String> values = new ArrayList<>();
+		for (String part : value.split(separator)) {
+			if (!part.trim().isEmpty()) {
+				values.add(part.trim());
+			}
+		}
+
+		return values;
+	}
+
+	public static void main(String[] args) throws Exception {
+		MacroBenchmark benchmark = new MacroBenchmark();
+		String initialNode = null;
+		List<String> classpath = Collections.emptyList();
+
+		for (int index = 0; index + 1 < args.length; index += 2) {
+			String value = args[index + 1];
+			switch (args[index]) {
+			case "--corpus":
+				for (String corpus : split(value, ";")) {
+					benchmark.addCorpus(new File(corpus));
+				}
+				break;
+			case "--extensions":
+				benchmark.setExtensions(split(value, ","));
+				break;
+			case "--scale":
+				benchmark.setScale(Integer.parseInt(value));
+				break;
+			case "--initial":
+				initialNode = value.isEmpty() ? null : value;
+				break;
+			case "--classpath":
+				classpath = split(value, ";");
+				break;
+			case "--workers":
+				benchmark.setWorkers(Integer.parseInt(value));
+				break;
+			case "--batch":
+				benchmark.setBatch(Boolean.parseBoolean(value));
+				break;
+			case "--streaming":
+				benchmark.setStreaming(Boolean.parseBoolean(value));
+				break;
+			case "--output":
+				benchmark.setOutput(value.isEmpty() ? null : new File(value));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[index]);
+			}
+		}
+
+		if (initialNode != null) {
+			benchmark.setInitialNode(initialNode, classpath);
+		}
+
+		benchmark.run();
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import rtt.core.archive.output.Output;
+import rtt.core.manager.data.JAXBRegistry;
+
+/**
+ * Marshals or unmarshals the output data of a balanced
+ * {@link SyntheticGraph} in memory, using the shared JAXB marshallers
+ * like {@link rtt.core.manager.data.AbstractDataManager}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class MarshalBenchmark extends Benchmark {
+
+	private final boolean unmarshal;
+
+	private Output output;
+	private byte[] data;
+
+	/**
+	 * @param unmarshal {@code true}, if the output should be unmarshalled,
+	 * 		otherwise it will be marshalled
+	 */
+	public MarshalBenchmark(boolean unmarshal) {
+		super(unmarshal ? "jaxb.unmarshal" : "jaxb.marshal", "nodes");
+		this.unmarshal = unmarshal;
+	}
+
+	@Override
+	public void setUp(int size) throws Exception {
+		output = SyntheticGraph.createOutput("balanced", size, false);
+		data = marshal().toByteArray();
+	}
+
+	@Override
+	public Object run() throws Exception {
+		if (unmarshal) {
+			Unmarshaller unmarshaller = JAXBRegistry.getUnmarshaller(Output.class);
+			return unmarshaller.unmarshal(new StreamSource(
+					new ByteArrayInputStream(data)), Output.class).getValue();
+		}
+
+		return marshal();
+	}
+
+	private ByteArrayOutputStream marshal() throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream(
+				data != null ? data.length : 8192);
+
+		Marshaller marshaller = JAXBRegistry.getMarshaller(Output.class);
+		marshaller.marshal(output, new StreamResult(stream));
+
+		return stream;
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		output = null;
+		data = null;
+	}
+}
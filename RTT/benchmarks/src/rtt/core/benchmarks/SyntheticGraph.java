@@ -0,0 +1,133 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import rtt.annotations.Node;
+import rtt.core.archive.input.Input;
+import rtt.core.archive.output.Output;
+import rtt.core.testing.generation.DataGenerator;
+import rtt.core.testing.generation.Executor;
+
+/**
+ * An initial node, which builds a synthetic graph of {@link Branch} nodes.
+ * The input consists of the shape, the number of branches and an optional
+ * flag, which changes the value of the last branch:
+ *
+ * <pre>
+ * input := ("deep" | "wide" | "balanced") size ["changed"]
+ * </pre>
+ *
+ * A deep graph is a chain of branches, a wide graph has all branches as
+ * children of the root and a balanced graph is a tree with a fan-out of
+ * {@link #FAN_OUT}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+@Node
+public final class SyntheticGraph {
+
+	public static final int FAN_OUT = 4;
+
+	@Node
+	public static final class Branch {
+
+		@Node.Value
+		public String value;
+
+		private final List<Branch> children = new ArrayList<>();
+
+		public Branch(String value) {
+			this.value = value;
+		}
+
+		@Node.Value
+		public List<Branch> children() {
+			return children;
+		}
+	}
+
+	private final Branch root;
+
+	@Node.Initialize
+	public SyntheticGraph(InputStream is) throws IOException {
+		String[] arguments = new BufferedReader(new InputStreamReader(is)).readLine().split(" ");
+
+		String shape = arguments[0];
+		int size = Integer.parseInt(arguments[1]);
+		boolean changed = arguments.length > 2 && arguments[2].equals("changed");
+
+		List<Branch> branches = new ArrayList<>(size);
+		for (int index = 0; index < size; index++) {
+			branches.add(new Branch("branch " + index));
+		}
+
+		if (changed) {
+			branches.get(size - 1).value = "changed";
+		}
+
+		for (int index = 1; index < size; index++) {
+			int parent;
+			switch (shape) {
+			case "deep":
+				parent = index - 1;
+				break;
+			case "wide":
+				parent = 0;
+				break;
+			case "balanced":
+				parent = (index - 1) / FAN_OUT;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown shape: " + shape);
+			}
+
+			branches.get(parent).children.add(branches.get(index));
+		}
+
+		root = branches.get(0);
+	}
+
+	@Node.Value
+	public Branch root() {
+		return root;
+	}
+
+	/**
+	 * @return the input for a graph of the given shape and size
+	 */
+	public static Input createInput(String shape, int size, boolean changed) {
+		Input input = new Input();
+		input.setValue(shape + " " + size + (changed ? " changed" : ""));
+
+		return input;
+	}
+
+	/**
+	 * Generates the output data of a graph of the given shape and size.
+	 */
+	public static Output createOutput(String shape, int size, boolean changed) throws Exception {
+		try {
+			return DataGenerator.generateOutput(createInput(shape, size, changed),
+					Collections.<String>emptyList(), new Executor(SyntheticGraph.class));
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new Exception(t);
+		}
+	}
+}
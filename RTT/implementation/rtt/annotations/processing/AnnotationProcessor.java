@@ -1,9 +1,9 @@
 package rtt.annotations.processing;
 
 import java.lang.annotation.Annotation;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import rtt.annotations.Node;
 
@@ -13,10 +13,10 @@ public class AnnotationProcessor {
 			new AnnotationProcessor();
 	
 	private static final Class<? extends Annotation> NODE_ANNOTATION = Node.class;
-	private Map<Class<?>, ClassElement> vistedClasses;
+	private ConcurrentMap<Class<?>, ClassElement> vistedClasses;
 	
 	public AnnotationProcessor() {
-		vistedClasses = new HashMap<>();
+		vistedClasses = new ConcurrentHashMap<>();
 	}
 	
 	public static boolean isNode(Object object) {
@@ -58,11 +58,18 @@ public class AnnotationProcessor {
 			throw new IllegalArgumentException("Object type must not be null.");
 		}
 		
-		if (!vistedClasses.containsKey(objectType)) {
-			vistedClasses.put(objectType, createClassElement(objectType));
+		ClassElement element = vistedClasses.get(objectType);
+		if (element == null) {
+			// concurrent workers may create the same element twice,
+			// but all of them will use the first registered one.
+			ClassElement newElement = createClassElement(objectType);
+			element = vistedClasses.putIfAbsent(objectType, newElement);
+			if (element == null) {
+				element = newElement;
+			}
 		}
 		
-		return vistedClasses.get(objectType);
+		return element;
 	}
 
 	private ClassElement createClassElement(Class<?> objectType) {
@@ -1,9 +1,15 @@
 package rtt.annotations.processing;
 
 import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.List;
 
@@ -13,33 +19,59 @@ public abstract class InitMember<T extends Member>
 	implements Comparable<InitMember<?>> {
 	
 	private static final Class<Initialize> INIT_ANNOTATION = Initialize.class;
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	
+	private static final MethodType INPUT_TYPE = 
+			MethodType.methodType(Object.class, InputStream.class);
+	private static final MethodType INPUT_PARAMS_TYPE = 
+			MethodType.methodType(Object.class, InputStream.class, String[].class);
 
 	protected static class InitialConstructor extends InitMember<Constructor<?>> {
 
 		private Constructor<?> constructor;
+		private volatile MethodHandle constructorHandle = null;
 		
 		public InitialConstructor(Constructor<?> constructor, Initialize initAnnotation) {
 			super(constructor, constructor.getParameterTypes(), initAnnotation);
 			this.constructor = constructor;
 		}
+		
+		private MethodHandle getConstructorHandle() {
+			if (constructorHandle == null) {
+				constructor.setAccessible(true);
+				try {
+					constructorHandle = LOOKUP.unreflectConstructor(constructor)
+							.asType(getInvocationType());
+				} catch (IllegalAccessException | WrongMethodTypeException constructorException) {
+					throw new RuntimeException("Could not access initializing constructor.", 
+							constructorException);
+				}
+			}
+			
+			return constructorHandle;
+		}
 
 		@Override
 		public Object getResult(InputStream input, List<String> params) throws ReflectiveOperationException {
 			
-			constructor.setAccessible(true);
+			if (Modifier.isAbstract(
+					constructor.getDeclaringClass().getModifiers())) {
+				throw new RuntimeException("Could not access initializing constructor.", 
+						new InstantiationException(constructor.getDeclaringClass().getName()));
+			}
+			
+			MethodHandle handle = getConstructorHandle();
 			try {
 				if (isWithParams()) {
 					String[] paramArray = params.toArray(new String[params.size()]);
 					
-					return constructor.newInstance(input, paramArray);
+					return (Object) handle.invokeExact(input, paramArray);
 				} else {
-					return constructor.newInstance(input);
+					return (Object) handle.invokeExact(input);
 				}
-			} catch (IllegalAccessException | IllegalArgumentException 
-					| InstantiationException constructorException) {
-				
-				throw new RuntimeException("Could not access initializing constructor.", 
-						constructorException);			
+			} catch (Throwable throwable) {
+				// same behavior as Constructor.newInstance(Object...)
+				throw new InvocationTargetException(throwable);
 			}
 		}
 	}
@@ -47,37 +79,79 @@ public abstract class InitMember<T extends Member>
 	protected static class InitialMethod extends InitMember<Method> {
 
 		private Method method;
+		private volatile MethodHandle methodHandle = null;
+		private volatile MethodHandle constructorHandle = null;
 
 		public InitialMethod(Method method, Initialize initAnnotation) {
 			super(method, method.getParameterTypes(), initAnnotation);
 			this.method = method;
 		}
+		
+		private MethodHandle getMethodHandle() {
+			if (methodHandle == null) {
+				method.setAccessible(true);
+				try {
+					MethodType invocationType = getInvocationType()
+							.insertParameterTypes(0, Object.class);
+					
+					methodHandle = LOOKUP.unreflect(method).asType(
+							invocationType.changeReturnType(void.class));
+				} catch (IllegalAccessException | WrongMethodTypeException methodException) {
+					throw new RuntimeException("Could not access initializing method.", methodException);
+				}
+			}
+			
+			return methodHandle;
+		}
+		
+		private MethodHandle getConstructorHandle() {
+			if (constructorHandle == null) {
+				Class<?> declaringClass = method.getDeclaringClass();
+				try {
+					if (Modifier.isAbstract(declaringClass.getModifiers())) {
+						throw new InstantiationException(declaringClass.getName());
+					}
+					
+					Constructor<?> constructor = declaringClass.getDeclaredConstructor();
+					constructor.setAccessible(true);
+					
+					constructorHandle = LOOKUP.unreflectConstructor(constructor)
+							.asType(MethodType.methodType(Object.class));
+				} catch (IllegalAccessException | NoSuchMethodException 
+						| InstantiationException constructorException) {
+					throw new RuntimeException("Could not get parameter-less constructor.", constructorException);
+				}
+			}
+			
+			return constructorHandle;
+		}
 
 		@Override
 		public Object getResult(InputStream input, List<String> params) throws ReflectiveOperationException {
 
-			method.setAccessible(true);
-			Class<?> declaringClass = method.getDeclaringClass();
+			MethodHandle constructor = getConstructorHandle();
+			MethodHandle initMethod = getMethodHandle();
+			
+			Object initialObject = null;
+			try {
+				initialObject = (Object) constructor.invokeExact();
+			} catch (Throwable throwable) {
+				throw new InvocationTargetException(throwable);
+			}
 			
 			try {
-				Constructor<?> constructor = declaringClass.getDeclaredConstructor();			
-				constructor.setAccessible(true);
-				
-				Object initialObject = constructor.newInstance();
 				if (isWithParams()) {
 					String[] paramArray = params.toArray(new String[params.size()]);
-					method.invoke(initialObject, input, paramArray);
+					initMethod.invokeExact(initialObject, input, paramArray);
 				} else {
-					method.invoke(initialObject, input);
+					initMethod.invokeExact(initialObject, input);
 				}
-				
-				return initialObject;
-				
-			} catch (IllegalAccessException | IllegalArgumentException methodException) {
-				throw new RuntimeException("Could not access initializing method.", methodException);
-			} catch (NoSuchMethodException | InstantiationException constructorException) {
-				throw new RuntimeException("Could not get parameter-less constructor.", constructorException);
+			} catch (Throwable throwable) {
+				// same behavior as Method.invoke(Object, Object...)
+				throw new InvocationTargetException(throwable);
 			}
+			
+			return initialObject;
 		}
 	}	
 	
@@ -117,6 +191,14 @@ public abstract class InitMember<T extends Member>
 		return initAnnotation.withParams();
 	}
 	
+	/**
+	 * Returns the type, which is used to invoke this member: 
+	 * {@code (InputStream)Object} or {@code (InputStream, String[])Object}.
+	 */
+	protected MethodType getInvocationType() {
+		return isWithParams() ? INPUT_PARAMS_TYPE : INPUT_TYPE;
+	}
+	
 	public abstract Object getResult(InputStream input, List<String> params) throws ReflectiveOperationException;
 	
 	public static final InitMember<Constructor<?>> create(Constructor<?> constructor) {
@@ -1,8 +1,13 @@
 package rtt.annotations.processing;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 
 import rtt.annotations.Node.Value;
 import rtt.core.archive.output.GeneratorType;
@@ -12,20 +17,27 @@ public abstract class ValueMember<T extends Member>
 	
 	private static final class ValueField extends ValueMember<Field> {
 		private final Field field;
+		private final MethodHandle getter;
 
 		private ValueField(Field field) {
 			super(field, GeneratorType.FIELD, 
 					field.getAnnotation(VALUE_ANNOTATION));
 			
 			this.field = field;
+			
+			field.setAccessible(true);
+			try {
+				getter = bindAccessor(LOOKUP.unreflectGetter(field), field);
+			} catch (IllegalAccessException exception) {
+				throw new RuntimeException("Could not access value field.", exception);
+			}
 		}
 
 		@Override
 		public Object getResult(Object object)
 				throws ReflectiveOperationException {
 			
-			field.setAccessible(true);
-			return field.get(object);
+			return invoke(getter, object);
 		}
 		
 		@Override
@@ -36,20 +48,27 @@ public abstract class ValueMember<T extends Member>
 
 	private static final class ValueMethod extends ValueMember<Method> {
 		private final Method method;
+		private final MethodHandle invoker;
 
 		private ValueMethod(Method method) {
 			super(method, GeneratorType.METHOD,
 					method.getAnnotation(VALUE_ANNOTATION));
 			
 			this.method = method;
+			
+			method.setAccessible(true);
+			try {
+				invoker = bindAccessor(LOOKUP.unreflect(method), method);
+			} catch (IllegalAccessException exception) {
+				throw new RuntimeException("Could not access value method.", exception);
+			}
 		}
 
 		@Override
 		public Object getResult(Object object)
 				throws ReflectiveOperationException {
 			
-			method.setAccessible(true);
-			return method.invoke(object);
+			return invoke(invoker, object);
 		}
 		
 		@Override
@@ -59,6 +78,10 @@ public abstract class ValueMember<T extends Member>
 	}
 
 	private static final Class<Value> VALUE_ANNOTATION = Value.class;
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType ACCESSOR_TYPE = 
+			MethodType.methodType(Object.class, Object.class);
+	
 	private Value valueAnnotation;
 	private T member;
 	
@@ -85,6 +108,49 @@ public abstract class ValueMember<T extends Member>
 		}
 	}
 	
+	/**
+	 * Adapts the given handle to the type {@code (Object)Object}, so it can
+	 * be invoked for any object without further checks. Static members will
+	 * ignore the given object.
+	 */
+	private static MethodHandle bindAccessor(MethodHandle handle, Member member) {
+		if (Modifier.isStatic(member.getModifiers())) {
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		
+		return handle.asType(ACCESSOR_TYPE);
+	}
+	
+	/**
+	 * Invokes the given accessor with the same behavior as 
+	 * {@link Method#invoke(Object, Object...)}: a missing or wrong object 
+	 * causes a {@link NullPointerException} or an 
+	 * {@link IllegalArgumentException}, everything thrown by the member 
+	 * itself is wrapped into an {@link InvocationTargetException}. Fields 
+	 * and methods are handled the same way.
+	 */
+	protected final Object invoke(MethodHandle accessor, Object object) 
+			throws InvocationTargetException {
+		
+		if (!Modifier.isStatic(member.getModifiers())) {
+			if (object == null) {
+				throw new NullPointerException("Can't get value of " 
+						+ signature + " without an object.");
+			}
+			
+			if (!member.getDeclaringClass().isInstance(object)) {
+				throw new IllegalArgumentException("Object is not an instance of " 
+						+ member.getDeclaringClass().getName() + ".");
+			}
+		}
+		
+		try {
+			return (Object) accessor.invokeExact(object);
+		} catch (Throwable throwable) {
+			throw new InvocationTargetException(throwable);
+		}
+	}
+	
 	public abstract Object getResult(Object object) 
 			throws ReflectiveOperationException;
 	
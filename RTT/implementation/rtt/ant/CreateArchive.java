@@ -13,13 +13,16 @@ import java.io.File;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
 
+import rtt.core.archive.history.OutputFormat;
 import rtt.core.manager.Manager;
 import rtt.core.utils.RTTLogging;
 
 /**
  * 
  * This class represents the Ant-task for building a new Archive. <br>
- * An empty archive will be initialized. A default configuration can be set.<br>
+ * An empty archive will be initialized. A default configuration, the<br>
+ * format of output data (xml or binary) and the maximum length of delta<br>
+ * chains of output data versions can be set.<br>
  * According taskdefs are needed<br>
  * <br>
  * Example:<br>
@@ -29,7 +32,9 @@ import rtt.core.utils.RTTLogging;
  *	&lt;createArchive
  *			archive="$path-to-resulting-archive"
  *			overwrite="false"
- *			defaultConfiguration="defConfig"&gt;
+ *			defaultConfiguration="defConfig"
+ *			outputFormat="binary"
+ *			deltaChainLength="8"&gt;
  *		&lt;/createArchive&gt;
  * &lt;/target&gt;
  *</pre>
@@ -44,6 +49,8 @@ public class CreateArchive extends Task {
 	private String dconfig = null;
 	private boolean owrite = false;
 	private String log = null;
+	private String outputFormat = null;
+	private Integer deltaChainLength = null;
 	
 	public String getArchive() {return archive;}
 	public void setArchive(String archive) {this.archive = archive;}
@@ -52,6 +59,10 @@ public class CreateArchive extends Task {
 	public String getDefaultConfiguration() {return dconfig;}
 	public void setDefaultConfiguration(String c) {this.dconfig = c;}
 	public void setLog(String log) {this.log = log;}
+	public String getOutputFormat() {return outputFormat;}
+	public void setOutputFormat(String outputFormat) {this.outputFormat = outputFormat;}
+	public Integer getDeltaChainLength() {return deltaChainLength;}
+	public void setDeltaChainLength(Integer length) {this.deltaChainLength = length;}
 	
 	public void execute() throws BuildException {
 		Manager manager = null;
@@ -75,6 +86,14 @@ public class CreateArchive extends Task {
 			// Make appropriate log entry if it changed!
 			manager.setDefaultConfiguration(dconfig);
 			
+			if (outputFormat != null) {
+				manager.setOutputFormat(OutputFormat.fromValue(outputFormat.toUpperCase()));
+			}
+			
+			if (deltaChainLength != null) {
+				manager.setDeltaChainLength(deltaChainLength);
+			}
+			
 			
 			RTTLogging.info("Save archive to: "+ archive);
 			manager.saveArchive(new File(archive));
@@ -10,10 +10,13 @@ package rtt.ant;
 
 import java.io.File;
 
+import org.apache.tools.ant.AntClassLoader;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Task;
 
 import rtt.core.manager.Manager;
+import rtt.core.testing.generation.CostMeter;
+import rtt.core.testing.generation.worker.WorkerPool;
 import rtt.core.utils.GenerationInformation;
 import rtt.core.utils.RTTLogging;
 
@@ -29,7 +32,17 @@ import rtt.core.utils.RTTLogging;
  * &lt;test
  *		archive="path-to-archive"
  *		configuration="c1"
- *		matching="false"/&gt;
+ *		matching="false"
+ *		workers="4"
+ *		batch="true"
+ *		streaming="true"
+ *		fullDiff="true"
+ *		cache="true"
+ *		impacted="true"
+ *		isolated="true"
+ *		measure="10"
+ *		warmup="3"
+ *		performance="true"/&gt;
  * </pre>
  * 
  * 
@@ -43,6 +56,16 @@ public class RunTest extends Task {
 	private String testsuite = null;
 	private boolean matching = false;
 	private String log = null;
+	private int workers = 1;
+	private boolean batch = false;
+	private boolean streaming = false;
+	private boolean fullDiff = false;
+	private boolean cache = false;
+	private boolean impacted = false;
+	private boolean isolated = false;
+	private int measure = 0;
+	private int warmup = CostMeter.DEFAULT_WARMUP;
+	private boolean performance = false;
 
 	public String getTestSuite() {return testsuite;}
 	public void setLog(String log) {this.log = log;}
@@ -53,6 +76,26 @@ public class RunTest extends Task {
 	public void setArchive(String archive) {this.archive = archive;}
 	public String getConfiguration() {return config;}
 	public void setConfiguration(String config) {this.config = config;}
+	public int getWorkers() {return workers;}
+	public void setWorkers(int workers) {this.workers = workers;}
+	public boolean isBatch() {return batch;}
+	public void setBatch(boolean batch) {this.batch = batch;}
+	public boolean isStreaming() {return streaming;}
+	public void setStreaming(boolean streaming) {this.streaming = streaming;}
+	public boolean isFullDiff() {return fullDiff;}
+	public void setFullDiff(boolean fullDiff) {this.fullDiff = fullDiff;}
+	public boolean isCache() {return cache;}
+	public void setCache(boolean cache) {this.cache = cache;}
+	public boolean isImpacted() {return impacted;}
+	public void setImpacted(boolean impacted) {this.impacted = impacted;}
+	public boolean isIsolated() {return isolated;}
+	public void setIsolated(boolean isolated) {this.isolated = isolated;}
+	public int getMeasure() {return measure;}
+	public void setMeasure(int measure) {this.measure = measure;}
+	public int getWarmup() {return warmup;}
+	public void setWarmup(int warmup) {this.warmup = warmup;}
+	public boolean isPerformance() {return performance;}
+	public void setPerformance(boolean performance) {this.performance = performance;}
 	
 	public void execute() throws BuildException {
 		if (archive == null || archive.length() == 0)
@@ -64,7 +107,21 @@ public class RunTest extends Task {
 		Manager m = null;
 		
 		try {
-			m = new Manager(archiveFile, true);
+			m = new Manager(archiveFile, true, batch);
+			m.setWorkerCount(workers);
+			m.setStreamingOutput(streaming);
+			m.setFullDiff(fullDiff);
+			m.setResultCache(cache);
+			m.setImpactSelection(impacted);
+			m.setIsolatedExecution(isolated);
+			if (isolated && getClass().getClassLoader() instanceof AntClassLoader) {
+				// the class path of the Ant process contains only its launcher
+				AntClassLoader loader = (AntClassLoader) getClass().getClassLoader();
+				m.getWorkerPool().setClasspath(loader.getClasspath() 
+						+ File.pathSeparator + WorkerPool.getDefaultClasspath());
+			}
+			m.setCostMeasurement(warmup, measure);
+			m.setPerformanceCheck(performance);
 			
 			if (config != null && config.length() > 0)
 				m.loadArchive(archiveFile, config);
@@ -85,6 +142,11 @@ public class RunTest extends Task {
 					e.printStackTrace();
 				}
 			}
+			
+			if (m != null) {
+				// stops the worker processes and closes the class loaders
+				m.close();
+			}
 		}
 		if (!noErrors) {
 			throw new BuildException(
@@ -30,7 +30,9 @@ import rtt.core.utils.RTTLogging;
  * 	archive="path-to-archive"&gt;
  * 	&lt;configuration
  * 		name="configuration-name"
- * 		initial="initial-node-class"&gt;
+ * 		initial="initial-node-class"
+ * 		caseTimeout="milliseconds"
+ * 		suiteTimeout="milliseconds"&gt;
  * 		&lt;classpathElement path="classpath-directory"/&gt;
  * 	&lt;/configuration&gt;
  * &lt;/updateConfigurations&gt;
@@ -46,6 +48,8 @@ public class UpdateConfiguration extends Task {
 		private String name = null;
 		private String initialNode = null;
 		private boolean owrite = false;
+		private Long caseTimeout = null;
+		private Long suiteTimeout = null;
 		private List<ClassPathElement> cpes =
 			new LinkedList<ClassPathElement>();
 		
@@ -57,6 +61,10 @@ public class UpdateConfiguration extends Task {
 		public void setName(String name) {this.name = name;}
 		public String getInitial() {return initialNode;}
 		public void setInitial(String initialNode) {this.initialNode = initialNode;}
+		public Long getCaseTimeout() {return caseTimeout;}
+		public void setCaseTimeout(Long caseTimeout) {this.caseTimeout = caseTimeout;}
+		public Long getSuiteTimeout() {return suiteTimeout;}
+		public void setSuiteTimeout(Long suiteTimeout) {this.suiteTimeout = suiteTimeout;}
 		public List<ClassPathElement> getClassPathElements() {return cpes;}
 		public void addClassPathElement(ClassPathElement cpe) {
 			this.cpes.add(cpe);
@@ -99,6 +107,12 @@ public class UpdateConfiguration extends Task {
 						cpEntries,
 						false,
 						c.isOverwrite()) ;
+				
+				if (c.getCaseTimeout() != null || c.getSuiteTimeout() != null) {
+					m.setTimeouts(c.getName(), 
+							c.getCaseTimeout() != null ? c.getCaseTimeout() : 0,
+							c.getSuiteTimeout() != null ? c.getSuiteTimeout() : 0);
+				}
 			}
 			
 			RTTLogging.info("Save archive to: "+ archive);
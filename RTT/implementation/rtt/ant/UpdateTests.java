@@ -27,6 +27,9 @@ import rtt.core.utils.RTTLogging;
  * &lt;updateTests
  * 	archive="path-to-archive"
  * 	configuration="configuration-name"
+ * 	workers="4"
+ * 	batch="true"
+ * 	streaming="true"
  * /&gt;
  * </pre>
  * 
@@ -38,6 +41,9 @@ public class UpdateTests extends Task {
 	private String config = null;
 	private String testsuite;
 	private String log = null;
+	private int workers = 1;
+	private boolean batch = false;
+	private boolean streaming = false;
 	
 	public String getTestSuite() {return testsuite;}
 	public void setTestSuite(String testSuite) {this.testsuite = testSuite;}
@@ -46,6 +52,12 @@ public class UpdateTests extends Task {
 	public String getConfiguration() {return config;}
 	public void setConfiguration(String config) {this.config = config;}
 	public void setLog(String log) {this.log = log;}
+	public int getWorkers() {return workers;}
+	public void setWorkers(int workers) {this.workers = workers;}
+	public boolean isBatch() {return batch;}
+	public void setBatch(boolean batch) {this.batch = batch;}
+	public boolean isStreaming() {return streaming;}
+	public void setStreaming(boolean streaming) {this.streaming = streaming;}
 
 	public void execute() throws BuildException {
 		if (archive == null || archive.length() == 0)
@@ -56,7 +68,9 @@ public class UpdateTests extends Task {
 		File archiveFile = new File(archive);
 		
 		try {
-			m = new Manager(archiveFile, true);
+			m = new Manager(archiveFile, true, batch);
+			m.setWorkerCount(workers);
+			m.setStreamingOutput(streaming);
 			if (config != null && config.length() > 0)
 				m.loadArchive(archiveFile, config);
 			else
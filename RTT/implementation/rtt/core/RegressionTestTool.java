@@ -17,6 +17,7 @@ import rtt.core.cli.CommandLineValidator;
 import rtt.core.cli.CommandlineOptions;
 import rtt.core.manager.Manager;
 import rtt.core.manager.Manager.TestCaseMode;
+import rtt.core.testing.generation.CostMeter;
 import uk.co.flamingpenguin.jewel.cli.Cli;
 import uk.co.flamingpenguin.jewel.cli.CliFactory;
 
@@ -53,7 +54,24 @@ public class RegressionTestTool {
 		}
 
 		File archive = options.getArchive();
-		Manager m = new Manager(archive, true);
+		Manager m = new Manager(archive, true, options.isBatch());
+		
+		if (options.isWorkers()) {
+			m.setWorkerCount(options.getWorkers());
+		}
+		
+		m.setStreamingOutput(options.isStreaming());
+		m.setFullDiff(options.isFullDiff());
+		m.setResultCache(options.isCache());
+		m.setImpactSelection(options.isImpacted());
+		m.setIsolatedExecution(options.isIsolated());
+		
+		if (options.isMeasure()) {
+			int warmup = options.isWarmup() ? options.getWarmup() : CostMeter.DEFAULT_WARMUP;
+			m.setCostMeasurement(warmup, options.getMeasure());
+		}
+		
+		m.setPerformanceCheck(options.isPerformance());
 
 		if (options.getArchive().exists() && !options.isOverwrite()) {
 			if (options.isConfiguration()) {
@@ -102,6 +120,8 @@ public class RegressionTestTool {
 		if (options.isOutput()) {
 			m.saveArchive(options.getOutput());
 		}
+		
+		m.close();
 
 	}
 }
@@ -1,9 +1,13 @@
 package rtt.core.archive;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.List;
 
 import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.coverage.TestcaseCoverage;
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.input.Input;
 import rtt.core.archive.testsuite.Testcase;
 import rtt.core.archive.testsuite.Testsuite;
 import rtt.core.archive.testsuite.VersionData;
@@ -13,9 +17,13 @@ import rtt.core.loader.ArchiveLoader;
 import rtt.core.manager.Manager.TestCaseMode;
 import rtt.core.manager.data.ConfigurationManager;
 import rtt.core.manager.data.ConfigurationManager.ConfigStatus;
+import rtt.core.manager.data.CoverageManager;
 import rtt.core.manager.data.LogManager;
+import rtt.core.manager.data.ManifestManager;
 import rtt.core.manager.data.TestsuiteManager;
 import rtt.core.manager.data.TestsuiteManager.TestcaseStatus;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Phase;
 
 /**
  * The {@code Archive} contains all relevant data of a physically archive from
@@ -26,6 +34,7 @@ import rtt.core.manager.data.TestsuiteManager.TestcaseStatus;
  * @see ConfigurationManager
  * @see TestsuiteManager
  * @see LogManager
+ * @see ManifestManager
  * 
  */
 public class Archive {
@@ -34,6 +43,8 @@ public class Archive {
 	private ConfigurationManager configManager;
 	private TestsuiteManager suiteManager;
 	private LogManager logManager;
+	private CoverageManager coverageManager;
+	private ManifestManager manifestManager;
 	private Configuration activeConfig;
 
 	/**
@@ -49,7 +60,9 @@ public class Archive {
 
 		configManager = new ConfigurationManager(loader);
 		logManager = new LogManager(loader);
-		suiteManager = new TestsuiteManager(loader);
+		manifestManager = new ManifestManager(loader);
+		suiteManager = new TestsuiteManager(loader, manifestManager);
+		coverageManager = new CoverageManager(loader);
 	}
 
 	/**
@@ -76,6 +89,10 @@ public class Archive {
 		this.loadConfigurations();
 		this.loadTestsuites();
 		this.loadLog();
+		
+		coverageManager.load();
+		manifestManager.load();
+		manifestManager.validate(suiteManager);
 	}
 
 	/**
@@ -129,11 +146,20 @@ public class Archive {
 	 * @see ConfigurationManager#save()
 	 * @see TestsuiteManager#save()
 	 * @see LogManager#save()
+	 * @see CoverageManager#save()
+	 * @see ManifestManager#save()
+	 * @see ArchiveLoader#commit()
 	 */
 	public void save() throws Exception {
 		configManager.save();
 		suiteManager.save();
 		logManager.save();
+		coverageManager.save();
+		manifestManager.save();
+		
+		long start = Metrics.start();
+		loader.commit();
+		Metrics.stop(Phase.COMMIT, start);
 	}
 
 	/**
@@ -217,7 +243,54 @@ public class Archive {
 		return configManager.setDefaultConfig(configName);
 	}
 
-	
+
+	/**
+	 * Returns the format, in which new versions of output data are stored
+	 * within this {@link Archive}.
+	 * 
+	 * @return the {@link OutputFormat}
+	 */
+	public OutputFormat getOutputFormat() {
+		return configManager.getOutputFormat();
+	}
+
+	/**
+	 * Sets the format, in which new versions of output data are stored
+	 * within this {@link Archive}. Existing versions keep their format.
+	 * 
+	 * @param format
+	 *            the new {@link OutputFormat}
+	 * @return true, if the format has been changed
+	 * @see ConfigurationManager#setOutputFormat(OutputFormat)
+	 */
+	public boolean setOutputFormat(OutputFormat format) {
+		return configManager.setOutputFormat(format);
+	}
+
+	/**
+	 * Returns the maximum number of output data versions, which are
+	 * stored as deltas between two full versions within this
+	 * {@link Archive}.
+	 * 
+	 * @return the maximum length of delta chains, 0 if disabled
+	 */
+	public int getDeltaChainLength() {
+		return configManager.getDeltaChainLength();
+	}
+
+	/**
+	 * Sets the maximum number of output data versions, which are stored
+	 * as deltas between two full versions within this {@link Archive}.
+	 * Existing versions are not changed.
+	 * 
+	 * @param length
+	 *            the new maximum length, 0 disables deltas
+	 * @return true, if the length has been changed
+	 * @see ConfigurationManager#setDeltaChainLength(int)
+	 */
+	public boolean setDeltaChainLength(int length) {
+		return configManager.setDeltaChainLength(length);
+	}
 
 	/**
 	 * Returns all {@link Configuration}s of this {@link Archive}.
@@ -247,9 +320,15 @@ public class Archive {
 	 *            the name of the test suite, which should be removed
 	 * @return true, if successfully removed
 	 * @see TestsuiteManager#removeTestsuite(String)
+	 * @see ManifestManager#removeHistories(String, String)
 	 */
 	public boolean removeTestsuite(String testsuite) {
-		return suiteManager.removeTestsuite(testsuite);
+		if (suiteManager.removeTestsuite(testsuite)) {
+			manifestManager.removeHistories(testsuite, null);
+			return true;
+		}
+		
+		return false;
 	}
 
 	/**
@@ -351,6 +430,34 @@ public class Archive {
 			throw new RTTException(Type.OPERATION_FAILED, "Could not add test case.", e);
 		}
 	}
+	
+	/**
+	 * Adds a test case with the given input data to this {@link Archive},
+	 * with the given {@link TestCaseMode}.
+	 * 
+	 * @param suiteName
+	 *            the name of the test suite, where the test case should be
+	 *            added.
+	 * @param caseName
+	 *            the name of the test case
+	 * @param input
+	 *            the input data of the test case
+	 * @param mode
+	 *            the {@link TestCaseMode}
+	 * @return {@link TestcaseStatus}, indicating the actions which have been
+	 *         taken
+	 * @throws RTTException
+	 *             thrown, if any error occurred
+	 * @see TestsuiteManager#addTestcase(String, String, Input, TestCaseMode)
+	 */
+	public TestcaseStatus addTestcase(String suiteName, String caseName, 
+			Input input, TestCaseMode mode) throws RTTException {
+		try {
+			return suiteManager.addTestcase(suiteName, caseName, input, mode);
+		} catch (Exception e) {
+			throw new RTTException(Type.OPERATION_FAILED, "Could not add test case.", e);
+		}
+	}
 
 	/**
 	 * Removes a test case from this {@link Archive}.
@@ -360,9 +467,15 @@ public class Archive {
 	 * @param caseName
 	 *            the name of the test case
 	 * @return true, if successfully removed
+	 * @see ManifestManager#removeHistories(String, String)
 	 */
 	public boolean removeTestcase(String suiteName, String caseName) {
-		return suiteManager.removeTestcase(suiteName, caseName);
+		if (suiteManager.removeTestcase(suiteName, caseName)) {
+			manifestManager.removeHistories(suiteName, caseName);
+			return true;
+		}
+		
+		return false;
 	}
 
 	/**
@@ -479,32 +592,70 @@ public class Archive {
 		configManager = null;
 		suiteManager = null;
 		logManager = null;
+		coverageManager = null;
+		manifestManager = null;
 
 		loader.close();
 	}
 
+	/**
+	 * Returns the manifest of this archive, which contains the histories of 
+	 * all test cases.
+	 * 
+	 * @return the {@link ManifestManager}
+	 */
+	public ManifestManager getManifestManager() {
+		return manifestManager;
+	}
+
+	/**
+	 * Returns the classes, which have been loaded by a test case during its
+	 * last execution within the given configuration.
+	 * 
+	 * @param configName the name of the configuration
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @return the coverage or {@code null}, if none has been recorded
+	 * @see CoverageManager#getCoverage(String, String, String)
+	 */
+	public TestcaseCoverage getCoverage(String configName, String suiteName, String caseName) {
+		return coverageManager.getCoverage(configName, suiteName, caseName);
+	}
+	
+	/**
+	 * Sets the classes, which have been loaded by a test case.
+	 * 
+	 * @param configName the name of the configuration
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param hash the hash of the test case
+	 * @param loadedClasses the names of the loaded classes
+	 * @see CoverageManager#setCoverage(String, String, String, String, Collection)
+	 */
+	public void setCoverage(String configName, String suiteName, String caseName,
+			String hash, Collection<String> loadedClasses) {
+		
+		coverageManager.setCoverage(configName, suiteName, caseName, hash, loadedClasses);
+	}
+	
+	/**
+	 * Removes the coverage of a test case.
+	 * 
+	 * @param configName the name of the configuration
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @see CoverageManager#removeCoverage(String, String, String)
+	 */
+	public void removeCoverage(String configName, String suiteName, String caseName) {
+		coverageManager.removeCoverage(configName, suiteName, caseName);
+	}
+
 	public VersionData getVersionData(Testcase tcase, String configName, boolean create) {
 		if (tcase == null || configName == null || configName.isEmpty()) {
 			throw new IllegalArgumentException("The given test case was null or the config name was null or empty");
 		}
 		
-		List<VersionData> versionList = tcase.getVersionData();
-		
-		for (VersionData versionData : versionList) {
-			if (versionData.getConfig().equals(configName)) {
-				return versionData;
-			}
-		}
-		
-		if (create) {
-			VersionData versionData = new VersionData();
-			versionData.setConfig(configName);
-			
-			versionList.add(versionData);
-			return versionData;
-		}		
-		
-		return null;
+		return suiteManager.getVersionData(tcase, configName, create);
 	}
 
 }
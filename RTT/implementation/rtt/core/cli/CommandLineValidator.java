@@ -62,6 +62,19 @@ public class CommandLineValidator {
 			return false;
 
 		}
+		if (ops.isWorkers() && ops.getWorkers() < 1) {
+			System.err.println("The number of workers must be at least 1");
+			return false;
+		}
+		if ((ops.isMeasure() && ops.getMeasure() < 0) 
+				|| (ops.isWarmup() && ops.getWarmup() < 0)) {
+			System.err.println("The number of iterations must not be negative");
+			return false;
+		}
+		if (ops.isPerformance() && !ops.isMeasure()) {
+			System.err.println("The performance check needs the number of measured iterations");
+			return false;
+		}
 
 		return true;
 	}
@@ -20,23 +20,33 @@ import uk.co.flamingpenguin.jewel.cli.Option;
  * <pre>
  * Option is mandatory: --archive -a value : the archive, on which to operate
  * The options available are:
+ *         [--batch -b] : keeps the archive mounted and writes all changes at once, when RTT terminates
  *         [--addFile -f value] : adds an input file to the archive (the name of the testcase will be determined by the filename)(-s needed!)
  *         --archive -a value : the archive, on which to operate
+ *         [--cache] : reuses the test data of test cases, whose input, parameters and class path did not change
  *         [--classpath -x value] : semicolon seperated list of dependencies (only for new configuration)
  *         [--configuration -c value] : sets active configuration (leave blank for default)
  *         [--export -e value] : exports log to given directory
+ *         [--fullDiff] : reports all differences of a test case, instead of only the first one
  *         [--generate -g] : Generates input for new testCases
  *         [--help -h] : Shows this help
+ *         [--impacted] : executes only test cases, which are impacted by changes of the class path, input or parameters
  *         [--information] : Shows Information about the archive
+ *         [--isolated] : executes the tested classes within separate worker processes
+ *         [--measure value] : number of iterations, which measure the execution cost of each test case (default: 0)
  *         [--newConfiguration -n value] : adds a new configuration
  *         [--output -o value] : output (for merging/saving/etc)
+ *         [--performance] : fails test cases, whose execution cost exceeds the cost of their reference data (needs --measure)
  *         [--overwrite -y] : in case of adding a new file, config or archive, already existing ones will be overwriten
  *         [--initial -i value] : defines the initial node (only for new configuration)
  *         [--regenerate -r] : Regenerates testCases
  *         [--removeTest value] : removes the specified test (-s is needed)
  *         [--removeTestsuite value] : removes the specified testsuite
+ *         [--streaming] : writes generated output data directly to the archive, without building it in memory
  *         [--test -t] : Executes test, defined in the archive (archive)
  *         [--testsuite -s value] : specifies the testSuite
+ *         [--warmup value] : number of iterations before the execution cost is measured (default: 3)
+ *         [--workers -w value] : number of parallel workers for generating and testing (default: 1)
  * </pre>
  * 
  * 
@@ -130,4 +140,54 @@ public interface CommandlineOptions {
 	String getClasspath();
 
 	boolean isClasspath();
+	
+	@Option(shortName = "b", description = "keeps the archive mounted and writes all changes at once, when RTT terminates")
+	boolean getBatch();
+	
+	boolean isBatch();
+	
+	@Option(shortName = "w", description = "number of parallel workers for generating and testing (default: 1)")
+	Integer getWorkers();
+	
+	boolean isWorkers();
+	
+	@Option(description = "writes generated output data directly to the archive, without building it in memory")
+	boolean getStreaming();
+	
+	boolean isStreaming();
+	
+	@Option(description = "reports all differences of a test case, instead of only the first one")
+	boolean getFullDiff();
+	
+	boolean isFullDiff();
+	
+	@Option(description = "reuses the test data of test cases, whose input, parameters and class path did not change")
+	boolean getCache();
+	
+	boolean isCache();
+	
+	@Option(description = "executes only test cases, which are impacted by changes of the class path, input or parameters")
+	boolean getImpacted();
+	
+	boolean isImpacted();
+	
+	@Option(description = "executes the tested classes within separate worker processes")
+	boolean getIsolated();
+	
+	boolean isIsolated();
+	
+	@Option(description = "number of iterations, which measure the execution cost of each test case (default: 0)")
+	Integer getMeasure();
+	
+	boolean isMeasure();
+	
+	@Option(description = "number of iterations before the execution cost is measured (default: 3)")
+	Integer getWarmup();
+	
+	boolean isWarmup();
+	
+	@Option(description = "fails test cases, whose execution cost exceeds the cost of their reference data (needs --measure)")
+	boolean getPerformance();
+	
+	boolean isPerformance();
 }
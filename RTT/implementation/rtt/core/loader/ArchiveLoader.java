@@ -10,6 +10,9 @@ import java.nio.file.Paths;
 
 import rtt.core.exceptions.RTTException;
 import rtt.core.exceptions.RTTException.Type;
+import rtt.core.metrics.MeteredInputStream;
+import rtt.core.metrics.MeteredOutputStream;
+import rtt.core.metrics.Metrics;
 import rtt.core.utils.RTTLogging;
 
 public abstract class ArchiveLoader {
@@ -31,10 +34,27 @@ public abstract class ArchiveLoader {
 
 	private String baseDir = null;
 	private File baseFile;
+	private BlobStore blobStore = null;
 
 	protected ArchiveLoader() {}
 	
 	public static ArchiveLoader create(File path) throws RTTException {
+		return create(path, false);
+	}
+	
+	/**
+	 * Creates a new {@link ArchiveLoader} for the given archive.
+	 * 
+	 * @param path
+	 *            the path to the archive
+	 * @param batchCommit
+	 *            true, if written data should be staged until
+	 *            {@link #commit()} is called
+	 * @return a new {@link ArchiveLoader}
+	 * @throws RTTException
+	 *             thrown, if the archive type is not supported
+	 */
+	public static ArchiveLoader create(File path, boolean batchCommit) throws RTTException {
 		if (path == null) {
 			throw new IllegalArgumentException("Give archive file was null.");
 		}		
@@ -50,7 +70,7 @@ public abstract class ArchiveLoader {
 					+ path.getAbsolutePath() + "' returned null.");
 		}
 		
-		return new ZipArchiveLoader();
+		return new ZipArchiveLoader(batchCommit);
 	}
 	
 	public void setBasePath(File base) {
@@ -80,6 +100,7 @@ public abstract class ArchiveLoader {
 	 * return {@code null}.
 	 * <p>
 	 * The file will be searched downwards from the base file/base directory.
+	 * The returned stream is metered, see {@link MeteredInputStream}.
 	 * 
 	 * @param fileName
 	 *            the name of the file
@@ -93,7 +114,13 @@ public abstract class ArchiveLoader {
 			File file = new File(baseFile.getAbsolutePath() + File.separator
 					+ folders + File.separator + fileName);
 
-			return this.doGetInput(file);
+			long start = System.nanoTime();
+			InputStream input = this.doGetInput(file);
+			if (input != null && Metrics.isEnabled()) {
+				input = new MeteredInputStream(input, System.nanoTime() - start);
+			}
+			
+			return input;
 		} catch (Exception e) {
 			RTTLogging.error("Could not retrieve InputStream", e);
 			return null;
@@ -106,6 +133,7 @@ public abstract class ArchiveLoader {
 	 * return {@code null}.
 	 * <p>
 	 * The file will be searched/created downwards from the base file/base directory.
+	 * The returned stream is metered, see {@link MeteredOutputStream}.
 	 * @param fileName
 	 *            the name of the file
 	 * @param folders
@@ -118,13 +146,32 @@ public abstract class ArchiveLoader {
 			File file = new File(baseFile.getAbsolutePath() + File.separator
 					+ folders + File.separator + fileName);
 
-			return this.doGetOutput(file);
+			long start = System.nanoTime();
+			OutputStream output = this.doGetOutput(file);
+			if (output != null && Metrics.isEnabled()) {
+				output = new MeteredOutputStream(output, System.nanoTime() - start);
+			}
+			
+			return output;
 		} catch (Exception e) {
 			RTTLogging.error("Could not retrieve OutputStream", e);
 			return null;
 		}
 	}
 
+	/**
+	 * Returns the store of content-addressed blobs within the archive.
+	 * 
+	 * @return the {@link BlobStore} of this loader
+	 */
+	public synchronized BlobStore getBlobStore() {
+		if (blobStore == null) {
+			blobStore = new BlobStore(this);
+		}
+		
+		return blobStore;
+	}
+
 	/**
 	 * Returns the current base directory/file.
 	 * @return a string with a path to the file/directory
@@ -132,10 +179,28 @@ public abstract class ArchiveLoader {
 	public String getBasePath() {
 		return baseDir;
 	}
+	
+	/**
+	 * Returns the archive file, which has been set as base.
+	 * @return the base file
+	 * @see #setBasePath(File)
+	 */
+	protected File getBaseFile() {
+		return baseFile;
+	}
 
 	protected abstract OutputStream doGetOutput(File file) throws Exception;
 
 	protected abstract InputStream doGetInput(File file) throws Exception;
 
+	/**
+	 * Writes all pending changes to the archive. Loaders, which write each
+	 * change immediately, don't need to override this method.
+	 * 
+	 * @throws Exception
+	 *             thrown, if the changes could not be written
+	 */
+	public void commit() throws Exception {}
+
 	public void close() {}
 }
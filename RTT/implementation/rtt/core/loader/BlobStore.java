@@ -0,0 +1,190 @@
+package rtt.core.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.Set;
+
+import rtt.core.utils.Digests;
+
+/**
+ * A content-addressed store for files within an archive. Each blob is
+ * stored once under the SHA-256 hash of its content, so equal contents
+ * written by different test cases, configurations or versions share a
+ * single file:
+ *
+ * <pre>
+ * blobs/&lt;first two digits of the key&gt;/&lt;key&gt;.&lt;extension&gt;
+ * </pre>
+ *
+ * Blobs are never changed or removed, because the key of a blob already
+ * determines its content.
+ * <p>
+ * The key is computed over the stored bytes, so it differs from the hash
+ * of the output data ({@link rtt.core.testing.compare.ElementHasher}),
+ * which covers only the compared parts of the elements. Therefore, 
+ * generated output data is hashed twice.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see ArchiveLoader#getBlobStore()
+ */
+public class BlobStore {
+
+	public static final String BLOB_FOLDER = "blobs";
+
+
+	private ArchiveLoader loader;
+	private Set<String> knownBlobs = new HashSet<>();
+
+	BlobStore(ArchiveLoader loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Creates a new digest for computing keys of this store.
+	 *
+	 * @return a new {@link MessageDigest}
+	 * @see #getKey(MessageDigest)
+	 */
+	public static MessageDigest createDigest() {
+		return Digests.create(Digests.SHA_256);
+	}
+
+	/**
+	 * Completes the given digest and returns the resulting key.
+	 *
+	 * @param digest a digest, which was created by {@link #createDigest()}
+	 * @return the key of the digested content
+	 */
+	public static String getKey(MessageDigest digest) {
+		return Digests.toHex(digest.digest());
+	}
+
+	/**
+	 * Returns the key of the given content.
+	 *
+	 * @param data the content
+	 * @return the key of the content
+	 */
+	public static String getKey(byte[] data) {
+		MessageDigest digest = createDigest();
+		digest.update(data);
+
+		return getKey(digest);
+	}
+
+	/**
+	 * Checks, if a blob with the given key is stored in the archive.
+	 *
+	 * @param key the key of the blob
+	 * @param extension the file extension of the blob
+	 * @return {@code true}, if the blob exists
+	 */
+	public synchronized boolean contains(String key, String extension) {
+		String fileName = getFileName(key, extension);
+		if (knownBlobs.contains(fileName)) {
+			return true;
+		}
+
+		try (InputStream inputStream = getInputStream(key, extension)) {
+			if (inputStream != null) {
+				knownBlobs.add(fileName);
+				return true;
+			}
+		} catch (IOException e) {
+			// an unreadable blob will be written again
+		}
+
+		return false;
+	}
+
+	/**
+	 * Stores the given content under the given key, if no blob with this
+	 * key exists.
+	 *
+	 * @param key the key of the content, see {@link #getKey(byte[])}
+	 * @param extension the file extension of the blob
+	 * @param data the content
+	 * @return {@code true}, if the blob has been written, {@code false},
+	 * 		if it was already stored
+	 * @throws IOException thrown, if the blob could not be written
+	 */
+	public synchronized boolean put(String key, String extension,
+			byte[] data) throws IOException {
+
+		if (contains(key, extension)) {
+			return false;
+		}
+
+		try (OutputStream outputStream = openBlob(key, extension)) {
+			outputStream.write(data);
+		}
+
+		knownBlobs.add(getFileName(key, extension));
+		return true;
+	}
+
+	/**
+	 * Stores the content of the given stream under the given key, if no
+	 * blob with this key exists. Otherwise, the stream is not read.
+	 *
+	 * @param key the key of the content
+	 * @param extension the file extension of the blob
+	 * @param data the stream of the content, which will not be closed
+	 * @return {@code true}, if the blob has been written, {@code false},
+	 * 		if it was already stored
+	 * @throws IOException thrown, if the blob could not be written
+	 */
+	public synchronized boolean put(String key, String extension,
+			InputStream data) throws IOException {
+
+		if (contains(key, extension)) {
+			return false;
+		}
+
+		try (OutputStream outputStream = openBlob(key, extension)) {
+			byte[] buffer = new byte[8192];
+			int count = 0;
+			while ((count = data.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, count);
+			}
+		}
+
+		knownBlobs.add(getFileName(key, extension));
+		return true;
+	}
+
+	/**
+	 * Returns an {@link InputStream} of the blob with the given key.
+	 *
+	 * @param key the key of the blob
+	 * @param extension the file extension of the blob
+	 * @return an {@link InputStream} or {@code null}, if the blob does
+	 * 		not exist
+	 */
+	public InputStream getInputStream(String key, String extension) {
+		return loader.getInputStream(getFileName(key, extension), getFolder(key));
+	}
+
+	private OutputStream openBlob(String key, String extension) throws IOException {
+		OutputStream outputStream = loader.getOutputStream(
+				getFileName(key, extension), getFolder(key));
+
+		if (outputStream == null) {
+			throw new IOException("Could not write blob " + key);
+		}
+
+		return outputStream;
+	}
+
+	private static String getFileName(String key, String extension) {
+		return key + "." + extension;
+	}
+
+	private static String getFolder(String key) {
+		return LoaderUtils.getPath(BLOB_FOLDER, key.substring(0, 2));
+	}
+}
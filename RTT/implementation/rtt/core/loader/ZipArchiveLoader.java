@@ -1,20 +1,55 @@
 package rtt.core.loader;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
 
-import de.schlichtherle.io.ArchiveException;
 import de.schlichtherle.io.DefaultArchiveDetector;
 import de.schlichtherle.io.File;
 import de.schlichtherle.io.FileInputStream;
 import de.schlichtherle.io.FileOutputStream;
 import de.schlichtherle.io.archive.zip.ZipDriver;
 
+/**
+ * This class loads and saves all data from a zip archive.
+ * <p>
+ * By default, the archive will be unmounted before each entry is read or
+ * written, so every change is immediately visible on disk. If the loader is
+ * created with batch commit, the archive stays mounted and all written
+ * entries are staged in a temporary folder. The staged entries will be
+ * written to the zip archive with {@link #commit()}, so the previous archive
+ * stays intact until then.
+ * 
+ * @author Christian Oelsner
+ */
 public class ZipArchiveLoader extends ArchiveLoader {
 
 	String archivePath;
+	
+	private boolean batchCommit;
+	private Path stagingDir = null;
 
 	public ZipArchiveLoader() {
+		this(false);
+	}
+	
+	/**
+	 * Creates a new zip archive loader.
+	 * 
+	 * @param batchCommit
+	 *            true, if written entries should be staged until
+	 *            {@link #commit()} is called
+	 */
+	public ZipArchiveLoader(boolean batchCommit) {
+		this.batchCommit = batchCommit;
+		
 		File.setDefaultArchiveDetector(new DefaultArchiveDetector("zip",
 				new ZipDriver()));
 	}
@@ -29,11 +64,29 @@ public class ZipArchiveLoader extends ArchiveLoader {
 
 		super.setBasePath(archiveFile);
 	}
+	
+	/**
+	 * Returns true, if this loader stages all written entries until
+	 * {@link #commit()} is called.
+	 * 
+	 * @return true, if batch commit is used
+	 */
+	public boolean isBatchCommit() {
+		return batchCommit;
+	}
 
 	@Override
-	protected InputStream doGetInput(java.io.File file) throws Exception {
+	protected synchronized InputStream doGetInput(java.io.File file) throws Exception {
 		File entryFile = new File(file);
-		File.umount(entryFile.getTopLevelArchive(), true, false, true, false);
+		
+		if (batchCommit) {
+			Path stagedFile = getStagedPath(file);
+			if (stagedFile != null && Files.exists(stagedFile)) {
+				return Files.newInputStream(stagedFile);
+			}
+		} else {
+			File.umount(entryFile.getTopLevelArchive(), true, false, true, false);
+		}
 
 		if (entryFile.exists()) {
 			return new FileInputStream(entryFile);
@@ -43,7 +96,18 @@ public class ZipArchiveLoader extends ArchiveLoader {
 	}
 
 	@Override
-	protected OutputStream doGetOutput(java.io.File file) throws Exception {
+	protected synchronized OutputStream doGetOutput(java.io.File file) throws Exception {
+		if (batchCommit) {
+			if (stagingDir == null) {
+				stagingDir = Files.createTempDirectory("rtt-staging");
+			}
+			
+			Path stagedFile = getStagedPath(file);
+			Files.createDirectories(stagedFile.getParent());
+			
+			return Files.newOutputStream(stagedFile);
+		}
+		
 		File entryFile = new File(file);
 		entryFile.getParentFile().mkdirs();
 		
@@ -61,11 +125,78 @@ public class ZipArchiveLoader extends ArchiveLoader {
 		return new FileOutputStream(entryFile);
 	}
 	
+	private Path getStagedPath(java.io.File file) {
+		if (stagingDir == null) {
+			return null;
+		}
+		
+		Path basePath = getBaseFile().toPath().normalize();
+		Path entryPath = file.toPath().toAbsolutePath().normalize();
+		
+		return stagingDir.resolve(basePath.relativize(entryPath).toString());
+	}
+	
+	/**
+	 * Writes all staged entries to the zip archive. The archive will be
+	 * rewritten only once for all entries.
+	 */
+	@Override
+	public synchronized void commit() throws Exception {
+		if (!batchCommit || stagingDir == null) {
+			return;
+		}
+		
+		final List<Path> stagedFiles = new ArrayList<>();
+		Files.walkFileTree(stagingDir, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				stagedFiles.add(file);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		
+		File archiveFile = new File(getBaseFile());
+		if (archiveFile.exists() == false) {
+			archiveFile.mkdirs();
+		}
+		
+		for (Path stagedFile : stagedFiles) {
+			File entryFile = new File(archiveFile, 
+					stagingDir.relativize(stagedFile).toString());
+			entryFile.getParentFile().mkdirs();
+			
+			File.cp(stagedFile.toFile(), entryFile);
+		}
+		
+		File.umount(archiveFile, true, false, true, false);
+		
+		deleteStagingDir();
+	}
+	
+	private void deleteStagingDir() throws IOException {
+		Files.walkFileTree(stagingDir, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		
+		stagingDir = null;
+	}
+	
 	@Override
 	public void close() {
 		try {
+			commit();
 			File.umount(true, true, true, true);
-		} catch (ArchiveException e) {
+		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 	}
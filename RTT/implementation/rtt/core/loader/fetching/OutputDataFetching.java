@@ -4,6 +4,7 @@ public class OutputDataFetching implements IFileFetching {
 	
 	private String path;
 	private Integer version = 0;
+	private String extension = "xml";
 	
 	public OutputDataFetching(String path) {
 		this.path = path;
@@ -13,9 +14,13 @@ public class OutputDataFetching implements IFileFetching {
 		this.version = version;
 	}
 	
+	public void setExtension(String extension) {
+		this.extension = extension;
+	}
+	
 	@Override
 	public String getFileName() {
-		return "output." + version + ".xml";
+		return "output." + version + "." + extension;
 	}
 
 	@Override
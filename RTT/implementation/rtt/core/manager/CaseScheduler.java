@@ -0,0 +1,137 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code CaseScheduler} distributes the work for single test cases to a
+ * number of worker threads. The results are always returned in the order in
+ * which the tasks have been submitted, so the caller can process them like
+ * in a sequential run.
+ * <p>
+ * If the scheduler is created with only one worker, no thread will be
+ * started. Each task will be executed within the calling thread, when its
+ * result is requested via {@link #get(int)}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @param <T>
+ *            the result type of a single task
+ */
+final class CaseScheduler<T> implements AutoCloseable {
+
+	private static final class WorkerFactory implements ThreadFactory {
+
+		private final AtomicInteger threadCount = new AtomicInteger(1);
+		private final ClassLoader contextLoader;
+
+		public WorkerFactory() {
+			contextLoader = Thread.currentThread().getContextClassLoader();
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable,
+					"RTT-Worker-" + threadCount.getAndIncrement());
+
+			thread.setDaemon(true);
+			thread.setContextClassLoader(contextLoader);
+
+			return thread;
+		}
+	}
+
+	private ExecutorService workers = null;
+	private List<Future<T>> results;
+
+	/**
+	 * Creates a new scheduler with the given number of workers.
+	 *
+	 * @param workerCount
+	 *            the number of worker threads, values less than 2 result in
+	 *            a sequential execution
+	 */
+	public CaseScheduler(int workerCount) {
+		if (workerCount > 1) {
+			workers = Executors.newFixedThreadPool(
+					workerCount, new WorkerFactory());
+		}
+
+		results = new ArrayList<>();
+	}
+
+	/**
+	 * Submits a new task to this scheduler.
+	 *
+	 * @param task
+	 *            the task for a test case
+	 */
+	public void submit(Callable<T> task) {
+		if (workers != null) {
+			results.add(workers.submit(task));
+		} else {
+			results.add(new FutureTask<>(task));
+		}
+	}
+
+	/**
+	 * Returns the number of submitted tasks.
+	 *
+	 * @return the number of tasks
+	 */
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * Returns the result of the task with the given index. This method will
+	 * block until the result is available.
+	 *
+	 * @param index
+	 *            the position of the task in submission order
+	 * @return the result of the task
+	 * @throws Exception
+	 *             thrown, if the task has thrown an exception
+	 */
+	public T get(int index) throws Exception {
+		Future<T> result = results.get(index);
+		if (workers == null) {
+			((FutureTask<T>) result).run();
+		}
+
+		try {
+			return result.get();
+		} catch (ExecutionException exception) {
+			Throwable cause = exception.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+
+			throw exception;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (workers != null) {
+			workers.shutdownNow();
+			workers = null;
+		}
+	}
+}
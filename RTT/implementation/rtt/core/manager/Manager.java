@@ -10,12 +10,21 @@ package rtt.core.manager;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import rtt.core.archive.Archive;
 import rtt.core.archive.configuration.Classpath;
 import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.coverage.TestcaseCoverage;
+import rtt.core.archive.history.OutputFormat;
 import rtt.core.archive.logging.Detail;
 import rtt.core.archive.logging.EntryType;
 import rtt.core.archive.testsuite.Testcase;
@@ -30,16 +39,26 @@ import rtt.core.manager.data.TestsuiteManager;
 import rtt.core.manager.data.TestsuiteManager.TestcaseStatus;
 import rtt.core.manager.data.history.OutputDataManager;
 import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.MetricsSnapshot;
 import rtt.core.testing.Tester;
+import rtt.core.testing.compare.CostCompare;
 import rtt.core.testing.compare.results.ITestFailure;
+import rtt.core.testing.compare.results.TestExecutionFailure;
 import rtt.core.testing.compare.results.TestResult;
 import rtt.core.testing.compare.results.TestResult.ResultType;
 import rtt.core.testing.generation.DataGenerator;
 import rtt.core.testing.generation.Executor;
+import rtt.core.testing.generation.GenerationLimit;
+import rtt.core.testing.generation.worker.WorkerPool;
+import rtt.core.utils.ClassDigests;
+import rtt.core.utils.ExecutorLoader;
+import rtt.core.utils.ExecutorLoaderCache;
 import rtt.core.utils.GenerationInformation;
 import rtt.core.utils.GenerationInformation.GenerationResult;
 import rtt.core.utils.GenerationInformation.GenerationType;
 import rtt.core.utils.RTTLogging;
+import rtt.core.utils.ResultFingerprint;
 
 /**
  * 
@@ -87,10 +106,45 @@ public class Manager {
 	private ArchiveLoader loader;
 
 	public static boolean verbose = true;
+	
+	private int workerCount = 1;
+	private boolean streamingOutput = false;
+	private boolean fullDiff = false;
+	private boolean resultCache = false;
+	private boolean impactSelection = false;
+	private int costWarmup = 0;
+	private int costIterations = 0;
+	private boolean performanceCheck = false;
+	private double costTolerance = CostCompare.DEFAULT_TOLERANCE;
+	
+	private ExecutorLoaderCache loaderCache = new ExecutorLoaderCache();
+	private WorkerPool workerPool = null;
+	private final AtomicBoolean cancelled = new AtomicBoolean(false);
 
 	public Manager(File archivePath, boolean verbose) throws RTTException {
+		this(archivePath, verbose, false);
+	}
+	
+	/**
+	 * Creates a new manager for the given archive.
+	 * <p>
+	 * If batch commit is used, the archive will stay mounted during this
+	 * session and all changes will be written once, when the archive is saved
+	 * or this manager is closed. Until then, the archive on disk will not be
+	 * changed.
+	 * 
+	 * @param archivePath the path to the archive
+	 * @param verbose indicates, if informations should be logged
+	 * @param batchCommit indicates, if changes should be written on save only
+	 * @throws RTTException thrown, if the archive type is not supported
+	 * @see #saveArchive(File)
+	 * @see #close()
+	 */
+	public Manager(File archivePath, boolean verbose, boolean batchCommit) throws RTTException {
 		this.archivePath = archivePath;
-		this.loader = ArchiveLoader.create(archivePath);
+		this.loader = ArchiveLoader.create(archivePath, batchCommit);
+		
+		Metrics.registerMBean();
 
 		// because sometimes, it is not the same
 		Thread.currentThread().setContextClassLoader(
@@ -162,6 +216,310 @@ public class Manager {
 		return currentArchive;
 	}
 	
+	/**
+	 * Sets the number of workers, which generate and test the test cases of
+	 * a test suite in parallel. Log entries and results are still collected
+	 * in the order of the test cases. A value of 1 (default) processes all
+	 * test cases sequentially.
+	 * 
+	 * @param workerCount the number of workers, must be at least 1
+	 */
+	public void setWorkerCount(int workerCount) {
+		if (workerCount < 1) {
+			throw new IllegalArgumentException("The number of workers must be at least 1.");
+		}
+		
+		this.workerCount = workerCount;
+	}
+	
+	/**
+	 * Returns the number of workers used for generating and testing.
+	 * @return the number of workers
+	 * @see #setWorkerCount(int)
+	 */
+	public int getWorkerCount() {
+		return workerCount;
+	}
+	
+	/**
+	 * Sets, if generated output data should be written directly to the
+	 * archive. Otherwise (default), the complete output data will be built
+	 * in memory before it is saved. If output data is streamed, reference
+	 * and test data will also be compared as streams during testing.
+	 * 
+	 * @param streamingOutput {@code true}, if output data should be streamed
+	 * @see OutputDataManager#setStreaming(boolean)
+	 * @see Tester#setStreaming(boolean)
+	 */
+	public void setStreamingOutput(boolean streamingOutput) {
+		this.streamingOutput = streamingOutput;
+	}
+	
+	/**
+	 * @return {@code true}, if output data is streamed during generation
+	 * @see #setStreamingOutput(boolean)
+	 */
+	public boolean isStreamingOutput() {
+		return streamingOutput;
+	}
+	
+	/**
+	 * Sets, if all differences of a test case should be reported during
+	 * testing. Otherwise (default), only the first difference is reported.
+	 * 
+	 * @param fullDiff {@code true}, if all differences should be reported
+	 * @see Tester#setFullDiff(boolean)
+	 */
+	public void setFullDiff(boolean fullDiff) {
+		this.fullDiff = fullDiff;
+	}
+	
+	/**
+	 * @return {@code true}, if all differences are reported during testing
+	 * @see #setFullDiff(boolean)
+	 */
+	public boolean isFullDiff() {
+		return fullDiff;
+	}
+	
+	/**
+	 * Sets, if the execution cost of each generation should be measured
+	 * and stored with the history of the reference and test data. The 
+	 * output data of each test case will be generated {@code warmup} 
+	 * times without and {@code iterations} times with measuring, after 
+	 * it has been generated successfully.
+	 * 
+	 * @param warmup the number of discarded iterations
+	 * @param iterations the number of measured iterations, 0 (default) 
+	 * 		disables the measurement
+	 * @see OutputDataManager#setCostMeasurement(int, int)
+	 */
+	public void setCostMeasurement(int warmup, int iterations) {
+		if (warmup < 0 || iterations < 0) {
+			throw new IllegalArgumentException("Iterations must not be negative.");
+		}
+		
+		this.costWarmup = warmup;
+		this.costIterations = iterations;
+	}
+	
+	/**
+	 * @return the number of measured iterations, 0 if the execution cost
+	 * 		is not measured
+	 * @see #setCostMeasurement(int, int)
+	 */
+	public int getCostIterations() {
+		return costIterations;
+	}
+	
+	/**
+	 * Sets, if a test case should fail, when its execution cost exceeds 
+	 * the cost of its reference data significantly. Only test cases, 
+	 * whose reference and test cost have been measured, are checked.
+	 * 
+	 * @param performanceCheck {@code true}, if the cost should be checked
+	 * @see #setCostMeasurement(int, int)
+	 * @see Tester#setPerformanceCheck(boolean)
+	 */
+	public void setPerformanceCheck(boolean performanceCheck) {
+		this.performanceCheck = performanceCheck;
+	}
+	
+	/**
+	 * @return {@code true}, if the execution cost is checked during testing
+	 * @see #setPerformanceCheck(boolean)
+	 */
+	public boolean isPerformanceCheck() {
+		return performanceCheck;
+	}
+	
+	/**
+	 * Sets the tolerated increase of the execution cost as fraction of
+	 * the reference cost. Default is {@link CostCompare#DEFAULT_TOLERANCE}.
+	 * 
+	 * @param costTolerance the tolerated increase, e.g. 0.1 for 10%
+	 * @see Tester#setCostTolerance(double)
+	 */
+	public void setCostTolerance(double costTolerance) {
+		if (costTolerance < 0) {
+			throw new IllegalArgumentException("The tolerance must not be negative.");
+		}
+		
+		this.costTolerance = costTolerance;
+	}
+	
+	/**
+	 * Sets, if test data should only be generated for test cases, whose 
+	 * input, parameters, initial node or class path contents have changed
+	 * since their last generation. Otherwise (default), the test data of 
+	 * all test cases will be generated. The stored test data of unchanged 
+	 * test cases will be compared to the reference data as usual.
+	 * 
+	 * @param resultCache {@code true}, if unchanged test cases should not
+	 * 		be executed
+	 * @see ResultFingerprint
+	 * @see OutputDataManager#setFingerprint(ResultFingerprint)
+	 */
+	public void setResultCache(boolean resultCache) {
+		this.resultCache = resultCache;
+	}
+	
+	/**
+	 * @return {@code true}, if unchanged test cases are not executed
+	 * @see #setResultCache(boolean)
+	 */
+	public boolean isResultCache() {
+		return resultCache;
+	}
+	
+	/**
+	 * Sets, if only test cases impacted by a change should be executed 
+	 * during testing. A test case is impacted, if one of the classes, which 
+	 * it has loaded from the class path during its last successful 
+	 * execution, has changed or if its input, parameters, reference data or 
+	 * initial node have changed. Test cases without a recorded successful 
+	 * execution are always executed. Otherwise (default), all test cases 
+	 * are executed.
+	 * <p>
+	 * In this mode, each executed test case uses its own class loader, so
+	 * the loaded classes can be recorded.
+	 * 
+	 * @param impactSelection {@code true}, if only impacted test cases 
+	 * 		should be executed
+	 * @see ClassDigests
+	 * @see ExecutorLoader#getLoadedClasses()
+	 */
+	public void setImpactSelection(boolean impactSelection) {
+		this.impactSelection = impactSelection;
+	}
+	
+	/**
+	 * @return {@code true}, if only impacted test cases are executed
+	 * @see #setImpactSelection(boolean)
+	 */
+	public boolean isImpactSelection() {
+		return impactSelection;
+	}
+	
+	/**
+	 * Sets, if the tested classes should be executed within separate worker
+	 * processes. Static state, calls of {@code System.exit} and crashes of 
+	 * a test case can then not affect other test cases or this process.
+	 * The worker processes are kept until this manager is closed, so the 
+	 * tested classes stay loaded and compiled between test cases. 
+	 * Otherwise (default), the tested classes are executed within this 
+	 * process.
+	 * 
+	 * @param isolated {@code true}, if worker processes should be used
+	 * @see WorkerPool
+	 * @see #getWorkerPool()
+	 */
+	public void setIsolatedExecution(boolean isolated) {
+		if (isolated && workerPool == null) {
+			workerPool = new WorkerPool();
+		} else if (!isolated && workerPool != null) {
+			workerPool.close();
+			workerPool = null;
+		}
+	}
+	
+	/**
+	 * @return {@code true}, if the tested classes are executed within 
+	 * 		worker processes
+	 * @see #setIsolatedExecution(boolean)
+	 */
+	public boolean isIsolatedExecution() {
+		return workerPool != null;
+	}
+	
+	/**
+	 * Returns the pool of worker processes, which can be used to change 
+	 * the settings of the workers.
+	 * 
+	 * @return the worker pool or {@code null}, if the tested classes are 
+	 * 		executed within this process
+	 * @see #setIsolatedExecution(boolean)
+	 */
+	public WorkerPool getWorkerPool() {
+		return workerPool;
+	}
+	
+	/**
+	 * Cancels the current generation or test run. Test cases, which have 
+	 * not been started yet, will not be executed and are reported as 
+	 * skipped. A running test case is only interrupted, if it has a time 
+	 * limit, otherwise it will be finished. The flag will be reset, when 
+	 * the next run starts.
+	 * <p>
+	 * This method may be called from any thread.
+	 * 
+	 * @see #setTimeouts(String, long, long)
+	 * @see GenerationLimit
+	 */
+	public void cancel() {
+		cancelled.set(true);
+	}
+	
+	/**
+	 * @return {@code true}, if the current run has been cancelled
+	 * @see #cancel()
+	 */
+	public boolean isCancelled() {
+		return cancelled.get();
+	}
+	
+	/**
+	 * Sets the time limits of the given configuration. If the generation 
+	 * of a test case exceeds its limit, it will be interrupted and the 
+	 * test case will be reported as timed out. If the whole test suite 
+	 * exceeds its limit, its remaining test cases are reported as timed 
+	 * out. In both cases, the run continues with the next test case.
+	 * 
+	 * @param configName the name of the configuration
+	 * @param caseTimeout the time limit of a test case in milliseconds, 
+	 * 		0 for no limit
+	 * @param suiteTimeout the time limit of a test suite in milliseconds,
+	 * 		0 for no limit
+	 * @throws RTTException thrown, if the configuration does not exist
+	 * @see #setTimeoutToTest(String, String, Long)
+	 */
+	public void setTimeouts(String configName, long caseTimeout, 
+			long suiteTimeout) throws RTTException {
+		
+		checkInitialize();
+		Configuration config = currentArchive.getConfiguration(configName);
+		if (config == null) {
+			throw new RTTException(Type.DATA_NOT_FOUND, "Configuration '" 
+					+ configName + "' does not exist.");
+		}
+		
+		config.setCaseTimeout(caseTimeout);
+		config.setSuiteTimeout(suiteTimeout);
+		
+		currentLog.addEntry(EntryType.ARCHIVE, "Time limits set for configuration: ", configName);
+	}
+	
+	/**
+	 * Sets the time limit of a single test case, which overrides the case 
+	 * time limit of the configuration.
+	 * 
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param timeout the time limit in milliseconds, 0 for no limit or 
+	 * 		{@code null} to use the limit of the configuration
+	 * @throws RTTException thrown, if the archive was not initialized
+	 * @see #setTimeouts(String, long, long)
+	 */
+	public void setTimeoutToTest(String suiteName, String caseName, Long timeout) throws RTTException {
+		checkInitialize();
+		Testcase testcase = currentArchive.getTestcase(suiteName, caseName);
+		if (testcase != null) {
+			testcase.setTimeout(timeout);
+			
+			currentLog.addEntry(EntryType.ARCHIVE, "Time limit set for test case: ", suiteName + "/" + caseName);
+		}
+	}
+	
 	public void exportLog(File location) throws Exception {
 		checkInitialize();
 		currentLog.export(location);
@@ -273,6 +631,64 @@ public class Manager {
 		}
 	}
 	
+	/**
+	 * Sets the format, in which new versions of reference and test data
+	 * are stored within the current archive. Existing versions keep their
+	 * format and can still be read.
+	 * 
+	 * @param format the {@link OutputFormat}, {@link OutputFormat#XML} 
+	 * 		by default
+	 * @see OutputDataManager#setOutputFormat(OutputFormat)
+	 */
+	public void setOutputFormat(OutputFormat format) {
+		if (format == null) {
+			throw new IllegalArgumentException("The output format must not be null.");
+		}
+		
+		if (currentArchive.setOutputFormat(format) && verbose) {
+			currentLog.addEntry(EntryType.INFO,
+					"Output format set: ", format.value());
+		}
+	}
+	
+	/**
+	 * @return the format of new output data within the current archive
+	 * @see #setOutputFormat(OutputFormat)
+	 */
+	public OutputFormat getOutputFormat() {
+		return currentArchive.getOutputFormat();
+	}
+	
+	/**
+	 * Sets the maximum number of versions of reference and test data, 
+	 * which are stored as deltas to their previous version within the 
+	 * current archive. After this number of deltas, a full version is
+	 * stored again, so reading a version needs at most this number of 
+	 * deltas. Existing versions are not changed.
+	 * 
+	 * @param length the maximum length of delta chains, 0 (default) 
+	 * 		stores only full versions
+	 * @see OutputDataManager#setDeltaChainLength(int)
+	 */
+	public void setDeltaChainLength(int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("The delta chain length must not be negative.");
+		}
+		
+		if (currentArchive.setDeltaChainLength(length) && verbose) {
+			currentLog.addEntry(EntryType.INFO,
+					"Delta chain length set: ", String.valueOf(length));
+		}
+	}
+	
+	/**
+	 * @return the maximum length of delta chains within the current archive
+	 * @see #setDeltaChainLength(int)
+	 */
+	public int getDeltaChainLength() {
+		return currentArchive.getDeltaChainLength();
+	}
+	
 	public boolean createTestSuite(String suiteName) {
 		boolean result = currentArchive.addTestsuite(suiteName);
 		if (result) {
@@ -437,13 +853,15 @@ public class Manager {
 	public GenerationInformation generateTests(String suiteName)
 			throws Exception {
 		GenerationInformation results = new GenerationInformation(GenerationType.REFERENCE_DATA);
+		cancelled.set(false);
 
 		if (suiteName == null) {
 			for (Testsuite suite : currentArchive.getTestsuites(false)) {
-				results.concat(generateTests(suite.getName()));
+				results.concat(generateTestsInternal(suite.getName(), 
+						currentArchive.getActiveConfiguration()));
 			}
 		} else {
-			results.concat(generateTests(suiteName,
+			results.concat(generateTestsInternal(suiteName,
 					currentArchive.getActiveConfiguration()));
 		}
 
@@ -453,6 +871,13 @@ public class Manager {
 	public GenerationInformation generateTests(String suiteName,
 			Configuration config) throws Exception {
 		
+		cancelled.set(false);
+		return generateTestsInternal(suiteName, config);
+	}
+	
+	private GenerationInformation generateTestsInternal(String suiteName,
+			Configuration config) throws Exception {
+		
 		checkInitialize();
 
 		if (!currentArchive.hasTestsuite(suiteName)) {
@@ -464,51 +889,53 @@ public class Manager {
 		
 		RTTLogging.info("Test suite: " + suiteName + " - Configuration: " + config.getName());
 		
-		Executor executor = DataGenerator.locateInitialNode(config, baseDir);
+		Executor executor = locateInitialNode(config);
+		long suiteDeadline = getDeadline(config);
 		
 		RTTLogging.info("**** Generate reference data ****");
 		
-		for (Testcase tcase : currentArchive.getTestcases(suiteName)) {	
-			
-			// load reference data for the test case
-			OutputDataManager refManager = new OutputDataManager(
-					currentArchive.getLoader(), suiteName, tcase.getName(),
-					config, OutputDataType.REFERENCE);
-
-			// create new reference data
-			GenerationResult result = refManager.createData(executor,
-					tcase.getInputID(), tcase.getParameter());
+		try (CaseScheduler<GenerationResult> scheduler = new CaseScheduler<>(workerCount)) {
+			for (Testcase tcase : currentArchive.getTestcases(suiteName)) {
+				scheduler.submit(new ReferenceTask(suiteName, tcase, config, 
+						executor, suiteDeadline));
+			}
 			
-			StringBuilder infoMessage = new StringBuilder();
-			infoMessage.append("[" + suiteName + "/" + tcase.getName() + "]");
-
-			if (result.noError) {
-				// No error during the generation of the reference data
-				refManager.save();
+			for (int index = 0; index < scheduler.size(); index++) {
+				GenerationResult result = scheduler.get(index);
 				
-				infoMessage.append(" has been generated");
-
-				// if reference data has replaced, update version data
-				if (result.hasReplaced) {
-					String configName = config.getName();
-					VersionData versionData = currentArchive.getVersionData(tcase, configName, true);
-					versionData.setReferenceID(versionData.getReferenceID() + 1);
+				StringBuilder infoMessage = new StringBuilder();
+				infoMessage.append("[" + suiteName + "/" + result.caseName + "]");
+				
+				if (result.cancelled) {
+					genInfos.addResult(result);
+					RTTLogging.info(infoMessage.append(" has been cancelled").toString());
 					
-					infoMessage.append(" and replaced");
+					continue;
 				}
-			} else {
-				infoMessage.append(" has NOT been generated");
-				
-				StringBuilder errorMessage = new StringBuilder();
-				errorMessage.append("[Exception] in Test case [");
-				errorMessage.append(suiteName + "/" + tcase.getName());
-				errorMessage.append("]: ");
-				
-				RTTLogging.error(errorMessage.toString(), result.exception);
+	
+				if (result.noError) {
+					infoMessage.append(" has been generated");
+	
+					if (result.hasReplaced) {
+						infoMessage.append(" and replaced");
+					}
+				} else {
+					infoMessage.append(" has NOT been generated");
+					if (result.timedOut) {
+						infoMessage.append(", because it exceeded its time limit");
+					}
+					
+					StringBuilder errorMessage = new StringBuilder();
+					errorMessage.append("[Exception] in Test case [");
+					errorMessage.append(suiteName + "/" + result.caseName);
+					errorMessage.append("]: ");
+					
+					RTTLogging.error(errorMessage.toString(), result.exception);
+				}
+	
+				genInfos.addResult(result);
+				RTTLogging.info(infoMessage.toString());
 			}
-
-			genInfos.addResult(result);
-			RTTLogging.info(infoMessage.toString());
 		}
 
 		List<Detail> details = genInfos.makeDetails(true);
@@ -529,6 +956,7 @@ public class Manager {
 			throws Exception {
 
 		GenerationInformation results = new GenerationInformation(GenerationType.TEST_DATA);
+		cancelled.set(false);
 		
 		if (suiteName == null) {
 			List<Testsuite> suites = currentArchive.getTestsuites(false);
@@ -553,37 +981,391 @@ public class Manager {
 		}
 		
 		
+		MetricsSnapshot startMetrics = Metrics.snapshot();
+		
 		GenerationInformation genInfos = new GenerationInformation(GenerationType.TEST_DATA);
 		Configuration config = currentArchive.getActiveConfiguration();
 		
 		RTTLogging.info("Test suite: " + suiteName + " - Configuration: " + config.getName());
 		
-		Executor executor = DataGenerator.locateInitialNode(config, baseDir);
+		Executor executor = locateInitialNode(config);
+		long suiteDeadline = getDeadline(config);
+		
+		ResultFingerprint fingerprint = null;
+		if (resultCache) {
+			fingerprint = new ResultFingerprint(config, baseDir);
+		}
+		
+		ClassDigests digests = null;
+		if (impactSelection) {
+			digests = new ClassDigests(config.getClasspath(), baseDir);
+		}
 		
 		Tester tester = new Tester(currentArchive.getLoader(), matching);
+		tester.setManifest(currentArchive.getManifestManager());
+		tester.setStreaming(streamingOutput);
+		tester.setFullDiff(fullDiff);
+		tester.setPerformanceCheck(performanceCheck);
+		tester.setCostTolerance(costTolerance);
 		List<TestResult> testResults = new ArrayList<TestResult>();
 		
 		RTTLogging.info("**** Running tests ****");
+		
+		try (CaseScheduler<TestTask> scheduler = new CaseScheduler<>(workerCount)) {
+			for (Testcase tcase : currentArchive.getTestcases(suiteName)) {
+				TestTask task = new TestTask(suiteName, tcase, config, 
+						executor, tester, fingerprint);
+				task.suiteDeadline = suiteDeadline;
+				
+				if (digests != null) {
+					task.recordClasses = true;
+					task.skipped = !isImpacted(suiteName, tcase, config, digests);
+				}
+				
+				scheduler.submit(task);
+			}
+			
+			for (int index = 0; index < scheduler.size(); index++) {
+				TestTask task = scheduler.get(index);
+				if (task.skipped) {
+					testResults.add(task.testResult);
+					RTTLogging.info("[" + suiteName + "/" + task.tcase.getName() 
+							+ "] has been skipped, because it is not impacted by a change");
+					
+					continue;
+				}
+				
+				if (task.loadedClasses != null) {
+					updateCoverage(task, digests);
+				}
+				
+				GenerationResult genResult = task.genResult;
+				genInfos.addResult(genResult);
+				
+				StringBuilder infoMessage = new StringBuilder();
+				infoMessage.append("[" + suiteName + "/" + genResult.caseName + "]");
+				
+				if (genResult.cancelled) {
+					testResults.add(task.testResult);
+					RTTLogging.info(infoMessage.append(" has been cancelled").toString());
+					
+					continue;
+				}
+				
+				if (genResult.timedOut) {
+					testResults.add(task.testResult);
+					RTTLogging.warn("[Timeout] in Test case [" + suiteName + "/" 
+							+ genResult.caseName + "]: " + genResult.exception.getMessage());
+					
+					RTTLogging.info(infoMessage.append(" has been stopped, because it exceeded its time limit").toString());
+					continue;
+				}
+				
+				infoMessage.append(" has been tested");
+				if (genResult.fromCache) {
+					infoMessage.append(" with unchanged test data");
+				}
+				
+				if (genResult.noError) {
+					TestResult caseResults = task.testResult;
+					
+					if (caseResults != null) { 
+						// results for test case are present -> no exceptions occurred
+						if (caseResults.getType() == ResultType.FAILURE) {
+							List<ITestFailure> failures = caseResults.getFailures();
+							StringBuilder warnMessage = new StringBuilder();
+							
+							for (ITestFailure failure : failures) {
+								warnMessage.append("[Failure] in Test case [");
+								warnMessage.append(suiteName + "/" + genResult.caseName);
+								warnMessage.append("]: ");
+								warnMessage.append(failure.getMessage());						
+							}
+							
+							RTTLogging.warn(warnMessage.toString());
+							infoMessage.append(" with failures");
+						} else {
+							infoMessage.append(" with no errors");
+						}
+	
+						testResults.add(caseResults);
+					}
+				} else {
+					// no results for test case -> exception occurred
+					StringBuilder errorMessage = new StringBuilder();
+					errorMessage.append("[Exception] in Test case [");
+					errorMessage.append(suiteName + "/" + genResult.caseName);
+					errorMessage.append("]: ");
+	
+					RTTLogging.error(errorMessage.toString(), genResult.exception);
+					infoMessage.append(" with exception(s)");
+				}
+				
+				RTTLogging.info(infoMessage.toString());
+			}
+		}
+		
+		List<Detail> details = genInfos.makeDetails(false);
+		if (genInfos.hasErrors() && !details.isEmpty()) {
+			String message = "Test data for test suite [" + suiteName + "] generated errors with configuration: ";
+			currentLog.addEntry(EntryType.INFO, message, config.getName(), details);
+		}
+		
+		MetricsSnapshot runMetrics = Metrics.snapshot().since(startMetrics);
+		RTTLogging.debug("Metrics of the test run: " + runMetrics);
+		
+		currentLog.addTestrunResult(testResults, config.getName(), suiteName, runMetrics);	
+
+		return genInfos;
+	}
+
+	private long getDeadline(Configuration config) {
+		if (config.getSuiteTimeout() > 0) {
+			return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getSuiteTimeout());
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * Creates the limit for the generation of a single test case. The time 
+	 * limit of the test case overrides the one of the configuration and 
+	 * will be reduced to the remaining time of the test suite.
+	 */
+	private GenerationLimit createLimit(Testcase tcase, Configuration config, 
+			long suiteDeadline) throws TimeoutException {
+		
+		if (cancelled.get()) {
+			throw new CancellationException("The run has been cancelled.");
+		}
+		
+		long timeout = config.getCaseTimeout();
+		if (tcase.getTimeout() != null) {
+			timeout = tcase.getTimeout();
+		}
+		
+		if (suiteDeadline != 0) {
+			long remaining = TimeUnit.NANOSECONDS.toMillis(suiteDeadline - System.nanoTime());
+			if (remaining <= 0) {
+				throw new TimeoutException("The test suite exceeded its time limit of " 
+						+ config.getSuiteTimeout() + " ms.");
+			}
+			
+			if (timeout <= 0 || remaining < timeout) {
+				timeout = remaining;
+			}
+		}
+		
+		return new GenerationLimit(timeout, cancelled);
+	}
+	
+	private static GenerationResult createNotStarted(String suiteName, 
+			String caseName, Exception exception) {
+		
+		GenerationResult result = new GenerationResult(suiteName, caseName);
+		result.timedOut = exception instanceof TimeoutException;
+		result.cancelled = exception instanceof CancellationException;
+		result.exception = exception;
+		
+		return result;
+	}
+	
+	private List<String> getCaseValues(Testcase tcase, Configuration config) {
+		VersionData versionData = currentArchive.getVersionData(tcase, config.getName(), false);
+		
+		List<String> values = new ArrayList<>();
+		values.add(config.getInitialNode());
+		values.add(String.valueOf(tcase.getInputID()));
+		values.add(String.valueOf(versionData != null ? versionData.getReferenceID() : null));
+		values.addAll(tcase.getParameter());
+		
+		return values;
+	}
+	
+	private boolean isImpacted(String suiteName, Testcase tcase, 
+			Configuration config, ClassDigests digests) {
+		
+		TestcaseCoverage coverage = currentArchive.getCoverage(
+				config.getName(), suiteName, tcase.getName());
+		
+		if (coverage == null) {
+			return true;
+		}
+		
+		String hash = digests.getHash(getCaseValues(tcase, config), coverage.getLoadedClass());
+		return !hash.equals(coverage.getHash());
+	}
+	
+	private void updateCoverage(TestTask task, ClassDigests digests) {
+		String configName = task.config.getName();
+		String caseName = task.tcase.getName();
+		
+		// classes found by the parent loader are not recorded, so without 
+		// the initial node the recorded classes are not the used ones
+		if (!task.loadedClasses.contains(task.config.getInitialNode())) {
+			RTTLogging.debug("[" + task.suiteName + "/" + caseName + "] has no coverage, "
+					+ "because the initial node has been loaded outside of the class path");
+			currentArchive.removeCoverage(configName, task.suiteName, caseName);
+		} else if (task.testResult != null && task.testResult.getType() == ResultType.SUCCESS) {
+			String hash = digests.getHash(getCaseValues(task.tcase, task.config), task.loadedClasses);
+			currentArchive.setCoverage(configName, task.suiteName, caseName, hash, task.loadedClasses);
+		} else {
+			// failed test cases are executed again by the next run
+			currentArchive.removeCoverage(configName, task.suiteName, caseName);
+		}
+	}
+
+	/**
+	 * Generates the reference data of a single test case. The version data
+	 * of the test case will be updated, if the reference data has been
+	 * replaced.
+	 */
+	private final class ReferenceTask implements Callable<GenerationResult> {
+		
+		private final String suiteName;
+		private final Testcase tcase;
+		private final Configuration config;
+		private final Executor executor;
+		private final long suiteDeadline;
+		
+		public ReferenceTask(String suiteName, Testcase tcase, 
+				Configuration config, Executor executor, long suiteDeadline) {
+			
+			this.suiteName = suiteName;
+			this.tcase = tcase;
+			this.config = config;
+			this.executor = executor;
+			this.suiteDeadline = suiteDeadline;
+		}
+		
+		@Override
+		public GenerationResult call() throws Exception {
+			GenerationLimit limit = null;
+			try {
+				limit = createLimit(tcase, config, suiteDeadline);
+			} catch (TimeoutException | CancellationException exception) {
+				return createNotStarted(suiteName, tcase.getName(), exception);
+			}
+			
+			// load reference data for the test case
+			OutputDataManager refManager = new OutputDataManager(
+					currentArchive.getLoader(), suiteName, tcase.getName(),
+					config, OutputDataType.REFERENCE, 
+					currentArchive.getManifestManager());
+			refManager.setStreaming(streamingOutput);
+			refManager.setOutputFormat(currentArchive.getOutputFormat());
+			refManager.setDeltaChainLength(currentArchive.getDeltaChainLength());
+			refManager.setLimit(limit);
+			refManager.setWorkerPool(workerPool, baseDir);
+			refManager.setCostMeasurement(costWarmup, costIterations);
 
-		for (Testcase tcase : currentArchive.getTestcases(suiteName)) {
+			// create new reference data
+			GenerationResult result = refManager.createData(executor,
+					tcase.getInputID(), tcase.getParameter());
+			
+			if (result.noError) {
+				// No error during the generation of the reference data
+				refManager.save();
+				
+				// if reference data has replaced, update version data
+				if (result.hasReplaced) {
+					VersionData versionData = currentArchive.getVersionData(
+							tcase, config.getName(), true);
+					versionData.setReferenceID(versionData.getReferenceID() + 1);
+				}
+			}
+			
+			return result;
+		}
+	}
+	
+	/**
+	 * Generates the test data of a single test case and compares it to 
+	 * the reference data.
+	 */
+	private final class TestTask implements Callable<TestTask> {
+		
+		private final String suiteName;
+		private final Testcase tcase;
+		private final Configuration config;
+		private final Executor executor;
+		private final Tester tester;
+		private final ResultFingerprint fingerprint;
+		
+		GenerationResult genResult = null;
+		TestResult testResult = null;
+		
+		long suiteDeadline = 0;
+		
+		// used by the selection of impacted test cases
+		boolean skipped = false;
+		boolean recordClasses = false;
+		Set<String> loadedClasses = null;
+		
+		public TestTask(String suiteName, Testcase tcase, Configuration config, 
+				Executor executor, Tester tester, ResultFingerprint fingerprint) {
+			
+			this.suiteName = suiteName;
+			this.tcase = tcase;
+			this.config = config;
+			this.executor = executor;
+			this.tester = tester;
+			this.fingerprint = fingerprint;
+		}
+		
+		@Override
+		public TestTask call() throws Exception {
+			if (skipped) {
+				testResult = createResult(ResultType.SKIPPED);
+				return this;
+			}
+			
+			GenerationLimit limit = null;
+			try {
+				limit = createLimit(tcase, config, suiteDeadline);
+			} catch (TimeoutException | CancellationException exception) {
+				genResult = createNotStarted(suiteName, tcase.getName(), exception);
+				checkStopped();
+				
+				return this;
+			}
 			
 			// Create new test data manager 
 			OutputDataManager testManager = new OutputDataManager(
 					currentArchive.getLoader(), suiteName,
-					tcase.getName(), config, OutputDataType.TEST);
+					tcase.getName(), config, OutputDataType.TEST, 
+					currentArchive.getManifestManager());
+			testManager.setStreaming(streamingOutput);
+			testManager.setOutputFormat(currentArchive.getOutputFormat());
+			testManager.setDeltaChainLength(currentArchive.getDeltaChainLength());
+			testManager.setFingerprint(fingerprint);
+			testManager.setLimit(limit);
+			testManager.setWorkerPool(workerPool, baseDir);
+			testManager.setCostMeasurement(costWarmup, costIterations);
 			
 			// Create new test data ...
-			GenerationResult genResult = testManager.createData(executor, tcase.getInputID(), tcase.getParameter());
-			genInfos.addResult(genResult);
-			
-			StringBuilder infoMessage = new StringBuilder();
-			infoMessage.append("[" + suiteName + "/" + tcase.getName() + "]");
-			infoMessage.append(" has been tested");
+			if (recordClasses && workerPool != null) {
+				// the worker records all classes of this test case
+				loadedClasses = new HashSet<>();
+				testManager.setLoadedClasses(loadedClasses);
+				genResult = testManager.createData(executor, tcase.getInputID(), tcase.getParameter());
+			} else if (recordClasses) {
+				// a new loader records all classes of this test case
+				try (ExecutorLoader loader = new ExecutorLoader(
+						config.getClasspath(), baseDir, true)) {
+					
+					Executor caseExecutor = DataGenerator.locateInitialNode(config, loader);
+					genResult = testManager.createData(caseExecutor, tcase.getInputID(), tcase.getParameter());
+					loadedClasses = loader.getLoadedClasses();
+				}
+			} else {
+				genResult = testManager.createData(executor, tcase.getInputID(), tcase.getParameter());
+			}
 			
-			// if test data could not have been generated, show skip
-			TestResult caseResults = new TestResult(ResultType.SKIPPED, suiteName, tcase.getName());
 			if (genResult.noError) {
-				testManager.save();
+				if (!genResult.fromCache) {
+					testManager.save();
+				}
 				
 				if (genResult.hasReplaced) {
 					VersionData versionData = currentArchive.getVersionData(tcase, config.getName(), true);
@@ -591,58 +1373,59 @@ public class Manager {
 				}
 				
 				// do testing
-				caseResults = tester.test(suiteName, tcase, config);
-				
-				if (caseResults != null) { 
-					// results for test case are present -> no exceptions occurred
-					if (caseResults.getType() == ResultType.FAILURE) {
-						List<ITestFailure> failures = caseResults.getFailures();
-						StringBuilder warnMessage = new StringBuilder();
-						
-						for (ITestFailure failure : failures) {
-							warnMessage.append("[Failure] in Test case [");
-							warnMessage.append(suiteName + "/" + tcase.getName());
-							warnMessage.append("]: ");
-							warnMessage.append(failure.getMessage());						
-						}
-						
-						RTTLogging.warn(warnMessage.toString());
-						infoMessage.append(" with failures");
-					} else {
-						infoMessage.append(" with no errors");
-					}
-
-					testResults.add(caseResults);
-				}
+				testResult = tester.test(suiteName, tcase, config);
 			} else {
-				// no results for test case -> exception occurred
-				StringBuilder errorMessage = new StringBuilder();
-				errorMessage.append("[Exception] in Test case [");
-				errorMessage.append(suiteName + "/" + tcase.getName());
-				errorMessage.append("]: ");
-
-				RTTLogging.error(errorMessage.toString(), genResult.exception);
-				infoMessage.append(" with exception(s)");
+				checkStopped();
 			}
 			
-			RTTLogging.info(infoMessage.toString());
+			return this;
 		}
 		
-		List<Detail> details = genInfos.makeDetails(false);
-		if (genInfos.hasErrors() && !details.isEmpty()) {
-			String message = "Test data for test suite [" + suiteName + "] generated errors with configuration: ";
-			currentLog.addEntry(EntryType.INFO, message, config.getName(), details);
+		private void checkStopped() {
+			if (genResult.timedOut) {
+				testResult = createResult(ResultType.TIMEOUT);
+				testResult.addFailure(new TestExecutionFailure(genResult.exception));
+			} else if (genResult.cancelled) {
+				testResult = createResult(ResultType.SKIPPED);
+			}
 		}
 		
-		currentLog.addTestrunResult(testResults, config.getName(), suiteName);	
-
-		return genInfos;
+		private TestResult createResult(ResultType type) {
+			TestResult result = new TestResult(type, suiteName, tcase.getName());
+			
+			VersionData versionData = currentArchive.getVersionData(tcase, config.getName(), false);
+			if (versionData != null) {
+				result.setRefVersion(versionData.getReferenceID());
+				result.setTestVersion(versionData.getTestID());
+			}
+			
+			return result;
+		}
 	}
 
 	public void close() {
 		archivePath = null;
 		currentLog = null;
-		currentArchive.close();
-		currentArchive = null;
+		if (currentArchive != null) {
+			currentArchive.close();
+			currentArchive = null;
+		}
+		
+		loaderCache.close();
+		if (workerPool != null) {
+			workerPool.close();
+		}
+	}
+	
+	private Executor locateInitialNode(Configuration config) throws Exception {
+		RTTLogging.info("Initial Node: " + config.getInitialNode());
+		if (workerPool != null) {
+			// the initial node is located by the worker processes
+			workerPool.prestart(workerCount);
+			return null;
+		}
+		
+		return DataGenerator.locateInitialNode(config, 
+				loaderCache.getLoader(config.getClasspath(), baseDir));
 	}
 }
@@ -3,7 +3,6 @@ package rtt.core.manager.data;
 import java.io.InputStream;
 import java.io.OutputStream;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
@@ -16,6 +15,8 @@ import rtt.core.exceptions.RTTException;
 import rtt.core.exceptions.RTTException.Type;
 import rtt.core.loader.ArchiveLoader;
 import rtt.core.loader.fetching.IFileFetching;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Phase;
 import rtt.core.utils.RTTLogging;
 
 /**
@@ -143,17 +144,21 @@ public abstract class AbstractDataManager<T> {
 	 *             thrown, if any errors occur during loading
 	 * @see AbstractDataManager
 	 * @see InputStream
+	 * @see JAXBRegistry#getUnmarshaller(Class)
 	 * @see Unmarshaller#unmarshal(Source, Class)
 	 */
 	protected Object unmarshall(Class<?> clazz, InputStream inputStream)
 			throws Exception {
-		// create new context and an unmarshaller
-		JAXBContext jc = JAXBContext.newInstance(clazz);
-		Unmarshaller unmarshaller = jc.createUnmarshaller();
+		long start = Metrics.start();
+		
+		// get the shared unmarshaller of the current thread
+		Unmarshaller unmarshaller = JAXBRegistry.getUnmarshaller(clazz);
 
 		// unmarshall data from stream source
 		Source source = new StreamSource(inputStream);
 		JAXBElement<?> element = unmarshaller.unmarshal(source, clazz);
+		
+		Metrics.stop(Phase.UNMARSHAL, start);
 
 		// return value of jaxb element
 		return element.getValue();
@@ -188,17 +193,16 @@ public abstract class AbstractDataManager<T> {
 	 *            the {@link OutputStream}
 	 * @see AbstractDataManager
 	 * @see OutputStream
+	 * @see JAXBRegistry#getMarshaller(Class)
 	 * @see Marshaller#marshal(Object, Result)
 	 */
 	protected void marshall(Class<?> clazz, Object data,
 			OutputStream outputStream) {
 		if (outputStream != null) {
+			long start = Metrics.start();
 			try {
-				// create new context and marshaller
-				JAXBContext jc = JAXBContext.newInstance(clazz);
-
-				Marshaller marshaller = jc.createMarshaller();
-				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+				// get the shared marshaller of the current thread
+				Marshaller marshaller = JAXBRegistry.getMarshaller(clazz);
 				
 				// TODO add CDATA support for values
 //				XMLOutputFactory xof = XMLOutputFactory.newInstance();
@@ -212,6 +216,8 @@ public abstract class AbstractDataManager<T> {
 			} catch (Exception e) {
 				RTTLogging.error("Could not marshall output data", e);
 			}
+			
+			Metrics.stop(Phase.MARSHAL, start);
 		}
 	}
 	
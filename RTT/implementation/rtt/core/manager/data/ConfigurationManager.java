@@ -7,6 +7,7 @@ import java.util.TreeSet;
 import rtt.core.archive.configuration.Classpath;
 import rtt.core.archive.configuration.Configuration;
 import rtt.core.archive.configuration.Configurations;
+import rtt.core.archive.history.OutputFormat;
 import rtt.core.loader.ArchiveLoader;
 import rtt.core.loader.fetching.SimpleFileFetching;
 import rtt.core.utils.RTTLogging;
@@ -308,6 +309,60 @@ public class ConfigurationManager extends AbstractDataManager<Configurations> {
 		return true;
 	}
 
+	/**
+	 * Returns the format, in which new versions of output data are stored
+	 * within the archive.
+	 * 
+	 * @return the {@link OutputFormat}
+	 */
+	public OutputFormat getOutputFormat() {
+		return OutputFormat.fromValue(data.getOutputFormat());
+	}
+
+	/**
+	 * Sets the format, in which new versions of output data are stored
+	 * within the archive.
+	 * 
+	 * @param format
+	 *            the new {@link OutputFormat}
+	 * @return true, if the format has been changed
+	 */
+	public boolean setOutputFormat(OutputFormat format) {
+		if (format == getOutputFormat()) {
+			return false;
+		}
+		
+		data.setOutputFormat(format.value());
+		return true;
+	}
+
+	/**
+	 * Returns the maximum number of versions of output data, which are
+	 * stored as deltas between two full versions.
+	 * 
+	 * @return the maximum length of delta chains, 0 if disabled
+	 */
+	public int getDeltaChainLength() {
+		return data.getDeltaChainLength();
+	}
+
+	/**
+	 * Sets the maximum number of versions of output data, which are
+	 * stored as deltas between two full versions.
+	 * 
+	 * @param length
+	 *            the new maximum length, 0 disables deltas
+	 * @return true, if the length has been changed
+	 */
+	public boolean setDeltaChainLength(int length) {
+		if (length == getDeltaChainLength()) {
+			return false;
+		}
+		
+		data.setDeltaChainLength(length);
+		return true;
+	}
+
 	/**
 	 * Prints informations about all configurations to the current logging.
 	 * 
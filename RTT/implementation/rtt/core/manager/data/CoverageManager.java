@@ -0,0 +1,154 @@
+package rtt.core.manager.data;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import rtt.core.archive.coverage.ConfigurationCoverage;
+import rtt.core.archive.coverage.Coverage;
+import rtt.core.archive.coverage.TestcaseCoverage;
+import rtt.core.loader.ArchiveLoader;
+import rtt.core.loader.fetching.SimpleFileFetching;
+
+/**
+ * Manages the classes, which have been loaded by each test case during its
+ * last execution. This information is used to select only the test cases,
+ * which are impacted by a change of the class path.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ * @see rtt.core.utils.ClassDigests
+ */
+public class CoverageManager extends AbstractDataManager<Coverage> {
+	
+	// the data, from which the index has been built
+	private Coverage indexedData = null;
+	private Map<String, Map<String, TestcaseCoverage>> caseIndex;
+
+	public CoverageManager(ArchiveLoader loader) {
+		super(loader, new SimpleFileFetching("coverage.xml", ""));
+	}
+
+	@Override
+	protected Coverage doLoad() throws Exception {
+		try {
+			return unmarshall(Coverage.class);
+		} catch (Exception e) {
+			// archives without coverage data
+			return new Coverage();
+		}
+	}
+
+	@Override
+	protected void doSave(Coverage data) throws Exception {
+		marshall(Coverage.class, data);
+	}
+
+	@Override
+	protected Coverage getEmptyData() {
+		return new Coverage();
+	}
+	
+	private static String getKey(String suiteName, String caseName) {
+		return suiteName + "/" + caseName;
+	}
+	
+	private Map<String, TestcaseCoverage> getCaseIndex(String configName) {
+		if (indexedData != data) {
+			caseIndex = new HashMap<>();
+			indexedData = data;
+		}
+		
+		Map<String, TestcaseCoverage> cases = caseIndex.get(configName);
+		if (cases == null) {
+			cases = new HashMap<>();
+			
+			ConfigurationCoverage config = getConfiguration(configName, false);
+			if (config != null) {
+				for (TestcaseCoverage testcase : config.getTestcase()) {
+					cases.put(getKey(testcase.getSuite(), testcase.getName()), testcase);
+				}
+			}
+			
+			caseIndex.put(configName, cases);
+		}
+		
+		return cases;
+	}
+	
+	private ConfigurationCoverage getConfiguration(String configName, boolean create) {
+		for (ConfigurationCoverage config : data.getConfiguration()) {
+			if (config.getName().equals(configName)) {
+				return config;
+			}
+		}
+		
+		if (create) {
+			ConfigurationCoverage config = new ConfigurationCoverage();
+			config.setName(configName);
+			data.getConfiguration().add(config);
+			
+			return config;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Returns the coverage of a test case within the given configuration.
+	 * 
+	 * @param configName the name of the configuration
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @return the coverage or {@code null}, if none has been recorded
+	 */
+	public TestcaseCoverage getCoverage(String configName, String suiteName, String caseName) {
+		return getCaseIndex(configName).get(getKey(suiteName, caseName));
+	}
+	
+	/**
+	 * Sets the coverage of a test case within the given configuration.
+	 * 
+	 * @param configName the name of the configuration
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param hash the hash of the test case
+	 * @param loadedClasses the classes loaded by the test case
+	 */
+	public void setCoverage(String configName, String suiteName, String caseName,
+			String hash, Collection<String> loadedClasses) {
+		
+		Map<String, TestcaseCoverage> cases = getCaseIndex(configName);
+		String key = getKey(suiteName, caseName);
+		
+		TestcaseCoverage testcase = cases.get(key);
+		if (testcase == null) {
+			testcase = new TestcaseCoverage();
+			testcase.setSuite(suiteName);
+			testcase.setName(caseName);
+			
+			getConfiguration(configName, true).getTestcase().add(testcase);
+			cases.put(key, testcase);
+		}
+		
+		testcase.setHash(hash);
+		testcase.getLoadedClass().clear();
+		testcase.getLoadedClass().addAll(loadedClasses);
+	}
+	
+	/**
+	 * Removes the coverage of a test case, so it will be selected by the
+	 * next run.
+	 * 
+	 * @param configName the name of the configuration
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 */
+	public void removeCoverage(String configName, String suiteName, String caseName) {
+		TestcaseCoverage testcase = getCaseIndex(configName).remove(
+				getKey(suiteName, caseName));
+		
+		if (testcase != null) {
+			getConfiguration(configName, false).getTestcase().remove(testcase);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.manager.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * The {@code JAXBRegistry} holds a process-wide {@link JAXBContext} for each
+ * type, which is stored in the rtt archive. Creating a context is expensive,
+ * so each context is created only once and shared by all data managers.
+ * <p>
+ * A {@link JAXBContext} is thread-safe, but {@link Marshaller}s and
+ * {@link Unmarshaller}s are not. Therefore, each thread gets its own
+ * instances, which are reused for all following calls of this thread.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ * @see AbstractDataManager
+ */
+public final class JAXBRegistry {
+	
+	private static final ConcurrentMap<Class<?>, JAXBContext> CONTEXTS = 
+			new ConcurrentHashMap<>();
+	
+	private static final ThreadLocal<Map<Class<?>, Marshaller>> MARSHALLERS = 
+			new ThreadLocal<Map<Class<?>, Marshaller>>() {
+		@Override
+		protected Map<Class<?>, Marshaller> initialValue() {
+			return new HashMap<>();
+		}
+	};
+	
+	private static final ThreadLocal<Map<Class<?>, Unmarshaller>> UNMARSHALLERS = 
+			new ThreadLocal<Map<Class<?>, Unmarshaller>>() {
+		@Override
+		protected Map<Class<?>, Unmarshaller> initialValue() {
+			return new HashMap<>();
+		}
+	};
+	
+	private JAXBRegistry() {}
+	
+	/**
+	 * Returns the shared {@link JAXBContext} for the given class. The context
+	 * will be created, if it does not exist.
+	 * 
+	 * @param clazz
+	 *            the class of the data
+	 * @return the {@link JAXBContext} of the class
+	 * @throws JAXBException
+	 *             thrown, if the context could not be created
+	 */
+	public static JAXBContext getContext(Class<?> clazz) throws JAXBException {
+		if (clazz == null) {
+			throw new IllegalArgumentException("Class must not be null.");
+		}
+		
+		JAXBContext context = CONTEXTS.get(clazz);
+		if (context == null) {
+			JAXBContext newContext = JAXBContext.newInstance(clazz);
+			context = CONTEXTS.putIfAbsent(clazz, newContext);
+			if (context == null) {
+				context = newContext;
+			}
+		}
+		
+		return context;
+	}
+	
+	/**
+	 * Returns a {@link Marshaller} for the given class, which may only be 
+	 * used by the calling thread. The marshaller produces formatted output.
+	 * 
+	 * @param clazz
+	 *            the class of the data
+	 * @return a {@link Marshaller} of the current thread
+	 * @throws JAXBException
+	 *             thrown, if the marshaller could not be created
+	 */
+	public static Marshaller getMarshaller(Class<?> clazz) throws JAXBException {
+		Map<Class<?>, Marshaller> marshallers = MARSHALLERS.get();
+		
+		Marshaller marshaller = marshallers.get(clazz);
+		if (marshaller == null) {
+			marshaller = getContext(clazz).createMarshaller();
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+			
+			marshallers.put(clazz, marshaller);
+		}
+		
+		return marshaller;
+	}
+	
+	/**
+	 * Returns an {@link Unmarshaller} for the given class, which may only be
+	 * used by the calling thread.
+	 * 
+	 * @param clazz
+	 *            the class of the data
+	 * @return an {@link Unmarshaller} of the current thread
+	 * @throws JAXBException
+	 *             thrown, if the unmarshaller could not be created
+	 */
+	public static Unmarshaller getUnmarshaller(Class<?> clazz) throws JAXBException {
+		Map<Class<?>, Unmarshaller> unmarshallers = UNMARSHALLERS.get();
+		
+		Unmarshaller unmarshaller = unmarshallers.get(clazz);
+		if (unmarshaller == null) {
+			unmarshaller = getContext(clazz).createUnmarshaller();
+			unmarshallers.put(clazz, unmarshaller);
+		}
+		
+		return unmarshaller;
+	}
+}
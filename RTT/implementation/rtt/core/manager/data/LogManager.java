@@ -21,15 +21,21 @@ import javax.xml.transform.stream.StreamSource;
 import org.w3c.dom.Document;
 
 import rtt.core.archive.logging.ArchiveLog;
+import rtt.core.archive.logging.CounterMetric;
 import rtt.core.archive.logging.Detail;
 import rtt.core.archive.logging.Entry;
 import rtt.core.archive.logging.EntryType;
 import rtt.core.archive.logging.Failure;
+import rtt.core.archive.logging.PhaseMetric;
 import rtt.core.archive.logging.Result;
 import rtt.core.archive.logging.ResultType;
+import rtt.core.archive.logging.RunMetrics;
 import rtt.core.archive.logging.Testrun;
 import rtt.core.loader.ArchiveLoader;
 import rtt.core.loader.fetching.SimpleFileFetching;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+import rtt.core.metrics.MetricsSnapshot;
 import rtt.core.testing.compare.results.ITestFailure;
 import rtt.core.testing.compare.results.TestResult;
 import rtt.core.utils.RTTLogging;
@@ -207,6 +213,22 @@ public class LogManager extends AbstractDataManager<ArchiveLog> {
 	public void addTestrunResult(List<TestResult> testResults,
 			String configName, String suiteName) {
 		
+		addTestrunResult(testResults, configName, suiteName, null);
+	}
+	
+	/**
+	 * Adds a test run with a summary of the metrics of the run.
+	 * 
+	 * @param testResults the results of the test cases
+	 * @param configName the name of the used configuration
+	 * @param suiteName the name of the test suite
+	 * @param metrics the metrics of the run, e.g. 
+	 * 		{@link MetricsSnapshot#since(MetricsSnapshot)}, or {@code null}
+	 * @see RunMetrics
+	 */
+	public void addTestrunResult(List<TestResult> testResults,
+			String configName, String suiteName, MetricsSnapshot metrics) {
+		
 		Testrun tr = new Testrun();
 		tr.setDate(getNow());
 		tr.setConfiguration(configName);
@@ -244,6 +266,16 @@ public class LogManager extends AbstractDataManager<ArchiveLog> {
 				}
 				resultEntry.setType(ResultType.FAILED);
 				break;
+				
+			case TIMEOUT:
+				for (ITestFailure failure : result.getFailures()) {
+					Failure failureEntry = new Failure();
+					failureEntry.setMsg(failure.getMessage());
+					
+					resultEntry.getFailure().add(failureEntry);
+				}
+				resultEntry.setType(ResultType.TIMEOUT);
+				break;
 
 			case SUCCESS:
 				resultEntry.setType(ResultType.PASSED);
@@ -256,8 +288,39 @@ public class LogManager extends AbstractDataManager<ArchiveLog> {
 
 			tr.getResult().add(resultEntry);
 		}
+		
+		if (metrics != null) {
+			tr.setMetrics(createRunMetrics(metrics));
+		}
+		
 		data.getEntry().add(tr);
 	}
+	
+	private static RunMetrics createRunMetrics(MetricsSnapshot metrics) {
+		RunMetrics runMetrics = new RunMetrics();
+		runMetrics.setDuration(metrics.getElapsed() / 1e6);
+		
+		for (Phase phase : Phase.values()) {
+			if (metrics.getCount(phase) > 0) {
+				PhaseMetric phaseMetric = new PhaseMetric();
+				phaseMetric.setName(phase.name());
+				phaseMetric.setCount(metrics.getCount(phase));
+				phaseMetric.setTime(metrics.getTime(phase) / 1e6);
+				
+				runMetrics.getPhase().add(phaseMetric);
+			}
+		}
+		
+		for (Counter counter : Counter.values()) {
+			CounterMetric counterMetric = new CounterMetric();
+			counterMetric.setName(counter.name());
+			counterMetric.setValue(metrics.getCounter(counter));
+			
+			runMetrics.getCounter().add(counterMetric);
+		}
+		
+		return runMetrics;
+	}
 
 	/**
 	 * Exports the complete {@link ArchiveLog} to a given location.
@@ -0,0 +1,254 @@
+package rtt.core.manager.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import rtt.core.archive.history.History;
+import rtt.core.archive.history.Manifest;
+import rtt.core.archive.history.ManifestEntry;
+import rtt.core.archive.history.Version;
+import rtt.core.archive.testsuite.Testcase;
+import rtt.core.archive.testsuite.VersionData;
+import rtt.core.loader.ArchiveLoader;
+import rtt.core.loader.fetching.SimpleFileFetching;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.utils.RTTLogging;
+
+/**
+ * Manages the manifest of an archive, which contains the input, reference
+ * and test histories of all test cases. The history managers read their
+ * history from the manifest, so they don't need to open a file for each
+ * test case. Histories, which are not contained in the manifest, e.g. in
+ * older archives, are read from their own file and added to the manifest.
+ * <p>
+ * The manifest holds the same history objects as the history managers, so
+ * it always reflects their latest changes. It is written as a single file
+ * together with the test suites, while the history managers still write
+ * their own files for older versions of RTT.
+ * <p>
+ * Older versions of RTT don't update the manifest, but they update the
+ * latest version of each history within the test suites. Therefore, each 
+ * entry is checked against the test suites, when the archive is loaded 
+ * (see {@link #validate(TestsuiteManager)}). Entries, whose latest version
+ * differs, are removed, so their histories are read from their own files 
+ * again.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ * @see rtt.core.manager.data.history.InputManager
+ * @see rtt.core.manager.data.history.OutputDataManager
+ */
+public class ManifestManager extends AbstractDataManager<Manifest> {
+
+	/**
+	 * The type of input histories.
+	 */
+	public static final String INPUT_TYPE = "input";
+
+	// the data, from which the index has been built
+	private Manifest indexedData = null;
+	private Map<String, ManifestEntry> entryIndex;
+
+	public ManifestManager(ArchiveLoader loader) {
+		super(loader, new SimpleFileFetching("manifest.xml", ""));
+	}
+
+	@Override
+	protected Manifest doLoad() throws Exception {
+		try {
+			return unmarshall(Manifest.class);
+		} catch (Exception e) {
+			// archives without manifest
+			return new Manifest();
+		}
+	}
+
+	@Override
+	protected synchronized void doSave(Manifest data) throws Exception {
+		marshall(Manifest.class, data);
+	}
+
+	@Override
+	protected Manifest getEmptyData() {
+		return new Manifest();
+	}
+
+	private static String getKey(String suiteName, String caseName,
+			String configName, String type) {
+
+		return suiteName + "/" + caseName + "/" + configName + "/" + type;
+	}
+
+	private Map<String, ManifestEntry> getEntryIndex() {
+		if (indexedData != data) {
+			entryIndex = new HashMap<>();
+			for (ManifestEntry entry : data.getEntry()) {
+				entryIndex.put(getKey(entry.getSuite(), entry.getCase(),
+						entry.getConfig(), entry.getType()), entry);
+			}
+
+			indexedData = data;
+		}
+
+		return entryIndex;
+	}
+
+	/**
+	 * Returns a history of a test case.
+	 *
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param configName the name of the configuration or {@code null}
+	 * 		for the input history
+	 * @param type the type of the history, e.g. {@link #INPUT_TYPE}
+	 * @return the history or {@code null}, if the manifest contains no
+	 * 		such history
+	 */
+	public synchronized History getHistory(String suiteName, String caseName,
+			String configName, String type) {
+
+		ManifestEntry entry = getEntryIndex().get(
+				getKey(suiteName, caseName, configName, type));
+
+		if (entry == null) {
+			return null;
+		}
+
+		Metrics.increment(Counter.MANIFEST_HITS);
+		return entry.getHistory();
+	}
+
+	/**
+	 * Adds a history of a test case to the manifest or replaces it.
+	 *
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param configName the name of the configuration or {@code null}
+	 * 		for the input history
+	 * @param type the type of the history, e.g. {@link #INPUT_TYPE}
+	 * @param history the history
+	 */
+	public synchronized void setHistory(String suiteName, String caseName,
+			String configName, String type, History history) {
+
+		Map<String, ManifestEntry> entries = getEntryIndex();
+		String key = getKey(suiteName, caseName, configName, type);
+
+		ManifestEntry entry = entries.get(key);
+		if (entry == null) {
+			entry = new ManifestEntry();
+			entry.setSuite(suiteName);
+			entry.setCase(caseName);
+			entry.setConfig(configName);
+			entry.setType(type);
+
+			data.getEntry().add(entry);
+			entries.put(key, entry);
+		}
+
+		entry.setHistory(history);
+	}
+
+	/**
+	 * Removes all histories of a test case or of a whole test suite.
+	 *
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case or {@code null} for all
+	 * 		test cases of the test suite
+	 */
+	public synchronized void removeHistories(String suiteName, String caseName) {
+		Iterator<ManifestEntry> entries = data.getEntry().iterator();
+		while (entries.hasNext()) {
+			ManifestEntry entry = entries.next();
+			if (entry.getSuite().equals(suiteName)
+					&& (caseName == null || entry.getCase().equals(caseName))) {
+
+				entries.remove();
+				getEntryIndex().remove(getKey(entry.getSuite(), entry.getCase(),
+						entry.getConfig(), entry.getType()));
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries, which don't match the given test suites: the 
+	 * test case must exist and the latest version of the history must be 
+	 * the version recorded within the test case. Otherwise, the history 
+	 * has been changed without the manifest, e.g. by an older version of 
+	 * RTT, or belongs to a removed test case.
+	 *
+	 * @param suiteManager the {@link TestsuiteManager} of the archive
+	 */
+	public void validate(TestsuiteManager suiteManager) {
+		List<ManifestEntry> entries = null;
+		synchronized (this) {
+			entries = new ArrayList<>(data.getEntry());
+		}
+
+		// the test suites are read without holding the lock of the manifest
+		List<ManifestEntry> staleEntries = new ArrayList<>();
+		for (ManifestEntry entry : entries) {
+			Integer expectedVersion = getRecordedVersion(suiteManager, entry);
+			if (expectedVersion == null 
+					|| expectedVersion != getLatestVersion(entry.getHistory())) {
+
+				staleEntries.add(entry);
+			}
+		}
+
+		if (!staleEntries.isEmpty()) {
+			RTTLogging.debug("Manifest contains " + staleEntries.size() 
+					+ " outdated histories, which will be read from their own files.");
+
+			synchronized (this) {
+				for (ManifestEntry entry : staleEntries) {
+					data.getEntry().remove(entry);
+					getEntryIndex().remove(getKey(entry.getSuite(), entry.getCase(),
+							entry.getConfig(), entry.getType()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the latest version of the history of the given entry, which 
+	 * is recorded within the test suites, or {@code null}, if the test 
+	 * case doesn't exist anymore.
+	 */
+	private static Integer getRecordedVersion(TestsuiteManager suiteManager, 
+			ManifestEntry entry) {
+
+		Testcase testcase = suiteManager.getTestcase(entry.getSuite(), entry.getCase(), false);
+		if (testcase == null) {
+			return null;
+		}
+
+		if (INPUT_TYPE.equals(entry.getType())) {
+			return testcase.getInputID();
+		}
+
+		VersionData versionData = suiteManager.getVersionData(testcase, entry.getConfig(), false);
+		if (OutputDataType.REFERENCE.getPath().equals(entry.getType())) {
+			return versionData != null ? versionData.getReferenceID() : 0;
+		}
+
+		if (OutputDataType.TEST.getPath().equals(entry.getType())) {
+			return versionData != null ? versionData.getTestID() : 0;
+		}
+
+		return null;
+	}
+
+	private static int getLatestVersion(History history) {
+		if (history == null || history.getVersion().isEmpty()) {
+			return 0;
+		}
+
+		List<Version> versions = history.getVersion();
+		return versions.get(versions.size() - 1).getNr();
+	}
+}
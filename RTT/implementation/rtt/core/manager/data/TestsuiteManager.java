@@ -3,26 +3,84 @@ package rtt.core.manager.data;
 import java.io.File;
 import java.io.FileInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import rtt.core.archive.input.Input;
 import rtt.core.archive.testsuite.Testcase;
 import rtt.core.archive.testsuite.Testsuite;
 import rtt.core.archive.testsuite.Testsuites;
+import rtt.core.archive.testsuite.VersionData;
 import rtt.core.loader.ArchiveLoader;
 import rtt.core.loader.fetching.SimpleFileFetching;
 import rtt.core.manager.Manager.TestCaseMode;
 import rtt.core.manager.data.history.InputManager;
 import rtt.core.utils.RTTLogging;
 
+/**
+ * Manages the test suites and test cases of an archive.
+ * <p>
+ * All lookups by name are answered through hash indexes, which are built 
+ * lazily from the current data and rebuilt, if the data has been 
+ * replaced by {@link #load()}. The lists of non-deleted test suites and 
+ * test cases are cached until a test suite or test case is added, 
+ * removed or restored. Returned lists of non-deleted elements can't be 
+ * modified. Test suites and test cases should only be added or removed 
+ * through this manager.
+ * <p>
+ * The indexes and cached lists are shared by all callers, e.g. the worker 
+ * threads of a parallel run. Therefore all methods, which read or update 
+ * them, are synchronized on this manager.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
 public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 
 	public enum TestcaseStatus {
 		NEW, UPDATE, NONE, ERROR;
 	}
+	
+	/**
+	 * The version data of a test case, indexed by configuration name.
+	 * The index is rebuilt, if the size of the version data list changes.
+	 */
+	private static final class VersionIndex {
+		private int size = -1;
+		private Map<String, VersionData> versions = new HashMap<>();
+	}
+	
+	// the data, from which the indexes have been built
+	private Testsuites indexedData = null;
+	
+	private Map<String, Testsuite> suiteIndex;
+	private Map<Testsuite, Map<String, Testcase>> caseIndex;
+	private Map<Testcase, VersionIndex> versionIndex;
+	
+	// cached lists of non-deleted elements
+	private List<Testsuite> activeSuites;
+	private Map<Testsuite, List<Testcase>> activeCases;
+	
+	private ManifestManager manifest = null;
 
 	public TestsuiteManager(ArchiveLoader loader) {
+		this(loader, null);
+	}
+	
+	/**
+	 * Creates a manager, whose input histories are read from the given 
+	 * manifest.
+	 * 
+	 * @param loader the {@link ArchiveLoader}
+	 * @param manifest the {@link ManifestManager} or {@code null}
+	 */
+	public TestsuiteManager(ArchiveLoader loader, ManifestManager manifest) {
 		super(loader, new SimpleFileFetching("tsuite.xml", ""));
+		
+		this.manifest = manifest;
 	}
 
 	@Override
@@ -35,68 +93,116 @@ public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 		marshall(Testsuites.class, data);
 	}
 
-	public boolean addTestsuite(final String suiteName) {
-		List<Testsuite> suiteList = data.getTestsuite();
-
-		for (Testsuite testsuite : suiteList) {
-			if (testsuite.getName().equals(suiteName)) {
-				
-				if (testsuite.isDeleted()) {
-					RTTLogging.trace("Testsuite '" + suiteName
-							+ "' was tagged as deleted.");
-					testsuite.setDeleted(false);
-
-					return true;
+	/**
+	 * Builds the indexes, if they don't belong to the current data.
+	 */
+	private void checkIndex() {
+		if (indexedData == data) {
+			return;
+		}
+		
+		suiteIndex = new HashMap<>();
+		caseIndex = new IdentityHashMap<>();
+		versionIndex = new IdentityHashMap<>();
+		
+		for (Testsuite suite : data.getTestsuite()) {
+			if (!suiteIndex.containsKey(suite.getName())) {
+				suiteIndex.put(suite.getName(), suite);
+			}
+		}
+		
+		activeSuites = null;
+		activeCases = new IdentityHashMap<>();
+		indexedData = data;
+	}
+	
+	private Map<String, Testcase> getCaseIndex(Testsuite suite) {
+		Map<String, Testcase> cases = caseIndex.get(suite);
+		if (cases == null) {
+			cases = new HashMap<>();
+			for (Testcase testcase : suite.getTestcase()) {
+				if (!cases.containsKey(testcase.getName())) {
+					cases.put(testcase.getName(), testcase);
 				}
+			}
+			
+			caseIndex.put(suite, cases);
+		}
+		
+		return cases;
+	}
 
-				RTTLogging.info("Testsuite '" + suiteName
-						+ "' is already existing.");
-				return false;
+	public synchronized boolean addTestsuite(final String suiteName) {
+		checkIndex();
+		Testsuite testsuite = suiteIndex.get(suiteName);
+		
+		if (testsuite != null) {
+			if (testsuite.isDeleted()) {
+				RTTLogging.trace("Testsuite '" + suiteName
+						+ "' was tagged as deleted.");
+				testsuite.setDeleted(false);
+				activeSuites = null;
+
+				return true;
 			}
+
+			RTTLogging.info("Testsuite '" + suiteName
+					+ "' is already existing.");
+			return false;
 		}
 
 		Testsuite newTestsuite = new Testsuite();
 		newTestsuite.setName(suiteName);
+		
+		suiteIndex.put(suiteName, newTestsuite);
+		activeSuites = null;
 
 		return data.getTestsuite().add(newTestsuite);
 	}
 
-	public boolean removeTestsuite(String suiteName) {
+	public synchronized boolean removeTestsuite(String suiteName) {
 		Testsuite suite = getTestsuite(suiteName, false);
 
 		if (suite != null) {
 			RTTLogging.trace("Testsuite '" + suiteName
 					+ "' will be tagged as deleted.");
 			suite.setDeleted(true);
+			activeSuites = null;
 			return true;
 		}
 
 		return false;
 	}
 
-	public Testsuite getTestsuite(String name, boolean getDeleted) {
-		for (Testsuite suite : data.getTestsuite()) {
-			if (suite.getName().equals(name) && suite.isDeleted() == false) {
-				return suite;
-			}
+	public synchronized Testsuite getTestsuite(String name, boolean getDeleted) {
+		checkIndex();
+		Testsuite suite = suiteIndex.get(name);
+		
+		if (suite != null && suite.isDeleted() == false) {
+			return suite;
 		}
 
 		return null;
 	}
 
-	public List<Testsuite> getTestsuites(boolean getDeleted) {
+	public synchronized List<Testsuite> getTestsuites(boolean getDeleted) {
 		if (getDeleted) {
 			return data.getTestsuite();
 		}
 		
-		List<Testsuite> suites = new ArrayList<Testsuite>();
-		for (Testsuite testsuite : data.getTestsuite()) {
-			if (testsuite.isDeleted() == false) {
-				suites.add(testsuite);
+		checkIndex();
+		if (activeSuites == null) {
+			List<Testsuite> suites = new ArrayList<Testsuite>();
+			for (Testsuite testsuite : data.getTestsuite()) {
+				if (testsuite.isDeleted() == false) {
+					suites.add(testsuite);
+				}
 			}
+			
+			activeSuites = Collections.unmodifiableList(suites);
 		}
 		
-		return suites;
+		return activeSuites;
 	}
 	
 	public static String getCaseName(File testFile) {
@@ -112,7 +218,27 @@ public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 					+ testFile.getAbsolutePath() + "' does not exist.");
 		}
 
-		String caseName = getCaseName(testFile);
+		Input input = new Input();
+		input.setValue(InputManager.getContent(new FileInputStream(testFile)));
+		
+		return addTestcase(suiteName, getCaseName(testFile), input, mode);
+	}
+	
+	/**
+	 * Adds a test case with the given input data, which has not been 
+	 * read from a file, e.g. synthesized input data.
+	 * 
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param input the input data of the test case
+	 * @param mode the {@link TestCaseMode}
+	 * @return the status of the test case
+	 * @throws Exception thrown, if the input data could not be saved
+	 * @see #addTestcase(String, File, TestCaseMode)
+	 */
+	public synchronized TestcaseStatus addTestcase(String suiteName, String caseName, 
+			Input input, TestCaseMode mode) throws Exception {
+		
 		Testsuite suite = getTestsuite(suiteName, true);
 
 		if (suite == null) {
@@ -132,6 +258,8 @@ public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 			nextInputVersion = 1;
 
 			suite.getTestcase().add(testcase);
+			getCaseIndex(suite).put(caseName, testcase);
+			activeCases.remove(suite);
 			resultStatus = TestcaseStatus.NEW;
 		} else {
 			// test case already existed.
@@ -144,6 +272,7 @@ public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 				// move to last position in list
 				suite.getTestcase().remove(testcase);
 				suite.getTestcase().add(testcase);
+				activeCases.remove(suite);
 				
 				force = true;
 				resultStatus = TestcaseStatus.NEW;
@@ -156,10 +285,7 @@ public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 		}
 
 		InputManager inputManager = new InputManager(loader, suiteName,
-				caseName);
-		Input input = new Input();
-
-		input.setValue(InputManager.getContent(new FileInputStream(testFile)));
+				caseName, manifest);
 		if (inputManager.addInput(input, force) == true) {
 			inputManager.save();
 			testcase.setInputID(nextInputVersion);
@@ -170,52 +296,52 @@ public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 		return resultStatus;
 	}
 	
-	public boolean removeTestcase(String suiteName, String caseName) {
+	public synchronized boolean removeTestcase(String suiteName, String caseName) {
 		Testcase testcase = getTestcase(suiteName, caseName, true);
 
 		if (testcase != null) {
 			testcase.setDeleted(true);
+			activeCases.remove(getTestsuite(suiteName, true));
 			return true;
 		}
 
 		return false;
 	}
 
-	public Testcase getTestcase(String suiteName, String caseName,
+	public synchronized Testcase getTestcase(String suiteName, String caseName,
 			boolean getDeleted) {
 		Testsuite suite = getTestsuite(suiteName, getDeleted);
 		if (suite != null) {
-			for (Testcase testcase : suite.getTestcase()) {
-				if (testcase.getName().equals(caseName)) {
-					if (testcase.isDeleted()) {
-						if (getDeleted) {
-							return testcase;
-						} else {
-							return null;
-						}
-					}
-
-					return testcase;
-				}
+			Testcase testcase = getCaseIndex(suite).get(caseName);
+			if (testcase != null && testcase.isDeleted() && !getDeleted) {
+				return null;
 			}
+			
+			return testcase;
 		}
 
 		return null;
 	}
 	
-	public List<Testcase> getTestcases(String suiteName, boolean deleted) {
+	public synchronized List<Testcase> getTestcases(String suiteName, boolean deleted) {
 		Testsuite suite = getTestsuite(suiteName, deleted);
 		
 		if (suite != null) {
 			if (deleted) {
 				return suite.getTestcase();
 			} else {
-				List<Testcase> result = new ArrayList<Testcase>();
-				
-				for (Testcase testcase : suite.getTestcase()) {
-					if (testcase.isDeleted() == false) {
-						result.add(testcase);
+				List<Testcase> result = activeCases.get(suite);
+				if (result == null) {
+					result = new ArrayList<Testcase>();
+					
+					for (Testcase testcase : suite.getTestcase()) {
+						if (testcase.isDeleted() == false) {
+							result.add(testcase);
+						}
 					}
+					
+					result = Collections.unmodifiableList(result);
+					activeCases.put(suite, result);
 				}
 				
 				return result;
@@ -224,6 +350,50 @@ public class TestsuiteManager extends AbstractDataManager<Testsuites> {
 		
 		return null;
 	}
+	
+	/**
+	 * Returns the {@link VersionData} of the given test case for the 
+	 * given configuration.
+	 * 
+	 * @param testcase the test case
+	 * @param configName the name of the configuration
+	 * @param create if {@code true}, missing version data will be created
+	 * @return the version data or {@code null}, if not existing 
+	 * 		and not created
+	 */
+	public synchronized VersionData getVersionData(Testcase testcase, String configName, boolean create) {
+		checkIndex();
+		
+		List<VersionData> versionList = testcase.getVersionData();
+		VersionIndex index = versionIndex.get(testcase);
+		if (index == null) {
+			index = new VersionIndex();
+			versionIndex.put(testcase, index);
+		}
+		
+		if (index.size != versionList.size()) {
+			index.versions.clear();
+			for (VersionData versionData : versionList) {
+				if (!index.versions.containsKey(versionData.getConfig())) {
+					index.versions.put(versionData.getConfig(), versionData);
+				}
+			}
+			
+			index.size = versionList.size();
+		}
+		
+		VersionData versionData = index.versions.get(configName);
+		if (versionData == null && create) {
+			versionData = new VersionData();
+			versionData.setConfig(configName);
+			
+			versionList.add(versionData);
+			index.versions.put(configName, versionData);
+			index.size = versionList.size();
+		}
+		
+		return versionData;
+	}
 
 	public void print() {
 		List<Testsuite> suites = getTestsuites(false);
@@ -0,0 +1,131 @@
+package rtt.core.manager.data.history;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.Output;
+import rtt.core.testing.generation.ElementTreeBuilder;
+
+/**
+ * Reads and writes output data in a compact binary format:
+ *
+ * <pre>
+ * document := MAGIC FORMAT_VERSION element? END
+ * element  := header name(symbol) returnType(symbol) address? value? element* END
+ * header   := elementType | generatedBy &lt;&lt; 2 | informational &lt;&lt; 5 | addressMode &lt;&lt; 6 | noValue &lt;&lt; 8
+ * symbol   := index | index string
+ * </pre>
+ *
+ * All numbers are unsigned variable length integers, seven bits per
+ * byte. Headers are written incremented by one, so {@code END} is
+ * written as 0. Strings are written as their length in bytes, followed by
+ * their UTF-8 bytes. A symbol is the index of a string within a table,
+ * which is built while the document is read; index 0 is {@code null}. A
+ * string is only written, when it occurs for the first time.
+ * <p>
+ * Addresses of elements, which are generated by the
+ * {@link rtt.core.testing.generation.DataGenerator}, are implicit: the
+ * address of the parent followed by the position of the element, or the
+ * address of the parent itself. Only other addresses are written as a
+ * string, its length incremented by one, 0 means {@code null}. Values are
+ * omitted, if they are {@code null}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see BinaryOutputSink
+ * @see BinaryOutputReader
+ */
+public final class BinaryOutputCodec extends OutputCodec {
+
+	static final byte[] MAGIC = { 'R', 'T', 'T', 'B' };
+	static final int FORMAT_VERSION = 1;
+
+	static final int END = 0;
+
+	static final int GENERATOR_SHIFT = 2;
+	static final int INFORMATIONAL = 0x20;
+	static final int ADDRESS_SHIFT = 6;
+	static final int NO_VALUE = 0x100;
+
+	// address modes
+	static final int CHILD_ADDRESS = 0;
+	static final int PARENT_ADDRESS = 1;
+	static final int EXPLICIT_ADDRESS = 2;
+
+	BinaryOutputCodec() {}
+
+	/**
+	 * Checks, if the given stream starts with binary output data. The
+	 * position of the stream is not changed.
+	 *
+	 * @param inputStream a stream, which supports marks
+	 * @return {@code true}, if the stream contains binary output data
+	 * @throws IOException thrown, if the stream could not be read
+	 */
+	public static boolean isBinary(InputStream inputStream) throws IOException {
+		if (!inputStream.markSupported()) {
+			throw new IllegalArgumentException("The stream does not support marks.");
+		}
+
+		inputStream.mark(MAGIC.length);
+		try {
+			for (byte expected : MAGIC) {
+				if (inputStream.read() != expected) {
+					return false;
+				}
+			}
+
+			return true;
+		} finally {
+			inputStream.reset();
+		}
+	}
+
+	@Override
+	public OutputFormat getFormat() {
+		return OutputFormat.BINARY;
+	}
+
+	@Override
+	public String getFileExtension() {
+		return "bin";
+	}
+
+	@Override
+	public Output read(InputStream inputStream) throws IOException {
+		ElementTreeBuilder builder = new ElementTreeBuilder();
+		new BinaryOutputReader(inputStream).read(builder);
+
+		Output output = new Output();
+		output.setInitialElement(builder.getInitialElement());
+
+		return output;
+	}
+
+	@Override
+	public void write(Output output, OutputStream outputStream) throws IOException {
+		BinaryOutputSink sink = new BinaryOutputSink(outputStream);
+
+		sink.startOutput();
+		if (output.getInitialElement() != null) {
+			writeElement(sink, output.getInitialElement());
+		}
+		sink.endOutput();
+	}
+
+	private static void writeElement(BinaryOutputSink sink, Element element) throws IOException {
+		sink.startElement(element);
+		for (Element child : element.getElements()) {
+			writeElement(sink, child);
+		}
+		sink.endElement(element);
+	}
+
+	@Override
+	public BinaryOutputSink createSink(OutputStream outputStream) {
+		return new BinaryOutputSink(outputStream);
+	}
+}
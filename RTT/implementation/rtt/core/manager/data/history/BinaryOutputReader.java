@@ -0,0 +1,270 @@
+package rtt.core.manager.data.history;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.testing.generation.ElementSink;
+
+/**
+ * Reads output data in the format of the {@link BinaryOutputCodec}
+ * element by element. The used memory depends only on the depth of the
+ * output data and the number of distinct names and return types.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class BinaryOutputReader {
+
+	private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+	private static final GeneratorType[] GENERATOR_TYPES = GeneratorType.values();
+
+	private InputStream inputStream;
+
+	private byte[] buffer = new byte[8192];
+	private int position = 0;
+	private int limit = 0;
+
+	// the position of the buffer within the stream
+	private long offset = 0;
+
+	private List<String> symbols = new ArrayList<>();
+
+	// addresses of the open elements and the number of their read children
+	private String[] addresses = new String[16];
+	private int[] childCounts = new int[17];
+	private int depth = 0;
+	private boolean finished = false;
+
+	/**
+	 * Creates a new reader and reads the start of the document. The
+	 * stream will not be closed by this reader.
+	 *
+	 * @param inputStream the stream of the output data
+	 * @throws IOException thrown, if the stream contains no binary output data
+	 */
+	public BinaryOutputReader(InputStream inputStream) throws IOException {
+		this.inputStream = inputStream;
+
+		for (byte expected : BinaryOutputCodec.MAGIC) {
+			if (readByte() != expected) {
+				throw new IOException("Stream contains no binary output data.");
+			}
+		}
+
+		int version = readByte();
+		if (version != BinaryOutputCodec.FORMAT_VERSION) {
+			throw new IOException("Unsupported output data format version " + version + ".");
+		}
+
+		// index 0 is reserved for null
+		symbols.add(null);
+	}
+
+	/**
+	 * Moves into the next child of the current element. If no further
+	 * child exists, the current element will be left. On the top level,
+	 * the initial element is the only child.
+	 *
+	 * @return the next child without its children or {@code null}
+	 * @throws IOException thrown, if the output data could not be read
+	 */
+	public Element nextChild() throws IOException {
+		if (finished) {
+			return null;
+		}
+
+		int header = readVarint();
+		if (header == BinaryOutputCodec.END) {
+			if (depth == 0) {
+				finished = true;
+			} else {
+				depth--;
+			}
+
+			return null;
+		}
+
+		header--;
+
+		int elementType = header & 0x03;
+		int generatedBy = (header >>> BinaryOutputCodec.GENERATOR_SHIFT) & 0x07;
+		int addressMode = (header >>> BinaryOutputCodec.ADDRESS_SHIFT) & 0x03;
+		if (elementType >= ELEMENT_TYPES.length || generatedBy >= GENERATOR_TYPES.length) {
+			throw new IOException("Invalid element header " + header + ".");
+		}
+
+		Element element = new Element();
+		element.setElementType(ELEMENT_TYPES[elementType]);
+		element.setGeneratedBy(GENERATOR_TYPES[generatedBy]);
+		element.setInformational((header & BinaryOutputCodec.INFORMATIONAL) != 0);
+		element.setName(readSymbol());
+		element.setReturnType(readSymbol());
+
+		int childPosition = ++childCounts[depth];
+		String parentAddress = depth > 0 ? addresses[depth - 1] : null;
+
+		switch (addressMode) {
+		case BinaryOutputCodec.CHILD_ADDRESS:
+			if (parentAddress == null) {
+				element.setAddress(String.valueOf(childPosition));
+			} else {
+				element.setAddress(parentAddress + "." + childPosition);
+			}
+			break;
+		case BinaryOutputCodec.PARENT_ADDRESS:
+			element.setAddress(parentAddress);
+			break;
+		default:
+			int length = readVarint();
+			if (length > 0) {
+				element.setAddress(readString(length - 1));
+			}
+		}
+
+		if ((header & BinaryOutputCodec.NO_VALUE) == 0) {
+			element.setValue(readString(readVarint()));
+		}
+
+		if (depth == addresses.length) {
+			addresses = Arrays.copyOf(addresses, depth * 2);
+			childCounts = Arrays.copyOf(childCounts, depth * 2 + 1);
+		}
+
+		addresses[depth] = element.getAddress();
+		childCounts[++depth] = 0;
+
+		return element;
+	}
+
+	/**
+	 * Skips the rest of the current element, including its children.
+	 * @throws IOException thrown, if the output data could not be read
+	 */
+	public void skipElement() throws IOException {
+		int level = depth;
+		while (depth >= level && !finished) {
+			nextChild();
+		}
+	}
+
+	/**
+	 * Reads the complete output data and passes it to the given sink.
+	 *
+	 * @param sink the {@link ElementSink}
+	 * @throws IOException thrown, if the output data could not be read
+	 */
+	public void read(ElementSink sink) throws IOException {
+		Deque<Element> path = new ArrayDeque<>();
+
+		sink.startOutput();
+		while (true) {
+			Element element = nextChild();
+			if (element != null) {
+				sink.startElement(element);
+				path.push(element);
+			} else if (path.isEmpty()) {
+				break;
+			} else {
+				sink.endElement(path.pop());
+			}
+		}
+		sink.endOutput();
+	}
+
+	/**
+	 * @return the number of read bytes
+	 */
+	long getPosition() {
+		return offset + position;
+	}
+
+	/**
+	 * @return the number of read symbols, including {@code null}
+	 */
+	int getSymbolCount() {
+		return symbols.size();
+	}
+
+	private String readSymbol() throws IOException {
+		int index = readVarint();
+		if (index < symbols.size()) {
+			return symbols.get(index);
+		}
+
+		if (index > symbols.size()) {
+			throw new IOException("Invalid symbol " + index + ".");
+		}
+
+		String symbol = readString(readVarint());
+		symbols.add(symbol);
+
+		return symbol;
+	}
+
+	private String readString(int length) throws IOException {
+		if (length <= limit - position) {
+			String string = new String(buffer, position, length, StandardCharsets.UTF_8);
+			position += length;
+
+			return string;
+		}
+
+		byte[] bytes = new byte[length];
+		int count = limit - position;
+		System.arraycopy(buffer, position, bytes, 0, count);
+
+		// the rest of the string is read directly from the stream
+		offset += limit + length - count;
+		position = 0;
+		limit = 0;
+
+		while (count < length) {
+			int read = inputStream.read(bytes, count, length - count);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of output data.");
+			}
+
+			count += read;
+		}
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private int readVarint() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int read = readByte();
+			value |= (read & 0x7F) << shift;
+			if ((read & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Invalid variable length integer.");
+	}
+
+	private int readByte() throws IOException {
+		if (position == limit) {
+			offset += limit;
+			limit = inputStream.read(buffer, 0, buffer.length);
+			position = 0;
+
+			if (limit <= 0) {
+				limit = 0;
+				throw new EOFException("Unexpected end of output data.");
+			}
+		}
+
+		return buffer[position++] & 0xFF;
+	}
+}
@@ -0,0 +1,217 @@
+package rtt.core.manager.data.history;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import rtt.core.archive.output.Element;
+import rtt.core.testing.generation.ElementSink;
+
+/**
+ * An {@link ElementSink}, which writes the passed elements directly in the
+ * format of the {@link BinaryOutputCodec} to an {@link OutputStream}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class BinaryOutputSink implements ElementSink {
+
+	private OutputStream outputStream;
+
+	private byte[] buffer = new byte[8192];
+	private int position = 0;
+
+	private Map<String, Integer> symbols = new HashMap<>();
+
+	// addresses of the open elements and the number of their written children
+	private String[] addresses = new String[16];
+	private int[] childCounts = new int[17];
+	private int depth = 0;
+
+	/**
+	 * Creates a new sink for the given {@link OutputStream}. The stream
+	 * will not be closed by this sink.
+	 *
+	 * @param outputStream the {@link OutputStream}
+	 */
+	public BinaryOutputSink(OutputStream outputStream) {
+		this.outputStream = outputStream;
+	}
+
+	@Override
+	public void startOutput() throws IOException {
+		symbols.clear();
+		depth = 0;
+		childCounts[0] = 0;
+
+		ensureCapacity(BinaryOutputCodec.MAGIC.length + 1);
+		System.arraycopy(BinaryOutputCodec.MAGIC, 0, buffer, position, BinaryOutputCodec.MAGIC.length);
+		position += BinaryOutputCodec.MAGIC.length;
+		buffer[position++] = BinaryOutputCodec.FORMAT_VERSION;
+	}
+
+	@Override
+	public void startElement(Element element) throws IOException {
+		int childPosition = ++childCounts[depth];
+		String parentAddress = depth > 0 ? addresses[depth - 1] : null;
+
+		String address = element.getAddress();
+		int addressMode = BinaryOutputCodec.EXPLICIT_ADDRESS;
+		if (isChildAddress(address, parentAddress, childPosition)) {
+			addressMode = BinaryOutputCodec.CHILD_ADDRESS;
+		} else if (address != null && address.equals(parentAddress)) {
+			addressMode = BinaryOutputCodec.PARENT_ADDRESS;
+		}
+
+		String value = element.getValue();
+
+		int header = element.getElementType().ordinal()
+				| element.getGeneratedBy().ordinal() << BinaryOutputCodec.GENERATOR_SHIFT
+				| addressMode << BinaryOutputCodec.ADDRESS_SHIFT;
+
+		if (element.isInformational()) {
+			header |= BinaryOutputCodec.INFORMATIONAL;
+		}
+
+		if (value == null) {
+			header |= BinaryOutputCodec.NO_VALUE;
+		}
+
+		writeVarint(header + 1);
+		writeSymbol(element.getName());
+		writeSymbol(element.getReturnType());
+
+		if (addressMode == BinaryOutputCodec.EXPLICIT_ADDRESS) {
+			if (address == null) {
+				writeVarint(0);
+			} else {
+				writeString(address, 1);
+			}
+		}
+
+		if (value != null) {
+			writeString(value, 0);
+		}
+
+		if (depth == addresses.length) {
+			addresses = Arrays.copyOf(addresses, depth * 2);
+			childCounts = Arrays.copyOf(childCounts, depth * 2 + 1);
+		}
+
+		addresses[depth] = address;
+		childCounts[++depth] = 0;
+	}
+
+	@Override
+	public void endElement(Element element) throws IOException {
+		depth--;
+		writeVarint(BinaryOutputCodec.END);
+	}
+
+	@Override
+	public void endOutput() throws IOException {
+		writeVarint(BinaryOutputCodec.END);
+
+		outputStream.write(buffer, 0, position);
+		outputStream.flush();
+		position = 0;
+	}
+
+	/**
+	 * Checks, if the given address consists of the address of the parent
+	 * and the position of the element, without creating the expected
+	 * address. The initial element has no parent, its address is its
+	 * position.
+	 */
+	static boolean isChildAddress(String address, String parentAddress, int childPosition) {
+		if (address == null) {
+			return false;
+		}
+
+		int start = 0;
+		if (parentAddress != null) {
+			start = parentAddress.length() + 1;
+			if (address.length() <= start || address.charAt(start - 1) != '.'
+					|| !address.startsWith(parentAddress)) {
+
+				return false;
+			}
+		}
+
+		if (start == address.length() || address.charAt(start) == '0') {
+			return false;
+		}
+
+		int number = 0;
+		for (int index = start; index < address.length(); index++) {
+			char digit = address.charAt(index);
+			if (digit < '0' || digit > '9' || number > childPosition) {
+				return false;
+			}
+
+			number = number * 10 + digit - '0';
+		}
+
+		return number == childPosition;
+	}
+
+	private void writeSymbol(String symbol) throws IOException {
+		if (symbol == null) {
+			writeVarint(0);
+			return;
+		}
+
+		Integer index = symbols.get(symbol);
+		if (index != null) {
+			writeVarint(index);
+			return;
+		}
+
+		// index 0 is reserved for null
+		index = symbols.size() + 1;
+		symbols.put(symbol, index);
+
+		writeVarint(index);
+		writeString(symbol, 0);
+	}
+
+	private void writeString(String string, int lengthOffset) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		writeVarint(bytes.length + lengthOffset);
+
+		if (bytes.length > buffer.length - position) {
+			flushBuffer();
+			if (bytes.length > buffer.length) {
+				outputStream.write(bytes);
+				return;
+			}
+		}
+
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	private void writeVarint(int value) throws IOException {
+		ensureCapacity(5);
+		while ((value & ~0x7F) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		buffer[position++] = (byte) value;
+	}
+
+	private void ensureCapacity(int length) throws IOException {
+		if (buffer.length - position < length) {
+			flushBuffer();
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		outputStream.write(buffer, 0, position);
+		position = 0;
+	}
+}
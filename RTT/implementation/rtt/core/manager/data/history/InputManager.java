@@ -15,6 +15,7 @@ import rtt.core.loader.ArchiveLoader;
 import rtt.core.loader.LoaderUtils;
 import rtt.core.loader.fetching.SimpleFileFetching;
 import rtt.core.manager.data.AbstractDataManager;
+import rtt.core.manager.data.ManifestManager;
 import rtt.core.utils.RTTLogging;
 
 public class InputManager extends AbstractDataManager<History> implements
@@ -25,16 +26,47 @@ public class InputManager extends AbstractDataManager<History> implements
 	private int versionCount;
 
 	public InputManager(ArchiveLoader loader, String suiteName, String caseName) {
+		this(loader, suiteName, caseName, null);
+	}
+
+	/**
+	 * Creates a manager, whose history is read from the given manifest. 
+	 * Only if the manifest does not contain the history, it is read from 
+	 * its own file and added to the manifest.
+	 * 
+	 * @param loader the {@link ArchiveLoader}
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param manifest the {@link ManifestManager} or {@code null}
+	 */
+	public InputManager(ArchiveLoader loader, String suiteName, String caseName,
+			ManifestManager manifest) {
+
 		super(loader, new SimpleFileFetching("history.xml",
 				LoaderUtils.getPath(".", suiteName, caseName, "input")));
 
 		this.suiteName = suiteName;
 		this.caseName = caseName;
 
-		try {
-			load();
-		} catch (RTTException e) {
-			RTTLogging.trace("Could not load input history", e);
+		History history = null;
+		if (manifest != null) {
+			history = manifest.getHistory(suiteName, caseName, null,
+					ManifestManager.INPUT_TYPE);
+		}
+
+		if (history != null) {
+			data = history;
+		} else {
+			try {
+				load();
+			} catch (RTTException e) {
+				RTTLogging.trace("Could not load input history", e);
+			}
+
+			if (manifest != null) {
+				manifest.setHistory(suiteName, caseName, null,
+						ManifestManager.INPUT_TYPE, data);
+			}
 		}
 
 		versionCount = data.getVersion().size();
@@ -77,6 +109,15 @@ public class InputManager extends AbstractDataManager<History> implements
 		return data;
 	}
 
+	/**
+	 * Returns the number of the latest input version.
+	 * 
+	 * @return the version number or 0, if no version exists
+	 */
+	public int getLatestVersion() {
+		return versionCount;
+	}
+
 	public boolean addInput(Input newData, boolean force) {
 		Integer versionNr = versionCount;
 		Input oldData = getInput(versionNr);
@@ -0,0 +1,411 @@
+package rtt.core.manager.data.history;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+import rtt.core.testing.generation.ElementSink;
+
+/**
+ * A read-only view of binary output data, which reads its elements on
+ * demand. The output data and its {@link OutputIndex} are
+ * memory-mapped, so only the elements in use and a small cache of names
+ * and return types are held in the heap.
+ * <p>
+ * The children of an element are not cached: each call of
+ * {@code getElements().get(index)} reads the child again. Iterating the
+ * children is linear, but accessing a child by its index needs to skip
+ * the siblings before it, if it is not after the last accessed child.
+ * The view must not be used after it has been closed.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see OutputDataManager#getLazyOutputData(Integer)
+ */
+public final class LazyOutput implements Closeable {
+
+	private static final int SYMBOL_CACHE_SIZE = 1024;
+
+	private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+	private static final GeneratorType[] GENERATOR_TYPES = GeneratorType.values();
+
+	private MappedFile data;
+	private MappedFile index;
+
+	private int elementCount;
+	private int symbolCount;
+	private int slotCount;
+	private long symbolStart;
+	private long slotStart;
+
+	// the position within the output data during reading an element
+	private long position;
+
+	private Map<Integer, String> symbols = new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+			return size() > SYMBOL_CACHE_SIZE;
+		}
+	};
+
+	private List<File> temporaryFiles = new ArrayList<>();
+
+	/**
+	 * Opens the given output data and its index.
+	 *
+	 * @param dataFile the file of the binary output data
+	 * @param indexFile the file of the index, see {@link OutputIndex#write}
+	 * @throws IOException thrown, if the files could not be mapped or do
+	 * 		not contain output data and its index
+	 */
+	public LazyOutput(File dataFile, File indexFile) throws IOException {
+		data = new MappedFile(dataFile, false);
+
+		try {
+			index = new MappedFile(indexFile, false);
+			if (!hasHeader(data, BinaryOutputCodec.MAGIC)
+					|| data.getByte(BinaryOutputCodec.MAGIC.length) != BinaryOutputCodec.FORMAT_VERSION) {
+				throw new IOException("File contains no binary output data.");
+			}
+
+			if (!hasHeader(index, OutputIndex.MAGIC)
+					|| index.size() < OutputIndex.HEADER_SIZE
+					|| index.getInt(OutputIndex.MAGIC.length) != OutputIndex.FORMAT_VERSION) {
+				throw new IOException("File contains no output data index.");
+			}
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+
+		elementCount = index.getInt(OutputIndex.ELEMENT_COUNT);
+		symbolCount = index.getInt(OutputIndex.SYMBOL_COUNT);
+		slotCount = index.getInt(OutputIndex.SLOT_COUNT);
+		symbolStart = OutputIndex.getRecord(elementCount);
+		slotStart = symbolStart + symbolCount * 4L;
+	}
+
+	private static boolean hasHeader(MappedFile file, byte[] magic) {
+		if (file.size() <= magic.length) {
+			return false;
+		}
+
+		for (int i = 0; i < magic.length; i++) {
+			if (file.getByte(i) != magic[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the output data, whose elements are read on demand.
+	 *
+	 * @return the {@link Output}
+	 */
+	public Output getOutput() {
+		Output output = new Output();
+		if (elementCount > 0) {
+			output.setInitialElement(new LazyElement(0, null));
+		}
+
+		return output;
+	}
+
+	/**
+	 * Returns the first element with the given address in document order.
+	 * For example, this is the element referenced by an element of type
+	 * {@link ElementType#REFERENCE}.
+	 *
+	 * @param address the address of the element
+	 * @return the element or {@code null}, if no element has this address
+	 */
+	public synchronized Element getElement(String address) {
+		long hash = OutputIndex.getHash(address);
+		if (hash == 0) {
+			return null;
+		}
+
+		int slot = OutputIndex.getSlot(hash, slotCount);
+		while (true) {
+			int entry = index.getInt(slotStart + slot * 4L);
+			if (entry == 0) {
+				return null;
+			}
+
+			if (index.getLong(OutputIndex.getRecord(entry - 1) + OutputIndex.ADDRESS_HASH) == hash) {
+				Element element = createElement(entry - 1);
+				return address.equals(element.getAddress()) ? element : null;
+			}
+
+			slot = (slot + 1) & (slotCount - 1);
+		}
+	}
+
+	/**
+	 * @return the number of elements of the output data
+	 */
+	public int getElementCount() {
+		return elementCount;
+	}
+
+	/**
+	 * Passes all elements to the given sink in document order, e.g. for
+	 * converting the output data into another format without reading it
+	 * completely into the heap.
+	 *
+	 * @param sink the {@link ElementSink}
+	 * @throws IOException thrown, if the sink could not be written
+	 */
+	public void write(ElementSink sink) throws IOException {
+		sink.startOutput();
+		if (elementCount > 0) {
+			writeElement(new LazyElement(0, null), sink);
+		}
+		sink.endOutput();
+	}
+
+	private void writeElement(Element element, ElementSink sink) throws IOException {
+		sink.startElement(element);
+		for (Element child : element.getElements()) {
+			writeElement(child, sink);
+		}
+		sink.endElement(element);
+	}
+
+	/**
+	 * Deletes the given file, when this view is closed.
+	 */
+	void deleteOnClose(File file) {
+		temporaryFiles.add(file);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			data.close();
+			if (index != null) {
+				index.close();
+			}
+		} finally {
+			for (File file : temporaryFiles) {
+				file.delete();
+			}
+		}
+	}
+
+	private Element createElement(int record) {
+		Deque<Integer> path = new ArrayDeque<>();
+		for (int current = record; current >= 0; current = getInt(current, OutputIndex.PARENT)) {
+			path.push(current);
+		}
+
+		Element element = null;
+		for (int current : path) {
+			element = new LazyElement(current, element == null ? null : element.getAddress());
+		}
+
+		return element;
+	}
+
+	private int getInt(int record, int field) {
+		return index.getInt(OutputIndex.getRecord(record) + field);
+	}
+
+	private synchronized void readElement(Element element, int record, String parentAddress) {
+		position = index.getLong(OutputIndex.getRecord(record) + OutputIndex.DATA_OFFSET);
+		int symbolBase = getInt(record, OutputIndex.SYMBOL_BASE);
+
+		int header = readVarint() - 1;
+		int elementType = header & 0x03;
+		int generatedBy = (header >>> BinaryOutputCodec.GENERATOR_SHIFT) & 0x07;
+		if (header < 0 || elementType >= ELEMENT_TYPES.length || generatedBy >= GENERATOR_TYPES.length) {
+			throw new IllegalStateException("Invalid element header " + header + ".");
+		}
+
+		element.setElementType(ELEMENT_TYPES[elementType]);
+		element.setGeneratedBy(GENERATOR_TYPES[generatedBy]);
+		element.setInformational((header & BinaryOutputCodec.INFORMATIONAL) != 0);
+
+		// symbols are defined, where they are used first
+		int name = readVarint();
+		if (name == symbolBase) {
+			element.setName(readString(readVarint()));
+			symbolBase++;
+		} else {
+			element.setName(getSymbol(name));
+		}
+
+		int returnType = readVarint();
+		if (returnType == symbolBase) {
+			element.setReturnType(readString(readVarint()));
+		} else {
+			element.setReturnType(getSymbol(returnType));
+		}
+
+		switch ((header >>> BinaryOutputCodec.ADDRESS_SHIFT) & 0x03) {
+		case BinaryOutputCodec.CHILD_ADDRESS:
+			int childPosition = getInt(record, OutputIndex.POSITION);
+			if (parentAddress == null) {
+				element.setAddress(String.valueOf(childPosition));
+			} else {
+				element.setAddress(parentAddress + "." + childPosition);
+			}
+			break;
+		case BinaryOutputCodec.PARENT_ADDRESS:
+			element.setAddress(parentAddress);
+			break;
+		default:
+			int length = readVarint();
+			if (length > 0) {
+				element.setAddress(readString(length - 1));
+			}
+		}
+
+		if ((header & BinaryOutputCodec.NO_VALUE) == 0) {
+			element.setValue(readString(readVarint()));
+		}
+	}
+
+	private String getSymbol(int symbol) {
+		if (symbol <= 0 || symbol >= symbolCount) {
+			if (symbol == 0) {
+				return null;
+			}
+
+			throw new IllegalStateException("Invalid symbol " + symbol + ".");
+		}
+
+		String value = symbols.get(symbol);
+		if (value != null) {
+			return value;
+		}
+
+		// the symbol is defined by the name or the return type of its element
+		long elementPosition = position;
+		int record = index.getInt(symbolStart + symbol * 4L);
+		position = index.getLong(OutputIndex.getRecord(record) + OutputIndex.DATA_OFFSET);
+		int symbolBase = getInt(record, OutputIndex.SYMBOL_BASE);
+
+		readVarint();
+		if (readVarint() == symbolBase) {
+			int length = readVarint();
+			if (symbolBase == symbol) {
+				value = readString(length);
+			} else {
+				position += length;
+			}
+		}
+
+		if (value == null) {
+			readVarint();
+			value = readString(readVarint());
+		}
+
+		position = elementPosition;
+		symbols.put(symbol, value);
+
+		return value;
+	}
+
+	private String readString(int length) {
+		byte[] bytes = new byte[length];
+		data.getBytes(position, bytes);
+		position += length;
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private int readVarint() {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int read = data.getByte(position++) & 0xFF;
+			value |= (read & 0x7F) << shift;
+			if ((read & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IllegalStateException("Invalid variable length integer.");
+	}
+
+	/**
+	 * An element, whose attributes are read on creation and whose
+	 * children are read on demand.
+	 */
+	private final class LazyElement extends Element {
+
+		private ChildList children;
+
+		LazyElement(int record, String parentAddress) {
+			readElement(this, record, parentAddress);
+			children = new ChildList(record, address);
+		}
+
+		@Override
+		public List<Element> getElements() {
+			return children;
+		}
+	}
+
+	private final class ChildList extends AbstractList<Element> {
+
+		private int parent;
+		private String parentAddress;
+		private int size;
+
+		// the last accessed child
+		private int lastIndex;
+		private int lastRecord;
+
+		ChildList(int parent, String parentAddress) {
+			this.parent = parent;
+			this.parentAddress = parentAddress;
+			this.size = getInt(parent, OutputIndex.CHILD_COUNT);
+
+			lastIndex = 0;
+			lastRecord = parent + 1;
+		}
+
+		@Override
+		public Element get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+
+			synchronized (LazyOutput.this) {
+				if (index < lastIndex) {
+					lastIndex = 0;
+					lastRecord = parent + 1;
+				}
+
+				while (lastIndex < index) {
+					lastRecord = getInt(lastRecord, OutputIndex.NEXT);
+					lastIndex++;
+				}
+
+				return new LazyElement(lastRecord, parentAddress);
+			}
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
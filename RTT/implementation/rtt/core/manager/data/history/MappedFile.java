@@ -0,0 +1,104 @@
+package rtt.core.manager.data.history;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * A file, which is mapped into memory in segments, so files larger than
+ * 2 GB can be accessed. The content is paged in by the operating system
+ * and does not use any heap memory.
+ * <p>
+ * Integers and longs must be aligned to their size, so they never cross
+ * the border of a segment.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+final class MappedFile implements Closeable {
+
+	private static final int SEGMENT_SHIFT = 30;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	private RandomAccessFile file;
+	private MappedByteBuffer[] segments;
+	private long size;
+
+	MappedFile(File file, boolean writable) throws IOException {
+		this.file = new RandomAccessFile(file, writable ? "rw" : "r");
+
+		try {
+			FileChannel channel = this.file.getChannel();
+			size = channel.size();
+			segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+
+			MapMode mode = writable ? MapMode.READ_WRITE : MapMode.READ_ONLY;
+			for (int index = 0; index < segments.length; index++) {
+				long start = (long) index << SEGMENT_SHIFT;
+				segments[index] = channel.map(mode, start, Math.min(size - start, SEGMENT_MASK + 1));
+			}
+		} catch (IOException e) {
+			this.file.close();
+			throw e;
+		}
+	}
+
+	long size() {
+		return size;
+	}
+
+	byte getByte(long position) {
+		return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+	}
+
+	void getBytes(long position, byte[] bytes) {
+		int offset = (int) (position & SEGMENT_MASK);
+		if (offset + bytes.length <= SEGMENT_MASK + 1) {
+			ByteBuffer segment = segments[(int) (position >>> SEGMENT_SHIFT)].duplicate();
+			segment.position(offset);
+			segment.get(bytes);
+			return;
+		}
+
+		for (int index = 0; index < bytes.length; index++) {
+			bytes[index] = getByte(position + index);
+		}
+	}
+
+	int getInt(long position) {
+		return segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & SEGMENT_MASK));
+	}
+
+	long getLong(long position) {
+		return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+	}
+
+	void putInt(long position, int value) {
+		segments[(int) (position >>> SEGMENT_SHIFT)].putInt((int) (position & SEGMENT_MASK), value);
+	}
+
+	void putLong(long position, long value) {
+		segments[(int) (position >>> SEGMENT_SHIFT)].putLong((int) (position & SEGMENT_MASK), value);
+	}
+
+	/**
+	 * Writes all changes to the file and closes it. The mapped segments
+	 * are released by the garbage collector.
+	 */
+	@Override
+	public void close() throws IOException {
+		for (MappedByteBuffer segment : segments) {
+			if (!segment.isReadOnly()) {
+				segment.force();
+			}
+		}
+
+		segments = new MappedByteBuffer[0];
+		file.close();
+	}
+}
@@ -0,0 +1,77 @@
+package rtt.core.manager.data.history;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.output.Output;
+import rtt.core.testing.generation.ElementSink;
+
+/**
+ * A codec reads and writes the output data files of the archive in one
+ * {@link OutputFormat}. The format of each stored version is recorded in
+ * the history, so versions of different formats can be read side by side.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see OutputManager
+ */
+public abstract class OutputCodec {
+
+	private static final OutputCodec XML_CODEC = new XMLOutputCodec();
+	private static final OutputCodec BINARY_CODEC = new BinaryOutputCodec();
+
+	/**
+	 * Returns the codec of the given format.
+	 *
+	 * @param format the {@link OutputFormat} or {@code null} for
+	 * 		{@link OutputFormat#XML}
+	 * @return the codec
+	 */
+	public static OutputCodec getCodec(OutputFormat format) {
+		if (format == OutputFormat.BINARY) {
+			return BINARY_CODEC;
+		}
+
+		return XML_CODEC;
+	}
+
+	/**
+	 * @return the format of this codec
+	 */
+	public abstract OutputFormat getFormat();
+
+	/**
+	 * @return the file extension of output data files in this format
+	 */
+	public abstract String getFileExtension();
+
+	/**
+	 * Reads the complete output data from the given stream.
+	 *
+	 * @param inputStream the stream, which will not be closed
+	 * @return the output data
+	 * @throws Exception thrown, if the output data could not be read
+	 */
+	public abstract Output read(InputStream inputStream) throws Exception;
+
+	/**
+	 * Writes the given output data to the given stream.
+	 *
+	 * @param output the output data
+	 * @param outputStream the stream, which will not be closed
+	 * @throws Exception thrown, if the output data could not be written
+	 */
+	public abstract void write(Output output, OutputStream outputStream) throws Exception;
+
+	/**
+	 * Creates an {@link ElementSink}, which writes generated elements
+	 * directly to the given stream.
+	 *
+	 * @param outputStream the stream, which will not be closed
+	 * @return the sink
+	 * @throws IOException thrown, if the sink could not be created
+	 */
+	public abstract ElementSink createSink(OutputStream outputStream) throws IOException;
+}
@@ -1,23 +1,51 @@
 package rtt.core.manager.data.history;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.Calendar;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
 
 import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.history.ExecutionCost;
 import rtt.core.archive.history.History;
+import rtt.core.archive.history.OutputFormat;
 import rtt.core.archive.history.Version;
 import rtt.core.archive.input.Input;
 import rtt.core.archive.output.Output;
 import rtt.core.loader.ArchiveLoader;
+import rtt.core.loader.BlobStore;
 import rtt.core.loader.LoaderUtils;
 import rtt.core.loader.fetching.SimpleFileFetching;
 import rtt.core.manager.data.AbstractDataManager;
+import rtt.core.manager.data.ManifestManager;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+import rtt.core.testing.compare.ElementHasher;
+import rtt.core.testing.generation.CostMeter;
 import rtt.core.testing.generation.DataGenerator;
 import rtt.core.testing.generation.Executor;
+import rtt.core.testing.generation.GenerationLimit;
+import rtt.core.testing.generation.GenerationStatistics;
+import rtt.core.testing.generation.worker.WorkerPool;
 import rtt.core.utils.GenerationInformation.GenerationResult;
 import rtt.core.utils.RTTLogging;
+import rtt.core.utils.ResultFingerprint;
 
 public class OutputDataManager extends AbstractDataManager<History> implements IHistoryManager {
 	
@@ -49,28 +77,89 @@ public class OutputDataManager extends AbstractDataManager<History> implements I
 	protected String suiteName;
 	protected String caseName;
 	
-	private InputManager inputManager;
+	private InputManager inputManager = null;
+	private ManifestManager manifest;
 	private OutputDataType type;
+	private Configuration config;
+	
+	private boolean streaming = false;
+	private OutputFormat outputFormat = OutputFormat.XML;
+	private int deltaChainLength = 0;
+	
+	// the output data of the latest version added by this manager
+	private Output latestOutput = null;
+	private ResultFingerprint fingerprint = null;
+	private GenerationLimit limit = null;
+	
+	private WorkerPool workerPool = null;
+	private String baseDir = null;
+	private Set<String> loadedClasses = null;
+	
+	private int warmup = 0;
+	private int iterations = 0;
 
 	public OutputDataManager(ArchiveLoader loader, String suiteName,
 			String caseName, Configuration config, OutputDataType type) {
+		this(loader, suiteName, caseName, config, type, null);
+	}
+	
+	/**
+	 * Creates a manager, whose history is read from the given manifest. 
+	 * Only if the manifest does not contain the history, it is read from 
+	 * its own file and added to the manifest. The input history is read 
+	 * only for generating new output data.
+	 * 
+	 * @param loader the {@link ArchiveLoader}
+	 * @param suiteName the name of the test suite
+	 * @param caseName the name of the test case
+	 * @param config the {@link Configuration} of the output data
+	 * @param type the {@link OutputDataType}
+	 * @param manifest the {@link ManifestManager} or {@code null}
+	 */
+	public OutputDataManager(ArchiveLoader loader, String suiteName,
+			String caseName, Configuration config, OutputDataType type, 
+			ManifestManager manifest) {
 		super(loader);
 
 		this.suiteName = suiteName;
 		this.caseName = caseName;
 		this.type = type;
+		this.config = config;
+		this.manifest = manifest;
 
 		path = LoaderUtils.getPath(suiteName, caseName, config.getName(), type.getPath());
 		setFetchingStrategy(new SimpleFileFetching("history.xml", path));
 
-		inputManager = new InputManager(loader, suiteName, caseName);
 		outputManager = new OutputManager(loader, path);
 
-		try {
-			this.load();
-		} catch (Exception e) {
-			RTTLogging.trace("Could not load output data history", e);
+		History history = null;
+		if (manifest != null) {
+			history = manifest.getHistory(suiteName, caseName, 
+					config.getName(), type.getPath());
+		}
+		
+		if (history != null) {
+			data = history;
+		} else {
+			try {
+				this.load();
+			} catch (Exception e) {
+				RTTLogging.trace("Could not load output data history", e);
+			}
+			
+			if (manifest != null) {
+				manifest.setHistory(suiteName, caseName, 
+						config.getName(), type.getPath(), data);
+			}
+		}
+	}
+	
+	private InputManager getInputManager() {
+		if (inputManager == null) {
+			inputManager = new InputManager(loader, suiteName, caseName, manifest);
 		}
+		
+		return inputManager;
 	}
 	
 	@Override
@@ -104,12 +193,318 @@ public class OutputDataManager extends AbstractDataManager<History> implements I
 		return type;
 	}
 	
+	/**
+	 * Sets, if new output data should be streamed to the archive during
+	 * generation. In this mode, no element tree is built in memory, so the 
+	 * used memory does not depend on the size of the output data.
+	 * 
+	 * @param streaming {@code true}, if output data should be streamed
+	 * @see #createData(Executor, Integer, List)
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+	
+	/**
+	 * @return {@code true}, if output data is streamed during generation
+	 * @see #setStreaming(boolean)
+	 */
+	public boolean isStreaming() {
+		return streaming;
+	}
+	
+	/**
+	 * Sets the format, in which new versions of the output data are 
+	 * stored. Existing versions are read in the format recorded in the 
+	 * history, regardless of this setting.
+	 * 
+	 * @param outputFormat the format, {@link OutputFormat#XML} by default
+	 * @see OutputCodec
+	 */
+	public void setOutputFormat(OutputFormat outputFormat) {
+		if (outputFormat == null) {
+			throw new IllegalArgumentException("The output format must not be null.");
+		}
+		
+		this.outputFormat = outputFormat;
+	}
+	
+	/**
+	 * @return the format of new versions of the output data
+	 * @see #setOutputFormat(OutputFormat)
+	 */
+	public OutputFormat getOutputFormat() {
+		return outputFormat;
+	}
+	
+	/**
+	 * Sets the fingerprint used to skip the generation of unchanged test 
+	 * cases. If the key of a generation equals the key stored with the 
+	 * latest version, the generation will be skipped and the latest 
+	 * version will be kept. If {@code null} (default), output data is 
+	 * always generated.
+	 * 
+	 * @param fingerprint the fingerprint or {@code null}
+	 * @see #createData(Executor, Integer, List)
+	 */
+	public void setFingerprint(ResultFingerprint fingerprint) {
+		this.fingerprint = fingerprint;
+	}
+	
+	/**
+	 * Sets the limit for the generation of new output data. If the time
+	 * limit is exceeded or the generation is cancelled, no new version will
+	 * be created and the result will be marked as timed out or cancelled.
+	 * If {@code null} (default), the generation is not limited.
+	 * 
+	 * @param limit the limit or {@code null}
+	 * @see GenerationResult#timedOut
+	 * @see GenerationResult#cancelled
+	 */
+	public void setLimit(GenerationLimit limit) {
+		this.limit = limit;
+	}
+	
+	/**
+	 * Sets the pool of worker processes, which generate new output data. 
+	 * The initial node and the class path are taken from the configuration 
+	 * of this manager, a given {@link Executor} will be ignored. If 
+	 * {@code null} (default), output data is generated within this process.
+	 * 
+	 * @param workerPool the worker pool or {@code null}
+	 * @param baseDir the base directory of relative class path entries
+	 * @see #setLoadedClasses(Set)
+	 */
+	public void setWorkerPool(WorkerPool workerPool, String baseDir) {
+		this.workerPool = workerPool;
+		this.baseDir = baseDir;
+	}
+	
+	/**
+	 * Sets a set, which receives the names of all classes loaded by a 
+	 * generation within a worker process. If {@code null} (default), 
+	 * loaded classes are not recorded.
+	 * 
+	 * @param loadedClasses the set or {@code null}
+	 * @see #setWorkerPool(WorkerPool, String)
+	 */
+	public void setLoadedClasses(Set<String> loadedClasses) {
+		this.loadedClasses = loadedClasses;
+	}
+	
+	/**
+	 * Sets, if the execution cost of a generation should be measured. 
+	 * After a successful generation, the output data will be generated 
+	 * again: first {@code warmup} times without measuring and then 
+	 * {@code iterations} times with measuring. The summary is stored with 
+	 * the resulting version, replacing the summary of a previous 
+	 * generation. Generations skipped by the fingerprint keep the 
+	 * previous summary.
+	 * 
+	 * @param warmup the number of discarded iterations
+	 * @param iterations the number of measured iterations, 0 (default)
+	 * 		disables the measurement
+	 * @see CostMeter
+	 * @see #getCost(Integer)
+	 */
+	public void setCostMeasurement(int warmup, int iterations) {
+		if (warmup < 0 || iterations < 0) {
+			throw new IllegalArgumentException("Iterations must not be negative.");
+		}
+		
+		this.warmup = warmup;
+		this.iterations = iterations;
+	}
+	
+	/**
+	 * Sets the maximum number of new versions, which are stored as a delta
+	 * to their previous version. After this number of deltas, the next 
+	 * version is stored completely, so at most this number of deltas has 
+	 * to be applied for reading a version. Streamed output data is always 
+	 * stored completely.
+	 * 
+	 * @param deltaChainLength the maximum length of delta chains, 0 
+	 * 		(default) disables deltas
+	 * @see OutputDelta
+	 */
+	public void setDeltaChainLength(int deltaChainLength) {
+		if (deltaChainLength < 0) {
+			throw new IllegalArgumentException("The delta chain length must not be negative.");
+		}
+		
+		this.deltaChainLength = deltaChainLength;
+	}
+	
 	public Output getOutputData(Integer version) {
-		return outputManager.getData(version);
+		Version outputVersion = getVersion(version);
+		if (outputVersion == null) {
+			return null;
+		}
+		
+		// collect the deltas up to the latest complete version
+		Deque<Version> deltas = new ArrayDeque<>();
+		while (outputVersion.getDeltaBase() != null) {
+			deltas.push(outputVersion);
+			outputVersion = getVersion(outputVersion.getDeltaBase());
+			if (outputVersion == null) {
+				return null;
+			}
+		}
+		
+		Output output = outputManager.getData(outputVersion);
+		while (output != null && !deltas.isEmpty()) {
+			output = outputManager.getDeltaData(output, deltas.pop());
+		}
+		
+		return output;
 	}
 	
+	/**
+	 * Returns a stream of the given version in the format, in which it is 
+	 * stored. Depending on the archive, this may be the binary format.
+	 * 
+	 * @param version the version of the output data
+	 * @return an {@link InputStream} or {@code null}, if the version does 
+	 * 		not exist
+	 * @see #getOutputDataInputStream(Integer, OutputFormat)
+	 */
 	public InputStream getOutputDataInputStream(Integer version) {
-		return outputManager.getStreamData(version);
+		Version outputVersion = getVersion(version);
+		if (outputVersion == null) {
+			return null;
+		}
+		
+		return getOutputDataInputStream(version, outputVersion.getFormat());
+	}
+	
+	/**
+	 * Returns a stream of the given version in the given format, e.g. 
+	 * {@link OutputFormat#XML} for readers, which can not decode the 
+	 * binary format. Versions stored in another format or as a delta are 
+	 * converted in memory.
+	 * 
+	 * @param version the version of the output data
+	 * @param format the format of the stream
+	 * @return an {@link InputStream} or {@code null}, if the version does 
+	 * 		not exist
+	 */
+	public InputStream getOutputDataInputStream(Integer version, OutputFormat format) {
+		Version outputVersion = getVersion(version);
+		if (outputVersion == null) {
+			return null;
+		}
+		
+		if (outputVersion.getDeltaBase() != null || outputVersion.getFormat() != format) {
+			// the version has to be reconstructed or converted in memory
+			Output output = getOutputData(version);
+			if (output != null) {
+				return OutputManager.getStreamData(output, format);
+			}
+			
+			return null;
+		}
+		
+		return outputManager.getStreamData(outputVersion);
+	}
+	
+	/**
+	 * Opens a lazy view of the given version, which reads its elements on 
+	 * demand, e.g. for browsing large output data.
+	 * 
+	 * @param version the version of the output data
+	 * @return a {@link LazyOutput}, which has to be closed, or {@code null}, 
+	 * 		if the version is not stored completely in the binary format. 
+	 * 		Then {@link #getOutputData(Integer)} has to be used.
+	 */
+	public LazyOutput getLazyOutputData(Integer version) {
+		Version outputVersion = getVersion(version);
+		if (outputVersion == null || outputVersion.getDeltaBase() != null) {
+			return null;
+		}
+		
+		return outputManager.getLazyData(outputVersion);
+	}
+	
+	/**
+	 * Returns the number of deltas, which have to be applied for reading 
+	 * the given version.
+	 * 
+	 * @param version the version of the output data
+	 * @return the length of the delta chain, 0 for complete versions
+	 * @see #setDeltaChainLength(int)
+	 */
+	public int getDeltaChainLength(Integer version) {
+		int length = 0;
+		
+		Version outputVersion = getVersion(version);
+		while (outputVersion != null && outputVersion.getDeltaBase() != null) {
+			length++;
+			outputVersion = getVersion(outputVersion.getDeltaBase());
+		}
+		
+		return length;
+	}
+	
+	/**
+	 * Returns the format, in which the given version of the output data 
+	 * is stored.
+	 * 
+	 * @param version the version of the output data
+	 * @return the format, {@link OutputFormat#XML} for unknown versions
+	 */
+	public OutputFormat getFormat(Integer version) {
+		Version outputVersion = getVersion(version);
+		if (outputVersion != null) {
+			return outputVersion.getFormat();
+		}
+		
+		return OutputFormat.XML;
+	}
+	
+	/**
+	 * Returns the hash of the given version of the output data. Equal
+	 * hashes indicate, that two output data are equal, if informational
+	 * elements are not tested.
+	 * 
+	 * @param version the version of the output data
+	 * @return the hash or {@code null}, if the version has no hash
+	 * @see ElementHasher
+	 */
+	public String getOutputHash(Integer version) {
+		Version outputVersion = getVersion(version);
+		if (outputVersion != null) {
+			return outputVersion.getHash();
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Returns the execution cost of the given version of the output data.
+	 * 
+	 * @param version the version of the output data
+	 * @return the cost or {@code null}, if the cost has not been measured
+	 * @see #setCostMeasurement(int, int)
+	 */
+	public ExecutionCost getCost(Integer version) {
+		Version outputVersion = getVersion(version);
+		if (outputVersion != null) {
+			return outputVersion.getCost();
+		}
+		
+		return null;
+	}
+	
+	private Version getVersion(Integer versionNr) {
+		List<Version> versions = data.getVersion();
+		for (int index = versions.size() - 1; index >= 0; index--) {
+			Version version = versions.get(index);
+			if (versionNr != null && version.getNr() == versionNr) {
+				return version;
+			}
+		}
+		
+		return null;
 	}
 	
 	@Override
@@ -122,6 +517,31 @@ public class OutputDataManager extends AbstractDataManager<History> implements I
 		return new History();
 	}
 	
+	/**
+	 * Returns the number of the latest version of the output data.
+	 * 
+	 * @return the version number or 0, if no version exists
+	 */
+	public int getLatestVersion() {
+		return data.getVersion().size();
+	}
+	
+	/**
+	 * Returns the input version, from which the given version of the 
+	 * output data has been generated.
+	 * 
+	 * @param version the version of the output data
+	 * @return the input version or {@code null} for unknown versions
+	 */
+	public Integer getInputBase(Integer version) {
+		Version outputVersion = getVersion(version);
+		if (outputVersion != null) {
+			return outputVersion.getInputBase();
+		}
+		
+		return null;
+	}
+	
 	public boolean isOutDated(Integer latestInputID) {
 		for (Version version : data.getVersion()) {
 			if (version.getInputBase().equals(latestInputID)) {
@@ -134,19 +554,98 @@ public class OutputDataManager extends AbstractDataManager<History> implements I
 
 	public GenerationResult createData(Executor executor, Integer inputVersion, List<String> params) {
 		GenerationResult result = new GenerationResult(suiteName, caseName);
+		
+		Input input = null;
+		String key = null;
+		
+		try {
+			long start = Metrics.start();
+			input = getInputManager().getInput(inputVersion);
+			Metrics.stop(Phase.INPUT, start);
+			
+			if (fingerprint != null) {
+				key = fingerprint.getKey(input, params);
+			}
+		} catch (Throwable t) {
+			RTTLogging.trace("Could not load input data", t);
+			result.exception = t;
+			
+			return result;
+		}
+		
+		if (key != null && key.equals(data.getFingerprint()) 
+				&& !data.getVersion().isEmpty() && !isOutDated(inputVersion)) {
+			
+			// the latest version has been generated with the same key
+			result.noError = true;
+			result.fromCache = true;
+			Metrics.increment(Counter.RESULT_CACHE_HITS);
+			
+			return result;
+		}
+		
+		if (streaming) {
+			result = createStreamedData(executor, input, inputVersion, params);
+		} else {
+			result = createData(executor, input, inputVersion, params);
+		}
+		
+		if (result.noError) {
+			// without a fingerprint, a previous key becomes invalid
+			data.setFingerprint(key);
+			
+			if (result.statistics != null) {
+				Metrics.record(Phase.INITIALIZE, result.statistics.getInitializeTime());
+				Metrics.record(Phase.TRAVERSAL, result.statistics.getTraversalTime());
+				Metrics.add(Counter.ELEMENTS_GENERATED, result.statistics.getElementCount());
+			}
+			
+			if (result.cost != null) {
+				// the latest version is either new or equal to the generated data
+				List<Version> versions = data.getVersion();
+				versions.get(versions.size() - 1).setCost(result.cost);
+			}
+		}
+		
+		return result;
+	}
+	
+	private GenerationResult createData(final Executor executor, final Input input, 
+			Integer inputVersion, final List<String> params) {
+		
+		final GenerationResult result = new GenerationResult(suiteName, caseName);
 
 		Output newOutput = null;
+		String newHash = null;
 		
 		try {
-			Input input = inputManager.getInput(inputVersion);
+			result.statistics = new GenerationStatistics();
+			final CostMeter meter = createMeter();
+			newOutput = callLimited(new Generation<Output>() {
+				@Override
+				protected Output generate() throws Throwable {
+					if (workerPool != null) {
+						return workerPool.generate(config, baseDir, input, 
+								params, result.statistics, loadedClasses, meter);
+					}
+					
+					Output output = DataGenerator.generateOutput(
+							input, params, executor, result.statistics);
+					if (meter != null) {
+						meter.measure(input, params, executor);
+					}
+					
+					return output;
+				}
+			});
 			
-			newOutput = DataGenerator.generateOutput(input, params, executor);
+			if (meter != null) {
+				result.cost = meter.getCost();
+			}
+			
+			newHash = ElementHasher.hash(newOutput.getInitialElement());
 		} catch (Throwable t) {
-			RTTLogging.trace("Could not create output data", t);
-			if (t instanceof InvocationTargetException) {
-				t = t.getCause();
-			}			
-			result.exception = t;
+			setException(result, t);
 			
 			return result;
 		}
@@ -154,27 +653,225 @@ public class OutputDataManager extends AbstractDataManager<History> implements I
 		result.noError = true;
 
 		boolean replace = false;
-		int lastVersion = data.getVersion().size();
+		int lastVersion = getLatestVersion();
 		
 		if (lastVersion == 0) {
 			// previous history data are not available, write new one
 			replace = true;
+		} else if (isOutDated(inputVersion)) {
+			replace = true;
 		} else {
-			// previous data is available, load and check if data has changed
-			Output oldOutput = outputManager.getData(lastVersion);
-			replace = isOutDated(inputVersion) || !OutputManager.dataEqual(oldOutput, newOutput);
+			String oldHash = getOutputHash(lastVersion);
+			if (oldHash != null) {
+				// compare the hashes, without loading the previous data
+				replace = !oldHash.equals(newHash);
+				if (!replace) {
+					Metrics.increment(Counter.HASH_MATCHES);
+				}
+			} else {
+				// previous data is available, load and check if data has changed
+				Output oldOutput = getOutputData(lastVersion);
+				replace = !OutputManager.dataEqual(oldOutput, newOutput);
+			}
 		}
 
 		if (replace) {
-			addVersion(newOutput, inputVersion, lastVersion);			
+			addVersion(newOutput, inputVersion, lastVersion, newHash);			
 			result.hasReplaced = true;
 		}
 
 		return result;
 	}
 
+	private GenerationResult createStreamedData(final Executor executor, 
+			final Input input, Integer inputVersion, final List<String> params) {
+		
+		final GenerationResult result = new GenerationResult(suiteName, caseName);
+		
+		OutputCodec codec = OutputCodec.getCodec(outputFormat);
+		
+		File outputFile = null;
+		try {
+			outputFile = File.createTempFile("rtt-output", "." + codec.getFileExtension());
+			result.statistics = new GenerationStatistics();
+			
+			ElementHasher hasher = null;
+			MessageDigest digest = BlobStore.createDigest();
+			try (OutputStream outputStream = new BufferedOutputStream(
+					new DigestOutputStream(new FileOutputStream(outputFile), digest))) {
+				
+				final ElementHasher sink = new ElementHasher(codec.createSink(outputStream));
+				final CostMeter meter = createMeter();
+				callLimited(new Generation<Void>() {
+					@Override
+					protected Void generate() throws Throwable {
+						if (workerPool != null) {
+							workerPool.generate(config, baseDir, input, params, 
+									sink, result.statistics, loadedClasses, meter);
+						} else {
+							DataGenerator.generateOutput(input, params, executor, 
+									sink, result.statistics);
+							if (meter != null) {
+								meter.measure(input, params, executor);
+							}
+						}
+						
+						return null;
+					}
+				});
+				
+				hasher = sink;
+				if (meter != null) {
+					result.cost = meter.getCost();
+				}
+			}
+			
+			result.noError = true;
+			
+			String newHash = hasher.getHash();
+			String blob = BlobStore.getKey(digest);
+			int lastVersion = getLatestVersion();
+			
+			boolean replace = lastVersion == 0 || isOutDated(inputVersion);
+			if (!replace) {
+				String oldHash = getOutputHash(lastVersion);
+				if (oldHash != null) {
+					replace = !oldHash.equals(newHash);
+					if (!replace) {
+						Metrics.increment(Counter.HASH_MATCHES);
+					}
+				} else {
+					replace = !streamDataEqual(lastVersion, outputFile);
+				}
+			}
+			
+			if (replace) {
+				outputManager.setStreamData(outputFile, blob, outputFormat);
+				addVersion(inputVersion, lastVersion, newHash, blob, null);
+				latestOutput = null;
+				result.hasReplaced = true;
+			}
+		} catch (Throwable t) {
+			result.noError = false;
+			setException(result, t);
+		} finally {
+			if (outputFile != null && !outputFile.delete()) {
+				outputFile.deleteOnExit();
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Stores the given output data as a new version, without generating 
+	 * it, e.g. for synthesized archives. Unlike a generation, the new 
+	 * version is added even if it equals the latest version.
+	 * 
+	 * @param output the output data
+	 * @param inputVersion the version of the input data
+	 * @return the number of the new version
+	 */
+	public int addData(Output output, Integer inputVersion) {
+		String hash = ElementHasher.hash(output.getInitialElement());
+		int lastVersion = getLatestVersion();
+		
+		addVersion(output, inputVersion, lastVersion, hash);
+		
+		return lastVersion + 1;
+	}
+	
+	/**
+	 * A generation, which can be executed within a {@link GenerationLimit}.
+	 * Throwables of the tested classes, which are neither exceptions nor 
+	 * errors, are wrapped into an {@link InvocationTargetException}.
+	 */
+	private static abstract class Generation<T> implements Callable<T> {
+		
+		protected abstract T generate() throws Throwable;
+		
+		@Override
+		public final T call() throws Exception {
+			try {
+				return generate();
+			} catch (Exception | Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+	}
+	
+	private CostMeter createMeter() {
+		if (iterations > 0) {
+			return new CostMeter(warmup, iterations);
+		}
+		
+		return null;
+	}
+	
+	private <T> T callLimited(Callable<T> generation) throws Exception {
+		if (limit != null) {
+			return limit.call(generation);
+		}
+		
+		return generation.call();
+	}
+	
+	private void setException(GenerationResult result, Throwable t) {
+		RTTLogging.trace("Could not create output data", t);
+		if (t instanceof InvocationTargetException) {
+			t = t.getCause();
+		}
+		
+		result.timedOut = t instanceof TimeoutException;
+		result.cancelled = t instanceof CancellationException;
+		result.exception = t;
+	}
+	
+	private boolean streamDataEqual(int version, File outputFile) throws IOException {
+		try (InputStream oldData = getOutputDataInputStream(version); 
+				InputStream outputData = new BufferedInputStream(
+						new FileInputStream(outputFile))) {
+			
+			return OutputManager.streamDataEqual(oldData, outputData);
+		}
+	}
+
 	private void addVersion(Output newOutput, int inputVersion,
-			int lastVersion) {
+			int lastVersion, String hash) {
+		
+		String blob = null;
+		Integer deltaBase = null;
+		
+		if (lastVersion > 0 && getDeltaChainLength(lastVersion) < deltaChainLength) {
+			Output base = latestOutput;
+			if (base == null) {
+				base = getOutputData(lastVersion);
+			}
+			
+			if (base != null) {
+				blob = outputManager.setDeltaData(base, newOutput);
+			}
+			
+			if (blob != null) {
+				deltaBase = lastVersion;
+			}
+		}
+		
+		if (blob == null) {
+			blob = outputManager.setData(newOutput, outputFormat);
+		}
+		
+		addVersion(inputVersion, lastVersion, hash, blob, deltaBase);
+		
+		if (deltaChainLength > 0) {
+			latestOutput = newOutput;
+		}
+	}
+	
+	private void addVersion(int inputVersion, int lastVersion, String hash, 
+			String blob, Integer deltaBase) {
 		
 		Version newVersion = new Version();
 		newVersion.setDate(Calendar.getInstance());
@@ -183,10 +880,16 @@ public class OutputDataManager extends AbstractDataManager<History> implements I
 		
 		newVersion.setNr(versionNr);
 		newVersion.setInputBase(inputVersion);
+		newVersion.setHash(hash);
+		newVersion.setBlob(blob);
+		newVersion.setDeltaBase(deltaBase);
+		
+		// the default format is omitted, like in histories of older archives
+		if (outputFormat != OutputFormat.XML) {
+			newVersion.setFormat(outputFormat);
+		}
 
 		data.getVersion().add(newVersion);
-
-		outputManager.setData(newOutput, versionNr);
 	}
 	
 	@Override
@@ -0,0 +1,362 @@
+package rtt.core.manager.data.history;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+
+/**
+ * A structural delta between two versions of output data, computed on
+ * their element trees:
+ *
+ * <pre>
+ * delta    := MAGIC FORMAT_VERSION (NONE | KEEP | REPLACE element | MODIFY modify)
+ * modify   := attributes segment* END
+ * segment  := COPY index length | EDIT index modify | INSERT element
+ * element  := attributes childCount element*
+ * </pre>
+ *
+ * The children of a modified element are described by segments: a
+ * {@code COPY} takes unchanged children of the base element, an
+ * {@code EDIT} modifies a child of the base element and an {@code INSERT}
+ * adds a new child. Children of the base element, which are not
+ * referenced, are removed.
+ * <p>
+ * Unchanged children at the start and the end of a child list are copied.
+ * The remaining children are paired by their position: children with the
+ * same name and element type are modified, all others are replaced.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see OutputDataManager#setDeltaChainLength(int)
+ */
+public final class OutputDelta {
+
+	static final byte[] MAGIC = { 'R', 'T', 'T', 'D' };
+	static final int FORMAT_VERSION = 1;
+
+	// operations of the initial element
+	private static final int NONE = 0;
+	private static final int KEEP = 1;
+	private static final int REPLACE = 2;
+	private static final int MODIFY = 3;
+
+	// segments of a modified element
+	private static final int END = 0;
+	private static final int COPY = 1;
+	private static final int EDIT = 2;
+	private static final int INSERT = 3;
+
+	private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+	private static final GeneratorType[] GENERATOR_TYPES = GeneratorType.values();
+
+	private DataOutputStream out;
+	private int writtenElements = 0;
+
+	private OutputDelta(OutputStream outputStream) {
+		this.out = new DataOutputStream(outputStream);
+	}
+
+	/**
+	 * Writes the delta, which transforms the base output data into the
+	 * target output data.
+	 *
+	 * @param base the base output data, which will not be changed
+	 * @param target the target output data
+	 * @param outputStream the stream, which will not be closed
+	 * @return the number of elements, which have been written
+	 * 		completely or with changed attributes
+	 * @throws IOException thrown, if the delta could not be written
+	 */
+	public static int write(Output base, Output target,
+			OutputStream outputStream) throws IOException {
+
+		OutputDelta delta = new OutputDelta(outputStream);
+		delta.writeDelta(base.getInitialElement(), target.getInitialElement());
+
+		return delta.writtenElements;
+	}
+
+	/**
+	 * Applies the given delta to the given base output data. Unchanged
+	 * elements are shared between the base and the resulting output data,
+	 * so the base output data should not be used afterwards.
+	 *
+	 * @param base the base output data
+	 * @param inputStream the stream of the delta, which will not be closed
+	 * @return the target output data
+	 * @throws IOException thrown, if the delta could not be read
+	 */
+	public static Output apply(Output base, InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		for (byte expected : MAGIC) {
+			if (in.readByte() != expected) {
+				throw new IOException("Stream contains no output data delta.");
+			}
+		}
+
+		int version = in.readUnsignedByte();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported output data delta version " + version + ".");
+		}
+
+		Element initialElement = null;
+		switch (in.readUnsignedByte()) {
+		case NONE:
+			break;
+		case KEEP:
+			initialElement = base.getInitialElement();
+			break;
+		case REPLACE:
+			initialElement = readElement(in);
+			break;
+		case MODIFY:
+			if (base.getInitialElement() == null) {
+				throw new IOException("The delta does not match its base.");
+			}
+
+			initialElement = readModify(in, base.getInitialElement());
+			break;
+		default:
+			throw new IOException("Invalid output data delta.");
+		}
+
+		Output output = new Output();
+		output.setInitialElement(initialElement);
+
+		return output;
+	}
+
+	private void writeDelta(Element base, Element target) throws IOException {
+		out.write(MAGIC);
+		out.writeByte(FORMAT_VERSION);
+
+		if (target == null) {
+			out.writeByte(NONE);
+		} else if (base == null || !isMatching(base, target)) {
+			out.writeByte(REPLACE);
+			writeElement(target);
+		} else if (isEqual(base, target)) {
+			out.writeByte(KEEP);
+		} else {
+			out.writeByte(MODIFY);
+			writeModify(base, target);
+		}
+
+		out.flush();
+	}
+
+	private void writeModify(Element base, Element target) throws IOException {
+		writeAttributes(target);
+
+		List<Element> oldChildren = base.getElements();
+		List<Element> newChildren = target.getElements();
+		int oldSize = oldChildren.size();
+		int newSize = newChildren.size();
+
+		int prefix = 0;
+		while (prefix < oldSize && prefix < newSize
+				&& isEqual(oldChildren.get(prefix), newChildren.get(prefix))) {
+			prefix++;
+		}
+
+		int suffix = 0;
+		while (suffix < oldSize - prefix && suffix < newSize - prefix
+				&& isEqual(oldChildren.get(oldSize - 1 - suffix),
+						newChildren.get(newSize - 1 - suffix))) {
+			suffix++;
+		}
+
+		writeCopy(0, prefix);
+
+		for (int index = prefix; index < newSize - suffix; index++) {
+			Element newChild = newChildren.get(index);
+			if (index < oldSize - suffix) {
+				Element oldChild = oldChildren.get(index);
+				if (isEqual(oldChild, newChild)) {
+					writeCopy(index, 1);
+					continue;
+				}
+
+				if (isMatching(oldChild, newChild)) {
+					out.writeByte(EDIT);
+					out.writeInt(index);
+					writeModify(oldChild, newChild);
+					continue;
+				}
+			}
+
+			out.writeByte(INSERT);
+			writeElement(newChild);
+		}
+
+		writeCopy(oldSize - suffix, suffix);
+		out.writeByte(END);
+	}
+
+	private void writeCopy(int index, int length) throws IOException {
+		if (length > 0) {
+			out.writeByte(COPY);
+			out.writeInt(index);
+			out.writeInt(length);
+		}
+	}
+
+	private void writeElement(Element element) throws IOException {
+		writeAttributes(element);
+
+		out.writeInt(element.getElements().size());
+		for (Element child : element.getElements()) {
+			writeElement(child);
+		}
+	}
+
+	private void writeAttributes(Element element) throws IOException {
+		writtenElements++;
+
+		out.writeByte(element.getElementType().ordinal());
+		out.writeByte(element.getGeneratedBy().ordinal());
+		out.writeBoolean(element.isInformational());
+		writeString(element.getName());
+		writeString(element.getReturnType());
+		writeString(element.getAddress());
+		writeString(element.getValue());
+	}
+
+	private void writeString(String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static Element readModify(DataInputStream in, Element base) throws IOException {
+		Element element = readAttributes(in);
+
+		List<Element> oldChildren = base.getElements();
+		List<Element> newChildren = element.getElements();
+
+		int segment;
+		while ((segment = in.readUnsignedByte()) != END) {
+			switch (segment) {
+			case COPY:
+				int index = in.readInt();
+				int length = in.readInt();
+				checkIndex(oldChildren, index);
+				checkIndex(oldChildren, index + length - 1);
+				newChildren.addAll(oldChildren.subList(index, index + length));
+				break;
+			case EDIT:
+				Element oldChild = oldChildren.get(checkIndex(oldChildren, in.readInt()));
+				newChildren.add(readModify(in, oldChild));
+				break;
+			case INSERT:
+				newChildren.add(readElement(in));
+				break;
+			default:
+				throw new IOException("Invalid output data delta.");
+			}
+		}
+
+		return element;
+	}
+
+	private static int checkIndex(List<Element> children, int index) throws IOException {
+		if (index < 0 || index >= children.size()) {
+			throw new IOException("The delta does not match its base.");
+		}
+
+		return index;
+	}
+
+	private static Element readElement(DataInputStream in) throws IOException {
+		Element element = readAttributes(in);
+
+		int childCount = in.readInt();
+		for (int index = 0; index < childCount; index++) {
+			element.getElements().add(readElement(in));
+		}
+
+		return element;
+	}
+
+	private static Element readAttributes(DataInputStream in) throws IOException {
+		int elementType = in.readUnsignedByte();
+		int generatedBy = in.readUnsignedByte();
+		if (elementType >= ELEMENT_TYPES.length || generatedBy >= GENERATOR_TYPES.length) {
+			throw new IOException("Invalid output data delta.");
+		}
+
+		Element element = new Element();
+		element.setElementType(ELEMENT_TYPES[elementType]);
+		element.setGeneratedBy(GENERATOR_TYPES[generatedBy]);
+		element.setInformational(in.readBoolean());
+		element.setName(readString(in));
+		element.setReturnType(readString(in));
+		element.setAddress(readString(in));
+		element.setValue(readString(in));
+
+		return element;
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static boolean isMatching(Element base, Element target) {
+		return base.getElementType() == target.getElementType()
+				&& equal(base.getName(), target.getName());
+	}
+
+	private static boolean isEqual(Element base, Element target) {
+		if (base == target) {
+			return true;
+		}
+
+		if (!isMatching(base, target)
+				|| base.getGeneratedBy() != target.getGeneratedBy()
+				|| base.isInformational() != target.isInformational()
+				|| !equal(base.getReturnType(), target.getReturnType())
+				|| !equal(base.getAddress(), target.getAddress())
+				|| !equal(base.getValue(), target.getValue())) {
+			return false;
+		}
+
+		List<Element> baseChildren = base.getElements();
+		List<Element> targetChildren = target.getElements();
+		if (baseChildren.size() != targetChildren.size()) {
+			return false;
+		}
+
+		for (int index = 0; index < baseChildren.size(); index++) {
+			if (!isEqual(baseChildren.get(index), targetChildren.get(index))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean equal(String first, String second) {
+		return first == null ? second == null : first.equals(second);
+	}
+}
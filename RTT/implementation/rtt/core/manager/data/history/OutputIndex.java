@@ -0,0 +1,245 @@
+package rtt.core.manager.data.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import rtt.core.archive.output.Element;
+
+/**
+ * A random-access index of output data in the format of the
+ * {@link BinaryOutputCodec}, which allows to read single elements without
+ * reading the output data before them:
+ *
+ * <pre>
+ * index   := header record* symbol* slot*
+ * header  := MAGIC FORMAT_VERSION elementCount symbolCount slotCount (32 bytes)
+ * record  := dataOffset addressHash parent next childCount symbolBase position (40 bytes)
+ * symbol  := record
+ * slot    := record + 1 | 0
+ * </pre>
+ *
+ * The records describe the elements in document order: the offset of the
+ * element within the output data, the hash of its address, its parent,
+ * the record after its subtree (which is its next sibling), the number of
+ * its children, the number of symbols defined before it and its position
+ * within its parent. For each symbol, the record of the element, which
+ * defines the symbol, is stored. The slots are an open addressing hash
+ * table of the addresses, which contains the first element of each
+ * address.
+ * <p>
+ * All values have a fixed size and are aligned, so the index can be
+ * memory-mapped.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see LazyOutput
+ */
+public final class OutputIndex {
+
+	static final byte[] MAGIC = { 'R', 'T', 'T', 'I' };
+	static final int FORMAT_VERSION = 1;
+
+	static final int HEADER_SIZE = 32;
+	static final int RECORD_SIZE = 40;
+
+	// offsets within the header
+	static final int ELEMENT_COUNT = 8;
+	static final int SYMBOL_COUNT = 12;
+	static final int SLOT_COUNT = 16;
+
+	// offsets within a record
+	static final int DATA_OFFSET = 0;
+	static final int ADDRESS_HASH = 8;
+	static final int PARENT = 16;
+	static final int NEXT = 20;
+	static final int CHILD_COUNT = 24;
+	static final int SYMBOL_BASE = 28;
+	static final int POSITION = 32;
+
+	private OutputIndex() {
+	}
+
+	/**
+	 * Reads the given output data and writes its index into the given
+	 * file. The used memory depends only on the depth of the output data
+	 * and the number of distinct names and return types.
+	 *
+	 * @param data the stream of the binary output data, which will not be closed
+	 * @param indexFile the file of the index, which will be overwritten
+	 * @throws IOException thrown, if the output data could not be read or
+	 * 		the index could not be written
+	 */
+	public static void write(InputStream data, File indexFile) throws IOException {
+		BinaryOutputReader reader = new BinaryOutputReader(data);
+
+		// the values, which are known at the end of an element, are patched later
+		File patchFile = File.createTempFile("rtt-index", ".tmp");
+		try {
+			int elementCount = 0;
+			int[] symbolRecords = new int[64];
+
+			try (DataOutputStream records = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(indexFile)));
+					DataOutputStream patches = new DataOutputStream(
+							new BufferedOutputStream(new FileOutputStream(patchFile)))) {
+
+				records.write(MAGIC);
+				records.writeInt(FORMAT_VERSION);
+				records.write(new byte[HEADER_SIZE - ELEMENT_COUNT]);
+
+				int[] path = new int[16];
+				int[] childCounts = new int[17];
+				int depth = 0;
+
+				while (true) {
+					long offset = reader.getPosition();
+					int symbolBase = reader.getSymbolCount();
+
+					Element element = reader.nextChild();
+					if (element == null) {
+						if (depth == 0) {
+							break;
+						}
+
+						depth--;
+						patches.writeInt(path[depth]);
+						patches.writeInt(elementCount);
+						patches.writeInt(childCounts[depth + 1]);
+						continue;
+					}
+
+					int symbolCount = reader.getSymbolCount();
+					if (symbolCount > symbolRecords.length) {
+						symbolRecords = Arrays.copyOf(symbolRecords, symbolCount * 2);
+					}
+
+					for (int symbol = symbolBase; symbol < symbolCount; symbol++) {
+						symbolRecords[symbol] = elementCount;
+					}
+
+					records.writeLong(offset);
+					records.writeLong(getHash(element.getAddress()));
+					records.writeInt(depth > 0 ? path[depth - 1] : -1);
+					records.writeInt(0);
+					records.writeInt(0);
+					records.writeInt(symbolBase);
+					records.writeInt(++childCounts[depth]);
+					records.writeInt(0);
+
+					if (depth == path.length) {
+						path = Arrays.copyOf(path, depth * 2);
+						childCounts = Arrays.copyOf(childCounts, depth * 2 + 1);
+					}
+
+					path[depth] = elementCount++;
+					childCounts[++depth] = 0;
+				}
+
+				// symbol 0 is null and not defined by any element
+				int symbolCount = reader.getSymbolCount();
+				for (int symbol = 0; symbol < symbolCount; symbol++) {
+					records.writeInt(symbol == 0 ? -1 : symbolRecords[symbol]);
+				}
+			}
+
+			int slotCount = getSlotCount(elementCount);
+			long symbolStart = HEADER_SIZE + (long) elementCount * RECORD_SIZE;
+			try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+				file.setLength(symbolStart + reader.getSymbolCount() * 4L + slotCount * 4L);
+			}
+
+			try (MappedFile index = new MappedFile(indexFile, true)) {
+				index.putInt(ELEMENT_COUNT, elementCount);
+				index.putInt(SYMBOL_COUNT, reader.getSymbolCount());
+				index.putInt(SLOT_COUNT, slotCount);
+
+				try (DataInputStream patches = new DataInputStream(
+						new BufferedInputStream(new FileInputStream(patchFile)))) {
+
+					for (int i = 0; i < elementCount; i++) {
+						long record = getRecord(patches.readInt());
+						index.putInt(record + NEXT, patches.readInt());
+						index.putInt(record + CHILD_COUNT, patches.readInt());
+					}
+				}
+
+				long slotStart = symbolStart + reader.getSymbolCount() * 4L;
+				for (int record = 0; record < elementCount; record++) {
+					insert(index, slotStart, slotCount, record);
+				}
+			}
+		} finally {
+			patchFile.delete();
+		}
+	}
+
+	private static void insert(MappedFile index, long slotStart, int slotCount, int record) {
+		long hash = index.getLong(getRecord(record) + ADDRESS_HASH);
+		if (hash == 0) {
+			return;
+		}
+
+		int slot = getSlot(hash, slotCount);
+		while (true) {
+			int entry = index.getInt(slotStart + slot * 4L);
+			if (entry == 0) {
+				index.putInt(slotStart + slot * 4L, record + 1);
+				return;
+			}
+
+			// the first element of an address is kept
+			if (index.getLong(getRecord(entry - 1) + ADDRESS_HASH) == hash) {
+				return;
+			}
+
+			slot = (slot + 1) & (slotCount - 1);
+		}
+	}
+
+	/**
+	 * @return the number of slots, at least twice the number of elements
+	 */
+	private static int getSlotCount(int elementCount) {
+		int slotCount = 16;
+		while (slotCount < elementCount * 2L && slotCount < (1 << 30)) {
+			slotCount <<= 1;
+		}
+
+		return slotCount;
+	}
+
+	static int getSlot(long hash, int slotCount) {
+		return (int) (hash ^ (hash >>> 32)) & (slotCount - 1);
+	}
+
+	static long getRecord(int record) {
+		return HEADER_SIZE + (long) record * RECORD_SIZE;
+	}
+
+	/**
+	 * Computes a 64-bit FNV-1a hash of the given address. The hash of
+	 * {@code null} is 0, which no other address has.
+	 */
+	static long getHash(String address) {
+		if (address == null) {
+			return 0;
+		}
+
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < address.length(); i++) {
+			hash ^= address.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+
+		return hash == 0 ? 1 : hash;
+	}
+}
@@ -1,17 +1,65 @@
 package rtt.core.manager.data.history;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.history.Version;
+import rtt.core.archive.output.Element;
 import rtt.core.archive.output.Output;
 import rtt.core.loader.ArchiveLoader;
+import rtt.core.loader.BlobStore;
 import rtt.core.loader.fetching.OutputDataFetching;
 import rtt.core.manager.data.AbstractDataManager;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
 import rtt.core.testing.compare.OutputCompare;
+import rtt.core.testing.compare.StreamingOutputCompare;
 import rtt.core.testing.compare.results.TestFailure;
+import rtt.core.utils.RTTLogging;
 
+/**
+ * Reads and writes the output data of the versions of a history. New 
+ * output data is stored in the {@link BlobStore} of the archive, so equal 
+ * output data is stored only once for all test cases, configurations and 
+ * versions. Versions without a blob are read from their own output data 
+ * file, like in older archives.
+ * <p>
+ * A version can also be stored as an {@link OutputDelta} to another 
+ * version. Such versions are read with {@link #getDeltaData(Output, Version)}.
+ * <p>
+ * For output data in the binary format, an {@link OutputIndex} is stored 
+ * alongside, which allows to read it lazily with 
+ * {@link #getLazyData(Version)}.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
 public class OutputManager extends AbstractDataManager<Output> {
 
+	/**
+	 * The file extension of blobs, which contain an {@link OutputDelta}.
+	 */
+	public static final String DELTA_EXTENSION = "delta";
+	
+	/**
+	 * The file extension of blobs, which contain an {@link OutputIndex}. 
+	 * An index has the same key as its output data.
+	 */
+	public static final String INDEX_EXTENSION = "index";
+
 	OutputDataFetching fetching;
 
 	public OutputManager(ArchiveLoader loader, String path) {
@@ -22,26 +70,334 @@ public class OutputManager extends AbstractDataManager<Output> {
 		setFetchingStrategy(fetching);
 	}
 
-	public void setData(Output data, Integer version) {
-		fetching.setVersion(version);
-		marshall(Output.class, data);
+	/**
+	 * Writes the given output data to the blob store.
+	 * 
+	 * @param data the output data
+	 * @param format the format, in which the output data is written
+	 * @return the key of the blob or {@code null}, if the output data 
+	 * 		could not be written
+	 * @see OutputCodec
+	 * @see Version#setBlob(String)
+	 */
+	public String setData(Output data, OutputFormat format) {
+		OutputCodec codec = OutputCodec.getCodec(format);
+		try {
+			long start = Metrics.start();
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			codec.write(data, outputStream);
+			Metrics.stop(Phase.MARSHAL, start);
+			
+			byte[] bytes = outputStream.toByteArray();
+			String key = BlobStore.getKey(bytes);
+			if (!loader.getBlobStore().put(key, codec.getFileExtension(), bytes)) {
+				Metrics.increment(Counter.BLOB_HITS);
+			}
+			
+			if (format == OutputFormat.BINARY) {
+				setIndex(key, new ByteArrayInputStream(bytes));
+			}
+			
+			return key;
+		} catch (Exception e) {
+			RTTLogging.error("Could not marshall output data", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes the index of the given binary output data to the blob store, 
+	 * if it does not exist yet. Output data without an index can only be 
+	 * read completely, so a failure is not fatal.
+	 */
+	private void setIndex(String key, InputStream data) {
+		BlobStore store = loader.getBlobStore();
+		if (store.contains(key, INDEX_EXTENSION)) {
+			return;
+		}
+		
+		File indexFile = null;
+		try {
+			indexFile = File.createTempFile("rtt-index", "." + INDEX_EXTENSION);
+			OutputIndex.write(data, indexFile);
+			
+			try (InputStream inputStream = new BufferedInputStream(
+					new FileInputStream(indexFile))) {
+				
+				store.put(key, INDEX_EXTENSION, inputStream);
+			}
+		} catch (IOException e) {
+			RTTLogging.error("Could not write output data index", e);
+		} finally {
+			if (indexFile != null) {
+				indexFile.delete();
+			}
+		}
+	}
+	
+	/**
+	 * Opens a lazy view of the output data of the given version. The 
+	 * output data and its index are copied from the archive into temporary 
+	 * files, which are deleted, when the view is closed.
+	 * 
+	 * @param version the version of the output data
+	 * @return a {@link LazyOutput}, which has to be closed, or {@code null},
+	 * 		if the version is not stored in the binary format or has no index
+	 */
+	public LazyOutput getLazyData(Version version) {
+		if (version.getBlob() == null || version.getFormat() != OutputFormat.BINARY) {
+			return null;
+		}
+		
+		File dataFile = null;
+		File indexFile = null;
+		try {
+			dataFile = extractBlob(version.getBlob(), 
+					OutputCodec.getCodec(OutputFormat.BINARY).getFileExtension());
+			indexFile = extractBlob(version.getBlob(), INDEX_EXTENSION);
+			
+			if (dataFile != null && indexFile != null) {
+				LazyOutput output = new LazyOutput(dataFile, indexFile);
+				output.deleteOnClose(dataFile);
+				output.deleteOnClose(indexFile);
+				
+				return output;
+			}
+		} catch (IOException e) {
+			RTTLogging.trace("Could not open output data index", e);
+		}
+		
+		if (dataFile != null) {
+			dataFile.delete();
+		}
+		
+		if (indexFile != null) {
+			indexFile.delete();
+		}
+		
+		return null;
+	}
+	
+	private File extractBlob(String key, String extension) throws IOException {
+		try (InputStream inputStream = loader.getBlobStore().getInputStream(key, extension)) {
+			if (inputStream == null) {
+				return null;
+			}
+			
+			File file = File.createTempFile("rtt-blob", "." + extension);
+			try (OutputStream outputStream = new BufferedOutputStream(
+					new FileOutputStream(file))) {
+				
+				byte[] buffer = new byte[8192];
+				int count = 0;
+				while ((count = inputStream.read(buffer)) != -1) {
+					outputStream.write(buffer, 0, count);
+				}
+			} catch (IOException e) {
+				file.delete();
+				throw e;
+			}
+			
+			return file;
+		}
 	}
 
-	public Output getData(Integer version) {
-		fetching.setVersion(version);
+	/**
+	 * Writes the delta between the given output data to the blob store. 
+	 * If the delta would change more than half of the elements, nothing 
+	 * is written and the output data should be stored completely.
+	 * 
+	 * @param base the output data of the previous version
+	 * @param data the new output data
+	 * @return the key of the blob or {@code null}, if no delta has been 
+	 * 		written
+	 * @see #getDeltaData(Output, Version)
+	 */
+	public String setDeltaData(Output base, Output data) {
 		try {
-			return unmarshall(Output.class);
+			long start = Metrics.start();
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			int changedElements = OutputDelta.write(base, data, outputStream);
+			Metrics.stop(Phase.MARSHAL, start);
+			
+			if (changedElements * 2 > countElements(data.getInitialElement())) {
+				return null;
+			}
+			
+			byte[] bytes = outputStream.toByteArray();
+			String key = BlobStore.getKey(bytes);
+			if (!loader.getBlobStore().put(key, DELTA_EXTENSION, bytes)) {
+				Metrics.increment(Counter.BLOB_HITS);
+			}
+			
+			return key;
+		} catch (IOException e) {
+			RTTLogging.error("Could not write output data delta", e);
+			return null;
+		}
+	}
+	
+	private static int countElements(Element element) {
+		if (element == null) {
+			return 0;
+		}
+		
+		int count = 1;
+		for (Element child : element.getElements()) {
+			count += countElements(child);
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Reads the output data of the given version, which is stored as a 
+	 * delta to its base version.
+	 * 
+	 * @param base the output data of the base version, which should not be 
+	 * 		used afterwards
+	 * @param version the version of the output data
+	 * @return the output data or {@code null}, if it could not be read
+	 * @see Version#getDeltaBase()
+	 */
+	public Output getDeltaData(Output base, Version version) {
+		try (InputStream inputStream = loader.getBlobStore().getInputStream(
+				version.getBlob(), DELTA_EXTENSION)) {
+			
+			if (inputStream == null) {
+				return null;
+			}
+			
+			long start = Metrics.start();
+			Output output = OutputDelta.apply(base, inputStream);
+			Metrics.stop(Phase.UNMARSHAL, start);
+			
+			return output;
+		} catch (IOException e) {
+			RTTLogging.trace("Could not read output data delta", e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Returns a stream of the given output data in the given format, e.g.
+	 * for versions, which are not stored completely.
+	 * 
+	 * @param data the output data
+	 * @param format the format of the stream
+	 * @return an {@link InputStream} or {@code null}, if the output data 
+	 * 		could not be written
+	 */
+	public static InputStream getStreamData(Output data, OutputFormat format) {
+		try {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			OutputCodec.getCodec(format).write(data, outputStream);
+			
+			return new ByteArrayInputStream(outputStream.toByteArray());
 		} catch (Exception e) {
+			RTTLogging.error("Could not marshall output data", e);
 			return null;
 		}
 	}
 
-	public InputStream getStreamData(Integer version) {
-		fetching.setVersion(version);
-		return loader.getInputStream(strategy.getFileName(),
-				strategy.getFolders());
+	/**
+	 * Reads the output data of the given version.
+	 * 
+	 * @param version the version of the output data
+	 * @return the output data or {@code null}, if it could not be read
+	 */
+	public Output getData(Version version) {
+		OutputCodec codec = OutputCodec.getCodec(version.getFormat());
+		try (InputStream inputStream = getStreamData(version)) {
+			if (inputStream == null) {
+				return null;
+			}
+			
+			long start = Metrics.start();
+			Output output = codec.read(inputStream);
+			Metrics.stop(Phase.UNMARSHAL, start);
+			
+			return output;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a stream of the stored output data of the given version.
+	 * 
+	 * @param version the version of the output data
+	 * @return an {@link InputStream} or {@code null}, if the output data
+	 * 		does not exist
+	 */
+	public InputStream getStreamData(Version version) {
+		OutputCodec codec = OutputCodec.getCodec(version.getFormat());
+		if (version.getBlob() != null) {
+			return loader.getBlobStore().getInputStream(
+					version.getBlob(), codec.getFileExtension());
+		}
+		
+		// versions of older archives are stored in their own file
+		fetching.setVersion(version.getNr());
+		fetching.setExtension(codec.getFileExtension());
+		
+		return getInputStream();
 	}
 
+	/**
+	 * Copies the given file of output data to the blob store, if no 
+	 * blob with the given key exists. 
+	 * 
+	 * @param data the output data, e.g. written by an {@link XMLOutputSink}
+	 * @param key the key of the output data, see {@link BlobStore}
+	 * @param format the format of the output data
+	 * @throws IOException thrown, if the data could not be copied
+	 */
+	public void setStreamData(File data, String key, 
+			OutputFormat format) throws IOException {
+		
+		OutputCodec codec = OutputCodec.getCodec(format);
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(data))) {
+			if (!loader.getBlobStore().put(key, codec.getFileExtension(), inputStream)) {
+				Metrics.increment(Counter.BLOB_HITS);
+			}
+		}
+		
+		if (format == OutputFormat.BINARY) {
+			try (InputStream inputStream = new BufferedInputStream(new FileInputStream(data))) {
+				setIndex(key, inputStream);
+			}
+		}
+	}
+	
+	/**
+	 * Checks, if the given streams of output data are equal. Both will be 
+	 * read as streams in their own format, so none of them will be loaded 
+	 * completely into memory. Like in {@link #dataEqual(Output, Output)}, 
+	 * informational elements are ignored.
+	 * 
+	 * @param oldData the stream of the stored output data or {@code null}
+	 * @param data the stream of the new output data
+	 * @return {@code true}, if both contain the same elements
+	 */
+	public static boolean streamDataEqual(InputStream oldData, InputStream data) {
+		if (oldData == null) {
+			return false;
+		}
+		
+		try {
+			long start = Metrics.start();
+			List<TestFailure> failures = StreamingOutputCompare
+					.compareOutput(oldData, data, false);
+			Metrics.stop(Phase.COMPARE, start);
+			
+			return failures.isEmpty();
+		} catch (IOException | XMLStreamException e) {
+			RTTLogging.trace("Could not compare output data", e);
+			return false;
+		}
+	}
+	
 	@Override
 	protected Output doLoad() {
 		throw new RuntimeException(
@@ -51,7 +407,7 @@ public class OutputManager extends AbstractDataManager<Output> {
 	@Override
 	protected void doSave(Output data) {
 		throw new RuntimeException(
-				"Use setData(Version) for loading output");
+				"Use setData(Output, OutputFormat) for saving output");
 	}
 
 	public static boolean dataEqual(Output oldData, Output newData) {
@@ -59,8 +415,11 @@ public class OutputManager extends AbstractDataManager<Output> {
 			return true;
 		}
 		
+		long start = Metrics.start();
 		List<TestFailure> failures = OutputCompare
 				.compareOutput(oldData, newData, false);
+		Metrics.stop(Phase.COMPARE, start);
+		
 		if (failures != null && failures.isEmpty() == false) {
 			return false;
 		}
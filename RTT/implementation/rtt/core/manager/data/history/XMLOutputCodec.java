@@ -0,0 +1,53 @@
+package rtt.core.manager.data.history;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.output.Output;
+import rtt.core.manager.data.JAXBRegistry;
+import rtt.core.testing.generation.ElementSink;
+
+/**
+ * Reads and writes output data as XML documents through JAXB. Generated
+ * elements are streamed by an {@link XMLOutputSink}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+final class XMLOutputCodec extends OutputCodec {
+
+	@Override
+	public OutputFormat getFormat() {
+		return OutputFormat.XML;
+	}
+
+	@Override
+	public String getFileExtension() {
+		return "xml";
+	}
+
+	@Override
+	public Output read(InputStream inputStream) throws Exception {
+		// get the shared unmarshaller of the current thread
+		Unmarshaller unmarshaller = JAXBRegistry.getUnmarshaller(Output.class);
+		return unmarshaller.unmarshal(new StreamSource(inputStream), Output.class).getValue();
+	}
+
+	@Override
+	public void write(Output output, OutputStream outputStream) throws Exception {
+		// get the shared marshaller of the current thread
+		Marshaller marshaller = JAXBRegistry.getMarshaller(Output.class);
+		marshaller.marshal(output, new StreamResult(outputStream));
+	}
+
+	@Override
+	public ElementSink createSink(OutputStream outputStream) {
+		return new XMLOutputSink(outputStream);
+	}
+}
@@ -0,0 +1,129 @@
+package rtt.core.manager.data.history;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import rtt.core.archive.output.Element;
+import rtt.core.testing.generation.ElementSink;
+
+/**
+ * An {@link ElementSink}, which writes the passed elements directly as
+ * XML to an {@link OutputStream}. The written document can be read like 
+ * any other output data file of the archive.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class XMLOutputSink implements ElementSink {
+	
+	static final String NAMESPACE = "regression.test.tool";
+	static final String OUTPUT = "output";
+	static final String INITIAL_ELEMENT = "initialElement";
+	static final String ELEMENT = "element";
+	
+	private static final XMLOutputFactory FACTORY = XMLOutputFactory.newInstance();
+	
+	private OutputStream outputStream;
+	private XMLStreamWriter writer;
+	
+	private int depth = 0;
+	private boolean hasChildren = false;
+	
+	/**
+	 * Creates a new sink for the given {@link OutputStream}. The stream 
+	 * will not be closed by this sink.
+	 * 
+	 * @param outputStream the {@link OutputStream}
+	 */
+	public XMLOutputSink(OutputStream outputStream) {
+		this.outputStream = outputStream;
+	}
+	
+	private void newLine(int indent) throws XMLStreamException {
+		StringBuilder builder = new StringBuilder("\n");
+		for (int i = 0; i < indent; i++) {
+			builder.append("    ");
+		}
+		
+		writer.writeCharacters(builder.toString());
+	}
+	
+	private void writeAttribute(String name, Object value) 
+			throws XMLStreamException {
+		
+		if (value != null) {
+			writer.writeAttribute(name, value.toString());
+		}
+	}
+
+	@Override
+	public void startOutput() throws IOException {
+		try {
+			writer = FACTORY.createXMLStreamWriter(outputStream, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.setDefaultNamespace(NAMESPACE);
+			newLine(0);
+			writer.writeStartElement(NAMESPACE, OUTPUT);
+			writer.writeDefaultNamespace(NAMESPACE);
+		} catch (XMLStreamException exception) {
+			throw new IOException("Could not start output data.", exception);
+		}
+		
+		depth = 0;
+		hasChildren = true;
+	}
+
+	@Override
+	public void startElement(Element element) throws IOException {
+		try {
+			depth++;
+			newLine(depth);
+			writer.writeStartElement(NAMESPACE, depth == 1 ? INITIAL_ELEMENT : ELEMENT);
+			
+			writeAttribute("address", element.getAddress());
+			writeAttribute("name", element.getName());
+			writeAttribute("value", element.getValue());
+			writeAttribute("informational", element.isInformational());
+			writeAttribute("elementType", element.getElementType());
+			writeAttribute("returnType", element.getReturnType());
+			writeAttribute("generatedBy", element.getGeneratedBy());
+			
+			hasChildren = false;
+		} catch (XMLStreamException exception) {
+			throw new IOException("Could not write element.", exception);
+		}
+	}
+
+	@Override
+	public void endElement(Element element) throws IOException {
+		try {
+			if (hasChildren) {
+				newLine(depth);
+			}
+			
+			writer.writeEndElement();
+			
+			depth--;
+			hasChildren = true;
+		} catch (XMLStreamException exception) {
+			throw new IOException("Could not write element.", exception);
+		}
+	}
+
+	@Override
+	public void endOutput() throws IOException {
+		try {
+			newLine(0);
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.flush();
+			writer.close();
+		} catch (XMLStreamException exception) {
+			throw new IOException("Could not end output data.", exception);
+		}
+	}
+}
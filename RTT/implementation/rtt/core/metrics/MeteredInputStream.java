@@ -0,0 +1,73 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+
+/**
+ * Counts the bytes read from a stream of the archive and adds the time of
+ * each read to {@link Phase#ARCHIVE_READ}. Each stream counts as a single
+ * execution of the phase.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class MeteredInputStream extends FilterInputStream {
+
+	/**
+	 * @param in the stream of the archive
+	 * @param openTime the time needed to open the stream in nanoseconds
+	 */
+	public MeteredInputStream(InputStream in, long openTime) {
+		super(in);
+		Metrics.record(Phase.ARCHIVE_READ, openTime);
+	}
+
+	@Override
+	public int read() throws IOException {
+		long start = Metrics.start();
+		int read = super.read();
+		stop(start, read < 0 ? 0 : 1);
+
+		return read;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		long start = Metrics.start();
+		int read = super.read(b, off, len);
+		stop(start, read);
+
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long start = Metrics.start();
+		long skipped = super.skip(n);
+		stop(start, skipped);
+
+		return skipped;
+	}
+
+	private static void stop(long start, long bytes) {
+		if (start != 0) {
+			Metrics.addTime(Phase.ARCHIVE_READ, System.nanoTime() - start);
+		}
+
+		if (bytes > 0) {
+			Metrics.add(Counter.BYTES_READ, bytes);
+		}
+	}
+}
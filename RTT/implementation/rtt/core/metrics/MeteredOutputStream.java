@@ -0,0 +1,75 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+
+/**
+ * Counts the bytes written to a stream of the archive and adds the time
+ * of each write, flush and close to {@link Phase#ARCHIVE_WRITE}. Each
+ * stream counts as a single execution of the phase.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class MeteredOutputStream extends FilterOutputStream {
+
+	/**
+	 * @param out the stream of the archive
+	 * @param openTime the time needed to open the stream in nanoseconds
+	 */
+	public MeteredOutputStream(OutputStream out, long openTime) {
+		super(out);
+		Metrics.record(Phase.ARCHIVE_WRITE, openTime);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		long start = Metrics.start();
+		out.write(b);
+		stop(start, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		// don't write single bytes like the filter stream
+		long start = Metrics.start();
+		out.write(b, off, len);
+		stop(start, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		long start = Metrics.start();
+		out.flush();
+		stop(start, 0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		long start = Metrics.start();
+		out.close();
+		stop(start, 0);
+	}
+
+	private static void stop(long start, long bytes) {
+		if (start != 0) {
+			Metrics.addTime(Phase.ARCHIVE_WRITE, System.nanoTime() - start);
+		}
+
+		if (bytes > 0) {
+			Metrics.add(Counter.BYTES_WRITTEN, bytes);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import rtt.core.utils.RTTLogging;
+
+/**
+ * Collects the timers and counters of the phases of generation and
+ * testing within this process. All values are cumulative, the values of
+ * a single run are the difference of two {@link MetricsSnapshot snapshots}.
+ * Timers and counters are updated atomically, so they can be used by
+ * concurrently running test cases.
+ * <p>
+ * A timer is started with {@link #start()} and stopped with
+ * {@link #stop(Phase, long)}:
+ *
+ * <pre>
+ * long start = Metrics.start();
+ * ...
+ * Metrics.stop(Phase.COMPARE, start);
+ * </pre>
+ *
+ * Phases may be nested, e.g. the marshalling of data includes the writes
+ * through the archive loader. If the metrics are disabled, timers and
+ * counters are not updated. The metrics are exposed through JMX, after
+ * {@link #registerMBean()} has been called.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class Metrics {
+
+	/**
+	 * The measured phases.
+	 */
+	public enum Phase {
+		/** Loading the input data of a test case. */
+		INPUT,
+		/** Creating the initial node within the {@code Executor}. */
+		INITIALIZE,
+		/** Traversing the initial node within the {@code DataGenerator}. */
+		TRAVERSAL,
+		/** Writing data of the archive through JAXB. */
+		MARSHAL,
+		/** Reading data of the archive through JAXB. */
+		UNMARSHAL,
+		/** Reading from streams of the {@code ArchiveLoader}. */
+		ARCHIVE_READ,
+		/** Writing to streams of the {@code ArchiveLoader}. */
+		ARCHIVE_WRITE,
+		/** Writing pending changes to the archive file. */
+		COMMIT,
+		/** Comparing test data to reference data. */
+		COMPARE;
+	}
+
+	/**
+	 * The counted events.
+	 */
+	public enum Counter {
+		/** Output elements generated for new output data. */
+		ELEMENTS_GENERATED,
+		/** Bytes read from streams of the {@code ArchiveLoader}. */
+		BYTES_READ,
+		/** Bytes written to streams of the {@code ArchiveLoader}. */
+		BYTES_WRITTEN,
+		/** Generations skipped, because of an unchanged result fingerprint. */
+		RESULT_CACHE_HITS,
+		/** Comparisons skipped, because of equal output hashes. */
+		HASH_MATCHES,
+		/** Output data not written, because an equal blob was already stored. */
+		BLOB_HITS,
+		/** Histories read from the archive manifest instead of their own file. */
+		MANIFEST_HITS,
+		/** Class loaders reused from the {@code ExecutorLoaderCache}. */
+		LOADER_CACHE_HITS;
+	}
+
+	public static final String OBJECT_NAME = "rtt.core:type=Metrics";
+
+	private static final int PHASES = Phase.values().length;
+
+	private static volatile boolean enabled = true;
+	private static boolean registered = false;
+
+	private static final AtomicLongArray phaseCounts = new AtomicLongArray(PHASES);
+	private static final AtomicLongArray phaseTimes = new AtomicLongArray(PHASES);
+	private static final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+
+	private Metrics() {}
+
+	/**
+	 * Enables or disables the metrics. Enabled by default.
+	 *
+	 * @param enabled {@code true}, if timers and counters should be updated
+	 */
+	public static void setEnabled(boolean enabled) {
+		Metrics.enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts a timer.
+	 *
+	 * @return the start of the timer, which has to be passed to
+	 * 		{@link #stop(Phase, long)}
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Stops a timer and adds the elapsed time to the given phase.
+	 *
+	 * @param phase the measured phase
+	 * @param start the value returned by {@link #start()}
+	 */
+	public static void stop(Phase phase, long start) {
+		if (enabled && start != 0) {
+			record(phase, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Adds an execution of the given phase, which has been measured
+	 * elsewhere, e.g. within a worker process.
+	 *
+	 * @param phase the measured phase
+	 * @param nanos the time of the execution in nanoseconds
+	 */
+	public static void record(Phase phase, long nanos) {
+		if (enabled) {
+			phaseCounts.incrementAndGet(phase.ordinal());
+			phaseTimes.addAndGet(phase.ordinal(), nanos);
+		}
+	}
+
+	/**
+	 * Adds time to the given phase without counting an execution, e.g.
+	 * the time of a single read of a stream.
+	 */
+	static void addTime(Phase phase, long nanos) {
+		if (enabled) {
+			phaseTimes.addAndGet(phase.ordinal(), nanos);
+		}
+	}
+
+	public static void increment(Counter counter) {
+		add(counter, 1);
+	}
+
+	public static void add(Counter counter, long value) {
+		if (enabled) {
+			counters.addAndGet(counter.ordinal(), value);
+		}
+	}
+
+	/**
+	 * @return the current values of all timers and counters
+	 */
+	public static MetricsSnapshot snapshot() {
+		long[] counts = new long[PHASES];
+		long[] times = new long[PHASES];
+		for (int index = 0; index < PHASES; index++) {
+			counts[index] = phaseCounts.get(index);
+			times[index] = phaseTimes.get(index);
+		}
+
+		long[] values = new long[counters.length()];
+		for (int index = 0; index < values.length; index++) {
+			values[index] = counters.get(index);
+		}
+
+		return new MetricsSnapshot(System.nanoTime(), counts, times, values);
+	}
+
+	/**
+	 * Resets all timers and counters to zero.
+	 */
+	public static void reset() {
+		for (int index = 0; index < PHASES; index++) {
+			phaseCounts.set(index, 0);
+			phaseTimes.set(index, 0);
+		}
+
+		for (int index = 0; index < counters.length(); index++) {
+			counters.set(index, 0);
+		}
+	}
+
+	/**
+	 * Registers the {@link MetricsMXBean} at the platform MBean server
+	 * with the name {@value #OBJECT_NAME}. Further calls will be ignored.
+	 */
+	public static synchronized void registerMBean() {
+		if (registered) {
+			return;
+		}
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(new MetricsBean(), name);
+			}
+
+			registered = true;
+		} catch (Exception e) {
+			RTTLogging.debug("Could not register the metrics MBean", e);
+		}
+	}
+}
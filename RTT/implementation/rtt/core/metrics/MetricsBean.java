@@ -0,0 +1,75 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+
+/**
+ * Implements the {@link MetricsMXBean} on top of {@link Metrics}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+final class MetricsBean implements MetricsMXBean {
+
+	@Override
+	public boolean isEnabled() {
+		return Metrics.isEnabled();
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		Metrics.setEnabled(enabled);
+	}
+
+	@Override
+	public Map<String, Long> getPhaseCounts() {
+		MetricsSnapshot snapshot = Metrics.snapshot();
+
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (Phase phase : Phase.values()) {
+			counts.put(phase.name(), snapshot.getCount(phase));
+		}
+
+		return counts;
+	}
+
+	@Override
+	public Map<String, Double> getPhaseTimes() {
+		MetricsSnapshot snapshot = Metrics.snapshot();
+
+		Map<String, Double> times = new LinkedHashMap<>();
+		for (Phase phase : Phase.values()) {
+			times.put(phase.name(), snapshot.getTime(phase) / 1e6);
+		}
+
+		return times;
+	}
+
+	@Override
+	public Map<String, Long> getCounters() {
+		MetricsSnapshot snapshot = Metrics.snapshot();
+
+		Map<String, Long> values = new LinkedHashMap<>();
+		for (Counter counter : Counter.values()) {
+			values.put(counter.name(), snapshot.getCounter(counter));
+		}
+
+		return values;
+	}
+
+	@Override
+	public void reset() {
+		Metrics.reset();
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX interface of the {@link Metrics}, registered with the name
+ * {@value Metrics#OBJECT_NAME}. All maps are keyed by the names of the
+ * phases and counters.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public interface MetricsMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return the number of executions of each phase
+	 */
+	Map<String, Long> getPhaseCounts();
+
+	/**
+	 * @return the summed time of each phase in milliseconds
+	 */
+	Map<String, Double> getPhaseTimes();
+
+	Map<String, Long> getCounters();
+
+	/**
+	 * Resets all timers and counters to zero.
+	 */
+	void reset();
+}
@@ -0,0 +1,113 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.metrics;
+
+import java.util.Locale;
+
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+
+/**
+ * The values of all timers and counters of the {@link Metrics} at a
+ * point in time. The values of a single run are given by
+ * {@link #since(MetricsSnapshot)}.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class MetricsSnapshot {
+
+	private final long timestamp;
+	private final long elapsed;
+
+	private final long[] phaseCounts;
+	private final long[] phaseTimes;
+	private final long[] counters;
+
+	MetricsSnapshot(long timestamp, long[] phaseCounts, long[] phaseTimes, long[] counters) {
+		this(timestamp, 0, phaseCounts, phaseTimes, counters);
+	}
+
+	private MetricsSnapshot(long timestamp, long elapsed,
+			long[] phaseCounts, long[] phaseTimes, long[] counters) {
+
+		this.timestamp = timestamp;
+		this.elapsed = elapsed;
+		this.phaseCounts = phaseCounts;
+		this.phaseTimes = phaseTimes;
+		this.counters = counters;
+	}
+
+	/**
+	 * Returns the difference between this and the given earlier snapshot.
+	 *
+	 * @param earlier the snapshot taken at the start of a run
+	 * @return the values of the run
+	 */
+	public MetricsSnapshot since(MetricsSnapshot earlier) {
+		long[] counts = new long[phaseCounts.length];
+		long[] times = new long[phaseTimes.length];
+		for (int index = 0; index < counts.length; index++) {
+			counts[index] = phaseCounts[index] - earlier.phaseCounts[index];
+			times[index] = phaseTimes[index] - earlier.phaseTimes[index];
+		}
+
+		long[] values = new long[counters.length];
+		for (int index = 0; index < values.length; index++) {
+			values[index] = counters[index] - earlier.counters[index];
+		}
+
+		return new MetricsSnapshot(timestamp, timestamp - earlier.timestamp,
+				counts, times, values);
+	}
+
+	/**
+	 * @return the wall time between both snapshots in nanoseconds, if this
+	 * 		snapshot is a difference, otherwise 0
+	 * @see #since(MetricsSnapshot)
+	 */
+	public long getElapsed() {
+		return elapsed;
+	}
+
+	/**
+	 * @return the number of executions of the given phase
+	 */
+	public long getCount(Phase phase) {
+		return phaseCounts[phase.ordinal()];
+	}
+
+	/**
+	 * @return the summed time of the given phase in nanoseconds
+	 */
+	public long getTime(Phase phase) {
+		return phaseTimes[phase.ordinal()];
+	}
+
+	public long getCounter(Counter counter) {
+		return counters[counter.ordinal()];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (Phase phase : Phase.values()) {
+			if (getCount(phase) > 0) {
+				builder.append(String.format(Locale.ROOT, "%s: %d x %.3f ms, ",
+						phase, getCount(phase), getTime(phase) / 1e6));
+			}
+		}
+
+		for (Counter counter : Counter.values()) {
+			builder.append(counter).append(": ").append(getCounter(counter)).append(", ");
+		}
+
+		return builder.substring(0, builder.length() - 2);
+	}
+}
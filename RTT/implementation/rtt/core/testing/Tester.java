@@ -1,7 +1,15 @@
 package rtt.core.testing;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+
 import rtt.core.archive.configuration.Configuration;
 import rtt.core.archive.output.Output;
 import rtt.core.archive.testsuite.Testcase;
@@ -9,9 +17,16 @@ import rtt.core.archive.testsuite.VersionData;
 import rtt.core.exceptions.RTTException;
 import rtt.core.exceptions.RTTException.Type;
 import rtt.core.loader.ArchiveLoader;
+import rtt.core.manager.data.ManifestManager;
 import rtt.core.manager.data.history.OutputDataManager;
 import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+import rtt.core.testing.compare.CostCompare;
 import rtt.core.testing.compare.OutputCompare;
+import rtt.core.testing.compare.StreamingOutputCompare;
+import rtt.core.testing.compare.results.PerformanceFailure;
 import rtt.core.testing.compare.results.TestExecutionFailure;
 import rtt.core.testing.compare.results.TestFailure;
 import rtt.core.testing.compare.results.TestResult;
@@ -22,11 +37,79 @@ public class Tester {
 
 	ArchiveLoader loader;
 	boolean matching;
+	
+	private ManifestManager manifest = null;
+	private boolean streaming = false;
+	private boolean fullDiff = false;
+	private boolean performanceCheck = false;
+	private double costTolerance = CostCompare.DEFAULT_TOLERANCE;
 
 	public Tester(ArchiveLoader loader, boolean matching) {
 		super();
 		this.loader = loader;
 	}
+	
+	/**
+	 * Sets the manifest of the archive, from which the histories of the 
+	 * reference and test data are read.
+	 * 
+	 * @param manifest the {@link ManifestManager} or {@code null}, if 
+	 * 		each history should be read from its own file
+	 */
+	public void setManifest(ManifestManager manifest) {
+		this.manifest = manifest;
+	}
+	
+	/**
+	 * Sets, if the stored reference and test data should be compared as
+	 * XML streams, instead of loading them completely into memory.
+	 * 
+	 * @param streaming {@code true}, if output data should be streamed
+	 * @see StreamingOutputCompare
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+	
+	/**
+	 * Sets, if all differences should be reported, up to 
+	 * {@link OutputCompare#DEFAULT_MAX_DIFFERENCES}. Otherwise, the 
+	 * comparison stops at the first difference.
+	 * 
+	 * @param fullDiff {@code true}, if all differences should be reported
+	 * @see OutputCompare#compareOutput(Output, Output, boolean, int)
+	 */
+	public void setFullDiff(boolean fullDiff) {
+		this.fullDiff = fullDiff;
+	}
+
+	/**
+	 * Sets, if the execution cost of the test version should be compared 
+	 * with the cost of the reference version. A significant increase 
+	 * fails the test case, even if the output data are equal. Versions 
+	 * without measured cost are not compared.
+	 * 
+	 * @param performanceCheck {@code true}, if the cost should be compared
+	 * @see CostCompare
+	 */
+	public void setPerformanceCheck(boolean performanceCheck) {
+		this.performanceCheck = performanceCheck;
+	}
+	
+	/**
+	 * Sets the tolerated increase of the execution cost as fraction of 
+	 * the reference cost. Default is {@link CostCompare#DEFAULT_TOLERANCE}.
+	 * 
+	 * @param costTolerance the tolerated increase, e.g. 0.1 for 10%
+	 * @see #setPerformanceCheck(boolean)
+	 */
+	public void setCostTolerance(double costTolerance) {
+		if (costTolerance < 0) {
+			throw new IllegalArgumentException("The tolerance must not be negative.");
+		}
+		
+		this.costTolerance = costTolerance;
+	}
 
 	public TestResult test(String suiteName, Testcase tcase,
 			Configuration config) {
@@ -42,8 +125,8 @@ public class Tester {
 		String caseName = tcase.getName();
 		
 		// open a reference and test manager
-		OutputDataManager refManager = new OutputDataManager(loader, suiteName, caseName, config, OutputDataType.REFERENCE);
-		OutputDataManager testManager = new OutputDataManager(loader, suiteName, caseName, config, OutputDataType.TEST);
+		OutputDataManager refManager = new OutputDataManager(loader, suiteName, caseName, config, OutputDataType.REFERENCE, manifest);
+		OutputDataManager testManager = new OutputDataManager(loader, suiteName, caseName, config, OutputDataType.TEST, manifest);
 		
 		TestResult result = new TestResult(ResultType.SKIPPED, suiteName, caseName);
 		
@@ -70,13 +153,29 @@ public class Tester {
 			return result;
 		}
 		
+		// equal hashes of both versions indicate equal output data
+		String refHash = refManager.getOutputHash(versionData.getReferenceID());
+		if (refHash != null && refHash.equals(
+				testManager.getOutputHash(versionData.getTestID()))) {
+			
+			Metrics.increment(Counter.HASH_MATCHES);
+			result.setType(checkCost(result, refManager, testManager, versionData));
+			return result;
+		}
+		
 		boolean testSuccess = true;
 		
+		long start = Metrics.start();
 		try {
-			Output testData = testManager.getOutputData(versionData.getTestID());
-			Output refData = refManager.getOutputData(versionData.getReferenceID()); 
-			
-			List<TestFailure> failures = compareOutput(testData, refData);
+			List<TestFailure> failures = null;
+			if (streaming) {
+				failures = compareStreams(testManager, refManager, versionData);
+			} else {
+				Output testData = testManager.getOutputData(versionData.getTestID());
+				Output refData = refManager.getOutputData(versionData.getReferenceID()); 
+				
+				failures = compareOutput(testData, refData);
+			}
 			
 			if (failures != null && !failures.isEmpty()) {
 				for (TestFailure testFailure : failures) {
@@ -89,23 +188,89 @@ public class Tester {
 			result.addFailure(new TestExecutionFailure(e));
 			testSuccess = false;
 		}
+		
+		Metrics.stop(Phase.COMPARE, start);
 
 		if (testSuccess) {
-			result.setType(ResultType.SUCCESS);
+			result.setType(checkCost(result, refManager, testManager, versionData));
 		} else {
 			result.setType(ResultType.FAILURE);
 		}
 
 		return result;
 	}
+	
+	private ResultType checkCost(TestResult result, OutputDataManager refManager,
+			OutputDataManager testManager, VersionData versionData) {
+		
+		if (!performanceCheck) {
+			return ResultType.SUCCESS;
+		}
+		
+		List<PerformanceFailure> failures = CostCompare.compareCost(
+				refManager.getCost(versionData.getReferenceID()), 
+				testManager.getCost(versionData.getTestID()), costTolerance);
+		
+		if (failures.isEmpty()) {
+			return ResultType.SUCCESS;
+		}
+		
+		for (PerformanceFailure failure : failures) {
+			result.addFailure(failure);
+		}
+		
+		return ResultType.FAILURE;
+	}
 
 	private List<TestFailure> compareOutput(Output testData, Output refData) throws RTTException {
 		
 		checkData(testData, refData);
 		RTTLogging.info("Testing Syntactic Results");
+		if (fullDiff) {
+			return OutputCompare.compareOutput(refData, testData, 
+					false, OutputCompare.DEFAULT_MAX_DIFFERENCES);
+		}
+		
 		return OutputCompare.compareOutput(refData, testData, false);
 	}
 
+	private List<TestFailure> compareStreams(OutputDataManager testManager,
+			OutputDataManager refManager, VersionData versionData) throws RTTException {
+		
+		Path refFile = null;
+		try {
+			// the archive loader waits for open input streams, before an 
+			// entry is read, so the reference data is copied to a 
+			// temporary file, before the test data is opened
+			try (InputStream refData = refManager.getOutputDataInputStream(versionData.getReferenceID())) {
+				if (refData != null) {
+					refFile = Files.createTempFile("rtt-reference", ".data");
+					Files.copy(refData, refFile, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			
+			try (InputStream testData = testManager.getOutputDataInputStream(versionData.getTestID());
+					InputStream refData = refFile != null ? new BufferedInputStream(
+							Files.newInputStream(refFile)) : null) {
+				
+				checkData(testData, refData);
+				RTTLogging.info("Testing Syntactic Results");
+				
+				return new StreamingOutputCompare(false, fullDiff).compare(refData, testData);
+			}
+		} catch (IOException | XMLStreamException e) {
+			throw new RTTException(Type.OPERATION_FAILED, "Could not compare output data.", e);
+		} finally {
+			if (refFile != null) {
+				try {
+					Files.deleteIfExists(refFile);
+				} catch (IOException e) {
+					refFile.toFile().deleteOnExit();
+				}
+			}
+		}
+	}
+
 	private void checkData(Object testData, Object refData) throws RTTException {
 		if (testData != null && refData == null) {
 			throw new IllegalStateException(
@@ -0,0 +1,153 @@
+package rtt.core.testing.compare;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import rtt.core.archive.history.CostMeasure;
+import rtt.core.archive.history.ExecutionCost;
+import rtt.core.testing.compare.results.PerformanceFailure;
+
+/**
+ * Compares the execution cost of a test version with the cost of its
+ * reference version. A measure has regressed, if the cost increased
+ * significantly by more than the tolerated fraction of the reference
+ * mean: the lower bound of the one-sided 99% confidence interval of the
+ * difference of both means (Welch's t-test) must exceed the tolerance.
+ * Therefore, noisy measures need a larger increase than stable ones.
+ * <p>
+ * Measures with less than two iterations on either side can not be
+ * compared and will be ignored. Deterministic measures without any 
+ * deviation, like allocations, are compared directly, if both sides have
+ * at least two iterations.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see rtt.core.testing.generation.CostMeter
+ */
+public final class CostCompare {
+
+	/**
+	 * The default tolerated increase: 10% of the reference mean.
+	 */
+	public static final double DEFAULT_TOLERANCE = 0.1;
+
+	// one-sided 99% quantiles of the t-distribution for 1 to 30 degrees of freedom
+	private static final double[] T_QUANTILES = {
+		31.821, 6.965, 4.541, 3.747, 3.365, 3.143, 2.998, 2.896, 2.821, 2.764,
+		2.718, 2.681, 2.650, 2.624, 2.602, 2.583, 2.567, 2.552, 2.539, 2.528,
+		2.518, 2.508, 2.500, 2.492, 2.485, 2.479, 2.473, 2.467, 2.462, 2.457
+	};
+
+	private CostCompare() {}
+
+	/**
+	 * Compares the measures of both costs, which exist on both sides.
+	 *
+	 * @param refCost the cost of the reference version
+	 * @param testCost the cost of the test version
+	 * @param tolerance the tolerated increase as fraction of the reference mean
+	 * @return a failure for each regressed measure, empty if one of the
+	 * 		costs is {@code null}
+	 */
+	public static List<PerformanceFailure> compareCost(ExecutionCost refCost,
+			ExecutionCost testCost, double tolerance) {
+
+		List<PerformanceFailure> failures = new ArrayList<>();
+		if (refCost == null || testCost == null) {
+			return failures;
+		}
+
+		for (CostMeasure testMeasure : testCost.getMeasure()) {
+			CostMeasure refMeasure = findMeasure(refCost, testMeasure);
+			if (refMeasure == null) {
+				continue;
+			}
+
+			double lowerBound = getLowerBound(refMeasure, refCost.getIterations(),
+					testMeasure, testCost.getIterations());
+
+			if (lowerBound > tolerance * refMeasure.getMean()) {
+				failures.add(new PerformanceFailure(testMeasure.getPhase(),
+						testMeasure.getMetric(), refMeasure.getMean(),
+						testMeasure.getMean(), lowerBound));
+			}
+		}
+
+		return failures;
+	}
+
+	private static CostMeasure findMeasure(ExecutionCost cost, CostMeasure measure) {
+		for (CostMeasure candidate : cost.getMeasure()) {
+			if (candidate.getPhase() == measure.getPhase()
+					&& candidate.getMetric() == measure.getMetric()) {
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the lower bound of the one-sided 99% confidence interval of
+	 * the difference between the test mean and the reference mean.
+	 */
+	static double getLowerBound(CostMeasure refMeasure, int refCount,
+			CostMeasure testMeasure, int testCount) {
+
+		// a single iteration has no measured deviation, even if its 
+		// standard deviation is stored as 0
+		if (refCount < 2 || testCount < 2) {
+			return Double.NEGATIVE_INFINITY;
+		}
+
+		double difference = testMeasure.getMean() - refMeasure.getMean();
+
+		double refVariance = square(refMeasure.getStdDev()) / refCount;
+		double testVariance = square(testMeasure.getStdDev()) / testCount;
+		double variance = refVariance + testVariance;
+
+		if (variance == 0) {
+			// deterministic measures, like allocations, need no interval
+			return difference;
+		}
+
+		// Welch-Satterthwaite approximation of the degrees of freedom
+		double degrees = square(variance) / (square(refVariance) / (refCount - 1)
+				+ square(testVariance) / (testCount - 1));
+
+		return difference - getQuantile(degrees) * Math.sqrt(variance);
+	}
+
+	/**
+	 * Returns the quantile of the next lower tabulated degrees of freedom,
+	 * which results in a conservative bound.
+	 */
+	static double getQuantile(double degrees) {
+		int index = (int) Math.floor(degrees);
+		if (index < 1) {
+			return T_QUANTILES[0];
+		}
+
+		if (index <= T_QUANTILES.length) {
+			return T_QUANTILES[index - 1];
+		}
+
+		if (index < 40) {
+			return T_QUANTILES[T_QUANTILES.length - 1];
+		}
+
+		if (index < 60) {
+			return 2.423;
+		}
+
+		if (index < 120) {
+			return 2.390;
+		}
+
+		return 2.358;
+	}
+
+	private static double square(double value) {
+		return value * value;
+	}
+}
@@ -0,0 +1,103 @@
+package rtt.core.testing.compare;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aligns two lists of child elements by the keys of their subtrees. 
+ * Elements with equal keys are matched as a longest common subsequence, 
+ * so inserted or removed elements don't shift the following ones.
+ * <p>
+ * A common prefix and suffix are matched directly. The remaining middle
+ * part is aligned through dynamic programming, if it is small enough.
+ * Otherwise, it will not be aligned and its elements are paired by their 
+ * position.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+final class ElementAlignment {
+	
+	/**
+	 * The maximum size of the table used for aligning the middle part.
+	 */
+	private static final long MAX_TABLE_SIZE = 4 * 1024 * 1024;
+	
+	private ElementAlignment() {}
+	
+	/**
+	 * Returns the matched pairs of both key lists in ascending order. 
+	 * Each pair contains the index of the reference key at position 0 and
+	 * the index of the actual key at position 1.
+	 * 
+	 * @param refKeys the keys of the reference children
+	 * @param actualKeys the keys of the actual children
+	 * @return the matched pairs
+	 */
+	static List<int[]> align(long[] refKeys, long[] actualKeys) {
+		int refLength = refKeys.length;
+		int actualLength = actualKeys.length;
+		
+		int prefix = 0;
+		while (prefix < refLength && prefix < actualLength 
+				&& refKeys[prefix] == actualKeys[prefix]) {
+			prefix++;
+		}
+		
+		int suffix = 0;
+		while (suffix < refLength - prefix && suffix < actualLength - prefix
+				&& refKeys[refLength - 1 - suffix] == actualKeys[actualLength - 1 - suffix]) {
+			suffix++;
+		}
+		
+		List<int[]> pairs = new ArrayList<>();
+		for (int i = 0; i < prefix; i++) {
+			pairs.add(new int[] {i, i});
+		}
+		
+		int refMiddle = refLength - prefix - suffix;
+		int actualMiddle = actualLength - prefix - suffix;
+		
+		if (refMiddle > 0 && actualMiddle > 0 
+				&& (long) (refMiddle + 1) * (actualMiddle + 1) <= MAX_TABLE_SIZE) {
+			
+			alignMiddle(refKeys, actualKeys, prefix, refMiddle, actualMiddle, pairs);
+		}
+		
+		for (int i = suffix; i > 0; i--) {
+			pairs.add(new int[] {refLength - i, actualLength - i});
+		}
+		
+		return pairs;
+	}
+	
+	private static void alignMiddle(long[] refKeys, long[] actualKeys, int offset,
+			int refMiddle, int actualMiddle, List<int[]> pairs) {
+		
+		// lengths of the common subsequences of all suffixes
+		int[][] table = new int[refMiddle + 1][actualMiddle + 1];
+		for (int i = refMiddle - 1; i >= 0; i--) {
+			for (int j = actualMiddle - 1; j >= 0; j--) {
+				if (refKeys[offset + i] == actualKeys[offset + j]) {
+					table[i][j] = table[i + 1][j + 1] + 1;
+				} else {
+					table[i][j] = Math.max(table[i + 1][j], table[i][j + 1]);
+				}
+			}
+		}
+		
+		int i = 0;
+		int j = 0;
+		while (i < refMiddle && j < actualMiddle) {
+			if (refKeys[offset + i] == actualKeys[offset + j]) {
+				pairs.add(new int[] {offset + i, offset + j});
+				i++;
+				j++;
+			} else if (table[i + 1][j] >= table[i][j + 1]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package rtt.core.testing.compare;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import rtt.core.archive.output.Element;
+import rtt.core.testing.generation.ElementSink;
+import rtt.core.utils.Digests;
+
+/**
+ * Computes a hash for each element subtree, which covers only the parts
+ * compared by {@link OutputCompare}, if informational elements are not 
+ * tested: element type, generator type, name, the informational flag and,
+ * for non-informational elements, the value and the hashes of all 
+ * non-informational children. Two outputs with equal hashes of their 
+ * initial elements are therefore equal for {@link OutputCompare}.
+ * <p>
+ * The hasher can be used as an {@link ElementSink} during generation. All
+ * elements will be passed to an optional delegate sink.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see OutputCompare#compareOutput(rtt.core.archive.output.Output, 
+ * 		rtt.core.archive.output.Output, boolean)
+ */
+public class ElementHasher implements ElementSink {
+	
+	private ElementSink delegate;
+	
+	// one digest for each level of the current path
+	private List<MessageDigest> digests = new ArrayList<>();
+	private boolean[] informational = new boolean[16];
+	private int depth = 0;
+	
+	private byte[] hash = null;
+	
+	/**
+	 * Creates a hasher without a delegate sink.
+	 */
+	public ElementHasher() {
+		this(null);
+	}
+	
+	/**
+	 * Creates a hasher, which passes all elements to the given sink.
+	 * @param delegate the delegate sink or {@code null}
+	 */
+	public ElementHasher(ElementSink delegate) {
+		this.delegate = delegate;
+	}
+	
+	/**
+	 * Computes the hash of the given element subtree.
+	 * 
+	 * @param element the root of the subtree
+	 * @return the hash as hexadecimal string
+	 */
+	public static String hash(Element element) {
+		if (element == null) {
+			throw new IllegalArgumentException("Element was null.");
+		}
+		
+		ElementHasher hasher = new ElementHasher();
+		hasher.visit(element);
+		
+		return hasher.getHash();
+	}
+	
+	private void visit(Element element) {
+		beginElement(element);
+		for (Element child : element.getElements()) {
+			visit(child);
+		}
+		
+		finishElement();
+	}
+	
+	/**
+	 * Returns the hash of the last completed output.
+	 * @return the hash as hexadecimal string or {@code null}
+	 */
+	public String getHash() {
+		if (hash == null) {
+			return null;
+		}
+		
+		return Digests.toHex(hash);
+	}
+	
+	@Override
+	public void startOutput() throws IOException {
+		depth = 0;
+		hash = null;
+		
+		if (delegate != null) {
+			delegate.startOutput();
+		}
+	}
+	
+	@Override
+	public void startElement(Element element) throws IOException {
+		beginElement(element);
+		if (delegate != null) {
+			delegate.startElement(element);
+		}
+	}
+	
+	@Override
+	public void endElement(Element element) throws IOException {
+		finishElement();
+		if (delegate != null) {
+			delegate.endElement(element);
+		}
+	}
+	
+	@Override
+	public void endOutput() throws IOException {
+		if (delegate != null) {
+			delegate.endOutput();
+		}
+	}
+	
+	private void beginElement(Element element) {
+		MessageDigest digest = getDigest(depth);
+		digest.reset();
+		
+		boolean isInformational = element.isInformational();
+		
+		update(digest, element.getElementType().name());
+		update(digest, element.getGeneratedBy().name());
+		update(digest, element.getName());
+		digest.update((byte) (isInformational ? 1 : 0));
+		
+		if (!isInformational) {
+			update(digest, element.getValue());
+		}
+		
+		if (depth == informational.length) {
+			informational = Arrays.copyOf(informational, depth * 2);
+		}
+		
+		informational[depth] = isInformational;
+		depth++;
+	}
+	
+	private void finishElement() {
+		depth--;
+		byte[] elementHash = digests.get(depth).digest();
+		
+		if (depth == 0) {
+			hash = elementHash;
+		} else if (!informational[depth] && !informational[depth - 1]) {
+			digests.get(depth - 1).update(elementHash);
+		}
+	}
+	
+	private MessageDigest getDigest(int level) {
+		while (digests.size() <= level) {
+			digests.add(Digests.create(Digests.SHA_1));
+		}
+		
+		return digests.get(level);
+	}
+	
+	private static void update(MessageDigest digest, String value) {
+		byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+		
+		int length = bytes.length;
+		digest.update((byte) (length >>> 24));
+		digest.update((byte) (length >>> 16));
+		digest.update((byte) (length >>> 8));
+		digest.update((byte) length);
+		digest.update(bytes);
+	}
+}
@@ -1,7 +1,10 @@
 package rtt.core.testing.compare;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import rtt.core.archive.output.Element;
 import rtt.core.archive.output.Output;
@@ -18,7 +21,9 @@ public class OutputCompare {
 			INFORMATIONAL("IsInformational"),
 			NAME("Name"),			
 			VALUE("Value"),
-			CHILD_COUNT("Sizes of children");			
+			CHILD_COUNT("Sizes of children"),
+			INSERTED("Inserted element"),
+			REMOVED("Removed element");
 			
 			private String description;
 			
@@ -30,6 +35,7 @@ public class OutputCompare {
 		private Difference difference = null;
 		private Object expected = null;
 		private Object actual = null;
+		private String address = null;
 		
 		protected CompareResult(Difference difference) {
 			this.difference = difference;
@@ -43,6 +49,15 @@ public class OutputCompare {
 			return difference != null;
 		}
 		
+		/**
+		 * Returns the address of the element, where the difference was 
+		 * found. Only set by a full difference comparison.
+		 * @return the address of the element or {@code null}
+		 */
+		public String getAddress() {
+			return address;
+		}
+		
 		public String getMessage() {
 			if (difference != null) {
 				StringBuilder builder = new StringBuilder(difference.description);
@@ -52,6 +67,10 @@ public class OutputCompare {
 					builder.append("', but was '");
 					builder.append(actual.toString());
 					builder.append("'.");
+				} else if (expected != null || actual != null) {
+					builder.append(" '");
+					builder.append(expected != null ? expected : actual);
+					builder.append("'.");
 				}
 				
 				return builder.toString();
@@ -73,8 +92,23 @@ public class OutputCompare {
 	private static final String ELEMENT_NULL = 
 			"One or both given elements were null.";
 	
+	/**
+	 * The default number of differences reported by a full difference
+	 * comparison.
+	 */
+	public static final int DEFAULT_MAX_DIFFERENCES = 100;
+	
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
 	private boolean testInformational;
 	
+	// state of a full difference comparison
+	private Map<Element, Long> subtreeKeys = null;
+	private List<CompareResult> differences = null;
+	private int maxDifferences = 0;
+	private boolean truncated = false;
+	
 	public OutputCompare(boolean testInformational) {
 		this.testInformational = testInformational;
 	}
@@ -105,11 +139,278 @@ public class OutputCompare {
 		return failures;		
 	}
 	
+	/**
+	 * Compares the given outputs and reports up to the given number of 
+	 * differences. If the number is less than 2, only the first difference
+	 * will be reported, like in 
+	 * {@link #compareOutput(Output, Output, boolean)}.
+	 * 
+	 * @param referenceOutput the reference output
+	 * @param actualOutput the actual output
+	 * @param testInformational {@code true}, if informational elements 
+	 * 		should be compared
+	 * @param maxDifferences the maximum number of reported differences
+	 * @return a list of failures, each prefixed by the element address
+	 * @see #compareAll(Element, Element, int)
+	 */
+	public static List<TestFailure> compareOutput(Output referenceOutput, 
+			Output actualOutput, boolean testInformational, int maxDifferences) {
+		
+		if (maxDifferences < 2) {
+			return compareOutput(referenceOutput, actualOutput, testInformational);
+		}
+		
+		if (referenceOutput == null || actualOutput == null) {
+			throw new IllegalArgumentException("Reference or actual output was null.");
+		}
+		
+		List<TestFailure> failures = new ArrayList<>();
+		Element refInitElement = referenceOutput.getInitialElement();
+		Element actualInitElement = actualOutput.getInitialElement();
+		
+		if (refInitElement != null && actualInitElement != null) {
+			OutputCompare comparer = new OutputCompare(testInformational);
+			for (CompareResult result : comparer.compareAll(
+					refInitElement, actualInitElement, maxDifferences)) {
+				
+				failures.add(new TestFailure(
+						"[" + result.getAddress() + "] " + result.getMessage()));
+			}
+			
+			if (comparer.truncated) {
+				failures.add(new TestFailure("More than " + maxDifferences 
+						+ " differences found, further differences are omitted."));
+			}
+		} else if (refInitElement != actualInitElement) {
+			failures.add(new TestFailure("Initial elements are different."));
+		}
+		
+		return failures;
+	}
+	
+	/**
+	 * Compares the given elements and returns all differences, up to the
+	 * given number. Child elements are aligned by their content, so 
+	 * inserted or removed children are reported as such and don't shift
+	 * the comparison of the following children. Equal subtrees are 
+	 * skipped. Because children of collections can be shifted by the 
+	 * alignment, the indices within their names are not compared.
+	 * 
+	 * @param referenceElement the reference element
+	 * @param actualElement the actual element
+	 * @param maxDifferences the maximum number of reported differences
+	 * @return the found differences in document order
+	 */
+	public List<CompareResult> compareAll(Element referenceElement, 
+			Element actualElement, int maxDifferences) {
+		
+		if (referenceElement == null || actualElement == null) {
+			throw new IllegalArgumentException(ELEMENT_NULL);
+		}
+		
+		subtreeKeys = new IdentityHashMap<>();
+		differences = new ArrayList<>();
+		this.maxDifferences = maxDifferences;
+		truncated = false;
+		
+		try {
+			if (getKey(referenceElement) != getKey(actualElement)) {
+				diffElements(referenceElement, actualElement);
+			}
+			
+			return differences;
+		} finally {
+			subtreeKeys = null;
+			differences = null;
+		}
+	}
+	
+	private void addDifference(CompareResult result, Element element) {
+		if (differences.size() < maxDifferences) {
+			result.address = element.getAddress();
+			differences.add(result);
+		} else {
+			truncated = true;
+		}
+	}
+	
+	private void diffElements(Element referenceElement, Element actualElement) {
+		if (truncated) {
+			return;
+		}
+		
+		CompareResult result = compareAttributes(referenceElement, actualElement, true);
+		if (result != null) {
+			// like compareElements, children of different elements are skipped
+			addDifference(result, referenceElement);
+			return;
+		}
+		
+		if (!testInformational(referenceElement)) {
+			return;
+		}
+		
+		List<Element> refElements = referenceElement.getElements();
+		List<Element> actualElements = actualElement.getElements();
+		
+		if (testInformational == false) {
+			refElements = getCompareElements(refElements);
+			actualElements = getCompareElements(actualElements);
+		}
+		
+		diffChildElements(refElements, actualElements);
+	}
+	
+	private void diffChildElements(List<Element> refElements, List<Element> actualElements) {
+		long[] refKeys = getKeys(refElements);
+		long[] actualKeys = getKeys(actualElements);
+		
+		int refIndex = 0;
+		int actualIndex = 0;
+		
+		for (int[] pair : ElementAlignment.align(refKeys, actualKeys)) {
+			diffUnmatched(refElements, refIndex, pair[0], 
+					actualElements, actualIndex, pair[1]);
+			
+			// matched elements have equal subtrees
+			refIndex = pair[0] + 1;
+			actualIndex = pair[1] + 1;
+		}
+		
+		diffUnmatched(refElements, refIndex, refElements.size(), 
+				actualElements, actualIndex, actualElements.size());
+	}
+	
+	private void diffUnmatched(List<Element> refElements, int refStart, int refEnd,
+			List<Element> actualElements, int actualStart, int actualEnd) {
+		
+		// unmatched elements at the same position are compared
+		while (refStart < refEnd && actualStart < actualEnd) {
+			diffElements(refElements.get(refStart++), actualElements.get(actualStart++));
+		}
+		
+		while (refStart < refEnd) {
+			Element removed = refElements.get(refStart++);
+			addDifference(CompareResult.create(
+					Difference.REMOVED, removed.getName(), null), removed);
+		}
+		
+		while (actualStart < actualEnd) {
+			Element inserted = actualElements.get(actualStart++);
+			addDifference(CompareResult.create(
+					Difference.INSERTED, null, inserted.getName()), inserted);
+		}
+	}
+	
+	private long[] getKeys(List<Element> elements) {
+		long[] keys = new long[elements.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = getKey(elements.get(i));
+		}
+		
+		return keys;
+	}
+	
+	/**
+	 * Returns a 64 bit key of the subtree of the given element, which 
+	 * covers all compared parts of the subtree.
+	 */
+	private long getKey(Element element) {
+		Long key = subtreeKeys.get(element);
+		if (key != null) {
+			return key;
+		}
+		
+		long hash = FNV_OFFSET;
+		hash = hash(hash, element.getElementType().name());
+		hash = hash(hash, element.getGeneratedBy().name());
+		hash = hash(hash, normalizeName(element.getName()));
+		hash = hash(hash, element.isInformational() ? "1" : "0");
+		
+		if (testInformational(element)) {
+			hash = hash(hash, String.valueOf(element.getValue()));
+			for (Element child : element.getElements()) {
+				if (testInformational(child)) {
+					hash = (hash ^ getKey(child)) * FNV_PRIME;
+				}
+			}
+		}
+		
+		subtreeKeys.put(element, hash);
+		return hash;
+	}
+	
+	private static long hash(long hash, String value) {
+		for (byte b : String.valueOf(value).getBytes(StandardCharsets.UTF_8)) {
+			hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+		}
+		
+		// separate the values
+		return (hash ^ 0xFF) * FNV_PRIME;
+	}
+	
+	/**
+	 * Removes the indices from names of collection children, 
+	 * e.g. "list[3]" becomes "list[]".
+	 */
+	private static String normalizeName(String name) {
+		if (name == null || name.indexOf('[') < 0) {
+			return name;
+		}
+		
+		StringBuilder builder = new StringBuilder(name.length());
+		int index = 0;
+		while (index < name.length()) {
+			char c = name.charAt(index++);
+			builder.append(c);
+			
+			if (c == '[') {
+				int end = index;
+				while (end < name.length() && Character.isDigit(name.charAt(end))) {
+					end++;
+				}
+				
+				if (end > index && end < name.length() && name.charAt(end) == ']') {
+					index = end;
+				}
+			}
+		}
+		
+		return builder.toString();
+	}
+	
 	public CompareResult compareElements(Element referenceElement, Element actualElement) {
 		if (referenceElement == null || actualElement == null) {
 			throw new IllegalArgumentException(ELEMENT_NULL);
 		}
 		
+		CompareResult result = compareAttributes(referenceElement, actualElement, false);
+		if (result != null) {
+			return result;
+		}
+		
+		if (testInformational(referenceElement)) {
+			List<Element> referenceCompareElements = referenceElement.getElements();
+			List<Element> actualCompareElements = actualElement.getElements();
+			
+			if (testInformational == false) {
+				referenceCompareElements = getCompareElements(referenceCompareElements);
+				actualCompareElements = getCompareElements(actualCompareElements);
+			}
+			
+			return compareChildElements(referenceCompareElements, actualCompareElements);
+		}
+		
+		return null;	
+	}
+	
+	/**
+	 * Compares the attributes and values of the given elements, 
+	 * but not their children.
+	 */
+	private CompareResult compareAttributes(Element referenceElement, 
+			Element actualElement, boolean normalizeNames) {
+		
 		if (!referenceElement.getElementType().equals(actualElement.getElementType())) {
 			return CompareResult.create(Difference.ELEMENT_TYPE, 
 					referenceElement.getElementType().name(), 
@@ -122,7 +423,14 @@ public class OutputCompare {
 					actualElement.getGeneratedBy().name());
 		}
 		
-		if (!referenceElement.getName().equals(actualElement.getName())) {
+		String referenceName = referenceElement.getName();
+		String actualName = actualElement.getName();
+		if (normalizeNames) {
+			referenceName = normalizeName(referenceName);
+			actualName = normalizeName(actualName);
+		}
+		
+		if (!referenceName.equals(actualName)) {
 			return CompareResult.create(Difference.NAME, 
 					referenceElement.getName(), actualElement.getName());
 		}		
@@ -139,19 +447,9 @@ public class OutputCompare {
 			if (!valueOfRefer.equals(valueOfActual)) {
 				return CompareResult.create(Difference.VALUE, valueOfRefer, valueOfActual);
 			}
-
-			List<Element> referenceCompareElements = referenceElement.getElements();
-			List<Element> actualCompareElements = actualElement.getElements();
-			
-			if (testInformational == false) {
-				referenceCompareElements = getCompareElements(referenceCompareElements);
-				actualCompareElements = getCompareElements(actualCompareElements);
-			}
-			
-			return compareChildElements(referenceCompareElements, actualCompareElements);
 		}
 		
-		return null;	
+		return null;
 	}
 	
 	private boolean hasDifferences(CompareResult result) {
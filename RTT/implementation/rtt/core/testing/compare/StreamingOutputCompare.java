@@ -0,0 +1,485 @@
+package rtt.core.testing.compare;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.manager.data.history.BinaryOutputCodec;
+import rtt.core.manager.data.history.BinaryOutputReader;
+import rtt.core.testing.compare.OutputCompare.CompareResult;
+import rtt.core.testing.compare.OutputCompare.CompareResult.Difference;
+import rtt.core.testing.compare.results.TestFailure;
+
+/**
+ * Compares two stored output data documents, without loading them into
+ * memory. Both documents are read in lock-step, either as XML event 
+ * streams or in the format of the {@link BinaryOutputCodec}, so the used
+ * memory depends only on the depth of the documents. The format of each 
+ * document is detected separately.
+ * <p>
+ * The same rules as in {@link OutputCompare} are applied: element type,
+ * generator type, name, informational flag, value and the number of 
+ * child elements are compared. If informational elements are not tested,
+ * they will be skipped on both sides.
+ * <p>
+ * Differences are reported in document order. Unlike {@link OutputCompare},
+ * a different number of children is detected, when one of the children
+ * lists ends, so a difference within the common children is reported 
+ * first. Unless full differences are requested, reading stops at the 
+ * first difference.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ * 
+ * @see OutputCompare
+ */
+public class StreamingOutputCompare {
+	
+	private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+	
+	/**
+	 * The attributes of a single element.
+	 */
+	private static final class ElementInfo {
+		String address;
+		String name;
+		String value;
+		boolean informational = false;
+		ElementType elementType = ElementType.VALUE;
+		GeneratorType generatedBy = GeneratorType.OBJECT;
+	}
+	
+	/**
+	 * Walks through the elements of a document.
+	 */
+	private static abstract class ElementReader {
+		
+		protected boolean testInformational;
+		
+		protected ElementReader(boolean testInformational) {
+			this.testInformational = testInformational;
+		}
+		
+		/**
+		 * Moves into the root element of the document.
+		 */
+		public abstract void enterDocument() throws IOException, XMLStreamException;
+		
+		/**
+		 * Moves into the next compared child of the current element. If no 
+		 * further child exists, the current element will be left.
+		 * 
+		 * @return the next child or {@code null}
+		 */
+		public abstract ElementInfo nextChild() throws IOException, XMLStreamException;
+		
+		/**
+		 * Skips the rest of the current element, including its children.
+		 */
+		public abstract void skipElement() throws IOException, XMLStreamException;
+		
+		/**
+		 * Skips the remaining children of the current element and leaves it.
+		 * @return the number of skipped compared children
+		 */
+		public int skipChildren() throws IOException, XMLStreamException {
+			int count = 0;
+			while (nextChild() != null) {
+				skipElement();
+				count++;
+			}
+			
+			return count;
+		}
+		
+		public abstract void close() throws XMLStreamException;
+	}
+	
+	/**
+	 * Reads a document as XML event stream. The reader is always 
+	 * positioned within the current element.
+	 */
+	private static final class XMLElementReader extends ElementReader {
+		
+		private XMLStreamReader reader;
+		
+		public XMLElementReader(XMLStreamReader reader, boolean testInformational) {
+			super(testInformational);
+			this.reader = reader;
+		}
+		
+		@Override
+		public void enterDocument() throws XMLStreamException {
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+					return;
+				}
+			}
+			
+			throw new XMLStreamException("Output data contains no root element.");
+		}
+		
+		@Override
+		public ElementInfo nextChild() throws XMLStreamException {
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.END_ELEMENT) {
+					return null;
+				}
+				
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					ElementInfo info = readElement();
+					if (testInformational || !info.informational) {
+						return info;
+					}
+					
+					skipElement();
+				}
+			}
+			
+			throw new XMLStreamException("Unexpected end of output data.");
+		}
+		
+		@Override
+		public void skipElement() throws XMLStreamException {
+			int depth = 1;
+			while (depth > 0 && reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				}
+			}
+		}
+		
+		private ElementInfo readElement() {
+			ElementInfo info = new ElementInfo();
+			
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				String name = reader.getAttributeLocalName(i);
+				String value = reader.getAttributeValue(i);
+				
+				switch (name) {
+				case "address":
+					info.address = value;
+					break;
+				case "name":
+					info.name = value;
+					break;
+				case "value":
+					info.value = value;
+					break;
+				case "informational":
+					info.informational = Boolean.parseBoolean(value.trim()) 
+							|| value.trim().equals("1");
+					break;
+				case "elementType":
+					info.elementType = ElementType.fromValue(value.trim());
+					break;
+				case "generatedBy":
+					info.generatedBy = GeneratorType.fromValue(value.trim());
+					break;
+				}
+			}
+			
+			return info;
+		}
+		
+		@Override
+		public void close() throws XMLStreamException {
+			reader.close();
+		}
+	}
+	
+	/**
+	 * Reads a document in the format of the {@link BinaryOutputCodec}. 
+	 * The document element of XML output data has no counterpart, so the 
+	 * reader starts on the top level, which contains only the initial 
+	 * element.
+	 */
+	private static final class BinaryElementReader extends ElementReader {
+		
+		private BinaryOutputReader reader;
+		
+		public BinaryElementReader(BinaryOutputReader reader, boolean testInformational) {
+			super(testInformational);
+			this.reader = reader;
+		}
+		
+		@Override
+		public void enterDocument() {}
+		
+		@Override
+		public ElementInfo nextChild() throws IOException {
+			Element element = null;
+			while ((element = reader.nextChild()) != null) {
+				if (testInformational || !element.isInformational()) {
+					ElementInfo info = new ElementInfo();
+					info.address = element.getAddress();
+					info.name = element.getName();
+					info.value = element.getValue();
+					info.informational = element.isInformational();
+					info.elementType = element.getElementType();
+					info.generatedBy = element.getGeneratedBy();
+					
+					return info;
+				}
+				
+				reader.skipElement();
+			}
+			
+			return null;
+		}
+		
+		@Override
+		public void skipElement() throws IOException {
+			reader.skipElement();
+		}
+		
+		@Override
+		public void close() {}
+	}
+	
+	private boolean testInformational;
+	private boolean fullDiff;
+	private int maxDifferences = OutputCompare.DEFAULT_MAX_DIFFERENCES;
+	private boolean truncated = false;
+	
+	/**
+	 * Creates a new comparer.
+	 * 
+	 * @param testInformational {@code true}, if informational elements 
+	 * 		should be compared
+	 * @param fullDiff {@code true}, if all differences should be reported,
+	 * 		otherwise the comparison stops at the first difference
+	 */
+	public StreamingOutputCompare(boolean testInformational, boolean fullDiff) {
+		this.testInformational = testInformational;
+		this.fullDiff = fullDiff;
+	}
+	
+	/**
+	 * Sets the maximum number of differences reported in full 
+	 * difference mode. Defaults to 
+	 * {@link OutputCompare#DEFAULT_MAX_DIFFERENCES}.
+	 * 
+	 * @param maxDifferences the maximum number of differences
+	 */
+	public void setMaxDifferences(int maxDifferences) {
+		this.maxDifferences = maxDifferences;
+	}
+	
+	/**
+	 * Compares the given output data documents and returns the first 
+	 * difference.
+	 * 
+	 * @param referenceData the stream of the reference output data
+	 * @param actualData the stream of the actual output data
+	 * @param testInformational {@code true}, if informational elements 
+	 * 		should be compared
+	 * @return a list containing the first difference or an empty list
+	 * @throws IOException thrown, if a binary document could not be read
+	 * @throws XMLStreamException thrown, if a XML document could not be read
+	 */
+	public static List<TestFailure> compareOutput(InputStream referenceData, 
+			InputStream actualData, boolean testInformational) 
+					throws IOException, XMLStreamException {
+		
+		return new StreamingOutputCompare(testInformational, false)
+				.compare(referenceData, actualData);
+	}
+	
+	/**
+	 * Compares the given output data documents.
+	 * 
+	 * @param referenceData the stream of the reference output data
+	 * @param actualData the stream of the actual output data
+	 * @return a list of the found differences, which is empty, 
+	 * 		if both documents are equal
+	 * @throws IOException thrown, if a binary document could not be read
+	 * @throws XMLStreamException thrown, if a XML document could not be read
+	 */
+	public List<TestFailure> compare(InputStream referenceData, 
+			InputStream actualData) throws IOException, XMLStreamException {
+		
+		if (referenceData == null || actualData == null) {
+			throw new IllegalArgumentException("Reference or actual output was null.");
+		}
+		
+		List<TestFailure> failures = new ArrayList<>();
+		truncated = false;
+		
+		ElementReader reference = createReader(referenceData);
+		ElementReader actual = createReader(actualData);
+		
+		try {
+			reference.enterDocument();
+			actual.enterDocument();
+			
+			compareDocuments(reference, actual, failures);
+			if (truncated) {
+				failures.add(new TestFailure("More than " + maxDifferences 
+						+ " differences found, further differences are omitted."));
+			}
+		} finally {
+			reference.close();
+			actual.close();
+		}
+		
+		return failures;
+	}
+	
+	private ElementReader createReader(InputStream data) 
+			throws IOException, XMLStreamException {
+		
+		if (!data.markSupported()) {
+			data = new BufferedInputStream(data);
+		}
+		
+		if (BinaryOutputCodec.isBinary(data)) {
+			return new BinaryElementReader(new BinaryOutputReader(data), testInformational);
+		}
+		
+		return new XMLElementReader(FACTORY.createXMLStreamReader(data), testInformational);
+	}
+	
+	private void compareDocuments(ElementReader reference, ElementReader actual, 
+			List<TestFailure> failures) throws IOException, XMLStreamException {
+		
+		// number of compared children for each open element, 
+		// level 0 is the root element of the document
+		int[] childCounts = new int[16];
+		int depth = 0;
+		
+		while (depth >= 0) {
+			ElementInfo refElement = reference.nextChild();
+			ElementInfo actualElement = actual.nextChild();
+			
+			if (refElement == null && actualElement == null) {
+				// both elements have been left
+				depth--;
+				continue;
+			}
+			
+			if (refElement == null || actualElement == null) {
+				if (depth == 0) {
+					failures.add(new TestFailure("Initial elements are different."));
+				} else {
+					int refCount = childCounts[depth];
+					if (refElement != null) {
+						reference.skipElement();
+						refCount += 1 + reference.skipChildren();
+					}
+					
+					int actualCount = childCounts[depth];
+					if (actualElement != null) {
+						actual.skipElement();
+						actualCount += 1 + actual.skipChildren();
+					}
+					
+					addFailure(failures, CompareResult.create(
+							Difference.CHILD_COUNT, refCount, actualCount), null);
+				}
+				
+				if (!fullDiff || truncated) {
+					return;
+				}
+				
+				depth--;
+				continue;
+			}
+			
+			childCounts[depth]++;
+			
+			CompareResult result = compareElements(refElement, actualElement);
+			if (result != null) {
+				addFailure(failures, result, refElement.address);
+				if (!fullDiff || truncated) {
+					return;
+				}
+			}
+			
+			if (result != null || !testInformational(refElement)) {
+				// children of different or informational elements are not compared
+				reference.skipElement();
+				actual.skipElement();
+			} else {
+				depth++;
+				if (depth == childCounts.length) {
+					childCounts = Arrays.copyOf(childCounts, depth * 2);
+				}
+				
+				childCounts[depth] = 0;
+			}
+		}
+	}
+	
+	private void addFailure(List<TestFailure> failures, 
+			CompareResult result, String address) {
+		
+		if (fullDiff && failures.size() >= maxDifferences) {
+			truncated = true;
+			return;
+		}
+		
+		String message = result.getMessage();
+		if (fullDiff && address != null) {
+			message = "[" + address + "] " + message;
+		}
+		
+		failures.add(new TestFailure(message));
+	}
+	
+	private boolean testInformational(ElementInfo element) {
+		return !element.informational || testInformational;
+	}
+	
+	private CompareResult compareElements(ElementInfo referenceElement, 
+			ElementInfo actualElement) {
+		
+		if (referenceElement.elementType != actualElement.elementType) {
+			return CompareResult.create(Difference.ELEMENT_TYPE, 
+					referenceElement.elementType.name(), 
+					actualElement.elementType.name());
+		}
+		
+		if (referenceElement.generatedBy != actualElement.generatedBy) {
+			return CompareResult.create(Difference.GENERATOR_TYPE, 
+					referenceElement.generatedBy.name(), 
+					actualElement.generatedBy.name());
+		}
+		
+		if (!String.valueOf(referenceElement.name).equals(
+				String.valueOf(actualElement.name))) {
+			return CompareResult.create(Difference.NAME, 
+					referenceElement.name, actualElement.name);
+		}
+		
+		if (referenceElement.informational != actualElement.informational) {
+			return CompareResult.create(Difference.INFORMATIONAL, 
+					referenceElement.informational, actualElement.informational);
+		}
+		
+		if (testInformational(referenceElement)) {
+			String valueOfRefer = String.valueOf(referenceElement.value);
+			String valueOfActual = String.valueOf(actualElement.value);
+			
+			if (!valueOfRefer.equals(valueOfActual)) {
+				return CompareResult.create(Difference.VALUE, valueOfRefer, valueOfActual);
+			}
+		}
+		
+		return null;
+	}
+}
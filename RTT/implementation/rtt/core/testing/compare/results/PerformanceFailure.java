@@ -0,0 +1,46 @@
+package rtt.core.testing.compare.results;
+
+import rtt.core.archive.history.CostMetric;
+import rtt.core.archive.history.CostPhase;
+
+public class PerformanceFailure implements ITestFailure {
+
+	private CostPhase phase;
+	private CostMetric metric;
+	private double refMean;
+	private double testMean;
+	private double lowerBound;
+
+	public PerformanceFailure(CostPhase phase, CostMetric metric,
+			double refMean, double testMean, double lowerBound) {
+
+		this.phase = phase;
+		this.metric = metric;
+		this.refMean = refMean;
+		this.testMean = testMean;
+		this.lowerBound = lowerBound;
+	}
+
+	public CostPhase getPhase() {
+		return phase;
+	}
+
+	public CostMetric getMetric() {
+		return metric;
+	}
+
+	@Override
+	public String getShortMessage() {
+		return "Execution cost of " + phase + " " + metric + " exceeded the reference.";
+	}
+
+	@Override
+	public String getMessage() {
+		String unit = metric == CostMetric.ALLOCATED_BYTES ? " bytes" : " ns";
+
+		return "Execution cost exceeded the reference: " + phase + " " + metric
+				+ " increased from " + Math.round(refMean) + unit
+				+ " to " + Math.round(testMean) + unit
+				+ " (at least " + Math.round(lowerBound) + unit + " more).";
+	}
+}
@@ -6,7 +6,7 @@ import java.util.List;
 public class TestResult {
 
 	public enum ResultType {
-		SUCCESS, SKIPPED, FAILURE;
+		SUCCESS, SKIPPED, FAILURE, TIMEOUT;
 	}
 
 	ResultType type;
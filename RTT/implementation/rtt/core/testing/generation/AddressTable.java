@@ -0,0 +1,172 @@
+package rtt.core.testing.generation;
+
+/**
+ * An unsynchronized table, which maps already visited objects to the
+ * address of the element generated for them. Objects are compared by
+ * identity, so neither {@link Object#hashCode()} nor 
+ * {@link Object#equals(Object)} of the tested classes will be called.
+ * <p>
+ * The table uses open addressing with linear probing. Keys and values are
+ * held in two parallel arrays, whose capacity is always a power of two.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+final class AddressTable {
+	
+	private static final int DEFAULT_CAPACITY = 64;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+	
+	private Object[] keys;
+	private String[] addresses;
+	
+	private int size = 0;
+	private int threshold;
+	private int resizeCount = 0;
+	
+	/**
+	 * Creates a new address table with the default capacity.
+	 */
+	public AddressTable() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Creates a new address table, which can hold the given number of
+	 * entries without a resize.
+	 * 
+	 * @param expectedSize the expected number of entries
+	 */
+	public AddressTable(int expectedSize) {
+		int capacity = 2;
+		while (capacity < MAXIMUM_CAPACITY && (capacity * 2) / 3 < expectedSize) {
+			capacity <<= 1;
+		}
+		
+		allocate(capacity);
+	}
+	
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		addresses = new String[capacity];
+		threshold = (capacity * 2) / 3;
+	}
+	
+	private static int indexFor(Object key, int mask) {
+		int hash = System.identityHashCode(key);
+		
+		// spread the bits, identity hash codes are often aligned
+		hash ^= (hash >>> 16);
+		hash *= 0x85ebca6b;
+		hash ^= (hash >>> 13);
+		
+		return hash & mask;
+	}
+	
+	/**
+	 * Returns the address for the given object.
+	 * 
+	 * @param key the object
+	 * @return the address or {@code null}, if the object is not contained
+	 */
+	public String get(Object key) {
+		int mask = keys.length - 1;
+		int index = indexFor(key, mask);
+		
+		Object current = null;
+		while ((current = keys[index]) != null) {
+			if (current == key) {
+				return addresses[index];
+			}
+			
+			index = (index + 1) & mask;
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Stores the address of the given object. An already existing address
+	 * will be replaced.
+	 * 
+	 * @param key the object, must not be {@code null}
+	 * @param address the address of the object
+	 */
+	public void put(Object key, String address) {
+		if (key == null) {
+			throw new IllegalArgumentException("Key must not be null.");
+		}
+		
+		int mask = keys.length - 1;
+		int index = indexFor(key, mask);
+		
+		Object current = null;
+		while ((current = keys[index]) != null) {
+			if (current == key) {
+				addresses[index] = address;
+				return;
+			}
+			
+			index = (index + 1) & mask;
+		}
+		
+		keys[index] = key;
+		addresses[index] = address;
+		
+		if (++size > threshold) {
+			resize();
+		}
+	}
+	
+	private void resize() {
+		int oldCapacity = keys.length;
+		if (oldCapacity >= MAXIMUM_CAPACITY) {
+			if (size == oldCapacity - 1) {
+				throw new IllegalStateException("Address table is full.");
+			}
+			
+			return;
+		}
+		
+		Object[] oldKeys = keys;
+		String[] oldAddresses = addresses;
+		
+		allocate(oldCapacity << 1);
+		resizeCount++;
+		
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldCapacity; i++) {
+			Object key = oldKeys[i];
+			if (key != null) {
+				int index = indexFor(key, mask);
+				while (keys[index] != null) {
+					index = (index + 1) & mask;
+				}
+				
+				keys[index] = key;
+				addresses[index] = oldAddresses[i];
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of stored entries
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * @return the current capacity of the table
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+	
+	/**
+	 * @return how often the table has been resized
+	 */
+	public int getResizeCount() {
+		return resizeCount;
+	}
+}
@@ -0,0 +1,265 @@
+package rtt.core.testing.generation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import rtt.core.archive.history.CostMeasure;
+import rtt.core.archive.history.CostMetric;
+import rtt.core.archive.history.CostPhase;
+import rtt.core.archive.history.ExecutionCost;
+import rtt.core.archive.input.Input;
+import rtt.core.archive.output.Element;
+
+/**
+ * Measures the execution cost of the {@link DataGenerator}. For each
+ * {@link CostPhase}, the wall time, the CPU time and the allocated bytes
+ * of the current thread are measured. The initialize phase covers the
+ * creation of the initial object, the traversal phase covers the
+ * generation of all elements.
+ * <p>
+ * A single measurement is disturbed by class loading, JIT compilation and
+ * garbage collection. Therefore, the generation will be repeated: first
+ * with some warm-up iterations, which are discarded, and then with the
+ * measured iterations. The generated elements are passed to a discarding
+ * sink, so the cost of writing the output data is not included.
+ * <p>
+ * Metrics, which are not supported by the virtual machine, are recorded
+ * as -1 and will be left out of the summary.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see #getCost()
+ */
+public final class CostMeter {
+
+	private static final CostPhase[] PHASES = CostPhase.values();
+	private static final CostMetric[] METRICS = CostMetric.values();
+
+	/**
+	 * The number of values of a single sample.
+	 */
+	public static final int SAMPLE_SIZE = PHASES.length * METRICS.length;
+	
+	/**
+	 * The default number of warm-up iterations.
+	 */
+	public static final int DEFAULT_WARMUP = 3;
+
+	private static final ElementSink DISCARDING_SINK = new ElementSink() {
+		@Override
+		public void startOutput() {}
+
+		@Override
+		public void startElement(Element element) {}
+
+		@Override
+		public void endElement(Element element) {}
+
+		@Override
+		public void endOutput() {}
+	};
+
+	private final int warmup;
+	private final int iterations;
+
+	private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+	private final List<long[]> samples = new ArrayList<>();
+
+	private long[] current = null;
+	private long[] snapshot = null;
+
+	/**
+	 * Creates a new meter.
+	 *
+	 * @param warmup the number of discarded iterations
+	 * @param iterations the number of measured iterations, at least 1
+	 */
+	public CostMeter(int warmup, int iterations) {
+		if (warmup < 0 || iterations < 1) {
+			throw new IllegalArgumentException("At least one measured iteration is required.");
+		}
+
+		this.warmup = warmup;
+		this.iterations = iterations;
+	}
+
+	public int getWarmup() {
+		return warmup;
+	}
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Generates the output data of the given input repeatedly and records
+	 * a sample for each measured iteration.
+	 *
+	 * @param input the {@link Input}
+	 * @param params the parameters for the initial node
+	 * @param executor the {@link Executor} of the initial node
+	 * @throws Throwable any non-accepted exception of the tested classes
+	 */
+	public void measure(Input input, List<String> params, Executor executor) throws Throwable {
+		for (int i = 0; i < warmup; i++) {
+			DataGenerator.generateOutput(input, params, executor,
+					DISCARDING_SINK, new GenerationStatistics());
+		}
+
+		for (int i = 0; i < iterations; i++) {
+			DataGenerator.generateOutput(input, params, executor,
+					DISCARDING_SINK, new GenerationStatistics(), this);
+		}
+	}
+
+	void startInitialize() {
+		current = new long[SAMPLE_SIZE];
+		snapshot = read();
+	}
+
+	void startTraversal() {
+		snapshot = record(CostPhase.INITIALIZE, snapshot);
+	}
+
+	void finish() {
+		record(CostPhase.TRAVERSAL, snapshot);
+
+		samples.add(current);
+		current = null;
+	}
+
+	private long[] read() {
+		long[] values = new long[METRICS.length];
+		values[CostMetric.WALL_TIME.ordinal()] = System.nanoTime();
+		values[CostMetric.CPU_TIME.ordinal()] = readCpuTime();
+		values[CostMetric.ALLOCATED_BYTES.ordinal()] = readAllocatedBytes();
+
+		return values;
+	}
+
+	private long readCpuTime() {
+		if (threadBean.isCurrentThreadCpuTimeSupported()
+				&& threadBean.isThreadCpuTimeEnabled()) {
+			return threadBean.getCurrentThreadCpuTime();
+		}
+
+		return -1;
+	}
+
+	private long readAllocatedBytes() {
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean allocationBean =
+					(com.sun.management.ThreadMXBean) threadBean;
+
+			if (allocationBean.isThreadAllocatedMemorySupported()
+					&& allocationBean.isThreadAllocatedMemoryEnabled()) {
+				return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+
+		return -1;
+	}
+
+	private long[] record(CostPhase phase, long[] start) {
+		long[] end = read();
+		for (CostMetric metric : METRICS) {
+			int index = metric.ordinal();
+			long value = -1;
+			if (start[index] >= 0 && end[index] >= 0) {
+				value = end[index] - start[index];
+			}
+
+			current[getIndex(phase, metric)] = value;
+		}
+
+		return end;
+	}
+
+	private static int getIndex(CostPhase phase, CostMetric metric) {
+		return phase.ordinal() * METRICS.length + metric.ordinal();
+	}
+
+	/**
+	 * Adds a sample, which has been measured within another process.
+	 *
+	 * @param sample the values of the sample
+	 * @see #getSamples()
+	 */
+	public void addSample(long[] sample) {
+		if (sample.length != SAMPLE_SIZE) {
+			throw new IllegalArgumentException("Invalid sample size: " + sample.length);
+		}
+
+		samples.add(sample.clone());
+	}
+
+	/**
+	 * @return the recorded samples, one for each measured iteration
+	 */
+	public List<long[]> getSamples() {
+		return Collections.unmodifiableList(samples);
+	}
+
+	/**
+	 * Summarizes the recorded samples into the mean, the standard deviation
+	 * and the minimum of each phase and metric.
+	 *
+	 * @return the summary or {@code null}, if no sample has been recorded
+	 */
+	public ExecutionCost getCost() {
+		if (samples.isEmpty()) {
+			return null;
+		}
+
+		ExecutionCost cost = new ExecutionCost();
+		cost.setWarmup(warmup);
+		cost.setIterations(samples.size());
+
+		for (CostPhase phase : PHASES) {
+			for (CostMetric metric : METRICS) {
+				CostMeasure measure = summarize(phase, metric);
+				if (measure != null) {
+					cost.getMeasure().add(measure);
+				}
+			}
+		}
+
+		return cost;
+	}
+
+	private CostMeasure summarize(CostPhase phase, CostMetric metric) {
+		int index = getIndex(phase, metric);
+
+		double sum = 0;
+		double min = Double.MAX_VALUE;
+		for (long[] sample : samples) {
+			if (sample[index] < 0) {
+				// metric not supported
+				return null;
+			}
+
+			sum += sample[index];
+			min = Math.min(min, sample[index]);
+		}
+
+		int count = samples.size();
+		double mean = sum / count;
+
+		double squares = 0;
+		for (long[] sample : samples) {
+			squares += (sample[index] - mean) * (sample[index] - mean);
+		}
+
+		CostMeasure measure = new CostMeasure();
+		measure.setPhase(phase);
+		measure.setMetric(metric);
+		measure.setMean(mean);
+		measure.setStdDev(count > 1 ? Math.sqrt(squares / (count - 1)) : 0);
+		measure.setMin(min);
+
+		return measure;
+	}
+}
@@ -1,8 +1,9 @@
 package rtt.core.testing.generation;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.net.MalformedURLException;
-import java.util.Hashtable;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -21,10 +22,14 @@ import rtt.core.utils.RTTLogging;
 
 public class DataGenerator {
 	
-	private Map<Object, String> objectAddresses;
+	private AddressTable objectAddresses;
+	private ElementSink sink;
+	private GenerationStatistics statistics;
 	
-	private DataGenerator() {
-		objectAddresses = new Hashtable<>();		
+	private DataGenerator(ElementSink sink, GenerationStatistics statistics) {
+		this.objectAddresses = new AddressTable();
+		this.sink = sink;
+		this.statistics = statistics;
 	}
 	
 	private Element createElement(String address, String name, 
@@ -36,58 +41,76 @@ public class DataGenerator {
 		element.setInformational(informational);
 		element.setGeneratedBy(generatedBy);
 		
+		statistics.elementCreated();
 		return element;
 	}
 	
 	private void handleResult(final Object object, Element element) 
-			throws ReflectiveOperationException {
+			throws ReflectiveOperationException, IOException {
 		
 		if (object != null) {
 			Class<?> objectType = object.getClass();
 			element.setReturnType(objectType.getName());
 			
-			if (objectAddresses.containsKey(object)) {
+			String address = objectAddresses.get(object);
+			if (address != null) {
 				element.setElementType(ElementType.REFERENCE);
-				element.setValue(objectAddresses.get(object));
-			} else {				
-				if (AnnotationProcessor.isNode(object)) {
-					objectAddresses.put(object, element.getAddress());
-					
+				element.setValue(address);
+				
+				sink.startElement(element);
+				sink.endElement(element);
+				return;
+			}
+			
+			Set<ValueMember<?>> valueMembers = Collections.emptySet();
+			if (AnnotationProcessor.isNode(object)) {
+				objectAddresses.put(object, element.getAddress());
+				
+				element.setElementType(ElementType.NODE);
+				element.setValue(objectType.getName());
+				
+				valueMembers = AnnotationProcessor.getValueMembers(objectType);
+			}
+			
+			// the type of the element must be known, before it is started
+			boolean hasNodeValues = !valueMembers.isEmpty();
+			if (!hasNodeValues) {
+				if (objectType.isArray()) {
+					element.setElementType(ElementType.NODE);
+					element.setValue(objectType.getSimpleName());
+				} else if (object instanceof Iterable<?> 
+						|| object instanceof Map<?, ?>) {
 					element.setElementType(ElementType.NODE);
 					element.setValue(objectType.getName());
-
-					handleNode(object, element);
 				}
-				
-				if (element.getElements().isEmpty()) {
-					if (objectType.isArray()) {
-						element.setElementType(ElementType.NODE);
-						element.setValue(objectType.getSimpleName());						
-						handleArray(object, element);
-					} else if (object instanceof Iterable<?>) {
-						element.setElementType(ElementType.NODE);
-						element.setValue(objectType.getName());						
-						handleIterable((Iterable<?>) object, element);
-					} else if (object instanceof Map<?, ?>) {
-						element.setElementType(ElementType.NODE);
-						element.setValue(objectType.getName());						
-						handleMap((Map<?, ?>) object, element);
-					}						
-				}
-				
-				if (element.getValue() == null) {
-					element.setElementType(ElementType.VALUE);
-					element.setValue(object.toString());
-				}				
 			}
+			
+			if (element.getValue() == null) {
+				element.setElementType(ElementType.VALUE);
+				element.setValue(object.toString());
+			}
+			
+			sink.startElement(element);
+			
+			if (hasNodeValues) {
+				handleNode(object, valueMembers, element);
+			} else if (objectType.isArray()) {
+				handleArray(object, element);
+			} else if (object instanceof Iterable<?>) {
+				handleIterable((Iterable<?>) object, element);
+			} else if (object instanceof Map<?, ?>) {
+				handleMap((Map<?, ?>) object, element);
+			}
+			
+			sink.endElement(element);
+		} else {
+			sink.startElement(element);
+			sink.endElement(element);
 		}
 	}
 	
-	private void handleNode(final Object object, Element element) 
-			throws ReflectiveOperationException {	
-		
-		Set<ValueMember<?>> annotatedElements = 
-				AnnotationProcessor.getValueMembers(object.getClass());
+	private void handleNode(final Object object, Set<ValueMember<?>> annotatedElements,
+			Element element) throws ReflectiveOperationException, IOException {	
 		
 		Element childElement = null;
 		String address = null;
@@ -100,7 +123,6 @@ public class DataGenerator {
 					annotatedElement.getType(), 
 					element.isInformational() || annotatedElement.isInformational());
 			
-			element.getElements().add(childElement);
 			childElement.setReturnType(annotatedElement.getReturnType());
 			handleResult(annotatedElement.getResult(object), childElement);
 
@@ -109,7 +131,7 @@ public class DataGenerator {
 	}
 
 	private void handleArray(final Object array, Element element) 
-			throws ReflectiveOperationException {
+			throws ReflectiveOperationException, IOException {
 		
 		Element childElement = null;
 		String address = null;
@@ -121,7 +143,6 @@ public class DataGenerator {
 			
 			childElement = createElement(address, name, 
 					GeneratorType.ARRAY, element.isInformational());
-			element.getElements().add(childElement);
 			
 			childElement.setReturnType(element.getName());
 			
@@ -130,7 +151,7 @@ public class DataGenerator {
 	}
 
 	private void handleIterable(final Iterable<?> iterable, Element element) 
-			throws ReflectiveOperationException {
+			throws ReflectiveOperationException, IOException {
 
 		int index = 1;
 		
@@ -144,7 +165,6 @@ public class DataGenerator {
 			
 			childElement = createElement(address, name, 
 					GeneratorType.ITERABLE, element.isInformational());			
-			element.getElements().add(childElement);
 			childElement.setReturnType(object.getClass().getName());
 			
 			handleResult(object, childElement);			
@@ -153,7 +173,7 @@ public class DataGenerator {
 	}
 	
 	private void handleMap(final Map<?, ?> map, Element element) 
-			throws ReflectiveOperationException {
+			throws ReflectiveOperationException, IOException {
 		
 		final boolean isInformational = element.isInformational();
 		
@@ -175,6 +195,8 @@ public class DataGenerator {
 			entryElement = createElement(address, name, 
 					GeneratorType.MAP, isInformational);
 			
+			sink.startElement(entryElement);
+			
 			// add an element representing the key
 			keyItem = mapEntry.getKey();
 			
@@ -183,7 +205,6 @@ public class DataGenerator {
 			keyElement.setValue(keyItem.getClass().getSimpleName());
 			
 			handleResult(mapEntry.getKey(), keyElement);
-			entryElement.getElements().add(keyElement);
 			
 			// add an element representing the value
 			valueItem = mapEntry.getValue();
@@ -193,9 +214,8 @@ public class DataGenerator {
 			valueElement.setValue(valueItem.getClass().getSimpleName());
 			
 			handleResult(mapEntry.getValue(), valueElement);
-			entryElement.getElements().add(valueElement);	
 			
-			element.getElements().add(entryElement);
+			sink.endElement(entryElement);
 			
 			entryIndex++;
 		}		
@@ -204,16 +224,85 @@ public class DataGenerator {
 	public static Output generateOutput(Input input, List<String> params, 
 			Executor executor) throws Throwable {
 		
+		return generateOutput(input, params, executor, new GenerationStatistics());
+	}
+	
+	/**
+	 * Generates the output data for the given input and fills the given
+	 * {@link GenerationStatistics}.
+	 * 
+	 * @param input the {@link Input}
+	 * @param params the parameters for the initial node
+	 * @param executor the {@link Executor} of the initial node
+	 * @param statistics the statistics to be filled
+	 * @return the generated {@link Output}
+	 * @throws Throwable any non-accepted exception of the tested classes
+	 */
+	public static Output generateOutput(Input input, List<String> params, 
+			Executor executor, GenerationStatistics statistics) throws Throwable {
+		
+		ElementTreeBuilder treeBuilder = new ElementTreeBuilder();
+		generateOutput(input, params, executor, treeBuilder, statistics);
+		
+		Output outputData = new Output();
+		outputData.setInitialElement(treeBuilder.getInitialElement());
+		
+		return outputData;
+	}
+	
+	/**
+	 * Generates the output data for the given input and passes each element
+	 * directly to the given {@link ElementSink}. No element tree will be
+	 * built, so the used memory depends only on the depth of the output.
+	 * 
+	 * @param input the {@link Input}
+	 * @param params the parameters for the initial node
+	 * @param executor the {@link Executor} of the initial node
+	 * @param sink the {@link ElementSink} receiving the elements
+	 * @param statistics the statistics to be filled
+	 * @throws Throwable any non-accepted exception of the tested classes
+	 */
+	public static void generateOutput(Input input, List<String> params, 
+			Executor executor, ElementSink sink, 
+			GenerationStatistics statistics) throws Throwable {
+		
+		generateOutput(input, params, executor, sink, statistics, null);
+	}
+	
+	/**
+	 * Generates the output data for the given input, passes each element 
+	 * to the given {@link ElementSink} and records the execution cost of 
+	 * each phase within the given {@link CostMeter}.
+	 * 
+	 * @param input the {@link Input}
+	 * @param params the parameters for the initial node
+	 * @param executor the {@link Executor} of the initial node
+	 * @param sink the {@link ElementSink} receiving the elements
+	 * @param statistics the statistics to be filled
+	 * @param meter the meter or {@code null}, if the cost is not measured
+	 * @throws Throwable any non-accepted exception of the tested classes
+	 */
+	static void generateOutput(Input input, List<String> params, 
+			Executor executor, ElementSink sink, 
+			GenerationStatistics statistics, CostMeter meter) throws Throwable {
+		
+		if (statistics == null || sink == null) {
+			throw new IllegalArgumentException("Sink and statistics must not be null.");
+		}
+		
 		if (input == null || params == null || executor == null) {
 			throw new IllegalArgumentException("One argument was null.");
 		}
 		
-		Output outputData = new Output();
-		
 		Object initObject = null;
+		long initializeStart = System.nanoTime();
 		try {			
 			RTTLogging.debug("Initial object type: " + 
-					executor.getInitialObjectType().getSimpleName());				
+					executor.getInitialObjectType().getSimpleName());
+			if (meter != null) {
+				meter.startInitialize();
+			}
+			
 			initObject = executor.initialize(input, params);			
 		} catch (ReflectiveOperationException exception) {
 			Throwable cause = exception.getCause();
@@ -226,12 +315,19 @@ public class DataGenerator {
 		}
 		
 		RTTLogging.debug("Generating output data ...");
-		DataGenerator generator = new DataGenerator();
+		DataGenerator generator = new DataGenerator(sink, statistics);
+		long traversalStart = System.nanoTime();
+		
+		if (meter != null) {
+			meter.startTraversal();
+		}
 		
 		Element initElement = generator.createElement(
 				"1", "Initial Node", GeneratorType.OBJECT, false);
 		try {
+			sink.startOutput();
 			generator.handleResult(initObject, initElement);
+			sink.endOutput();
 		} catch (ReflectiveOperationException exception) {
 			Throwable cause = exception.getCause();
 			if (!executor.isAcceptedException(cause)) {
@@ -242,9 +338,14 @@ public class DataGenerator {
 			}
 		}	
 		
-		outputData.setInitialElement(initElement);		
-
-		return outputData;
+		if (meter != null) {
+			meter.finish();
+		}
+		
+		statistics.setTimes(traversalStart - initializeStart, 
+				System.nanoTime() - traversalStart);
+		statistics.setAddressTable(generator.objectAddresses);
+		RTTLogging.debug("Generation statistics: " + statistics);
 	}
 
 	/**
@@ -269,6 +370,26 @@ public class DataGenerator {
 		
 		RTTLogging.info("Initial Node: " + initialNode);
 		ExecutorLoader loader = new ExecutorLoader(config.getClasspath(), baseDir);		
+		return locateInitialNode(config, loader);
+	}
+	
+	/**
+	 * Creates an {@link Executor} for the initial node of the given 
+	 * configuration, which will be loaded by the given loader.
+	 * 
+	 * @param config the configuration
+	 * @param loader the loader of the initial node
+	 * @return the executor of the initial node
+	 * @throws ClassNotFoundException thrown, if the initial node could not be found
+	 */
+	public static Executor locateInitialNode(Configuration config, 
+			ExecutorLoader loader) throws ClassNotFoundException {
+		
+		String initialNode = config.getInitialNode();
+		if (initialNode == null || initialNode.trim().isEmpty()) {
+			throw new IllegalStateException("The given configuration contains no initial node.");
+		}
+		
 		return new Executor(loader.resolveClass(initialNode.trim()));
 	}
 
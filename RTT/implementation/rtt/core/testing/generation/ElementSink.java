@@ -0,0 +1,47 @@
+package rtt.core.testing.generation;
+
+import java.io.IOException;
+
+import rtt.core.archive.output.Element;
+
+/**
+ * An {@code ElementSink} receives the elements of an output, while they are
+ * generated by the {@link DataGenerator}. The elements are passed in
+ * document order: each element is started before its child elements and
+ * ended after them. The attributes of an element are complete, when it is 
+ * started. The child list of a passed element must not be used, a sink 
+ * has to track the nesting by itself.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ * 
+ * @see DataGenerator#generateOutput(rtt.core.archive.input.Input, 
+ * 		java.util.List, Executor, ElementSink, GenerationStatistics)
+ */
+public interface ElementSink {
+	
+	/**
+	 * Called once before the first element.
+	 * @throws IOException thrown, if the sink could not be written
+	 */
+	void startOutput() throws IOException;
+	
+	/**
+	 * Called, when an element has been started.
+	 * @param element the element
+	 * @throws IOException thrown, if the sink could not be written
+	 */
+	void startElement(Element element) throws IOException;
+	
+	/**
+	 * Called, when all child elements of an element has been passed.
+	 * @param element the element
+	 * @throws IOException thrown, if the sink could not be written
+	 */
+	void endElement(Element element) throws IOException;
+	
+	/**
+	 * Called once after the last element.
+	 * @throws IOException thrown, if the sink could not be written
+	 */
+	void endOutput() throws IOException;
+}
@@ -0,0 +1,50 @@
+package rtt.core.testing.generation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import rtt.core.archive.output.Element;
+
+/**
+ * An {@link ElementSink}, which builds the complete element tree in memory.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class ElementTreeBuilder implements ElementSink {
+	
+	private Deque<Element> path = new ArrayDeque<>();
+	private Element initialElement = null;
+	
+	@Override
+	public void startOutput() {
+		path.clear();
+		initialElement = null;
+	}
+
+	@Override
+	public void startElement(Element element) {
+		if (path.isEmpty()) {
+			initialElement = element;
+		} else {
+			path.peek().getElements().add(element);
+		}
+		
+		path.push(element);
+	}
+
+	@Override
+	public void endElement(Element element) {
+		path.pop();
+	}
+	
+	@Override
+	public void endOutput() {}
+	
+	/**
+	 * @return the initial element of the built tree
+	 */
+	public Element getInitialElement() {
+		return initialElement;
+	}
+}
@@ -0,0 +1,127 @@
+package rtt.core.testing.generation;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the time of a single generation and allows to cancel it.
+ * <p>
+ * If a time limit is set, the generation will be executed within its own
+ * daemon thread, while the calling thread waits for the result. When the
+ * limit is exceeded or the run is cancelled, the generation thread will be
+ * interrupted and abandoned, so the caller can continue with the next test
+ * case. Because a thread can not be stopped safely, a generation, which
+ * ignores the interrupt, keeps running in the background until it
+ * finishes. Its result will be discarded.
+ * <p>
+ * Without a time limit, the generation is executed within the calling
+ * thread and a cancellation is only recognized before it starts.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class GenerationLimit {
+
+	private static final long POLL_INTERVAL = 50;
+	private static final AtomicInteger threadCount = new AtomicInteger(1);
+
+	private final long timeout;
+	private final AtomicBoolean cancelled;
+
+	/**
+	 * Creates a new limit.
+	 *
+	 * @param timeout the time limit in milliseconds, values less than 1
+	 * 		disable the limit
+	 * @param cancelled a flag, which cancels the generation when set,
+	 * 		may be {@code null}
+	 */
+	public GenerationLimit(long timeout, AtomicBoolean cancelled) {
+		this.timeout = timeout;
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * @return the time limit in milliseconds or 0, if no limit is set
+	 */
+	public long getTimeout() {
+		return timeout > 0 ? timeout : 0;
+	}
+
+	/**
+	 * @return {@code true}, if the generation has been cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled != null && cancelled.get();
+	}
+
+	/**
+	 * Executes the given generation within this limit.
+	 *
+	 * @param generation the generation
+	 * @return the result of the generation
+	 * @throws TimeoutException thrown, if the time limit has been exceeded
+	 * @throws CancellationException thrown, if the generation has been cancelled
+	 * @throws Exception thrown, if the generation has thrown an exception
+	 */
+	public <T> T call(Callable<T> generation) throws Exception {
+		if (isCancelled()) {
+			throw new CancellationException("The generation has been cancelled.");
+		}
+
+		if (timeout <= 0) {
+			return generation.call();
+		}
+
+		FutureTask<T> future = new FutureTask<>(generation);
+		Thread thread = new Thread(future,
+				"RTT-Generation-" + threadCount.getAndIncrement());
+
+		thread.setDaemon(true);
+		thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+		thread.start();
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		try {
+			while (true) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (remaining <= 0) {
+					throw new TimeoutException("The generation exceeded its time limit of "
+							+ timeout + " ms.");
+				}
+
+				if (isCancelled()) {
+					throw new CancellationException("The generation has been cancelled.");
+				}
+
+				try {
+					return future.get(Math.min(remaining, POLL_INTERVAL), TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					// check the limit and the cancellation again
+				}
+			}
+		} catch (ExecutionException exception) {
+			Throwable cause = exception.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw exception;
+		} finally {
+			if (!future.isDone()) {
+				// ask the generation to stop, the thread will be abandoned
+				future.cancel(true);
+			}
+		}
+	}
+}
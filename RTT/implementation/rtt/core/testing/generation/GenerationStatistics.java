@@ -0,0 +1,110 @@
+package rtt.core.testing.generation;
+
+/**
+ * Contains some statistics about a single run of the 
+ * {@link DataGenerator}.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class GenerationStatistics {
+	
+	private int elementCount = 0;
+	private int addressEntries = 0;
+	private int addressResizes = 0;
+	private int addressCapacity = 0;
+	
+	private long initializeTime = 0;
+	private long traversalTime = 0;
+	
+	void elementCreated() {
+		elementCount++;
+	}
+	
+	void setAddressTable(AddressTable table) {
+		addressEntries = table.size();
+		addressResizes = table.getResizeCount();
+		addressCapacity = table.capacity();
+	}
+	
+	/**
+	 * Sets all values at once. Used to transfer the statistics of a 
+	 * generation, which has been executed within another process.
+	 * 
+	 * @param elementCount the number of generated output elements
+	 * @param addressEntries the number of nodes stored in the address table
+	 * @param addressResizes how often the address table has been resized
+	 * @param addressCapacity the final capacity of the address table
+	 */
+	public void setCounts(int elementCount, int addressEntries, 
+			int addressResizes, int addressCapacity) {
+		
+		this.elementCount = elementCount;
+		this.addressEntries = addressEntries;
+		this.addressResizes = addressResizes;
+		this.addressCapacity = addressCapacity;
+	}
+	
+	/**
+	 * Sets the times of the phases of a generation.
+	 * 
+	 * @param initializeTime the time of the initialization in nanoseconds
+	 * @param traversalTime the time of the traversal in nanoseconds
+	 */
+	public void setTimes(long initializeTime, long traversalTime) {
+		this.initializeTime = initializeTime;
+		this.traversalTime = traversalTime;
+	}
+	
+	/**
+	 * @return the time of the initialization of the initial node 
+	 * 		in nanoseconds
+	 */
+	public long getInitializeTime() {
+		return initializeTime;
+	}
+	
+	/**
+	 * @return the time of the traversal of the initial node, including 
+	 * 		the time of the element sink, in nanoseconds
+	 */
+	public long getTraversalTime() {
+		return traversalTime;
+	}
+	
+	/**
+	 * @return the number of generated output elements
+	 */
+	public int getElementCount() {
+		return elementCount;
+	}
+	
+	/**
+	 * @return the number of nodes stored in the address table
+	 */
+	public int getAddressEntries() {
+		return addressEntries;
+	}
+	
+	/**
+	 * @return how often the address table has been resized
+	 */
+	public int getAddressResizes() {
+		return addressResizes;
+	}
+	
+	/**
+	 * @return the final capacity of the address table
+	 */
+	public int getAddressCapacity() {
+		return addressCapacity;
+	}
+	
+	@Override
+	public String toString() {
+		return elementCount + " elements, address table: " 
+				+ addressEntries + " entries, " 
+				+ addressResizes + " resizes, capacity " 
+				+ addressCapacity;
+	}
+}
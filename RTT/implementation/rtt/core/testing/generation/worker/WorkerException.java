@@ -0,0 +1,64 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.testing.generation.worker;
+
+/**
+ * Thrown, if the generation within a worker process has thrown an
+ * exception. The original exception can not be transferred, so only its
+ * type, its message and its stack trace are kept.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class WorkerException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	private final boolean fatal;
+	private final String remoteType;
+	private final String remoteTrace;
+
+	WorkerException(boolean fatal, String remoteType,
+			String remoteMessage, String remoteTrace) {
+
+		super(remoteMessage);
+
+		this.fatal = fatal;
+		this.remoteType = remoteType;
+		this.remoteTrace = remoteTrace;
+	}
+
+	/**
+	 * @return {@code true}, if an error has been thrown, after which the
+	 * 		worker process should not be used anymore
+	 */
+	public boolean isFatal() {
+		return fatal;
+	}
+
+	/**
+	 * @return the class name of the original exception
+	 */
+	public String getRemoteType() {
+		return remoteType;
+	}
+
+	/**
+	 * @return the stack trace of the original exception
+	 */
+	public String getRemoteTrace() {
+		return remoteTrace;
+	}
+
+	@Override
+	public String toString() {
+		String message = getMessage();
+		return message != null ? remoteType + ": " + message : remoteType;
+	}
+}
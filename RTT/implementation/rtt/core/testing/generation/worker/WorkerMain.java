@@ -0,0 +1,252 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.testing.generation.worker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import rtt.core.archive.configuration.Classpath;
+import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.input.Input;
+import rtt.core.archive.output.Element;
+import rtt.core.testing.generation.CostMeter;
+import rtt.core.testing.generation.DataGenerator;
+import rtt.core.testing.generation.ElementSink;
+import rtt.core.testing.generation.Executor;
+import rtt.core.testing.generation.GenerationStatistics;
+import rtt.core.testing.generation.worker.WorkerProtocol.SymbolWriter;
+import rtt.core.utils.ExecutorLoader;
+import rtt.core.utils.ExecutorLoaderCache;
+
+/**
+ * The entry point of a worker process. A worker reads generation requests
+ * from its standard input and writes the generated elements to its
+ * standard output, using the {@link WorkerProtocol}. Output of the tested
+ * classes to {@code System.out} is redirected to {@code System.err}.
+ * <p>
+ * The executors of the initial nodes are kept between the requests, so
+ * the tested classes stay loaded and compiled. They will be located again,
+ * if the class path contents have changed.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see WorkerPool
+ */
+public final class WorkerMain {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Passes the generated elements to the coordinator.
+	 */
+	private static final class RemoteSink implements ElementSink {
+
+		private final DataOutputStream output;
+		private final SymbolWriter symbols = new SymbolWriter();
+
+		public RemoteSink(DataOutputStream output) {
+			this.output = output;
+		}
+
+		@Override
+		public void startOutput() throws IOException {
+			output.writeByte(WorkerProtocol.START_OUTPUT);
+		}
+
+		@Override
+		public void startElement(Element element) throws IOException {
+			output.writeByte(WorkerProtocol.START_ELEMENT);
+			WorkerProtocol.writeElement(output, element, symbols);
+		}
+
+		@Override
+		public void endElement(Element element) throws IOException {
+			output.writeByte(WorkerProtocol.END_ELEMENT);
+		}
+
+		@Override
+		public void endOutput() throws IOException {
+			output.writeByte(WorkerProtocol.END_OUTPUT);
+		}
+	}
+
+	private final ExecutorLoaderCache loaderCache = new ExecutorLoaderCache();
+	private final Map<String, ExecutorLoader> loaders = new HashMap<>();
+	private final Map<String, Executor> executors = new HashMap<>();
+
+	private WorkerMain() {}
+
+	public static void main(String[] args) throws Exception {
+		// the standard streams are reserved for the protocol
+		DataInputStream input = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(FileDescriptor.in), BUFFER_SIZE));
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(FileDescriptor.out), BUFFER_SIZE));
+
+		System.setOut(System.err);
+		System.setIn(new ByteArrayInputStream(new byte[0]));
+
+		output.writeByte(WorkerProtocol.READY);
+		output.flush();
+		
+		WorkerMain worker = new WorkerMain();
+		try {
+			worker.run(input, output);
+		} finally {
+			worker.loaderCache.close();
+		}
+
+		// threads of the tested classes must not keep the process alive
+		System.exit(0);
+	}
+
+	private void run(DataInputStream input, DataOutputStream output) throws Exception {
+		while (true) {
+			byte request;
+			try {
+				request = input.readByte();
+			} catch (EOFException e) {
+				// the coordinator has been closed
+				return;
+			}
+
+			switch (request) {
+			case WorkerProtocol.GENERATE:
+				generate(input, output);
+				break;
+
+			case WorkerProtocol.SHUTDOWN:
+				return;
+
+			default:
+				throw new IOException("Unknown request: " + request);
+			}
+		}
+	}
+
+	private void generate(DataInputStream input, DataOutputStream output) throws Exception {
+		Configuration config = new Configuration();
+		config.setInitialNode(WorkerProtocol.readString(input));
+		String baseDir = WorkerProtocol.readString(input);
+
+		Classpath classpath = new Classpath();
+		classpath.getPath().addAll(WorkerProtocol.readStrings(input));
+		config.setClasspath(classpath);
+
+		List<String> params = WorkerProtocol.readStrings(input);
+		boolean recordClasses = input.readBoolean();
+		int warmup = input.readInt();
+		int iterations = input.readInt();
+
+		Input inputData = new Input();
+		inputData.setValue(WorkerProtocol.readString(input));
+
+		RemoteSink sink = new RemoteSink(output);
+		GenerationStatistics statistics = new GenerationStatistics();
+		Set<String> loadedClasses = Collections.emptySet();
+		CostMeter meter = iterations > 0 ? new CostMeter(warmup, iterations) : null;
+
+		try {
+			if (recordClasses) {
+				// a new loader records all classes of this test case
+				try (ExecutorLoader loader = new ExecutorLoader(classpath, baseDir, true)) {
+					Executor executor = DataGenerator.locateInitialNode(config, loader);
+					DataGenerator.generateOutput(inputData, params, executor, sink, statistics);
+					loadedClasses = loader.getLoadedClasses();
+					
+					if (meter != null) {
+						meter.measure(inputData, params, executor);
+					}
+				}
+			} else {
+				Executor executor = getExecutor(config, baseDir);
+				DataGenerator.generateOutput(inputData, params, executor, sink, statistics);
+				
+				if (meter != null) {
+					meter.measure(inputData, params, executor);
+				}
+			}
+		} catch (Throwable t) {
+			if (t instanceof InvocationTargetException) {
+				t = t.getCause();
+			}
+
+			StringWriter trace = new StringWriter();
+			t.printStackTrace(new PrintWriter(trace));
+
+			output.writeByte(WorkerProtocol.FAILED);
+			output.writeBoolean(t instanceof Error);
+			WorkerProtocol.writeString(output, t.getClass().getName());
+			WorkerProtocol.writeString(output, t.getMessage());
+			WorkerProtocol.writeString(output, trace.toString());
+			output.flush();
+
+			return;
+		}
+
+		Runtime runtime = Runtime.getRuntime();
+
+		output.writeByte(WorkerProtocol.DONE);
+		output.writeInt(statistics.getElementCount());
+		output.writeInt(statistics.getAddressEntries());
+		output.writeInt(statistics.getAddressResizes());
+		output.writeInt(statistics.getAddressCapacity());
+		output.writeLong(statistics.getInitializeTime());
+		output.writeLong(statistics.getTraversalTime());
+		output.writeLong(runtime.totalMemory() - runtime.freeMemory());
+		WorkerProtocol.writeStrings(output, new ArrayList<>(loadedClasses));
+		
+		List<long[]> samples = Collections.emptyList();
+		if (meter != null) {
+			samples = meter.getSamples();
+		}
+		
+		output.writeInt(samples.size());
+		for (long[] sample : samples) {
+			for (long value : sample) {
+				output.writeLong(value);
+			}
+		}
+		
+		output.flush();
+	}
+
+	private Executor getExecutor(Configuration config, String baseDir) throws Exception {
+		String key = config.getInitialNode() + "|" + baseDir + "|" + config.getClasspath().getPath();
+
+		ExecutorLoader loader = loaderCache.getLoader(config.getClasspath(), baseDir);
+		Executor executor = executors.get(key);
+
+		if (executor == null || loaders.get(key) != loader) {
+			executor = DataGenerator.locateInitialNode(config, loader);
+
+			loaders.put(key, loader);
+			executors.put(key, executor);
+		}
+
+		return executor;
+	}
+}
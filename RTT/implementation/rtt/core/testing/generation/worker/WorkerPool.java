@@ -0,0 +1,400 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.testing.generation.worker;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.CodeSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.input.Input;
+import rtt.core.archive.output.Output;
+import rtt.core.testing.generation.CostMeter;
+import rtt.core.testing.generation.ElementSink;
+import rtt.core.testing.generation.ElementTreeBuilder;
+import rtt.core.testing.generation.GenerationStatistics;
+import rtt.core.utils.RTTLogging;
+
+/**
+ * A pool of local worker processes, which execute the tested classes
+ * outside of the RTT process. Static state, calls of {@code System.exit}
+ * and memory leaks of a test case can not affect RTT itself. If a worker
+ * terminates unexpectedly, only the current test case fails and a new
+ * worker is started for the next one.
+ * <p>
+ * Workers are kept between test cases, so the tested classes stay loaded
+ * and compiled. A worker is replaced, after it has executed a number of
+ * test cases or if its used heap exceeds a threshold. The replacement is
+ * started immediately, so it is ready, when the next test case starts. A
+ * new worker is also started, if all existing ones are busy, so the pool
+ * grows to the number of concurrent generations.
+ * <p>
+ * If a thread, which waits for a worker, is interrupted, the worker will
+ * be killed. Together with a
+ * {@link rtt.core.testing.generation.GenerationLimit GenerationLimit}, a
+ * test case, which exceeds its time limit, is really stopped.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ * @see WorkerMain
+ * @see WorkerProtocol
+ */
+public final class WorkerPool implements AutoCloseable {
+
+	public static final int DEFAULT_MAX_CASES = 1000;
+
+	private static final long WATCHDOG_INTERVAL = 50;
+
+	private final Deque<WorkerProcess> idleWorkers = new ArrayDeque<>();
+	private final Map<Thread, WorkerProcess> busyWorkers = new ConcurrentHashMap<>();
+
+	private String classpath = getDefaultClasspath();
+	private List<String> jvmArguments = new ArrayList<>();
+	private int maxCases = DEFAULT_MAX_CASES;
+	private long maxHeap = 0;
+
+	private int startedCount = 0;
+	private Thread watchdog = null;
+	private boolean closed = false;
+
+	/**
+	 * Returns the class path of RTT and its libraries, which is used for
+	 * the worker processes by default. It contains the code sources of RTT
+	 * and its logging library, the class path of the class loaders, which
+	 * have loaded RTT, and the class path of the current process.
+	 * <p>
+	 * The class path of the current process alone is not sufficient, if
+	 * RTT has been loaded by another class loader. For example, the class
+	 * path of Ant contains only its launcher.
+	 *
+	 * @return the class path
+	 */
+	public static String getDefaultClasspath() {
+		Set<String> entries = new LinkedHashSet<>();
+		addCodeSource(entries, WorkerMain.class);
+		addCodeSource(entries, Logger.class);
+
+		for (ClassLoader loader = WorkerMain.class.getClassLoader();
+				loader != null; loader = loader.getParent()) {
+
+			if (loader instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) loader).getURLs()) {
+					addEntry(entries, url);
+				}
+			}
+		}
+
+		String processClasspath = System.getProperty("java.class.path");
+		if (processClasspath != null && !processClasspath.isEmpty()) {
+			entries.addAll(Arrays.asList(processClasspath.split(File.pathSeparator)));
+		}
+
+		StringBuilder builder = new StringBuilder();
+		for (String entry : entries) {
+			if (builder.length() > 0) {
+				builder.append(File.pathSeparator);
+			}
+
+			builder.append(entry);
+		}
+
+		return builder.toString();
+	}
+
+	private static void addCodeSource(Set<String> entries, Class<?> type) {
+		CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+		if (codeSource != null && codeSource.getLocation() != null) {
+			addEntry(entries, codeSource.getLocation());
+		}
+	}
+
+	private static void addEntry(Set<String> entries, URL url) {
+		if (!"file".equals(url.getProtocol())) {
+			return;
+		}
+
+		try {
+			entries.add(new File(url.toURI()).getPath());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			RTTLogging.trace("Could not add class path entry " + url, e);
+		}
+	}
+
+	/**
+	 * Sets the class path of the worker processes, which has to contain
+	 * RTT and its libraries. By default, {@link #getDefaultClasspath()} is
+	 * used. The class path of a configuration will be added by the
+	 * workers.
+	 *
+	 * @param classpath the class path
+	 */
+	public synchronized void setClasspath(String classpath) {
+		this.classpath = classpath;
+	}
+
+	/**
+	 * Sets additional arguments for the virtual machine of new worker
+	 * processes, e.g. the maximum heap size.
+	 *
+	 * @param jvmArguments the arguments
+	 */
+	public synchronized void setJvmArguments(List<String> jvmArguments) {
+		this.jvmArguments = new ArrayList<>(jvmArguments);
+	}
+
+	/**
+	 * Sets the number of test cases, after which a worker will be replaced.
+	 *
+	 * @param maxCases the number of test cases, at least 1
+	 */
+	public synchronized void setMaxCases(int maxCases) {
+		if (maxCases < 1) {
+			throw new IllegalArgumentException("The number of cases must be at least 1.");
+		}
+
+		this.maxCases = maxCases;
+	}
+
+	/**
+	 * Sets the used heap in bytes, after which a worker will be replaced.
+	 *
+	 * @param maxHeap the used heap in bytes, 0 for no limit
+	 */
+	public synchronized void setMaxHeap(long maxHeap) {
+		this.maxHeap = maxHeap;
+	}
+
+	/**
+	 * @return the number of worker processes started by this pool
+	 */
+	public synchronized int getStartedCount() {
+		return startedCount;
+	}
+
+	/**
+	 * Starts new worker processes, until the given number of workers is
+	 * idle, and waits until they are ready. This keeps the startup of the
+	 * workers out of the time limits of the first test cases.
+	 *
+	 * @param count the number of idle workers
+	 * @throws IOException thrown, if a worker process could not be started
+	 */
+	public synchronized void prestart(int count) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("The worker pool has been closed.");
+		}
+
+		while (idleWorkers.size() < count) {
+			idleWorkers.push(startWorker());
+		}
+
+		for (WorkerProcess worker : idleWorkers) {
+			worker.awaitReady();
+		}
+	}
+
+	/**
+	 * Generates the output data within a worker process.
+	 *
+	 * @param config the configuration containing the initial node and
+	 * 		its class path
+	 * @param baseDir the base directory of relative class path entries
+	 * @param input the input
+	 * @param params the parameters for the initial node
+	 * @param statistics the statistics to be filled
+	 * @param loadedClasses receives the classes loaded by the generation,
+	 * 		may be {@code null}, if the classes should not be recorded
+	 * @param meter receives the execution cost measured within the worker,
+	 * 		may be {@code null}, if the cost should not be measured
+	 * @return the generated output
+	 * @throws Exception thrown, if the generation failed
+	 * @see #generate(Configuration, String, Input, List, ElementSink, GenerationStatistics, Set, CostMeter)
+	 */
+	public Output generate(Configuration config, String baseDir, Input input,
+			List<String> params, GenerationStatistics statistics,
+			Set<String> loadedClasses, CostMeter meter) throws Exception {
+
+		ElementTreeBuilder treeBuilder = new ElementTreeBuilder();
+		generate(config, baseDir, input, params, treeBuilder, 
+				statistics, loadedClasses, meter);
+
+		Output outputData = new Output();
+		outputData.setInitialElement(treeBuilder.getInitialElement());
+
+		return outputData;
+	}
+
+	/**
+	 * Generates the output data within a worker process and passes each
+	 * element to the given sink, while it is received.
+	 *
+	 * @param config the configuration containing the initial node and
+	 * 		its class path
+	 * @param baseDir the base directory of relative class path entries
+	 * @param input the input
+	 * @param params the parameters for the initial node
+	 * @param sink the sink receiving the elements
+	 * @param statistics the statistics to be filled
+	 * @param loadedClasses receives the classes loaded by the generation,
+	 * 		may be {@code null}, if the classes should not be recorded
+	 * @param meter receives the execution cost measured within the worker,
+	 * 		may be {@code null}, if the cost should not be measured
+	 * @throws WorkerException thrown, if the tested classes have thrown
+	 * 		an exception
+	 * @throws IOException thrown, if the worker process could not be
+	 * 		started or has been terminated
+	 */
+	public void generate(Configuration config, String baseDir, Input input,
+			List<String> params, ElementSink sink, GenerationStatistics statistics,
+			Set<String> loadedClasses, CostMeter meter) throws WorkerException, IOException {
+
+		WorkerProcess worker = acquire();
+		Thread thread = Thread.currentThread();
+		busyWorkers.put(thread, worker);
+
+		boolean reusable = false;
+		try {
+			Set<String> classes = worker.generate(config, baseDir, input,
+					params, sink, statistics, loadedClasses != null, meter);
+
+			if (loadedClasses != null) {
+				loadedClasses.addAll(classes);
+			}
+
+			reusable = true;
+		} catch (WorkerException exception) {
+			reusable = !exception.isFatal();
+			throw exception;
+		} finally {
+			busyWorkers.remove(thread);
+			release(worker, reusable && !thread.isInterrupted());
+		}
+	}
+
+	private synchronized WorkerProcess acquire() throws IOException {
+		if (closed) {
+			throw new IllegalStateException("The worker pool has been closed.");
+		}
+
+		WorkerProcess worker = idleWorkers.poll();
+		if (worker == null) {
+			worker = startWorker();
+		}
+
+		if (watchdog == null) {
+			watchdog = createWatchdog();
+			watchdog.start();
+		}
+
+		return worker;
+	}
+
+	private synchronized void release(WorkerProcess worker, boolean reusable) {
+		boolean recycle = worker.getCaseCount() >= maxCases
+				|| (maxHeap > 0 && worker.getUsedHeap() >= maxHeap);
+
+		if (reusable && !recycle && !closed) {
+			idleWorkers.push(worker);
+			return;
+		}
+
+		worker.close();
+		if (!closed) {
+			try {
+				idleWorkers.push(startWorker());
+			} catch (IOException e) {
+				RTTLogging.warn("Could not start a new worker process: " + e.getMessage());
+			}
+		}
+	}
+
+	private WorkerProcess startWorker() throws IOException {
+		WorkerProcess worker = new WorkerProcess(createCommand());
+		startedCount++;
+
+		RTTLogging.debug("Started worker process " + startedCount);
+		return worker;
+	}
+
+	private List<String> createCommand() {
+		String javaHome = System.getProperty("java.home");
+
+		List<String> command = new ArrayList<>();
+		command.add(javaHome + File.separator + "bin" + File.separator + "java");
+		command.addAll(jvmArguments);
+		command.add("-cp");
+		command.add(classpath);
+		command.add(WorkerMain.class.getName());
+
+		return command;
+	}
+
+	/**
+	 * Creates a thread, which kills the workers of interrupted threads,
+	 * because a thread blocked by reading from a process can not be
+	 * interrupted.
+	 */
+	private Thread createWatchdog() {
+		Thread thread = new Thread("RTT-Worker-Watchdog") {
+			@Override
+			public void run() {
+				while (!isInterrupted()) {
+					for (Map.Entry<Thread, WorkerProcess> entry : busyWorkers.entrySet()) {
+						Thread waiting = entry.getKey();
+						if (waiting.isInterrupted() || !waiting.isAlive()) {
+							entry.getValue().destroy();
+						}
+					}
+
+					try {
+						Thread.sleep(WATCHDOG_INTERVAL);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		};
+
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	@Override
+	public synchronized void close() {
+		closed = true;
+
+		for (WorkerProcess worker : idleWorkers) {
+			worker.close();
+		}
+		idleWorkers.clear();
+
+		for (WorkerProcess worker : busyWorkers.values()) {
+			worker.destroy();
+		}
+
+		if (watchdog != null) {
+			watchdog.interrupt();
+			watchdog = null;
+		}
+	}
+}
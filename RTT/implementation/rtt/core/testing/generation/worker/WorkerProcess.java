@@ -0,0 +1,245 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.testing.generation.worker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.input.Input;
+import rtt.core.archive.output.Element;
+import rtt.core.testing.generation.CostMeter;
+import rtt.core.testing.generation.ElementSink;
+import rtt.core.testing.generation.GenerationStatistics;
+import rtt.core.testing.generation.worker.WorkerProtocol.SymbolReader;
+
+/**
+ * The coordinator side of a single worker process.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+final class WorkerProcess implements AutoCloseable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int EXIT_POLLS = 20;
+	private static final long EXIT_POLL_INTERVAL = 50;
+
+	private final Process process;
+	private final DataOutputStream requests;
+	private final DataInputStream responses;
+
+	private boolean ready = false;
+	private int caseCount = 0;
+	private long usedHeap = 0;
+
+	public WorkerProcess(List<String> command) throws IOException {
+		ProcessBuilder builder = new ProcessBuilder(command);
+		builder.redirectError(Redirect.INHERIT);
+
+		process = builder.start();
+		requests = new DataOutputStream(new BufferedOutputStream(
+				process.getOutputStream(), BUFFER_SIZE));
+		responses = new DataInputStream(new BufferedInputStream(
+				process.getInputStream(), BUFFER_SIZE));
+	}
+
+	/**
+	 * Waits until the worker process has been started.
+	 * 
+	 * @throws IOException thrown, if the worker process could not be started
+	 */
+	public void awaitReady() throws IOException {
+		if (ready) {
+			return;
+		}
+		
+		try {
+			byte response = responses.readByte();
+			if (response != WorkerProtocol.READY) {
+				throw new IOException("Unknown response: " + response);
+			}
+		} catch (EOFException e) {
+			throw new IOException("The worker process could not be started (" 
+					+ getExitState() + ").", e);
+		}
+		
+		ready = true;
+	}
+	
+	/**
+	 * Generates the output data within the worker process and passes the
+	 * received elements to the given sink. If a meter is given, the
+	 * execution cost is measured within the worker process and the samples
+	 * are added to the meter.
+	 *
+	 * @return the classes loaded by the generation, if they have been
+	 * 		recorded, otherwise an empty set
+	 * @throws WorkerException thrown, if the generation has thrown an
+	 * 		exception
+	 * @throws IOException thrown, if the communication with the worker
+	 * 		process failed
+	 */
+	public Set<String> generate(Configuration config, String baseDir,
+			Input input, List<String> params, ElementSink sink,
+			GenerationStatistics statistics, boolean recordClasses, 
+			CostMeter meter) throws WorkerException, IOException {
+
+		awaitReady();
+		
+		List<String> entries = Collections.emptyList();
+		if (config.getClasspath() != null) {
+			entries = config.getClasspath().getPath();
+		}
+
+		caseCount++;
+
+		requests.writeByte(WorkerProtocol.GENERATE);
+		WorkerProtocol.writeString(requests, config.getInitialNode());
+		WorkerProtocol.writeString(requests, baseDir);
+		WorkerProtocol.writeStrings(requests, entries);
+		WorkerProtocol.writeStrings(requests, params);
+		requests.writeBoolean(recordClasses);
+		requests.writeInt(meter != null ? meter.getWarmup() : 0);
+		requests.writeInt(meter != null ? meter.getIterations() : 0);
+		WorkerProtocol.writeString(requests, input.getValue());
+		requests.flush();
+
+		try {
+			return readResponse(sink, statistics, meter);
+		} catch (EOFException e) {
+			throw new IOException("The worker process terminated unexpectedly (" 
+					+ getExitState() + ").", e);
+		}
+	}
+
+	private Set<String> readResponse(ElementSink sink, GenerationStatistics statistics,
+			CostMeter meter) throws WorkerException, IOException {
+
+		SymbolReader symbols = new SymbolReader();
+		Deque<Element> path = new ArrayDeque<>();
+
+		while (true) {
+			byte response = responses.readByte();
+			switch (response) {
+			case WorkerProtocol.START_OUTPUT:
+				sink.startOutput();
+				break;
+
+			case WorkerProtocol.START_ELEMENT:
+				Element element = WorkerProtocol.readElement(responses, symbols);
+				path.push(element);
+				sink.startElement(element);
+				break;
+
+			case WorkerProtocol.END_ELEMENT:
+				sink.endElement(path.pop());
+				break;
+
+			case WorkerProtocol.END_OUTPUT:
+				sink.endOutput();
+				break;
+
+			case WorkerProtocol.DONE:
+				statistics.setCounts(responses.readInt(), responses.readInt(),
+						responses.readInt(), responses.readInt());
+				statistics.setTimes(responses.readLong(), responses.readLong());
+				usedHeap = responses.readLong();
+
+				Set<String> classes = new HashSet<>(WorkerProtocol.readStrings(responses));
+				
+				int sampleCount = responses.readInt();
+				for (int i = 0; i < sampleCount; i++) {
+					long[] sample = new long[CostMeter.SAMPLE_SIZE];
+					for (int j = 0; j < sample.length; j++) {
+						sample[j] = responses.readLong();
+					}
+					
+					if (meter != null) {
+						meter.addSample(sample);
+					}
+				}
+				
+				return classes;
+
+			case WorkerProtocol.FAILED:
+				boolean fatal = responses.readBoolean();
+				throw new WorkerException(fatal,
+						WorkerProtocol.readString(responses),
+						WorkerProtocol.readString(responses),
+						WorkerProtocol.readString(responses));
+
+			default:
+				throw new IOException("Unknown response: " + response);
+			}
+		}
+	}
+
+	private String getExitState() {
+		for (int poll = 0; poll < EXIT_POLLS; poll++) {
+			try {
+				return "exit code " + process.exitValue();
+			} catch (IllegalThreadStateException e) {
+				try {
+					Thread.sleep(EXIT_POLL_INTERVAL);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+
+		return "still running";
+	}
+
+	/**
+	 * @return the number of test cases generated by this worker
+	 */
+	public int getCaseCount() {
+		return caseCount;
+	}
+
+	/**
+	 * @return the used heap of the worker after the last generation in bytes
+	 */
+	public long getUsedHeap() {
+		return usedHeap;
+	}
+
+	/**
+	 * Kills the worker process immediately. A running generation will fail
+	 * with an {@link IOException}.
+	 */
+	public void destroy() {
+		process.destroy();
+	}
+
+	@Override
+	public void close() {
+		try {
+			requests.writeByte(WorkerProtocol.SHUTDOWN);
+			requests.close();
+		} catch (IOException e) {
+			// the process has already been terminated
+		}
+
+		process.destroy();
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.testing.generation.worker;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+
+/**
+ * Contains the binary protocol between the coordinator and a worker
+ * process. All values are written with a {@link DataOutputStream}:
+ *
+ * <pre>
+ * startup  := READY
+ * request  := GENERATE initialNode baseDir count entry* count param* record warmup iterations input
+ *           | SHUTDOWN
+ * response := event* (DONE statistics usedHeap count class* count sample* | FAILED type message trace)
+ * event    := START_OUTPUT | START_ELEMENT element | END_ELEMENT | END_OUTPUT
+ * element  := address name(symbol) value returnType(symbol) informational elementType generatedBy
+ * statistics := elementCount addressEntries addressResizes addressCapacity initializeTime traversalTime
+ * </pre>
+ *
+ * Strings are written as their length in bytes (-1 for {@code null}),
+ * followed by their UTF-8 bytes. Names and return types of elements are
+ * written as symbols: the index of the string within a table, which is
+ * built during a single generation. The string itself is only written,
+ * when it occurs for the first time. A cost sample consists of
+ * {@link rtt.core.testing.generation.CostMeter#SAMPLE_SIZE} long values, no samples are measured if
+ * the number of iterations is 0.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+final class WorkerProtocol {
+
+	// requests
+	static final byte GENERATE = 1;
+	static final byte SHUTDOWN = 2;
+
+	// responses
+	static final byte START_OUTPUT = 1;
+	static final byte START_ELEMENT = 2;
+	static final byte END_ELEMENT = 3;
+	static final byte END_OUTPUT = 4;
+	static final byte DONE = 5;
+	static final byte FAILED = 6;
+	static final byte READY = 7;
+
+	private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+	private static final GeneratorType[] GENERATOR_TYPES = GeneratorType.values();
+
+	/**
+	 * The symbols written during a single generation.
+	 */
+	static final class SymbolWriter {
+
+		private final Map<String, Integer> indices = new HashMap<>();
+
+		void write(DataOutputStream output, String symbol) throws IOException {
+			if (symbol == null) {
+				output.writeInt(-1);
+				return;
+			}
+
+			Integer index = indices.get(symbol);
+			if (index != null) {
+				output.writeInt(index);
+			} else {
+				output.writeInt(indices.size());
+				writeString(output, symbol);
+
+				indices.put(symbol, indices.size());
+			}
+		}
+	}
+
+	/**
+	 * The symbols read during a single generation.
+	 */
+	static final class SymbolReader {
+
+		private final List<String> symbols = new ArrayList<>();
+
+		String read(DataInputStream input) throws IOException {
+			int index = input.readInt();
+			if (index < 0) {
+				return null;
+			}
+
+			if (index == symbols.size()) {
+				symbols.add(readString(input));
+			} else if (index > symbols.size()) {
+				throw new IOException("Invalid symbol index: " + index);
+			}
+
+			return symbols.get(index);
+		}
+	}
+
+	private WorkerProtocol() {}
+
+	static void writeString(DataOutputStream output, String value) throws IOException {
+		if (value == null) {
+			output.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	static String readString(DataInputStream input) throws IOException {
+		int length = input.readInt();
+		if (length < 0) {
+			return null;
+		}
+
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeStrings(DataOutputStream output, List<String> values) throws IOException {
+		output.writeInt(values.size());
+		for (String value : values) {
+			writeString(output, value);
+		}
+	}
+
+	static List<String> readStrings(DataInputStream input) throws IOException {
+		int count = input.readInt();
+
+		List<String> values = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			values.add(readString(input));
+		}
+
+		return values;
+	}
+
+	static void writeElement(DataOutputStream output, Element element,
+			SymbolWriter symbols) throws IOException {
+
+		writeString(output, element.getAddress());
+		symbols.write(output, element.getName());
+		writeString(output, element.getValue());
+		symbols.write(output, element.getReturnType());
+
+		output.writeBoolean(element.isInformational());
+		output.writeByte(element.getElementType().ordinal());
+		output.writeByte(element.getGeneratedBy().ordinal());
+	}
+
+	static Element readElement(DataInputStream input, SymbolReader symbols) throws IOException {
+		Element element = new Element();
+		element.setAddress(readString(input));
+		element.setName(symbols.read(input));
+		element.setValue(readString(input));
+		element.setReturnType(symbols.read(input));
+
+		element.setInformational(input.readBoolean());
+		element.setElementType(ELEMENT_TYPES[input.readUnsignedByte()]);
+		element.setGeneratedBy(GENERATOR_TYPES[input.readUnsignedByte()]);
+
+		return element;
+	}
+}
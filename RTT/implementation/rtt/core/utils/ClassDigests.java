@@ -0,0 +1,167 @@
+package rtt.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import rtt.core.archive.configuration.Classpath;
+
+/**
+ * Contains a digest of each class file on a class path. If a class is 
+ * contained in more than one class path entry, the first one is used, 
+ * like within the {@link ExecutorLoader}.
+ * <p>
+ * The digests are used to compute the hash of a test case over all 
+ * classes, which have been loaded during its execution. If the hash has 
+ * not changed, the test case is not impacted by a change of the class path.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ * @see ExecutorLoader#getLoadedClasses()
+ */
+public class ClassDigests {
+	
+	private static final String CLASS_SUFFIX = ".class";
+	
+	private Map<String, byte[]> digests = new HashMap<>();
+	
+	/**
+	 * Reads all class files of the given class path.
+	 * 
+	 * @param classpath the class path of a configuration
+	 * @param baseDir the base directory of relative class path entries
+	 * @throws IOException thrown, if a class path entry could not be read
+	 */
+	public ClassDigests(Classpath classpath, String baseDir) throws IOException {
+		if (classpath != null && classpath.getPath() != null) {
+			Path basePath = Paths.get(baseDir);
+			for (String entry : classpath.getPath()) {
+				Path entryPath = ExecutorLoader.resolveEntry(entry, basePath);
+				if (Files.isDirectory(entryPath)) {
+					readDirectory(entryPath);
+				} else if (Files.isRegularFile(entryPath)) {
+					readArchive(entryPath);
+				}
+			}
+		}
+	}
+	
+	private void readDirectory(final Path directory) throws IOException {
+		final MessageDigest digest = createDigest();
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				String fileName = directory.relativize(file).toString();
+				if (attrs.isRegularFile() && fileName.endsWith(CLASS_SUFFIX)) {
+					try (InputStream inputStream = Files.newInputStream(file)) {
+						addDigest(fileName.replace(file.getFileSystem().getSeparator(), "/"), 
+								inputStream, digest);
+					}
+				}
+				
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+	
+	private void readArchive(Path archive) throws IOException {
+		MessageDigest digest = createDigest();
+		try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				if (!entry.isDirectory() && entry.getName().endsWith(CLASS_SUFFIX)) {
+					try (InputStream inputStream = zipFile.getInputStream(entry)) {
+						addDigest(entry.getName(), inputStream, digest);
+					}
+				}
+			}
+		}
+	}
+	
+	private void addDigest(String fileName, InputStream inputStream, 
+			MessageDigest digest) throws IOException {
+		
+		String className = fileName.substring(
+				0, fileName.length() - CLASS_SUFFIX.length()).replace('/', '.');
+		
+		if (digests.containsKey(className)) {
+			return;
+		}
+		
+		byte[] buffer = new byte[8192];
+		int length;
+		while ((length = inputStream.read(buffer)) != -1) {
+			digest.update(buffer, 0, length);
+		}
+		
+		digests.put(className, digest.digest());
+	}
+	
+	/**
+	 * Returns the number of classes on the class path.
+	 * 
+	 * @return the number of classes
+	 */
+	public int size() {
+		return digests.size();
+	}
+	
+	/**
+	 * Computes the hash of a test case. The hash covers the given values 
+	 * and the digests of all given classes. Classes, which are not on the 
+	 * class path, are included by their names.
+	 * 
+	 * @param values further values of the test case, e.g. the input version
+	 * @param classNames the names of the classes loaded by the test case
+	 * @return the hash as hexadecimal string
+	 */
+	public String getHash(List<String> values, Collection<String> classNames) {
+		MessageDigest digest = createDigest();
+		for (String value : values) {
+			update(digest, value);
+		}
+		
+		List<String> sortedNames = new ArrayList<>(classNames);
+		Collections.sort(sortedNames);
+		
+		for (String className : sortedNames) {
+			update(digest, className);
+			
+			byte[] classDigest = digests.get(className);
+			if (classDigest != null) {
+				digest.update((byte) 1);
+				digest.update(classDigest);
+			} else {
+				digest.update((byte) 0);
+			}
+		}
+		
+		return Digests.toHex(digest.digest());
+	}
+	
+	private static void update(MessageDigest digest, String value) {
+		byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+		digest.update(bytes);
+		digest.update((byte) 0);
+	}
+	
+	private static MessageDigest createDigest() {
+		return Digests.create(Digests.SHA_1);
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Creates message digests and converts their hashes into hexadecimal
+ * strings, as they are stored within an archive.
+ * <p>
+ * Two algorithms are used: {@link #SHA_1} for the hashes of output data,
+ * input fingerprints and class digests, which are only compared with
+ * each other, and {@link #SHA_256} for the keys of the
+ * {@link rtt.core.loader.BlobStore}, which identify stored files by their
+ * content.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class Digests {
+
+	public static final String SHA_1 = "SHA-1";
+	public static final String SHA_256 = "SHA-256";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private Digests() {}
+
+	/**
+	 * Creates a new digest for the given algorithm.
+	 *
+	 * @param algorithm the name of the algorithm, e.g. {@link #SHA_1}
+	 * @return a new {@link MessageDigest}
+	 * @throws IllegalStateException thrown, if the algorithm is not
+	 * 		available
+	 */
+	public static MessageDigest create(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Digest algorithm not available: " + algorithm, e);
+		}
+	}
+
+	/**
+	 * Converts the given hash into a string of lower case hexadecimal
+	 * digits.
+	 *
+	 * @param hash the hash
+	 * @return the hexadecimal string
+	 */
+	public static String toHex(byte[] hash) {
+		char[] chars = new char[hash.length * 2];
+		for (int i = 0; i < hash.length; i++) {
+			chars[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+			chars[i * 2 + 1] = HEX[hash[i] & 0xF];
+		}
+
+		return new String(chars);
+	}
+}
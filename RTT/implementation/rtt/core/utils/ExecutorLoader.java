@@ -1,5 +1,6 @@
 package rtt.core.utils;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -7,12 +8,35 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import rtt.core.archive.configuration.Classpath;
 
 public class ExecutorLoader implements AutoCloseable {
 	
+	/**
+	 * Records the names of all classes, which are searched on the class 
+	 * path. Classes of the parent loader are not searched.
+	 */
+	private static final class RecordingClassLoader extends URLClassLoader {
+		
+		private final Set<String> classNames = 
+				Collections.synchronizedSet(new HashSet<String>());
+		
+		public RecordingClassLoader(URL[] urls, ClassLoader parent) {
+			super(urls, parent);
+		}
+		
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			classNames.add(name);
+			return super.findClass(name);
+		}
+	}
+	
 	private URLClassLoader classLoader;
 
 	public Class<?> resolveClass(String className) throws ClassNotFoundException {
@@ -24,6 +48,22 @@ public class ExecutorLoader implements AutoCloseable {
 	}
 
 	public ExecutorLoader(Classpath classpath, String baseDir) throws MalformedURLException {
+		this(classpath, baseDir, false);
+	}
+	
+	/**
+	 * Creates a new loader for the given class path.
+	 * 
+	 * @param classpath the class path of a configuration
+	 * @param baseDir the base directory of relative class path entries
+	 * @param recordClasses {@code true}, if the names of all classes loaded
+	 * 		from the class path should be recorded
+	 * @throws MalformedURLException thrown, if an entry is not a valid URL
+	 * @see #getLoadedClasses()
+	 */
+	public ExecutorLoader(Classpath classpath, String baseDir, 
+			boolean recordClasses) throws MalformedURLException {
+		
 		List<URL> urls = new ArrayList<URL>();
 		Path basePath = Paths.get(baseDir);		
 		
@@ -38,17 +78,43 @@ public class ExecutorLoader implements AutoCloseable {
 			} 
 		}
 		
-		classLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]), 
-				Thread.currentThread().getContextClassLoader());
+		URL[] urlArray = urls.toArray(new URL[urls.size()]);
+		ClassLoader parent = Thread.currentThread().getContextClassLoader();
+		
+		if (recordClasses) {
+			classLoader = new RecordingClassLoader(urlArray, parent);
+		} else {
+			classLoader = new URLClassLoader(urlArray, parent);
+		}
+	}
+	
+	/**
+	 * Returns the names of all classes, which have been loaded from the 
+	 * class path of this loader. This includes classes, which have been 
+	 * requested but not found. Classes of the parent loader are not 
+	 * contained. 
+	 * 
+	 * @return the names of the loaded classes, or an empty set, 
+	 * 		if classes are not recorded
+	 */
+	public Set<String> getLoadedClasses() {
+		if (classLoader instanceof RecordingClassLoader) {
+			Set<String> classNames = ((RecordingClassLoader) classLoader).classNames;
+			synchronized (classNames) {
+				return new HashSet<>(classNames);
+			}
+		}
+		
+		return Collections.emptySet();
 	}
 
-	private Path resolveEntry(String entry, Path basePath) {
+	static Path resolveEntry(String entry, Path basePath) {
 		Path entryPath = basePath.resolve(entry);
 		return entryPath.toAbsolutePath().normalize();
 	}
 
 	@Override
-	public void close() throws Exception {
+	public void close() throws IOException {
 		if (classLoader != null) {
 			classLoader.close();
 			classLoader = null;
@@ -0,0 +1,185 @@
+package rtt.core.utils;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import rtt.core.archive.configuration.Classpath;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+
+/**
+ * Caches {@link ExecutorLoader}s by their resolved class path entries, so 
+ * all test suites and configurations with the same class path share one 
+ * loader and its loaded classes within a session.
+ * <p>
+ * Each loader is stored with the modification stamps of its class path 
+ * entries. If an entry has changed since the loader has been created, the
+ * loader will be closed and replaced by a new one. All loaders are closed,
+ * when the cache is closed.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ * 
+ */
+public final class ExecutorLoaderCache implements AutoCloseable {
+	
+	/**
+	 * Identifies a loader by its class path entries and its parent loader.
+	 */
+	private static final class LoaderKey {
+		
+		private final List<Path> entries;
+		private final ClassLoader parent;
+		
+		public LoaderKey(List<Path> entries, ClassLoader parent) {
+			this.entries = entries;
+			this.parent = parent;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (obj instanceof LoaderKey) {
+				LoaderKey key = (LoaderKey) obj;
+				return entries.equals(key.entries) && parent == key.parent;
+			}
+			
+			return false;
+		}
+		
+		@Override
+		public int hashCode() {
+			return entries.hashCode() * 31 + System.identityHashCode(parent);
+		}
+	}
+	
+	private static final class CachedLoader {
+		
+		private final ExecutorLoader loader;
+		private final List<Long> stamps;
+		
+		public CachedLoader(ExecutorLoader loader, List<Long> stamps) {
+			this.loader = loader;
+			this.stamps = stamps;
+		}
+	}
+	
+	private Map<LoaderKey, CachedLoader> loaders = new HashMap<>();
+	
+	/**
+	 * Returns a loader for the given class path. A cached loader will be 
+	 * returned, if none of the class path entries has been changed.
+	 * 
+	 * @param classpath the class path of a configuration
+	 * @param baseDir the base directory of relative class path entries
+	 * @return a loader for the class path
+	 * @throws IOException thrown, if a class path entry could not be read
+	 */
+	public synchronized ExecutorLoader getLoader(Classpath classpath, 
+			String baseDir) throws IOException {
+		
+		if (loaders == null) {
+			throw new IllegalStateException("The loader cache has been closed.");
+		}
+		
+		List<Path> entries = new ArrayList<>();
+		if (classpath != null && classpath.getPath() != null) {
+			Path basePath = Paths.get(baseDir);
+			for (String entry : classpath.getPath()) {
+				entries.add(ExecutorLoader.resolveEntry(entry, basePath));
+			}
+		}
+		
+		List<Long> stamps = new ArrayList<>();
+		for (Path entry : entries) {
+			stamps.add(getStamp(entry));
+		}
+		
+		LoaderKey key = new LoaderKey(entries, 
+				Thread.currentThread().getContextClassLoader());
+		
+		CachedLoader cachedLoader = loaders.get(key);
+		if (cachedLoader != null) {
+			if (cachedLoader.stamps.equals(stamps)) {
+				Metrics.increment(Counter.LOADER_CACHE_HITS);
+				return cachedLoader.loader;
+			}
+			
+			RTTLogging.debug("Class path has changed, reloading classes: " + entries);
+			closeLoader(cachedLoader.loader);
+		}
+		
+		ExecutorLoader loader = new ExecutorLoader(classpath, baseDir);
+		loaders.put(key, new CachedLoader(loader, stamps));
+		
+		return loader;
+	}
+	
+	/**
+	 * Returns the number of cached loaders.
+	 * 
+	 * @return the number of loaders
+	 */
+	public synchronized int size() {
+		return loaders != null ? loaders.size() : 0;
+	}
+	
+	/**
+	 * Returns the latest modification time of the given entry. For a 
+	 * directory, all contained files are considered.
+	 */
+	private static long getStamp(Path entry) throws IOException {
+		if (!Files.exists(entry)) {
+			return -1;
+		}
+		
+		if (!Files.isDirectory(entry)) {
+			return Files.getLastModifiedTime(entry).toMillis() ^ (Files.size(entry) << 32);
+		}
+		
+		final long[] stamp = {0, 0};
+		Files.walkFileTree(entry, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				stamp[0] = Math.max(stamp[0], attrs.lastModifiedTime().toMillis());
+				return FileVisitResult.CONTINUE;
+			}
+			
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				stamp[0] = Math.max(stamp[0], attrs.lastModifiedTime().toMillis());
+				stamp[1]++;
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		
+		// removed files don't change the latest modification time
+		return stamp[0] ^ (stamp[1] << 48);
+	}
+	
+	private static void closeLoader(ExecutorLoader loader) {
+		try {
+			loader.close();
+		} catch (IOException e) {
+			RTTLogging.warn("Could not close class loader: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (loaders != null) {
+			for (CachedLoader cachedLoader : loaders.values()) {
+				closeLoader(cachedLoader.loader);
+			}
+			
+			loaders = null;
+		}
+	}
+}
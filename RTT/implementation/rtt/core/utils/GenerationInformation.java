@@ -3,7 +3,9 @@ package rtt.core.utils;
 import java.util.ArrayList;
 import java.util.List;
 
+import rtt.core.archive.history.ExecutionCost;
 import rtt.core.archive.logging.Detail;
+import rtt.core.testing.generation.GenerationStatistics;
 
 public class GenerationInformation {
 	
@@ -20,7 +22,12 @@ public class GenerationInformation {
 	public static class GenerationResult {
 		public boolean noError = false;
 		public boolean hasReplaced = false;
+		public boolean fromCache = false;
+		public boolean timedOut = false;
+		public boolean cancelled = false;
 		public Throwable exception = null;
+		public GenerationStatistics statistics = null;
+		public ExecutionCost cost = null;
 
 		public String suiteName;
 		public String caseName;
@@ -35,8 +42,12 @@ public class GenerationInformation {
 			String message = type.text + " for test [" + suiteName + "/"
 					+ caseName + "]";
 
-			if (noError) {
-				if (hasReplaced) {
+			if (cancelled) {
+				message += " has been cancelled.";
+			} else if (noError) {
+				if (fromCache) {
+					message += " has been reused, because its input, parameters and class path did not change.";
+				} else if (hasReplaced) {
 					message += " has been generated.";
 				} else {
 					message += " has not changed.";
@@ -59,7 +70,7 @@ public class GenerationInformation {
 				if (hasReplaced) {
 					priority = 1;
 				}
-			} else {
+			} else if (!cancelled) {
 				priority = 2;				
 			}
 			
@@ -82,7 +93,7 @@ public class GenerationInformation {
 
 	public void addResult(GenerationResult info) {
 		info.type = this.type;
-		if (info.exception != null) {
+		if (info.exception != null && !info.cancelled) {
 			hasError = true;
 		}
 
@@ -102,7 +113,7 @@ public class GenerationInformation {
 			returnList.addAll(resultList);
 		} else {
 			for (GenerationResult result : resultList) {
-				if (result.exception != null) {
+				if (result.exception != null && !result.cancelled) {
 					returnList.add(result);
 				}
 			}
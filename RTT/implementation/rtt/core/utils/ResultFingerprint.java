@@ -0,0 +1,137 @@
+package rtt.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import rtt.core.archive.configuration.Classpath;
+import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.input.Input;
+
+/**
+ * Computes the keys of generated output data. A key covers everything, 
+ * which influences the generation of a single test case: the content of 
+ * the input, the parameters, the initial node and the contents of all 
+ * files on the class path of the configuration. If the key of a test case
+ * has not changed since its last generation, the stored output data can 
+ * be reused instead of executing the initial node again.
+ * <p>
+ * The class path is read once, when the fingerprint is created. Classes, 
+ * which are not loaded from the class path of the configuration, are not 
+ * covered.
+ * 
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class ResultFingerprint {
+	
+	private byte[] configDigest;
+	
+	/**
+	 * Creates a new fingerprint for the given configuration and reads all
+	 * files on its class path.
+	 * 
+	 * @param config the configuration
+	 * @param baseDir the base directory of relative class path entries
+	 * @throws IOException thrown, if a class path entry could not be read
+	 */
+	public ResultFingerprint(Configuration config, String baseDir) throws IOException {
+		MessageDigest digest = createDigest();
+		update(digest, config.getInitialNode());
+		
+		Classpath classpath = config.getClasspath();
+		if (classpath != null && classpath.getPath() != null) {
+			Path basePath = Paths.get(baseDir);
+			for (String entry : classpath.getPath()) {
+				update(digest, entry);
+				updateEntry(digest, ExecutorLoader.resolveEntry(entry, basePath));
+			}
+		}
+		
+		configDigest = digest.digest();
+	}
+	
+	/**
+	 * Returns the key for the generation of the given input.
+	 * 
+	 * @param input the input of a test case
+	 * @param params the parameters of a test case
+	 * @return the key as hexadecimal string
+	 */
+	public String getKey(Input input, List<String> params) {
+		MessageDigest digest = createDigest();
+		digest.update(configDigest);
+		
+		if (params != null) {
+			update(digest, String.valueOf(params.size()));
+			for (String param : params) {
+				update(digest, param);
+			}
+		}
+		
+		update(digest, input.getValue());
+		
+		return Digests.toHex(digest.digest());
+	}
+	
+	private static void updateEntry(MessageDigest digest, final Path entryPath) throws IOException {
+		if (!Files.exists(entryPath)) {
+			return;
+		}
+		
+		final List<Path> files = new ArrayList<>();
+		Files.walkFileTree(entryPath, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (attrs.isRegularFile()) {
+					files.add(entryPath.relativize(file));
+				}
+				
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		
+		// the order of a directory listing is not defined
+		Collections.sort(files);
+		
+		byte[] buffer = new byte[8192];
+		for (Path file : files) {
+			update(digest, file.toString());
+			
+			try (InputStream inputStream = Files.newInputStream(entryPath.resolve(file))) {
+				int length;
+				while ((length = inputStream.read(buffer)) != -1) {
+					digest.update(buffer, 0, length);
+				}
+			}
+		}
+	}
+	
+	private static void update(MessageDigest digest, String value) {
+		if (value == null) {
+			digest.update((byte) 0);
+			return;
+		}
+		
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		digest.update((byte) 1);
+		digest.update(new byte[] {(byte) (bytes.length >>> 24), 
+				(byte) (bytes.length >>> 16), (byte) (bytes.length >>> 8), 
+				(byte) bytes.length});
+		digest.update(bytes);
+	}
+	
+	private static MessageDigest createDigest() {
+		return Digests.create(Digests.SHA_1);
+	}
+}
@@ -0,0 +1,459 @@
+/**
+ * <copyright>
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the MIT license (X11 license) which accompanies this distribution.
+ *
+ * </copyright>
+ */
+package rtt.core.tests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import rtt.core.archive.Archive;
+import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.input.Input;
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+import rtt.core.archive.testsuite.Testcase;
+import rtt.core.archive.testsuite.VersionData;
+import rtt.core.manager.Manager;
+import rtt.core.manager.Manager.TestCaseMode;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+
+/**
+ * Synthesizes archives of a chosen shape for scale and soak testing,
+ * without executing a tested system. The archive contains a number of
+ * test suites with a number of test cases each, whose inputs, reference
+ * data and test data are written directly.
+ * <p>
+ * The configuration uses the {@link RepositoryGenerator} as initial node
+ * and the output data has the element structure, which the generator
+ * produces for a {@link RepositoryGenerator.Repository repository}: each
+ * repository consists of a value and a list of children. Unlike the
+ * generator, the shape is not taken from the input, but from the depth
+ * and fan-out of the synthesized tree, so the reference data is not
+ * reproduced by running the tests. The values of the repositories are
+ * the words of the input, the first word is the seed of the generator.
+ * <p>
+ * Each test case gets a history of the given length: every version
+ * changes a part of the input words and adds a new version of the input,
+ * reference and test data. A part of the values can be marked as
+ * informational. All random decisions depend on the seed only, so equal
+ * parameters result in equal archives.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * ArchiveGenerator --archive file [--suites 10] [--cases 100]
+ *                  [--input-size 64] [--depth 4] [--fan-out 4]
+ *                  [--informational 0.1] [--versions 1] [--changes 0.1]
+ *                  [--seed 1] [--format xml] [--delta-chain 0]
+ * </pre>
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public final class ArchiveGenerator {
+
+	public static final String CONFIG_NAME = "generated";
+
+	private static final String REPOSITORY_TYPE = RepositoryGenerator.Repository.class.getName();
+	private static final String LIST_TYPE = "java.util.Arrays$ArrayList";
+	private static final String WORD_CHARACTERS = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+	private int suites = 10;
+	private int cases = 100;
+	private int inputSize = 64;
+	private int depth = 4;
+	private int fanOut = 4;
+	private double informationalRatio = 0.1;
+	private int versions = 1;
+	private double changeRatio = 0.1;
+	private long seed = 1;
+	private OutputFormat format = OutputFormat.XML;
+	private int deltaChainLength = 0;
+
+	/**
+	 * @param suites the number of test suites
+	 * @param cases the number of test cases of each test suite
+	 */
+	public void setShape(int suites, int cases) {
+		if (suites < 1 || cases < 1) {
+			throw new IllegalArgumentException("At least one test suite and test case is required.");
+		}
+
+		this.suites = suites;
+		this.cases = cases;
+	}
+
+	/**
+	 * @param inputSize the number of words of each input
+	 */
+	public void setInputSize(int inputSize) {
+		if (inputSize < 1) {
+			throw new IllegalArgumentException("The input size must be at least 1.");
+		}
+
+		this.inputSize = inputSize;
+	}
+
+	/**
+	 * @param depth the number of repository levels, 1 results in a single
+	 * 		repository
+	 * @param fanOut the number of children of each inner repository
+	 */
+	public void setTree(int depth, int fanOut) {
+		if (depth < 1 || fanOut < 1) {
+			throw new IllegalArgumentException("Depth and fan-out must be at least 1.");
+		}
+
+		this.depth = depth;
+		this.fanOut = fanOut;
+	}
+
+	/**
+	 * @param informationalRatio the part of values marked as informational,
+	 * 		between 0 and 1
+	 */
+	public void setInformationalRatio(double informationalRatio) {
+		this.informationalRatio = checkRatio(informationalRatio);
+	}
+
+	/**
+	 * @param versions the length of the history of each test case
+	 * @param changeRatio the part of input words changed by each version,
+	 * 		between 0 and 1
+	 */
+	public void setHistory(int versions, double changeRatio) {
+		if (versions < 1) {
+			throw new IllegalArgumentException("At least one version is required.");
+		}
+
+		this.versions = versions;
+		this.changeRatio = checkRatio(changeRatio);
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * @param format the format of the output data and of the archive
+	 */
+	public void setOutputFormat(OutputFormat format) {
+		this.format = format;
+	}
+
+	/**
+	 * @param deltaChainLength the maximum length of delta chains of the
+	 * 		output data and of the archive, 0 disables deltas
+	 */
+	public void setDeltaChainLength(int deltaChainLength) {
+		this.deltaChainLength = deltaChainLength;
+	}
+
+	/**
+	 * @return the number of output elements of a single output data
+	 */
+	public long getElementCount() {
+		long repositories = 0;
+		long level = 1;
+		for (int index = 0; index < depth; index++) {
+			repositories += level;
+			level *= fanOut;
+		}
+
+		// initial node, a value and a list of each repository and the list entries
+		return 1 + 3 * repositories;
+	}
+
+	/**
+	 * Creates a new archive at the given location. An existing archive will
+	 * be replaced.
+	 *
+	 * @param archiveFile the location of the archive
+	 * @throws Exception thrown, if the archive could not be created
+	 */
+	public void generate(File archiveFile) throws Exception {
+		if (archiveFile.exists() && !archiveFile.delete()) {
+			throw new IllegalStateException("Could not replace " + archiveFile);
+		}
+
+		Manager manager = new Manager(archiveFile, false, true);
+		try {
+			manager.createArchive(archiveFile);
+			manager.setConfiguration(CONFIG_NAME, RepositoryGenerator.class.getName(),
+					new ArrayList<String>(), true, true);
+			manager.setOutputFormat(format);
+			manager.setDeltaChainLength(deltaChainLength);
+
+			Archive archive = manager.getArchive();
+			Configuration config = archive.getConfiguration(CONFIG_NAME);
+
+			for (int suiteIndex = 1; suiteIndex <= suites; suiteIndex++) {
+				String suiteName = "suite" + suiteIndex;
+				archive.addTestsuite(suiteName);
+
+				for (int caseIndex = 1; caseIndex <= cases; caseIndex++) {
+					Random random = new Random(seed * 31 + suiteIndex * 1000003L + caseIndex);
+					addTestcase(archive, config, suiteName, "case" + caseIndex, random);
+				}
+			}
+
+			manager.saveArchive(archiveFile);
+		} finally {
+			manager.close();
+		}
+	}
+
+	private void addTestcase(Archive archive, Configuration config,
+			String suiteName, String caseName, Random random) throws Exception {
+
+		OutputDataManager refManager = new OutputDataManager(archive.getLoader(),
+				suiteName, caseName, config, OutputDataType.REFERENCE,
+				archive.getManifestManager());
+		OutputDataManager testManager = new OutputDataManager(archive.getLoader(),
+				suiteName, caseName, config, OutputDataType.TEST,
+				archive.getManifestManager());
+
+		refManager.setOutputFormat(format);
+		testManager.setOutputFormat(format);
+		refManager.setDeltaChainLength(deltaChainLength);
+		testManager.setDeltaChainLength(deltaChainLength);
+
+		// the informational values stay the same within the history
+		long informationalSeed = random.nextLong();
+
+		String[] words = new String[inputSize];
+		words[0] = String.valueOf(Math.abs(random.nextInt()));
+		for (int index = 1; index < inputSize; index++) {
+			words[index] = createWord(random);
+		}
+
+		for (int version = 1; version <= versions; version++) {
+			if (version > 1) {
+				boolean changed = false;
+				for (int index = 1; index < inputSize; index++) {
+					if (random.nextDouble() < changeRatio) {
+						words[index] = createWord(random);
+						changed = true;
+					}
+				}
+
+				// an unchanged input would not result in a new input version
+				if (!changed) {
+					int index = inputSize > 1 ? 1 + random.nextInt(inputSize - 1) : 0;
+					words[index] = words[index] + version;
+				}
+			}
+
+			Input input = new Input();
+			input.setValue(join(words));
+			archive.addTestcase(suiteName, caseName, input, TestCaseMode.OVERWRITE);
+
+			Testcase testcase = archive.getTestcase(suiteName, caseName);
+			Output output = createOutput(words, new Random(informationalSeed));
+
+			refManager.addData(output, testcase.getInputID());
+			testManager.addData(output, testcase.getInputID());
+		}
+
+		refManager.save();
+		testManager.save();
+
+		Testcase testcase = archive.getTestcase(suiteName, caseName);
+		VersionData versionData = archive.getVersionData(testcase, config.getName(), true);
+		versionData.setReferenceID(versions);
+		versionData.setTestID(versions);
+	}
+
+	/**
+	 * Creates the output data of the given input words. The repositories
+	 * get the words in breadth-first order, repeating them if the tree has
+	 * more repositories than words.
+	 */
+	public Output createOutput(String[] words, Random informational) {
+		Element initial = createElement("1", "Initial Node",
+				RepositoryGenerator.class.getName(), ElementType.NODE,
+				RepositoryGenerator.class.getName(), GeneratorType.OBJECT);
+
+		Element root = createRepository("1.1", "RepositoryGenerator.createRepository",
+				GeneratorType.METHOD);
+		initial.getElements().add(root);
+
+		List<Element> level = new ArrayList<>();
+		level.add(root);
+
+		int wordIndex = 0;
+		for (int levelIndex = 1; levelIndex <= depth; levelIndex++) {
+			List<Element> nextLevel = new ArrayList<>();
+
+			for (Element repository : level) {
+				Element value = createElement(repository.getAddress() + ".1", "Repository.value",
+						words[wordIndex++ % words.length], ElementType.VALUE,
+						"java.lang.String", GeneratorType.FIELD);
+
+				if (informational.nextDouble() < informationalRatio) {
+					value.setInformational(true);
+				}
+
+				Element children = createElement(repository.getAddress() + ".2",
+						"Repository.children", LIST_TYPE, ElementType.NODE,
+						LIST_TYPE, GeneratorType.METHOD);
+
+				if (levelIndex < depth) {
+					for (int child = 1; child <= fanOut; child++) {
+						Element childRepository = createRepository(
+								children.getAddress() + "." + child,
+								"Repository.children[" + child + "]", GeneratorType.ITERABLE);
+
+						children.getElements().add(childRepository);
+						nextLevel.add(childRepository);
+					}
+				}
+
+				repository.getElements().add(value);
+				repository.getElements().add(children);
+			}
+
+			level = nextLevel;
+		}
+
+		Output output = new Output();
+		output.setInitialElement(initial);
+
+		return output;
+	}
+
+	private static Element createRepository(String address, String name, GeneratorType generatedBy) {
+		return createElement(address, name, REPOSITORY_TYPE, ElementType.NODE,
+				REPOSITORY_TYPE, generatedBy);
+	}
+
+	private static Element createElement(String address, String name, String value,
+			ElementType type, String returnType, GeneratorType generatedBy) {
+
+		Element element = new Element();
+		element.setAddress(address);
+		element.setName(name);
+		element.setValue(value);
+		element.setElementType(type);
+		element.setReturnType(returnType);
+		element.setGeneratedBy(generatedBy);
+
+		return element;
+	}
+
+	private static String createWord(Random random) {
+		int length = 3 + random.nextInt(8);
+
+		StringBuilder builder = new StringBuilder(length);
+		for (int index = 0; index < length; index++) {
+			builder.append(WORD_CHARACTERS.charAt(random.nextInt(WORD_CHARACTERS.length())));
+		}
+
+		return builder.toString();
+	}
+
+	private static String join(String[] words) {
+		StringBuilder builder = new StringBuilder();
+		for (String word : words) {
+			if (builder.length() > 0) {
+				builder.append(' ');
+			}
+
+			builder.append(word);
+		}
+
+		return builder.toString();
+	}
+
+	private static double checkRatio(double ratio) {
+		if (ratio < 0 || ratio > 1) {
+			throw new IllegalArgumentException("A ratio must be between 0 and 1.");
+		}
+
+		return ratio;
+	}
+
+	public static void main(String[] args) throws Exception {
+		ArchiveGenerator generator = new ArchiveGenerator();
+		File archive = null;
+
+		int suites = generator.suites;
+		int cases = generator.cases;
+		int depth = generator.depth;
+		int fanOut = generator.fanOut;
+		int versions = generator.versions;
+		double changeRatio = generator.changeRatio;
+
+		for (int index = 0; index + 1 < args.length; index += 2) {
+			String value = args[index + 1];
+			switch (args[index]) {
+			case "--archive":
+				archive = new File(value);
+				break;
+			case "--suites":
+				suites = Integer.parseInt(value);
+				break;
+			case "--cases":
+				cases = Integer.parseInt(value);
+				break;
+			case "--input-size":
+				generator.setInputSize(Integer.parseInt(value));
+				break;
+			case "--depth":
+				depth = Integer.parseInt(value);
+				break;
+			case "--fan-out":
+				fanOut = Integer.parseInt(value);
+				break;
+			case "--informational":
+				generator.setInformationalRatio(Double.parseDouble(value));
+				break;
+			case "--versions":
+				versions = Integer.parseInt(value);
+				break;
+			case "--changes":
+				changeRatio = Double.parseDouble(value);
+				break;
+			case "--seed":
+				generator.setSeed(Long.parseLong(value));
+				break;
+			case "--format":
+				generator.setOutputFormat(OutputFormat.fromValue(value.toUpperCase(Locale.ROOT)));
+				break;
+			case "--delta-chain":
+				generator.setDeltaChainLength(Integer.parseInt(value));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + args[index]);
+			}
+		}
+
+		if (archive == null) {
+			throw new IllegalArgumentException("The option --archive is required.");
+		}
+
+		generator.setShape(suites, cases);
+		generator.setTree(depth, fanOut);
+		generator.setHistory(versions, changeRatio);
+
+		long start = System.nanoTime();
+		generator.generate(archive);
+		long millis = (System.nanoTime() - start) / 1000000;
+
+		System.out.println(String.format(Locale.ROOT,
+				"Generated %d test cases with %d versions of %d elements in %d ms, %d bytes",
+				suites * cases, versions, generator.getElementCount(), millis, archive.length()));
+	}
+}
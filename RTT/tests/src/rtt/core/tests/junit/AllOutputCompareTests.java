@@ -9,11 +9,16 @@ import rtt.core.tests.junit.compare.CompareElementTests;
 import rtt.core.tests.junit.compare.CompareNodeInformationalTests;
 import rtt.core.tests.junit.compare.CompareNodeTests;
 import rtt.core.tests.junit.compare.CompareOutputTests;
+import rtt.core.tests.junit.compare.ElementHasherTests;
+import rtt.core.tests.junit.compare.FullDiffTests;
+import rtt.core.tests.junit.compare.StreamingCompareTests;
 
 @RunWith(Suite.class)
 @SuiteClasses({ CompareOutputTests.class, 
 	CompareElementTests.class, CompareElementInformationalTests.class,
-	CompareNodeTests.class, CompareNodeInformationalTests.class})
+	CompareNodeTests.class, CompareNodeInformationalTests.class,
+	StreamingCompareTests.class, ElementHasherTests.class,
+	FullDiffTests.class})
 public class AllOutputCompareTests {
 
 }
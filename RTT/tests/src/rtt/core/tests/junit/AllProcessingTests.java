@@ -7,6 +7,7 @@ import org.junit.runners.Suite.SuiteClasses;
 import rtt.core.tests.junit.annotations.IndexedFieldProcessingTests;
 import rtt.core.tests.junit.annotations.FieldProcessingTests;
 import rtt.core.tests.junit.annotations.IndexedMethodProcessingTests;
+import rtt.core.tests.junit.annotations.MemberAccessTests;
 import rtt.core.tests.junit.annotations.MethodProcessingTests;
 import rtt.core.tests.junit.annotations.NamedFieldProcessingTests;
 import rtt.core.tests.junit.annotations.NamedMethodProcessingTests;
@@ -15,7 +16,8 @@ import rtt.core.tests.junit.annotations.NamedMethodProcessingTests;
 @SuiteClasses({ FieldProcessingTests.class, 
 	IndexedFieldProcessingTests.class, NamedFieldProcessingTests.class,
 	MethodProcessingTests.class, 
-	IndexedMethodProcessingTests.class, NamedMethodProcessingTests.class})
+	IndexedMethodProcessingTests.class, NamedMethodProcessingTests.class,
+	MemberAccessTests.class})
 public class AllProcessingTests {
 
 }
@@ -4,13 +4,35 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import rtt.core.tests.junit.core.ArchiveGeneratorTests;
+import rtt.core.tests.junit.core.BatchCommitTests;
+import rtt.core.tests.junit.core.BlobStoreTests;
 import rtt.core.tests.junit.core.DataGeneratorTests;
+import rtt.core.tests.junit.core.ExecutorLoaderCacheTests;
+import rtt.core.tests.junit.core.ImpactSelectionTests;
+import rtt.core.tests.junit.core.JAXBRegistryTests;
 import rtt.core.tests.junit.core.ManagerInitializeTests;
+import rtt.core.tests.junit.core.ManifestTests;
+import rtt.core.tests.junit.core.ManagerParallelTests;
+import rtt.core.tests.junit.core.MetricsTests;
+import rtt.core.tests.junit.core.OutputCodecTests;
+import rtt.core.tests.junit.core.OutputDeltaTests;
+import rtt.core.tests.junit.core.OutputIndexTests;
+import rtt.core.tests.junit.core.PerformanceTests;
+import rtt.core.tests.junit.core.TestsuiteIndexTests;
+import rtt.core.tests.junit.core.TimeoutTests;
+import rtt.core.tests.junit.core.WorkerPoolTests;
 
 @RunWith(Suite.class)
 @SuiteClasses({ AllExecutorTests.class, AllOutputCompareTests.class,
 		AllProcessingTests.class, ManagerInitializeTests.class,
-		DataGeneratorTests.class})
+		ManagerParallelTests.class, BatchCommitTests.class,
+		DataGeneratorTests.class, TestsuiteIndexTests.class,
+		ImpactSelectionTests.class, ExecutorLoaderCacheTests.class,
+		TimeoutTests.class, WorkerPoolTests.class, PerformanceTests.class,
+		ArchiveGeneratorTests.class, MetricsTests.class, OutputCodecTests.class,
+		BlobStoreTests.class, OutputDeltaTests.class,
+		OutputIndexTests.class, ManifestTests.class, JAXBRegistryTests.class})
 public class AllTests {
 
 }
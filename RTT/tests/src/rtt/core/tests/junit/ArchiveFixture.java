@@ -0,0 +1,277 @@
+package rtt.core.tests.junit;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.rules.ExternalResource;
+
+import rtt.annotations.Node;
+import rtt.core.exceptions.RTTException;
+import rtt.core.manager.Manager;
+import rtt.core.manager.Manager.TestCaseMode;
+
+/**
+ * A rule, which provides a temporary folder for input files and archives
+ * and creates managers for archives with a single configuration. All
+ * managers created by this rule, which are still open, are closed and the
+ * temporary folder is deleted after each test.
+ *
+ * @author Christian Oelsner <C.Oelsner@gmail.com>
+ *
+ */
+public class ArchiveFixture extends ExternalResource {
+
+	public static final String SUITE_NAME = "suite";
+	public static final String CONFIG_NAME = "config";
+
+	/**
+	 * A node with the first line of its input as value.
+	 */
+	@Node
+	public static class LineNode {
+
+		@Node.Value
+		public String line;
+
+		@Node.Initialize
+		public LineNode(InputStream is) throws Exception {
+			line = new BufferedReader(new InputStreamReader(is)).readLine();
+		}
+	}
+
+	/**
+	 * A node with the words of the first line of its input as value.
+	 */
+	@Node
+	public static class WordNode {
+
+		@Node.Value
+		public List<String> words = new ArrayList<>();
+
+		@Node.Initialize
+		public WordNode(InputStream is) throws Exception {
+			for (String word : new BufferedReader(new InputStreamReader(is)).readLine().split(" ")) {
+				words.add(word);
+			}
+		}
+	}
+
+	private String prefix;
+	private Path folder;
+	private List<Manager> managers = new ArrayList<>();
+
+	/**
+	 * @param prefix the prefix of the temporary folder
+	 */
+	public ArchiveFixture(String prefix) {
+		this.prefix = prefix;
+	}
+
+	@Override
+	protected void before() throws Throwable {
+		folder = Files.createTempDirectory(prefix);
+	}
+
+	@Override
+	protected void after() {
+		try {
+			for (Manager manager : managers) {
+				if (manager.getArchive() != null) {
+					manager.close();
+				}
+			}
+		} finally {
+			managers.clear();
+			deleteFolder();
+		}
+	}
+
+	private void deleteFolder() {
+		try {
+			Files.walkFileTree(folder, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					Files.delete(file);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+					Files.delete(dir);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			throw new RuntimeException("Could not delete temporary folder '" + folder + "'.", e);
+		}
+	}
+
+	/**
+	 * @return the temporary folder of the current test
+	 */
+	public Path getFolder() {
+		return folder;
+	}
+
+	/**
+	 * @return the default archive within the temporary folder
+	 */
+	public File getArchive() {
+		return folder.resolve("archive.zip").toFile();
+	}
+
+	/**
+	 * Writes an input file with the given content. The name of the test
+	 * case will be the given name.
+	 *
+	 * @param name the name of the input file without extension
+	 * @param content the content of the input file
+	 * @return the input file
+	 * @throws IOException thrown, if the file could not be written
+	 */
+	public File writeInput(String name, String content) throws IOException {
+		Path inputFile = folder.resolve(name + ".txt");
+		Files.write(inputFile, content.getBytes(StandardCharsets.UTF_8));
+
+		return inputFile.toFile();
+	}
+
+	/**
+	 * Writes an input file for each given name, which contains the name.
+	 *
+	 * @param names the names of the input files
+	 * @return the input files
+	 * @throws IOException thrown, if a file could not be written
+	 */
+	public List<File> writeInputs(String... names) throws IOException {
+		List<File> inputFiles = new ArrayList<>();
+		for (String name : names) {
+			inputFiles.add(writeInput(name, name));
+		}
+
+		return inputFiles;
+	}
+
+	/**
+	 * Copies the test cases of the given test sets from "tests/testsets"
+	 * into the temporary folder. The test cases of each test set are
+	 * prefixed with the name of the test set.
+	 *
+	 * @param testsets the names of the test sets
+	 * @return the copied input files
+	 * @throws IOException thrown, if a file could not be copied
+	 */
+	public List<File> copyTestsets(String... testsets) throws IOException {
+		List<File> inputFiles = new ArrayList<>();
+		for (String testset : testsets) {
+			Path testsetFolder = Paths.get("tests/testsets/", testset);
+			for (int i = 1; i <= 3; i++) {
+				Path input = folder.resolve(testset + i + ".testcase");
+				if (Files.notExists(input)) {
+					Files.copy(testsetFolder.resolve(i + ".testcase"), input);
+				}
+
+				inputFiles.add(input.toFile());
+			}
+		}
+
+		return inputFiles;
+	}
+
+	/**
+	 * Creates the default archive with the configuration
+	 * {@link #CONFIG_NAME} and adds the given input files to the test
+	 * suite {@link #SUITE_NAME}.
+	 *
+	 * @param initialNode the initial node of the configuration
+	 * @param inputFiles the input files
+	 * @return the manager of the archive
+	 * @throws Exception thrown, if the archive could not be created
+	 */
+	public Manager createManager(Class<?> initialNode, List<File> inputFiles) throws Exception {
+		return createManager(getArchive(), initialNode.getName(),
+				new ArrayList<String>(), inputFiles);
+	}
+
+	/**
+	 * Creates an archive with the configuration {@link #CONFIG_NAME} and
+	 * adds the given input files to the test suite {@link #SUITE_NAME}.
+	 *
+	 * @param archive the archive file
+	 * @param initialNode the name of the initial node
+	 * @param classpath the class path of the configuration
+	 * @param inputFiles the input files
+	 * @return the manager of the archive
+	 * @throws Exception thrown, if the archive could not be created or
+	 * 		an input file could not be added
+	 */
+	public Manager createManager(File archive, String initialNode,
+			List<String> classpath, List<File> inputFiles) throws Exception {
+
+		Manager manager = new Manager(archive, false);
+		managers.add(manager);
+
+		manager.createArchive(archive);
+		manager.setConfiguration(CONFIG_NAME, initialNode, classpath, true, false);
+
+		List<RTTException> failed = manager.addAllFiles(inputFiles, SUITE_NAME, TestCaseMode.SKIP);
+		if (!failed.isEmpty()) {
+			throw new IllegalStateException("Could not add input files " + failed + ".");
+		}
+
+		return manager;
+	}
+
+	/**
+	 * Opens the default archive.
+	 *
+	 * @return the manager of the archive
+	 * @throws Exception thrown, if the archive could not be loaded
+	 */
+	public Manager openManager() throws Exception {
+		return openManager(getArchive());
+	}
+
+	/**
+	 * Opens the given archive.
+	 *
+	 * @param archive the archive file
+	 * @return the manager of the archive
+	 * @throws Exception thrown, if the archive could not be loaded
+	 */
+	public Manager openManager(File archive) throws Exception {
+		Manager manager = new Manager(archive, false);
+		managers.add(manager);
+
+		manager.loadArchive(archive);
+
+		return manager;
+	}
+
+	/**
+	 * Saves and closes the given manager of the default archive and opens
+	 * the archive again.
+	 *
+	 * @param manager the manager of the default archive
+	 * @return the new manager of the archive
+	 * @throws Exception thrown, if the archive could not be saved or loaded
+	 */
+	public Manager reload(Manager manager) throws Exception {
+		manager.saveArchive(getArchive());
+		manager.close();
+
+		return openManager();
+	}
+}
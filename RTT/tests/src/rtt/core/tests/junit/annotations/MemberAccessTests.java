@@ -0,0 +1,215 @@
+package rtt.core.tests.junit.annotations;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import rtt.annotations.Node.Initialize;
+import rtt.annotations.Node.Value;
+import rtt.annotations.processing.InitMember;
+import rtt.annotations.processing.ValueMember;
+
+/**
+ * Tests the access of value and initializing members. All members 
+ * should behave like {@link java.lang.reflect.Method#invoke(Object, Object...)}: 
+ * exceptions of the member are wrapped into an 
+ * {@link InvocationTargetException}, a missing or wrong object causes a 
+ * {@link NullPointerException} or an {@link IllegalArgumentException}.
+ */
+@SuppressWarnings("unused")
+public class MemberAccessTests {
+
+	public static class AccessClass {
+		@Value private String field = "field";
+		@Value private static String staticField = "static";
+		
+		@Value private String getMethod() {
+			return "method";
+		}
+		
+		@Value private static int getStaticMethod() {
+			return 42;
+		}
+		
+		@Value private String getFailingMethod() {
+			throw new IllegalStateException("failing method");
+		}
+		
+		@Value private String getFailingError() {
+			throw new AssertionError("failing error");
+		}
+	}
+	
+	public static class ConstructorClass {
+		private String input;
+		private List<String> params;
+		
+		@Initialize
+		public ConstructorClass(InputStream input) throws Exception {
+			this.input = read(input);
+		}
+		
+		@Initialize(withParams=true)
+		public ConstructorClass(InputStream input, String[] params) throws Exception {
+			this.input = read(input);
+			this.params = Arrays.asList(params);
+		}
+	}
+	
+	public static class MethodClass {
+		private String input;
+		
+		@Initialize
+		public void init(InputStream input) throws Exception {
+			this.input = read(input);
+		}
+		
+		@Initialize
+		public void fail(InputStream input) {
+			throw new IllegalStateException("failing initialize");
+		}
+	}
+	
+	public static class FailingConstructorClass {
+		@Initialize
+		public FailingConstructorClass(InputStream input) {
+			throw new IllegalStateException("failing constructor");
+		}
+	}
+	
+	private static String read(InputStream input) throws Exception {
+		StringBuilder builder = new StringBuilder();
+		int character;
+		while ((character = input.read()) != -1) {
+			builder.append((char) character);
+		}
+		
+		return builder.toString();
+	}
+	
+	private static InputStream createInput(String content) {
+		return new ByteArrayInputStream(content.getBytes());
+	}
+	
+	private static ValueMember<?> getField(String name) throws Exception {
+		return ValueMember.create(AccessClass.class.getDeclaredField(name));
+	}
+	
+	private static ValueMember<?> getMethod(String name) throws Exception {
+		return ValueMember.create(AccessClass.class.getDeclaredMethod(name));
+	}
+	
+	private static void assertWrapped(ValueMember<?> member, Class<? extends Throwable> causeType) 
+			throws Exception {
+		
+		try {
+			member.getResult(new AccessClass());
+			fail("Expected an InvocationTargetException.");
+		} catch (InvocationTargetException exception) {
+			assertEquals(causeType, exception.getCause().getClass());
+		}
+	}
+	
+	@Test
+	public void testField() throws Exception {
+		assertEquals("field", getField("field").getResult(new AccessClass()));
+		assertEquals("static", getField("staticField").getResult(null));
+		assertEquals("static", getField("staticField").getResult(new AccessClass()));
+	}
+	
+	@Test
+	public void testMethod() throws Exception {
+		assertEquals("method", getMethod("getMethod").getResult(new AccessClass()));
+		assertEquals(42, getMethod("getStaticMethod").getResult(null));
+	}
+	
+	@Test
+	public void testFailingMethod() throws Exception {
+		assertWrapped(getMethod("getFailingMethod"), IllegalStateException.class);
+		assertWrapped(getMethod("getFailingError"), AssertionError.class);
+	}
+	
+	@Test(expected=NullPointerException.class)
+	public void testFieldWithoutObject() throws Exception {
+		getField("field").getResult(null);
+	}
+	
+	@Test(expected=NullPointerException.class)
+	public void testMethodWithoutObject() throws Exception {
+		getMethod("getMethod").getResult(null);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testFieldWithWrongObject() throws Exception {
+		getField("field").getResult("wrong object");
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testMethodWithWrongObject() throws Exception {
+		getMethod("getMethod").getResult("wrong object");
+	}
+	
+	@Test
+	public void testInitializeConstructor() throws Exception {
+		InitMember<?> member = InitMember.create(
+				ConstructorClass.class.getConstructor(InputStream.class));
+		
+		ConstructorClass result = (ConstructorClass) member.getResult(
+				createInput("input"), new ArrayList<String>());
+		assertEquals("input", result.input);
+		assertNull(result.params);
+		
+		member = InitMember.create(ConstructorClass.class.getConstructor(
+				InputStream.class, String[].class));
+		
+		result = (ConstructorClass) member.getResult(
+				createInput("params"), Arrays.asList("a", "b"));
+		assertEquals("params", result.input);
+		assertEquals(Arrays.asList("a", "b"), result.params);
+	}
+	
+	@Test
+	public void testInitializeMethod() throws Exception {
+		InitMember<?> member = InitMember.create(
+				MethodClass.class.getMethod("init", InputStream.class));
+		
+		MethodClass result = (MethodClass) member.getResult(
+				createInput("input"), new ArrayList<String>());
+		assertEquals("input", result.input);
+		
+		// the handles are bound once and reused
+		result = (MethodClass) member.getResult(
+				createInput("again"), new ArrayList<String>());
+		assertEquals("again", result.input);
+	}
+	
+	@Test
+	public void testFailingInitialize() throws Exception {
+		InitMember<?> member = InitMember.create(
+				MethodClass.class.getMethod("fail", InputStream.class));
+		
+		try {
+			member.getResult(createInput("input"), new ArrayList<String>());
+			fail("Expected an InvocationTargetException.");
+		} catch (InvocationTargetException exception) {
+			assertEquals(IllegalStateException.class, exception.getCause().getClass());
+		}
+		
+		member = InitMember.create(
+				FailingConstructorClass.class.getConstructor(InputStream.class));
+		
+		try {
+			member.getResult(createInput("input"), new ArrayList<String>());
+			fail("Expected an InvocationTargetException.");
+		} catch (InvocationTargetException exception) {
+			assertEquals(IllegalStateException.class, exception.getCause().getClass());
+		}
+	}
+}
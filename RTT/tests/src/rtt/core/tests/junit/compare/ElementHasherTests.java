@@ -0,0 +1,97 @@
+package rtt.core.tests.junit.compare;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static rtt.core.tests.junit.compare.StreamingCompareTests.createElement;
+import static rtt.core.tests.junit.compare.StreamingCompareTests.createOutput;
+import static rtt.core.tests.junit.compare.StreamingCompareTests.getElement;
+
+import org.junit.Test;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+import rtt.core.testing.compare.ElementHasher;
+import rtt.core.testing.compare.OutputCompare;
+
+public class ElementHasherTests {
+	
+	private static String hash(Output output) {
+		return ElementHasher.hash(output.getInitialElement());
+	}
+	
+	private static void assertHashMatchesCompare(Output reference, Output actual) {
+		boolean equal = OutputCompare.compareOutput(reference, actual, false).isEmpty();
+		assertEquals(equal, hash(reference).equals(hash(actual)));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullElement() throws Exception {
+		ElementHasher.hash(null);
+	}
+	
+	@Test
+	public void testEqualOutputs() throws Exception {
+		assertEquals(hash(createOutput(0, 0)), hash(createOutput(0, 0)));
+		assertEquals(hash(createOutput(3, 4)), hash(createOutput(3, 4)));
+		assertNotEquals(hash(createOutput(3, 4)), hash(createOutput(4, 3)));
+		
+		// SHA-1 as hexadecimal string
+		assertEquals(40, hash(createOutput(1, 1)).length());
+	}
+	
+	@Test
+	public void testDifferences() throws Exception {
+		Output reference = createOutput(3, 4);
+		
+		Output actual = createOutput(3, 4);
+		getElement(actual, 1, 2).setValue("otherValue");
+		assertHashMatchesCompare(reference, actual);
+		
+		actual = createOutput(3, 4);
+		getElement(actual, 2, 0).setName("otherName");
+		assertHashMatchesCompare(reference, actual);
+		
+		actual = createOutput(3, 4);
+		getElement(actual, 0, 3).setElementType(ElementType.REFERENCE);
+		assertHashMatchesCompare(reference, actual);
+		
+		actual = createOutput(3, 4);
+		getElement(actual, 0, 1).setGeneratedBy(GeneratorType.METHOD);
+		assertHashMatchesCompare(reference, actual);
+		
+		actual = createOutput(3, 4);
+		actual.getInitialElement().getElements().get(1).getElements().remove(3);
+		assertHashMatchesCompare(reference, actual);
+		
+		// values must not be shifted into an other element
+		actual = createOutput(3, 4);
+		getElement(actual, 0, 0).setName("Value 1v");
+		getElement(actual, 0, 0).setValue("1");
+		assertFalse(hash(reference).equals(hash(actual)));
+	}
+	
+	@Test
+	public void testInformationalElements() throws Exception {
+		Output reference = createOutput(3, 4);
+		
+		Output actual = createOutput(3, 4);
+		Element info = createElement("1.2.5", "Info", ElementType.VALUE, "info", true);
+		actual.getInitialElement().getElements().get(1).getElements().add(info);
+		
+		assertHashMatchesCompare(reference, actual);
+		assertEquals(hash(reference), hash(actual));
+		
+		info.setValue("otherInfo");
+		info.getElements().add(createElement("1.2.5.1", "Child", 
+				ElementType.VALUE, "child", true));
+		assertEquals(hash(reference), hash(actual));
+		
+		getElement(actual, 0, 0).setInformational(true);
+		assertHashMatchesCompare(reference, actual);
+		assertTrue(!hash(reference).equals(hash(actual)));
+	}
+}
@@ -0,0 +1,150 @@
+package rtt.core.tests.junit.compare;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static rtt.core.tests.junit.compare.StreamingCompareTests.createElement;
+import static rtt.core.tests.junit.compare.StreamingCompareTests.createOutput;
+import static rtt.core.tests.junit.compare.StreamingCompareTests.getElement;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.Output;
+import rtt.core.testing.compare.OutputCompare;
+import rtt.core.testing.compare.OutputCompare.CompareResult;
+import rtt.core.testing.compare.OutputCompare.CompareResult.Difference;
+import rtt.core.testing.compare.results.TestFailure;
+
+public class FullDiffTests {
+	
+	private static List<CompareResult> compareAll(Output reference, 
+			Output actual, int maxDifferences) {
+		
+		return new OutputCompare(false).compareAll(reference.getInitialElement(), 
+				actual.getInitialElement(), maxDifferences);
+	}
+	
+	@Test
+	public void testEqualOutputs() throws Exception {
+		List<TestFailure> failures = OutputCompare.compareOutput(
+				createOutput(10, 10), createOutput(10, 10), false, 100);
+		
+		assertTrue(failures.isEmpty());
+	}
+	
+	@Test
+	public void testFirstDifferenceOnly() throws Exception {
+		Output actual = createOutput(5, 5);
+		getElement(actual, 1, 1).setValue("changed");
+		getElement(actual, 3, 3).setValue("changed");
+		
+		List<TestFailure> failures = 
+				OutputCompare.compareOutput(createOutput(5, 5), actual, false, 1);
+		
+		assertEquals(1, failures.size());
+		assertEquals(OutputCompare.compareOutput(createOutput(5, 5), actual, false)
+				.get(0).getMessage(), failures.get(0).getMessage());
+	}
+	
+	@Test
+	public void testMultipleDifferences() throws Exception {
+		Output actual = createOutput(5, 5);
+		getElement(actual, 1, 1).setValue("changed");
+		getElement(actual, 3, 3).setValue("changed");
+		getElement(actual, 4, 0).setName("renamed");
+		
+		List<CompareResult> results = compareAll(createOutput(5, 5), actual, 100);
+		assertEquals(3, results.size());
+		
+		assertEquals(Difference.VALUE, results.get(0).getDifference());
+		assertEquals("1.2.2", results.get(0).getAddress());
+		assertEquals(Difference.VALUE, results.get(1).getDifference());
+		assertEquals("1.4.4", results.get(1).getAddress());
+		assertEquals(Difference.NAME, results.get(2).getDifference());
+		assertEquals("1.5.1", results.get(2).getAddress());
+	}
+	
+	@Test
+	public void testInsertedElement() throws Exception {
+		Output actual = createOutput(5, 5);
+		actual.getInitialElement().getElements().add(2, createElement(
+				"1.x", "Inserted", ElementType.NODE, "Node", false));
+		
+		List<CompareResult> results = compareAll(createOutput(5, 5), actual, 100);
+		assertEquals(1, results.size());
+		assertEquals(Difference.INSERTED, results.get(0).getDifference());
+		assertEquals("1.x", results.get(0).getAddress());
+	}
+	
+	@Test
+	public void testRemovedElement() throws Exception {
+		Output actual = createOutput(5, 5);
+		actual.getInitialElement().getElements().remove(0);
+		getElement(actual, 2, 2).setValue("changed");
+		
+		List<CompareResult> results = compareAll(createOutput(5, 5), actual, 100);
+		assertEquals(2, results.size());
+		
+		assertEquals(Difference.REMOVED, results.get(0).getDifference());
+		assertEquals("1.1", results.get(0).getAddress());
+		assertEquals(Difference.VALUE, results.get(1).getDifference());
+		assertEquals("1.4.3", results.get(1).getAddress());
+	}
+	
+	@Test
+	public void testShiftedCollectionItems() throws Exception {
+		Output reference = createOutput(0, 0);
+		Output actual = createOutput(0, 0);
+		
+		for (int i = 0; i < 5; i++) {
+			reference.getInitialElement().getElements().add(createElement(
+					"1." + (i + 1), "items[" + i + "]", ElementType.VALUE, "v" + i, false));
+			
+			// actual list has an additional first item
+			actual.getInitialElement().getElements().add(createElement(
+					"1." + (i + 2), "items[" + (i + 1) + "]", ElementType.VALUE, "v" + i, false));
+		}
+		
+		actual.getInitialElement().getElements().add(0, createElement(
+				"1.1", "items[0]", ElementType.VALUE, "new", false));
+		
+		List<CompareResult> results = compareAll(reference, actual, 100);
+		assertEquals(1, results.size());
+		assertEquals(Difference.INSERTED, results.get(0).getDifference());
+		assertEquals("1.1", results.get(0).getAddress());
+	}
+	
+	@Test
+	public void testInformationalIgnored() throws Exception {
+		Output actual = createOutput(3, 3);
+		Element informational = getElement(actual, 1, 1);
+		informational.setInformational(true);
+		Output reference = createOutput(3, 3);
+		getElement(reference, 1, 1).setInformational(true);
+		informational.setValue("changed");
+		
+		assertTrue(compareAll(reference, actual, 100).isEmpty());
+	}
+	
+	@Test
+	public void testMaximumDifferences() throws Exception {
+		Output actual = createOutput(10, 10);
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 10; j++) {
+				getElement(actual, i, j).setValue("changed");
+			}
+		}
+		
+		assertEquals(5, compareAll(createOutput(10, 10), actual, 5).size());
+		
+		List<TestFailure> failures = OutputCompare.compareOutput(
+				createOutput(10, 10), actual, false, 5);
+		
+		assertEquals(6, failures.size());
+		assertTrue(failures.get(0).getMessage().contains("[1.1.1] "));
+		assertTrue(failures.get(5).getMessage().contains("More than 5"));
+	}
+}
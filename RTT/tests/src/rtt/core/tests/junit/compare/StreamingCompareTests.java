@@ -0,0 +1,178 @@
+package rtt.core.tests.junit.compare;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.junit.Test;
+
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+import rtt.core.manager.data.JAXBRegistry;
+import rtt.core.testing.compare.OutputCompare;
+import rtt.core.testing.compare.StreamingOutputCompare;
+import rtt.core.testing.compare.results.TestFailure;
+
+public class StreamingCompareTests {
+	
+	static Element createElement(String address, String name, 
+			ElementType type, String value, boolean informational) {
+		
+		Element element = new Element();
+		element.setAddress(address);
+		element.setName(name);
+		element.setElementType(type);
+		element.setGeneratedBy(GeneratorType.FIELD);
+		element.setValue(value);
+		element.setInformational(informational);
+		element.setReturnType(String.class.getName());
+		
+		return element;
+	}
+	
+	static Output createOutput(int childCount, int grandChildCount) {
+		Element initialElement = createElement("1", "Initial Node", 
+				ElementType.NODE, "InitialNode", false);
+		
+		for (int i = 1; i <= childCount; i++) {
+			Element child = createElement("1." + i, "Child " + i, 
+					ElementType.NODE, "Node", false);
+			
+			for (int j = 1; j <= grandChildCount; j++) {
+				child.getElements().add(createElement("1." + i + "." + j, 
+						"Value " + j, ElementType.VALUE, "v" + j, false));
+			}
+			
+			initialElement.getElements().add(child);
+		}
+		
+		Output output = new Output();
+		output.setInitialElement(initialElement);
+		
+		return output;
+	}
+	
+	static Element getElement(Output output, int child, int grandChild) {
+		return output.getInitialElement().getElements().get(child)
+				.getElements().get(grandChild);
+	}
+	
+	private static ByteArrayInputStream toStream(Output output) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JAXBRegistry.getMarshaller(Output.class).marshal(output, outputStream);
+		
+		return new ByteArrayInputStream(outputStream.toByteArray());
+	}
+	
+	private static List<TestFailure> compare(Output reference, Output actual, 
+			boolean testInformational, boolean fullDiff) throws Exception {
+		
+		return new StreamingOutputCompare(testInformational, fullDiff)
+				.compare(toStream(reference), toStream(actual));
+	}
+	
+	private static void assertSameResult(Output reference, Output actual, 
+			boolean testInformational) throws Exception {
+		
+		List<TestFailure> expected = OutputCompare.compareOutput(
+				reference, actual, testInformational);
+		List<TestFailure> failures = compare(
+				reference, actual, testInformational, false);
+		
+		assertEquals(expected.size(), failures.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getMessage(), failures.get(i).getMessage());
+		}
+	}
+
+	@Test
+	public void testEqualOutputs() throws Exception {
+		assertSameResult(createOutput(0, 0), createOutput(0, 0), false);
+		assertSameResult(createOutput(3, 4), createOutput(3, 4), false);
+		assertSameResult(createOutput(3, 4), createOutput(3, 4), true);
+		
+		assertTrue(compare(createOutput(3, 4), createOutput(3, 4), true, true).isEmpty());
+	}
+	
+	@Test
+	public void testSingleDifferences() throws Exception {
+		Output reference = createOutput(3, 4);
+		
+		Output actual = createOutput(3, 4);
+		getElement(actual, 1, 2).setValue("otherValue");
+		assertSameResult(reference, actual, false);
+		
+		actual = createOutput(3, 4);
+		getElement(actual, 2, 0).setName("otherName");
+		assertSameResult(reference, actual, false);
+		
+		actual = createOutput(3, 4);
+		getElement(actual, 0, 3).setElementType(ElementType.REFERENCE);
+		assertSameResult(reference, actual, false);
+		
+		actual = createOutput(3, 4);
+		getElement(actual, 0, 1).setGeneratedBy(GeneratorType.METHOD);
+		assertSameResult(reference, actual, false);
+		
+		actual = createOutput(3, 4);
+		actual.getInitialElement().getElements().get(1).getElements().remove(3);
+		assertSameResult(reference, actual, false);
+		assertSameResult(actual, reference, false);
+		
+		actual = createOutput(4, 4);
+		assertSameResult(reference, actual, false);
+		assertSameResult(actual, reference, false);
+	}
+	
+	@Test
+	public void testInformationalElements() throws Exception {
+		Output reference = createOutput(3, 4);
+		
+		Output actual = createOutput(3, 4);
+		actual.getInitialElement().getElements().get(1).getElements().add(
+				createElement("1.2.5", "Info", ElementType.VALUE, "info", true));
+		
+		assertSameResult(reference, actual, false);
+		assertSameResult(reference, actual, true);
+		assertTrue(compare(reference, actual, false, false).isEmpty());
+		
+		getElement(reference, 0, 0).setInformational(true);
+		getElement(actual, 0, 0).setInformational(true);
+		getElement(actual, 0, 0).setValue("otherInfo");
+		
+		assertSameResult(reference, actual, false);
+		assertEquals(2, compare(reference, actual, true, true).size());
+	}
+	
+	@Test
+	public void testFullDiff() throws Exception {
+		Output reference = createOutput(3, 4);
+		
+		Output actual = createOutput(3, 4);
+		getElement(actual, 0, 1).setValue("otherValue");
+		getElement(actual, 1, 2).setName("otherName");
+		actual.getInitialElement().getElements().get(2).getElements().remove(3);
+		
+		assertEquals(1, compare(reference, actual, false, false).size());
+		
+		List<TestFailure> failures = compare(reference, actual, false, true);
+		assertEquals(3, failures.size());
+		assertTrue(failures.get(0).getMessage().contains("[1.1.2]"));
+		assertTrue(failures.get(1).getMessage().contains("[1.2.3]"));
+	}
+	
+	@Test
+	public void testMissingInitialElement() throws Exception {
+		Output reference = createOutput(1, 1);
+		Output actual = new Output();
+		
+		assertSameResult(reference, actual, false);
+		assertSameResult(actual, reference, false);
+		assertSameResult(new Output(), new Output(), false);
+	}
+}
@@ -0,0 +1,138 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.core.archive.Archive;
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.Output;
+import rtt.core.archive.testsuite.Testcase;
+import rtt.core.archive.testsuite.Testsuite;
+import rtt.core.archive.testsuite.VersionData;
+import rtt.core.manager.Manager;
+import rtt.core.manager.data.history.InputManager;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.tests.ArchiveGenerator;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.utils.GenerationInformation;
+
+public class ArchiveGeneratorTests {
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-generator");
+
+	private File archiveFile;
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		archiveFile = fixture.getArchive();
+	}
+
+	private static int countElements(Element element, boolean informational) {
+		int count = !informational || element.isInformational() ? 1 : 0;
+		for (Element child : element.getElements()) {
+			count += countElements(child, informational);
+		}
+
+		return count;
+	}
+
+	@Test
+	public void testArchiveShape() throws Exception {
+		ArchiveGenerator generator = new ArchiveGenerator();
+		generator.setShape(2, 3);
+		generator.setInputSize(8);
+		generator.setTree(3, 2);
+		generator.setHistory(3, 0.5);
+		generator.generate(archiveFile);
+
+		manager = fixture.openManager();
+		Archive archive = manager.getArchive();
+
+		List<Testsuite> suites = archive.getTestsuites();
+		assertEquals(2, suites.size());
+
+		for (Testsuite suite : suites) {
+			List<Testcase> cases = archive.getTestcases(suite.getName());
+			assertEquals(3, cases.size());
+
+			for (Testcase testcase : cases) {
+				assertEquals(3, testcase.getInputID());
+
+				VersionData versionData = archive.getVersionData(
+						testcase, ArchiveGenerator.CONFIG_NAME, false);
+				assertNotNull(versionData);
+				assertEquals(3, versionData.getReferenceID());
+				assertEquals(3, versionData.getTestID());
+
+				InputManager inputManager = new InputManager(archive.getLoader(),
+						suite.getName(), testcase.getName());
+				assertEquals(3, inputManager.getHistory().getVersion().size());
+				assertEquals(8, inputManager.getInput(3).getValue().split(" ").length);
+
+				OutputDataManager refManager = new OutputDataManager(archive.getLoader(),
+						suite.getName(), testcase.getName(),
+						archive.getConfiguration(ArchiveGenerator.CONFIG_NAME),
+						OutputDataType.REFERENCE);
+				assertEquals(3, refManager.getHistory().getVersion().size());
+
+				Output output = refManager.getOutputData(3);
+				assertNotNull(output);
+				assertEquals(generator.getElementCount(),
+						countElements(output.getInitialElement(), false));
+				assertNotNull(refManager.getOutputHash(3));
+			}
+		}
+	}
+
+	@Test
+	public void testInformationalRatio() throws Exception {
+		ArchiveGenerator generator = new ArchiveGenerator();
+		generator.setTree(5, 4);
+		generator.setInformationalRatio(0.5);
+
+		String[] words = {"1", "a", "b"};
+		Output output = generator.createOutput(words, new Random(1));
+
+		// 341 repositories with a single value each
+		int informational = countElements(output.getInitialElement(), true);
+		assertTrue(informational > 100 && informational < 240);
+
+		generator.setInformationalRatio(0);
+		output = generator.createOutput(words, new Random(1));
+		assertEquals(0, countElements(output.getInitialElement(), true));
+	}
+
+	@Test
+	public void testGeneratedArchiveRuns() throws Exception {
+		ArchiveGenerator generator = new ArchiveGenerator();
+		generator.setShape(1, 2);
+		generator.setTree(2, 2);
+		generator.generate(archiveFile);
+
+		manager = fixture.openManager();
+
+		List<String> suiteNames = new ArrayList<>();
+		for (Testsuite suite : manager.getArchive().getTestsuites()) {
+			suiteNames.add(suite.getName());
+		}
+
+		assertEquals(1, suiteNames.size());
+
+		// the tests are executed by the repository generator
+		GenerationInformation infos = manager.runTests(suiteNames.get(0), false);
+		assertEquals(2, infos.getResults(true).size());
+	}
+}
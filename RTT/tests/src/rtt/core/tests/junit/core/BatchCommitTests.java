@@ -0,0 +1,87 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import rtt.core.manager.Manager;
+import rtt.core.manager.Manager.TestCaseMode;
+
+public class BatchCommitTests {
+	
+	private static final String INPUT_ENTRY = "suite/1/input/input.1.src";
+	
+	private Path archivePath;
+	private List<File> inputFiles;
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		archivePath = Files.createTempDirectory("rtt-batch").resolve("archive.zip");
+		
+		inputFiles = new ArrayList<>();
+		inputFiles.add(Paths.get("tests/testsets/ccc/1.testcase").toFile());
+		
+		manager = new Manager(archivePath.toFile(), false, true);
+		manager.createArchive(archivePath.toFile());
+	}
+	
+	@After
+	public void tearDown() throws Exception {
+		if (manager != null) {
+			manager.close();
+		}
+		
+		Files.deleteIfExists(archivePath);
+		Files.deleteIfExists(archivePath.getParent());
+	}
+	
+	private boolean hasEntry(String entryName) throws Exception {
+		try (ZipFile zipFile = new ZipFile(archivePath.toFile())) {
+			return zipFile.getEntry(entryName) != null;
+		}
+	}
+
+	@Test
+	public void testArchiveUnchangedBeforeSave() throws Exception {
+		assertTrue(Files.exists(archivePath));
+		long size = Files.size(archivePath);
+		
+		manager.addAllFiles(inputFiles, "suite", TestCaseMode.SKIP);
+		
+		assertEquals(size, Files.size(archivePath));
+		assertFalse(hasEntry(INPUT_ENTRY));
+	}
+	
+	@Test
+	public void testStagedEntriesWrittenOnSave() throws Exception {
+		manager.addAllFiles(inputFiles, "suite", TestCaseMode.SKIP);
+		assertTrue(manager.getArchive().hasTestcase("suite", "1"));
+		
+		manager.saveArchive(archivePath.toFile());
+		
+		assertTrue(hasEntry(INPUT_ENTRY));
+		assertTrue(hasEntry("tsuite.xml"));
+	}
+	
+	@Test
+	public void testStagedEntriesWrittenOnClose() throws Exception {
+		manager.addAllFiles(inputFiles, "suite", TestCaseMode.SKIP);
+		manager.close();
+		manager = null;
+		
+		assertTrue(hasEntry(INPUT_ENTRY));
+	}
+}
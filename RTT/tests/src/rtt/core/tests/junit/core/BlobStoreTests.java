@@ -0,0 +1,205 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.core.archive.history.Version;
+import rtt.core.archive.output.Output;
+import rtt.core.loader.ArchiveLoader;
+import rtt.core.loader.BlobStore;
+import rtt.core.loader.LoaderUtils;
+import rtt.core.manager.Manager;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.MetricsSnapshot;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.tests.junit.ArchiveFixture.LineNode;
+
+public class BlobStoreTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	private static final String CONFIG_NAME = ArchiveFixture.CONFIG_NAME;
+	private static final String OTHER_CONFIG_NAME = "other";
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-blobs");
+
+	private File archive;
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		archive = fixture.getArchive();
+
+		// two test cases with equal inputs and one with a different input
+		List<File> inputFiles = new ArrayList<>();
+		inputFiles.add(fixture.writeInput("first", "equal line"));
+		inputFiles.add(fixture.writeInput("second", "equal line"));
+		inputFiles.add(fixture.writeInput("third", "other line"));
+
+		manager = fixture.createManager(LineNode.class, inputFiles);
+		// the configuration, which is set last, is active
+		manager.setConfiguration(OTHER_CONFIG_NAME, LineNode.class.getName(),
+				new ArrayList<String>(), false, false);
+		manager.setConfiguration(CONFIG_NAME, LineNode.class.getName(),
+				new ArrayList<String>(), true, false);
+	}
+
+	private OutputDataManager getDataManager(String caseName, String configName,
+			OutputDataType type) {
+
+		return new OutputDataManager(manager.getArchive().getLoader(), SUITE_NAME,
+				caseName, manager.getArchive().getConfiguration(configName), type);
+	}
+
+	private String getBlob(String caseName, String configName, OutputDataType type) {
+		Version version = getDataManager(caseName, configName, type).getHistory().getVersion().get(0);
+		return version.getBlob();
+	}
+
+	private List<String> getEntries(String prefix) throws Exception {
+		manager.saveArchive(archive);
+		manager.close();
+
+		List<String> entries = new ArrayList<>();
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry entry = zipEntries.nextElement();
+				if (!entry.isDirectory() && entry.getName().contains(prefix)) {
+					entries.add(entry.getName());
+				}
+			}
+		}
+
+		manager = fixture.openManager();
+
+		return entries;
+	}
+
+	@Test
+	public void testPut() throws Exception {
+		BlobStore store = manager.getArchive().getLoader().getBlobStore();
+		byte[] data = "blob content".getBytes(StandardCharsets.UTF_8);
+		String key = BlobStore.getKey(data);
+
+		assertEquals(64, key.length());
+		assertEquals(key, BlobStore.getKey("blob content".getBytes(StandardCharsets.UTF_8)));
+		assertFalse(key.equals(BlobStore.getKey(new byte[0])));
+
+		assertFalse(store.contains(key, "txt"));
+		assertNull(store.getInputStream(key, "txt"));
+
+		assertTrue(store.put(key, "txt", data));
+		assertFalse(store.put(key, "txt", data));
+		assertTrue(store.contains(key, "txt"));
+		assertFalse(store.contains(key, "xml"));
+
+		List<String> blobs = getEntries(BlobStore.BLOB_FOLDER + "/");
+		assertEquals(1, blobs.size());
+		assertEquals(BlobStore.BLOB_FOLDER + "/" + key.substring(0, 2) + "/" + key + ".txt", blobs.get(0));
+	}
+
+	@Test
+	public void testSharedBlobs() throws Exception {
+		MetricsSnapshot start = Metrics.snapshot();
+		manager.generateTests(SUITE_NAME);
+		manager.generateTests(SUITE_NAME, manager.getArchive().getConfiguration(OTHER_CONFIG_NAME));
+		manager.runTests(SUITE_NAME, false);
+		MetricsSnapshot metrics = Metrics.snapshot().since(start);
+
+		String blob = getBlob("first", CONFIG_NAME, OutputDataType.REFERENCE);
+		assertNotNull(blob);
+
+		// equal output data of all cases, configurations and types share one blob
+		String[][] histories = {
+				{CONFIG_NAME, OutputDataType.REFERENCE.name()},
+				{CONFIG_NAME, OutputDataType.TEST.name()},
+				{OTHER_CONFIG_NAME, OutputDataType.REFERENCE.name()}};
+
+		for (String[] history : histories) {
+			OutputDataType type = OutputDataType.valueOf(history[1]);
+			assertEquals(blob, getBlob("first", history[0], type));
+			assertEquals(blob, getBlob("second", history[0], type));
+			assertFalse(blob.equals(getBlob("third", history[0], type)));
+		}
+
+		// 9 versions, but only 2 written blobs
+		assertEquals(7, metrics.getCounter(Counter.BLOB_HITS));
+		assertEquals(2, getEntries(BlobStore.BLOB_FOLDER + "/").size());
+		assertTrue(getEntries("output.").isEmpty());
+
+		Output output = getDataManager("second", OTHER_CONFIG_NAME, OutputDataType.REFERENCE).getOutputData(1);
+		assertEquals("equal line", output.getInitialElement().getElements().get(0).getValue());
+	}
+
+	@Test
+	public void testStreamedBlobs() throws Exception {
+		manager.setStreamingOutput(true);
+		manager.generateTests(SUITE_NAME);
+		manager.runTests(SUITE_NAME, false);
+
+		// streamed output data is stored in the same blob
+		assertEquals(getBlob("first", CONFIG_NAME, OutputDataType.REFERENCE),
+				getBlob("first", CONFIG_NAME, OutputDataType.TEST));
+		assertEquals(getBlob("third", CONFIG_NAME, OutputDataType.REFERENCE),
+				getBlob("third", CONFIG_NAME, OutputDataType.TEST));
+		assertEquals(2, getEntries(BlobStore.BLOB_FOLDER + "/").size());
+	}
+
+	@Test
+	public void testVersionWithoutBlob() throws Exception {
+		manager.generateTests(SUITE_NAME);
+
+		OutputDataManager dataManager = getDataManager("first", CONFIG_NAME, OutputDataType.REFERENCE);
+		Version version = dataManager.getHistory().getVersion().get(0);
+		Output expected = dataManager.getOutputData(1);
+
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		try (InputStream blob = dataManager.getOutputDataInputStream(1)) {
+			byte[] buffer = new byte[8192];
+			int count = 0;
+			while ((count = blob.read(buffer)) != -1) {
+				data.write(buffer, 0, count);
+			}
+		}
+
+		// versions of older archives store their output data in their own file
+		ArchiveLoader loader = manager.getArchive().getLoader();
+		try (OutputStream legacy = loader.getOutputStream("output.1.xml",
+				LoaderUtils.getPath(SUITE_NAME, "first", CONFIG_NAME, "ref"))) {
+
+			legacy.write(data.toByteArray());
+		}
+
+		version.setBlob(null);
+
+		Output output = dataManager.getOutputData(1);
+		assertNotNull(output);
+		assertEquals(expected.getInitialElement().getElements().get(0).getValue(),
+				output.getInitialElement().getElements().get(0).getValue());
+
+		assertNull(dataManager.getOutputData(2));
+		assertNull(dataManager.getOutputDataInputStream(2));
+	}
+}
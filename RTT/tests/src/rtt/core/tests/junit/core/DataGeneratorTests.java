@@ -2,13 +2,18 @@ package rtt.core.tests.junit.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.xml.transform.stream.StreamSource;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -19,9 +24,13 @@ import rtt.core.archive.input.Input;
 import rtt.core.archive.output.Element;
 import rtt.core.archive.output.ElementType;
 import rtt.core.archive.output.Output;
+import rtt.core.manager.data.JAXBRegistry;
+import rtt.core.manager.data.history.XMLOutputSink;
+import rtt.core.testing.compare.ElementHasher;
 import rtt.core.testing.compare.OutputCompare;
 import rtt.core.testing.generation.DataGenerator;
 import rtt.core.testing.generation.Executor;
+import rtt.core.testing.generation.GenerationStatistics;
 
 public class DataGeneratorTests {
 
@@ -275,6 +284,107 @@ public class DataGeneratorTests {
 		assertEquals(childNode.getAddress(), reference.getValue());
 	}
 	
+	@rtt.annotations.Node static class EqualNodesClass {
+		@Initialize public EqualNodesClass(InputStream in) {}
+		
+		@rtt.annotations.Node.Value(index=1)
+		private EqualNode firstNode = new EqualNode();
+		
+		@rtt.annotations.Node.Value(index=2)
+		private EqualNode secondNode = new EqualNode();
+		
+		@rtt.annotations.Node.Value(index=3)
+		private EqualNode sameNode = firstNode;
+	}
+	
+	@rtt.annotations.Node static class EqualNode {
+		@rtt.annotations.Node.Value private String aField = "aField";
+		
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof EqualNode;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 1;
+		}
+	}
+	
+	@Test
+	public void testEqualNodesNotReferenced() throws Throwable {
+		Element node = generateInitNode(EqualNodesClass.class, 3);
+		
+		assertEquals(ElementType.NODE, node.getElements().get(0).getElementType());
+		assertEquals(ElementType.NODE, node.getElements().get(1).getElementType());
+		assertEquals(ElementType.REFERENCE, node.getElements().get(2).getElementType());
+		assertEquals(node.getElements().get(0).getAddress(), 
+				node.getElements().get(2).getValue());
+	}
+	
+	@rtt.annotations.Node static class ManyNodesClass {
+		@Initialize public ManyNodesClass(InputStream in) {}
+		
+		@rtt.annotations.Node.Value 
+		private List<ReferencedClass> nodes = new ArrayList<>();
+		
+		@rtt.annotations.Node.Value 
+		private List<ReferencedClass> references = nodes;
+		
+		{
+			for (int i = 0; i < 1000; i++) {
+				nodes.add(new ReferencedClass());
+			}
+		}
+	}
+	
+	@Test
+	public void testStreamedOutput() throws Throwable {
+		Class<?>[] classes = { FieldClass.class, TestClass.class, 
+				ReferencingClass.class, SimpleArrayClass.class, 
+				SimpleMapClass.class, KeyValueListMap.class, 
+				EqualNodesClass.class };
+		
+		for (Class<?> initObjectType : classes) {
+			Executor executor = new Executor(initObjectType);
+			Output output = DataGenerator.generateOutput(input, params, executor);
+			
+			GenerationStatistics statistics = new GenerationStatistics();
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			ElementHasher hasher = new ElementHasher(new XMLOutputSink(outputStream));
+			DataGenerator.generateOutput(input, params, executor, hasher, statistics);
+			
+			assertEquals(ElementHasher.hash(output.getInitialElement()), hasher.getHash());
+			
+			Output streamedOutput = JAXBRegistry.getUnmarshaller(Output.class).unmarshal(
+					new StreamSource(new ByteArrayInputStream(outputStream.toByteArray())), 
+					Output.class).getValue();
+			
+			assertTrue(OutputCompare.compareOutput(output, streamedOutput, true).isEmpty());
+			assertTrue(OutputCompare.compareOutput(streamedOutput, output, true).isEmpty());
+		}
+	}
+	
+	@Test
+	public void testGenerationStatistics() throws Throwable {
+		GenerationStatistics statistics = new GenerationStatistics();
+		Output output = DataGenerator.generateOutput(input, params, 
+				new Executor(ManyNodesClass.class), statistics);
+		
+		Element references = output.getInitialElement().getElements().get(1);
+		for (Element reference : references.getElements()) {
+			assertEquals(ElementType.REFERENCE, reference.getElementType());
+		}
+		
+		// initial node + 1000 list nodes
+		assertEquals(1001, statistics.getAddressEntries());
+		assertTrue(statistics.getAddressResizes() > 0);
+		assertTrue(statistics.getAddressCapacity() > 1001);
+		
+		// 1 + 2 lists + 2 * 1000 items + 1000 fields
+		assertEquals(3003, statistics.getElementCount());
+	}
+	
 	@rtt.annotations.Node static class NamedValuesClass {
 		@Initialize public NamedValuesClass(InputStream in) {}
 		
@@ -0,0 +1,94 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.core.archive.configuration.Classpath;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.utils.ExecutorLoader;
+import rtt.core.utils.ExecutorLoaderCache;
+
+public class ExecutorLoaderCacheTests {
+	
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-loader");
+	
+	private Path tempFolder;
+	private ExecutorLoaderCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+		tempFolder = fixture.getFolder();
+		Files.createDirectories(tempFolder.resolve("first"));
+		Files.createDirectories(tempFolder.resolve("second"));
+		
+		cache = new ExecutorLoaderCache();
+	}
+	
+	@After
+	public void tearDown() throws Exception {
+		cache.close();
+	}
+	
+	private static Classpath createClasspath(String... entries) {
+		Classpath classpath = new Classpath();
+		for (String entry : entries) {
+			classpath.getPath().add(entry);
+		}
+		
+		return classpath;
+	}
+	
+	@Test
+	public void testSameClasspath() throws Exception {
+		ExecutorLoader loader = cache.getLoader(createClasspath("first"), tempFolder.toString());
+		
+		assertSame(loader, cache.getLoader(createClasspath("first"), tempFolder.toString()));
+		assertSame(loader, cache.getLoader(createClasspath(
+				tempFolder.resolve("first").toString()), tempFolder.toString()));
+		assertSame(loader, cache.getLoader(createClasspath("second/../first"), tempFolder.toString()));
+		assertEquals(1, cache.size());
+	}
+	
+	@Test
+	public void testDifferentClasspath() throws Exception {
+		ExecutorLoader loader = cache.getLoader(createClasspath("first"), tempFolder.toString());
+		
+		assertNotSame(loader, cache.getLoader(createClasspath("second"), tempFolder.toString()));
+		assertNotSame(loader, cache.getLoader(createClasspath("first", "second"), tempFolder.toString()));
+		assertEquals(3, cache.size());
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void testChangedClasspath() throws Exception {
+		ExecutorLoader loader = cache.getLoader(createClasspath("first"), tempFolder.toString());
+		
+		Path classFile = tempFolder.resolve("first/Changed.class");
+		Files.write(classFile, new byte[] {0});
+		Files.setLastModifiedTime(classFile, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+		
+		assertNotSame(loader, cache.getLoader(createClasspath("first"), tempFolder.toString()));
+		assertEquals(1, cache.size());
+		
+		// the replaced loader has been closed
+		loader.resolveClass(String.class.getName());
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void testClose() throws Exception {
+		ExecutorLoader loader = cache.getLoader(createClasspath("first"), tempFolder.toString());
+		cache.close();
+		
+		loader.resolveClass(String.class.getName());
+	}
+}
@@ -0,0 +1,200 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.core.archive.configuration.Classpath;
+import rtt.core.manager.Manager;
+import rtt.core.manager.Manager.TestCaseMode;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.tests.junit.ArchiveFixture.WordNode;
+import rtt.core.utils.ClassDigests;
+import rtt.core.utils.ExecutorLoader;
+import rtt.core.utils.GenerationInformation.GenerationResult;
+
+public class ImpactSelectionTests {
+	
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	
+	private static final String ROOT_SOURCE = 
+			"package sut;\n" +
+			"@rtt.annotations.Node public class Root {\n" +
+			"	private String input;\n" +
+			"	@rtt.annotations.Node.Initialize public Root(java.io.InputStream is) throws Exception {\n" +
+			"		input = new java.io.BufferedReader(new java.io.InputStreamReader(is)).readLine();\n" +
+			"	}\n" +
+			"	@rtt.annotations.Node.Value public String value() {\n" +
+			"		if (input.startsWith(\"helper\")) {\n" +
+			"			return new Helper().value();\n" +
+			"		}\n" +
+			"		return input;\n" +
+			"	}\n" +
+			"}\n";
+	
+	private static final String HELPER_SOURCE = 
+			"package sut;\n" +
+			"public class Helper {\n" +
+			"	public String value() { return \"helper\"; }\n" +
+			"%s" +
+			"}\n";
+	
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-impact");
+	
+	private Path tempFolder;
+	private Path classFolder;
+	private File archive;
+	private List<File> inputFiles;
+
+	@Before
+	public void setUp() throws Exception {
+		tempFolder = fixture.getFolder();
+		classFolder = tempFolder.resolve("classes");
+		archive = fixture.getArchive();
+		
+		compile("");
+		
+		inputFiles = fixture.writeInputs("helper", "plain");
+		
+		Manager manager = fixture.createManager(archive, "sut.Root", 
+				Arrays.asList(classFolder.toString()), inputFiles);
+		try {
+			manager.generateTests(SUITE_NAME);
+			manager.saveArchive(archive);
+		} finally {
+			manager.close();
+		}
+	}
+	
+	private void compile(String helperMembers) throws Exception {
+		Path sourceFolder = tempFolder.resolve("src/sut");
+		Files.createDirectories(sourceFolder);
+		Files.createDirectories(classFolder);
+		
+		Path rootFile = sourceFolder.resolve("Root.java");
+		Path helperFile = sourceFolder.resolve("Helper.java");
+		Files.write(rootFile, ROOT_SOURCE.getBytes(StandardCharsets.UTF_8));
+		Files.write(helperFile, String.format(HELPER_SOURCE, helperMembers)
+				.getBytes(StandardCharsets.UTF_8));
+		
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		int result = compiler.run(null, null, null, 
+				"-cp", System.getProperty("java.class.path"), 
+				"-d", classFolder.toString(), 
+				rootFile.toString(), helperFile.toString());
+		
+		assertEquals(0, result);
+	}
+	
+	private List<String> runImpacted() throws Exception {
+		return runImpacted(archive);
+	}
+	
+	private List<String> runImpacted(File archive) throws Exception {
+		Manager manager = new Manager(archive, false);
+		manager.setImpactSelection(true);
+		manager.loadArchive(archive);
+		
+		try {
+			List<String> executed = new ArrayList<>();
+			for (GenerationResult result : manager.runTests(SUITE_NAME, false).getResults(true)) {
+				assertTrue(result.noError);
+				executed.add(result.caseName);
+			}
+			
+			manager.saveArchive(archive);
+			return executed;
+		} finally {
+			manager.close();
+		}
+	}
+	
+	@Test
+	public void testLoadedClasses() throws Exception {
+		Classpath classpath = new Classpath();
+		classpath.getPath().add(classFolder.toString());
+		
+		try (ExecutorLoader loader = new ExecutorLoader(classpath, tempFolder.toString(), true)) {
+			loader.resolveClass("sut.Root");
+			
+			assertTrue(loader.getLoadedClasses().contains("sut.Root"));
+			assertFalse(loader.getLoadedClasses().contains("sut.Helper"));
+			assertFalse(loader.getLoadedClasses().contains(Manager.class.getName()));
+		}
+		
+		ClassDigests digests = new ClassDigests(classpath, tempFolder.toString());
+		assertEquals(2, digests.size());
+	}
+	
+	@Test
+	public void testUnchangedClasspath() throws Exception {
+		assertEquals(Arrays.asList("helper", "plain"), runImpacted());
+		assertTrue(runImpacted().isEmpty());
+	}
+	
+	@Test
+	public void testChangedClass() throws Exception {
+		runImpacted();
+		
+		// only the test case, which uses the helper, is impacted
+		compile("	public int unused() { return 1; }\n");
+		assertEquals(Arrays.asList("helper"), runImpacted());
+		assertTrue(runImpacted().isEmpty());
+	}
+	
+	@Test
+	public void testParentLoader() throws Exception {
+		// the initial node is found by the parent loader, not on the class path
+		File parentArchive = tempFolder.resolve("parent.zip").toFile();
+		Manager manager = fixture.createManager(parentArchive, WordNode.class.getName(), 
+				new ArrayList<String>(), inputFiles);
+		try {
+			manager.generateTests(SUITE_NAME);
+			manager.saveArchive(parentArchive);
+		} finally {
+			manager.close();
+		}
+		
+		// without recorded classes, the test cases are never skipped
+		assertEquals(Arrays.asList("helper", "plain"), runImpacted(parentArchive));
+		assertEquals(Arrays.asList("helper", "plain"), runImpacted(parentArchive));
+		
+		Manager reloaded = fixture.openManager(parentArchive);
+		assertNull(reloaded.getArchive().getCoverage(ArchiveFixture.CONFIG_NAME, SUITE_NAME, "helper"));
+	}
+	
+	@Test
+	public void testChangedInput() throws Exception {
+		runImpacted();
+		
+		Files.write(inputFiles.get(1).toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+		Manager manager = new Manager(archive, false);
+		try {
+			manager.loadArchive(archive);
+			manager.addAllFiles(inputFiles.subList(1, 2), SUITE_NAME, TestCaseMode.OVERWRITE);
+			manager.generateTests(SUITE_NAME);
+			manager.saveArchive(archive);
+		} finally {
+			manager.close();
+		}
+		
+		assertEquals(Arrays.asList("plain"), runImpacted());
+	}
+}
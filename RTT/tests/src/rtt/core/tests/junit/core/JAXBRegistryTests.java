@@ -0,0 +1,146 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.junit.Test;
+
+import rtt.core.archive.testsuite.Testcase;
+import rtt.core.archive.testsuite.Testsuite;
+import rtt.core.archive.testsuite.Testsuites;
+import rtt.core.manager.data.JAXBRegistry;
+
+public class JAXBRegistryTests {
+
+	private static final int THREAD_COUNT = 8;
+
+	/**
+	 * The objects, which have been used by a thread.
+	 */
+	private static class ThreadResult {
+		private JAXBContext context;
+		private Marshaller marshaller;
+		private Unmarshaller unmarshaller;
+	}
+
+	private static Testsuites createTestsuites(String suiteName) {
+		Testsuites testsuites = new Testsuites();
+		Testsuite testsuite = new Testsuite();
+		testsuite.setName(suiteName);
+
+		for (int i = 0; i < 10; i++) {
+			Testcase testcase = new Testcase();
+			testcase.setName(suiteName + "-" + i);
+			testcase.setInputID(i);
+			testsuite.getTestcase().add(testcase);
+		}
+
+		testsuites.getTestsuite().add(testsuite);
+		return testsuites;
+	}
+
+	@Test
+	public void testReuseWithinThread() throws Exception {
+		assertSame(JAXBRegistry.getContext(Testsuites.class),
+				JAXBRegistry.getContext(Testsuites.class));
+		assertSame(JAXBRegistry.getMarshaller(Testsuites.class),
+				JAXBRegistry.getMarshaller(Testsuites.class));
+		assertSame(JAXBRegistry.getUnmarshaller(Testsuites.class),
+				JAXBRegistry.getUnmarshaller(Testsuites.class));
+
+		assertNotSame(JAXBRegistry.getContext(Testsuites.class),
+				JAXBRegistry.getContext(Testcase.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullClass() throws Exception {
+		JAXBRegistry.getContext(null);
+	}
+
+	@Test
+	public void testConcurrentThreads() throws Exception {
+		final CountDownLatch start = new CountDownLatch(1);
+
+		List<Callable<ThreadResult>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREAD_COUNT; i++) {
+			final String suiteName = "suite" + i;
+			tasks.add(new Callable<ThreadResult>() {
+				@Override
+				public ThreadResult call() throws Exception {
+					start.await();
+
+					ThreadResult result = new ThreadResult();
+					for (int round = 0; round < 50; round++) {
+						Marshaller marshaller = JAXBRegistry.getMarshaller(Testsuites.class);
+						Unmarshaller unmarshaller = JAXBRegistry.getUnmarshaller(Testsuites.class);
+
+						ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+						marshaller.marshal(createTestsuites(suiteName), outputStream);
+
+						Testsuites testsuites = (Testsuites) unmarshaller.unmarshal(
+								new ByteArrayInputStream(outputStream.toByteArray()));
+
+						Testsuite testsuite = testsuites.getTestsuite().get(0);
+						assertEquals(suiteName, testsuite.getName());
+						assertEquals(10, testsuite.getTestcase().size());
+						assertEquals(suiteName + "-9", testsuite.getTestcase().get(9).getName());
+
+						if (round == 0) {
+							result.marshaller = marshaller;
+							result.unmarshaller = unmarshaller;
+						} else {
+							// each thread reuses its own instances
+							assertSame(result.marshaller, marshaller);
+							assertSame(result.unmarshaller, unmarshaller);
+						}
+					}
+
+					result.context = JAXBRegistry.getContext(Testsuites.class);
+					return result;
+				}
+			});
+		}
+
+		List<ThreadResult> results = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+		try {
+			List<Future<ThreadResult>> futures = new ArrayList<>();
+			for (Callable<ThreadResult> task : tasks) {
+				futures.add(executor.submit(task));
+			}
+
+			start.countDown();
+			for (Future<ThreadResult> future : futures) {
+				results.add(future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// all threads share one context, but not their marshallers
+		JAXBContext context = JAXBRegistry.getContext(Testsuites.class);
+		for (int i = 0; i < results.size(); i++) {
+			assertSame(context, results.get(i).context);
+
+			for (int j = i + 1; j < results.size(); j++) {
+				assertNotSame(results.get(i).marshaller, results.get(j).marshaller);
+				assertNotSame(results.get(i).unmarshaller, results.get(j).unmarshaller);
+			}
+		}
+	}
+}
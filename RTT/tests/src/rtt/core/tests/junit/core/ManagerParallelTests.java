@@ -0,0 +1,159 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.core.manager.Manager;
+import rtt.core.tests.RepositoryGenerator;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.utils.GenerationInformation;
+import rtt.core.utils.GenerationInformation.GenerationResult;
+
+public class ManagerParallelTests {
+	
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-parallel");
+	
+	private List<File> inputFiles;
+
+	@Before
+	public void setUp() throws Exception {
+		inputFiles = fixture.copyTestsets("ccc", "cec", "cfc");
+	}
+	
+	private List<String> generate(String archiveName, int workerCount) throws Exception {
+		return generate(archiveName, workerCount, false);
+	}
+	
+	private List<String> generate(String archiveName, int workerCount, 
+			boolean streaming) throws Exception {
+		
+		File archive = fixture.getFolder().resolve(archiveName).toFile();
+		
+		Manager manager = fixture.createManager(archive, RepositoryGenerator.class.getName(), 
+				new ArrayList<String>(), inputFiles);
+		manager.setWorkerCount(workerCount);
+		manager.setStreamingOutput(streaming);
+		
+		List<String> results = new ArrayList<>();
+		try {
+			collect(manager.generateTests(SUITE_NAME), results);
+			collect(manager.runTests(SUITE_NAME, false), results);
+			
+			manager.saveArchive(archive);
+		} finally {
+			manager.close();
+		}
+		
+		return results;
+	}
+	
+	private void collect(GenerationInformation infos, List<String> results) {
+		for (GenerationResult result : infos.getResults(true)) {
+			results.add(result.caseName + ":" + result.noError + ":" + result.hasReplaced);
+		}
+	}
+
+	@Test
+	public void testSameResultsAsSequential() throws Exception {
+		List<String> sequential = generate("sequential.zip", 1);
+		List<String> parallel = generate("parallel.zip", 4);
+		
+		assertEquals(2 * inputFiles.size(), sequential.size());
+		assertEquals(sequential, parallel);
+	}
+	
+	@Test
+	public void testResultOrder() throws Exception {
+		List<String> results = generate("order.zip", 3);
+		
+		for (int i = 0; i < inputFiles.size(); i++) {
+			String caseName = inputFiles.get(i).getName().replace(".testcase", "");
+			assertTrue(results.get(i).startsWith(caseName + ":"));
+		}
+		
+		// the second test case of the "cec" set throws an exception
+		assertFalse(results.get(4).contains(":true:"));
+	}
+	
+	@Test
+	public void testStreamingOutput() throws Exception {
+		List<String> inMemory = generate("memory.zip", 1);
+		List<String> streamed = generate("streamed.zip", 1, true);
+		List<String> parallel = generate("streamedParallel.zip", 2, true);
+		
+		assertEquals(inMemory, streamed);
+		assertEquals(inMemory, parallel);
+		
+		// regenerating streamed data must not create new versions
+		File archive = fixture.getFolder().resolve("streamed.zip").toFile();
+		Manager manager = new Manager(archive, false);
+		manager.setStreamingOutput(true);
+		manager.loadArchive(archive);
+		try {
+			for (GenerationResult result : manager.generateTests(SUITE_NAME).getResults(true)) {
+				// the input of "cfc2" contains no seed, so its output is random
+				if (!result.caseName.equals("cfc2")) {
+					assertFalse(result.hasReplaced);
+				}
+			}
+		} finally {
+			manager.close();
+		}
+	}
+	
+	private List<GenerationResult> runCached(File archive, boolean resultCache) throws Exception {
+		Manager manager = new Manager(archive, false);
+		manager.setResultCache(resultCache);
+		manager.loadArchive(archive);
+		
+		try {
+			List<GenerationResult> results = manager.runTests(SUITE_NAME, false).getResults(true);
+			manager.saveArchive(archive);
+			
+			return results;
+		} finally {
+			manager.close();
+		}
+	}
+	
+	@Test
+	public void testResultCache() throws Exception {
+		generate("cached.zip", 1);
+		File archive = fixture.getFolder().resolve("cached.zip").toFile();
+		
+		// no keys are stored, if the cache was not used
+		for (GenerationResult result : runCached(archive, true)) {
+			assertFalse(result.fromCache);
+		}
+		
+		for (GenerationResult result : runCached(archive, true)) {
+			// the second test case of the "cec" set throws an exception
+			assertEquals(result.caseName, !result.caseName.equals("cec2"), result.fromCache);
+			assertFalse(result.hasReplaced);
+		}
+		
+		// a run without the cache invalidates all keys
+		runCached(archive, false);
+		for (GenerationResult result : runCached(archive, true)) {
+			assertFalse(result.fromCache);
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidWorkerCount() throws Exception {
+		Manager manager = new Manager(fixture.getFolder().resolve("invalid.zip").toFile(), false);
+		manager.setWorkerCount(0);
+	}
+}
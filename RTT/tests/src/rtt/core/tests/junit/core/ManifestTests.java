@@ -0,0 +1,310 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.core.archive.history.History;
+import rtt.core.manager.Manager;
+import rtt.core.manager.Manager.TestCaseMode;
+import rtt.core.manager.data.ManifestManager;
+import rtt.core.manager.data.history.InputManager;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.MetricsSnapshot;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.tests.junit.ArchiveFixture.LineNode;
+
+public class ManifestTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	private static final String CONFIG_NAME = ArchiveFixture.CONFIG_NAME;
+	private static final String MANIFEST_FILE = "manifest.xml";
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-manifest");
+
+	private Path tempFolder;
+	private File archive;
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		tempFolder = fixture.getFolder();
+		archive = fixture.getArchive();
+
+		manager = fixture.createManager(LineNode.class, createInputs("line"));
+	}
+
+	private List<File> createInputs(String content) throws IOException {
+		List<File> inputFiles = new ArrayList<>();
+		for (String input : new String[] {"first", "second"}) {
+			inputFiles.add(fixture.writeInput(input, input + " " + content));
+		}
+
+		return inputFiles;
+	}
+
+	private void reload() throws Exception {
+		manager = fixture.reload(manager);
+	}
+
+	private List<String> getEntries() throws Exception {
+		List<String> entries = new ArrayList<>();
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				entries.add(zipEntries.nextElement().getName());
+			}
+		}
+
+		return entries;
+	}
+
+	private byte[] readManifest() throws Exception {
+		try (ZipFile zipFile = new ZipFile(archive);
+				InputStream inputStream = zipFile.getInputStream(zipFile.getEntry(MANIFEST_FILE))) {
+
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int count = 0;
+			while ((count = inputStream.read(buffer)) != -1) {
+				outputStream.write(buffer, 0, count);
+			}
+
+			return outputStream.toByteArray();
+		}
+	}
+
+	/**
+	 * Rewrites the archive without its manifest, like an archive of an
+	 * older version.
+	 */
+	private void removeManifest() throws Exception {
+		replaceManifest(null);
+	}
+
+	/**
+	 * Rewrites the archive with the given manifest, like an older version,
+	 * which keeps the manifest unchanged.
+	 *
+	 * @param manifest the content of the manifest or {@code null}, if the
+	 * 		archive should not contain a manifest
+	 */
+	private void replaceManifest(byte[] manifest) throws Exception {
+		File copy = tempFolder.resolve("copy.zip").toFile();
+		try (ZipFile zipFile = new ZipFile(archive);
+				ZipOutputStream outputStream = new ZipOutputStream(
+						Files.newOutputStream(copy.toPath()))) {
+
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry entry = zipEntries.nextElement();
+				if (entry.getName().equals(MANIFEST_FILE)) {
+					continue;
+				}
+
+				outputStream.putNextEntry(new ZipEntry(entry.getName()));
+				try (InputStream inputStream = zipFile.getInputStream(entry)) {
+					byte[] buffer = new byte[8192];
+					int count = 0;
+					while ((count = inputStream.read(buffer)) != -1) {
+						outputStream.write(buffer, 0, count);
+					}
+				}
+				outputStream.closeEntry();
+			}
+
+			if (manifest != null) {
+				outputStream.putNextEntry(new ZipEntry(MANIFEST_FILE));
+				outputStream.write(manifest);
+				outputStream.closeEntry();
+			}
+		}
+
+		Files.delete(archive.toPath());
+		Files.move(copy.toPath(), archive.toPath());
+	}
+
+	private OutputDataManager getDataManager(String caseName, OutputDataType type) {
+		return new OutputDataManager(manager.getArchive().getLoader(), SUITE_NAME,
+				caseName, manager.getArchive().getConfiguration(CONFIG_NAME), type,
+				manager.getArchive().getManifestManager());
+	}
+
+	@Test
+	public void testManifest() throws Exception {
+		manager.generateTests(SUITE_NAME);
+		manager.runTests(SUITE_NAME, false);
+		reload();
+
+		assertTrue(getEntries().contains(MANIFEST_FILE));
+
+		// per test case: the test data, its input and the reference and test data of the tester
+		MetricsSnapshot start = Metrics.snapshot();
+		manager.runTests(SUITE_NAME, false);
+		assertEquals(8, Metrics.snapshot().since(start).getCounter(Counter.MANIFEST_HITS));
+
+		reload();
+
+		ManifestManager manifest = manager.getArchive().getManifestManager();
+		History refHistory = manifest.getHistory(SUITE_NAME, "first", CONFIG_NAME,
+				OutputDataType.REFERENCE.getPath());
+		assertNotNull(refHistory);
+		assertEquals(1, refHistory.getVersion().size());
+		assertEquals(1, manifest.getHistory(SUITE_NAME, "second", CONFIG_NAME,
+				OutputDataType.TEST.getPath()).getVersion().size());
+		assertEquals(1, manifest.getHistory(SUITE_NAME, "first", null,
+				ManifestManager.INPUT_TYPE).getVersion().size());
+		assertNull(manifest.getHistory(SUITE_NAME, "third", CONFIG_NAME,
+				OutputDataType.REFERENCE.getPath()));
+
+		// the managers share the histories of the manifest
+		OutputDataManager refManager = getDataManager("first", OutputDataType.REFERENCE);
+		assertTrue(refHistory == refManager.getHistory());
+		assertEquals(1, refManager.getLatestVersion());
+		assertEquals(Integer.valueOf(1), refManager.getInputBase(1));
+		assertNull(refManager.getInputBase(2));
+		assertFalse(refManager.isOutDated(1));
+	}
+
+	@Test
+	public void testArchiveWithoutManifest() throws Exception {
+		manager.generateTests(SUITE_NAME);
+		manager.saveArchive(archive);
+		manager.close();
+
+		removeManifest();
+		assertFalse(getEntries().contains(MANIFEST_FILE));
+
+		manager = fixture.openManager();
+
+		// the histories are read from their own files and added to the manifest
+		MetricsSnapshot start = Metrics.snapshot();
+		OutputDataManager refManager = getDataManager("first", OutputDataType.REFERENCE);
+		assertEquals(1, refManager.getLatestVersion());
+		assertEquals(0, Metrics.snapshot().since(start).getCounter(Counter.MANIFEST_HITS));
+
+		assertTrue(refManager.getHistory() == getDataManager("first",
+				OutputDataType.REFERENCE).getHistory());
+
+		manager.runTests(SUITE_NAME, false);
+		reload();
+
+		assertTrue(getEntries().contains(MANIFEST_FILE));
+		assertEquals(1, getDataManager("second", OutputDataType.TEST).getLatestVersion());
+	}
+
+	@Test
+	public void testNewInput() throws Exception {
+		manager.generateTests(SUITE_NAME);
+		reload();
+
+		manager.addAllFiles(createInputs("changed"), SUITE_NAME, TestCaseMode.OVERWRITE);
+		reload();
+
+		InputManager inputManager = new InputManager(manager.getArchive().getLoader(),
+				SUITE_NAME, "first", manager.getArchive().getManifestManager());
+		assertEquals(2, inputManager.getLatestVersion());
+		assertTrue(getDataManager("first", OutputDataType.REFERENCE).isOutDated(2));
+
+		manager.generateTests(SUITE_NAME);
+		reload();
+
+		OutputDataManager refManager = getDataManager("first", OutputDataType.REFERENCE);
+		assertFalse(refManager.isOutDated(2));
+		assertEquals(Integer.valueOf(2), refManager.getInputBase(refManager.getLatestVersion()));
+		assertEquals("first changed", refManager.getOutputData(refManager.getLatestVersion())
+				.getInitialElement().getElements().get(0).getValue());
+	}
+
+	@Test
+	public void testOutdatedManifest() throws Exception {
+		manager.generateTests(SUITE_NAME);
+		reload();
+
+		byte[] oldManifest = readManifest();
+
+		manager.addAllFiles(Arrays.asList(fixture.writeInput("first", "first changed")),
+				SUITE_NAME, TestCaseMode.OVERWRITE);
+		manager.generateTests(SUITE_NAME);
+		manager.saveArchive(archive);
+		manager.close();
+
+		// an older version adds versions, but keeps the old manifest
+		replaceManifest(oldManifest);
+		manager = fixture.openManager();
+
+		// the outdated entries are ignored and read from their own files
+		ManifestManager manifest = manager.getArchive().getManifestManager();
+		assertNull(manifest.getHistory(SUITE_NAME, "first", CONFIG_NAME,
+				OutputDataType.REFERENCE.getPath()));
+		assertNull(manifest.getHistory(SUITE_NAME, "first", null, ManifestManager.INPUT_TYPE));
+
+		OutputDataManager refManager = getDataManager("first", OutputDataType.REFERENCE);
+		assertEquals(2, refManager.getLatestVersion());
+		assertEquals("first changed", refManager.getOutputData(2)
+				.getInitialElement().getElements().get(0).getValue());
+		assertEquals(2, new InputManager(manager.getArchive().getLoader(),
+				SUITE_NAME, "first", manifest).getLatestVersion());
+
+		// the histories of the unchanged test case are still valid
+		assertNotNull(manifest.getHistory(SUITE_NAME, "second", null, ManifestManager.INPUT_TYPE));
+		assertNotNull(manifest.getHistory(SUITE_NAME, "second", CONFIG_NAME,
+				OutputDataType.REFERENCE.getPath()));
+
+		reload();
+
+		manifest = manager.getArchive().getManifestManager();
+		assertEquals(2, manifest.getHistory(SUITE_NAME, "first", CONFIG_NAME,
+				OutputDataType.REFERENCE.getPath()).getVersion().size());
+		assertEquals(2, manifest.getHistory(SUITE_NAME, "first", null,
+				ManifestManager.INPUT_TYPE).getVersion().size());
+	}
+
+	@Test
+	public void testRemovedTestcase() throws Exception {
+		manager.generateTests(SUITE_NAME);
+		reload();
+
+		manager.removeTest(SUITE_NAME, "first");
+
+		ManifestManager manifest = manager.getArchive().getManifestManager();
+		assertNull(manifest.getHistory(SUITE_NAME, "first", null, ManifestManager.INPUT_TYPE));
+		assertNull(manifest.getHistory(SUITE_NAME, "first", CONFIG_NAME,
+				OutputDataType.REFERENCE.getPath()));
+		assertNotNull(manifest.getHistory(SUITE_NAME, "second", null, ManifestManager.INPUT_TYPE));
+
+		reload();
+
+		manifest = manager.getArchive().getManifestManager();
+		assertNull(manifest.getHistory(SUITE_NAME, "first", null, ManifestManager.INPUT_TYPE));
+
+		manager.removeTestsuite(SUITE_NAME);
+		assertNull(manifest.getHistory(SUITE_NAME, "second", null, ManifestManager.INPUT_TYPE));
+		assertNull(manifest.getHistory(SUITE_NAME, "second", CONFIG_NAME,
+				OutputDataType.TEST.getPath()));
+	}
+}
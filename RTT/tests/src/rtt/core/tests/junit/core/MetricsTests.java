@@ -0,0 +1,178 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.core.archive.logging.CounterMetric;
+import rtt.core.archive.logging.Entry;
+import rtt.core.archive.logging.PhaseMetric;
+import rtt.core.archive.logging.RunMetrics;
+import rtt.core.archive.logging.Testrun;
+import rtt.core.manager.Manager;
+import rtt.core.metrics.Metrics;
+import rtt.core.metrics.Metrics.Counter;
+import rtt.core.metrics.Metrics.Phase;
+import rtt.core.metrics.MetricsMXBean;
+import rtt.core.metrics.MetricsSnapshot;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.tests.junit.ArchiveFixture.WordNode;
+
+public class MetricsTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-metrics");
+
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		List<File> inputFiles = new ArrayList<>();
+		for (String input : new String[] {"first", "second"}) {
+			inputFiles.add(fixture.writeInput(input, input + " a b c"));
+		}
+
+		manager = fixture.createManager(WordNode.class, inputFiles);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Metrics.setEnabled(true);
+	}
+
+	private RunMetrics getLatestMetrics() {
+		Testrun testrun = null;
+		for (Entry entry : manager.getArchive().getLogManager().getLogEntries()) {
+			if (entry instanceof Testrun) {
+				testrun = (Testrun) entry;
+			}
+		}
+
+		assertNotNull(testrun);
+		return testrun.getMetrics();
+	}
+
+	private static PhaseMetric findPhase(RunMetrics metrics, Phase phase) {
+		for (PhaseMetric phaseMetric : metrics.getPhase()) {
+			if (phaseMetric.getName().equals(phase.name())) {
+				return phaseMetric;
+			}
+		}
+
+		return null;
+	}
+
+	private static long findCounter(RunMetrics metrics, Counter counter) {
+		for (CounterMetric counterMetric : metrics.getCounter()) {
+			if (counterMetric.getName().equals(counter.name())) {
+				return counterMetric.getValue();
+			}
+		}
+
+		return -1;
+	}
+
+	@Test
+	public void testGenerationMetrics() throws Exception {
+		MetricsSnapshot start = Metrics.snapshot();
+		manager.generateTests(SUITE_NAME);
+		MetricsSnapshot metrics = Metrics.snapshot().since(start);
+
+		assertTrue(metrics.getElapsed() > 0);
+		assertEquals(2, metrics.getCount(Phase.INPUT));
+		assertEquals(2, metrics.getCount(Phase.INITIALIZE));
+		assertEquals(2, metrics.getCount(Phase.TRAVERSAL));
+		assertTrue(metrics.getTime(Phase.TRAVERSAL) > 0);
+		assertTrue(metrics.getCount(Phase.MARSHAL) >= 2);
+		assertTrue(metrics.getCount(Phase.ARCHIVE_WRITE) >= 2);
+
+		// initial node, list and four words of each test case
+		assertEquals(12, metrics.getCounter(Counter.ELEMENTS_GENERATED));
+		assertTrue(metrics.getCounter(Counter.BYTES_READ) > 0);
+		assertTrue(metrics.getCounter(Counter.BYTES_WRITTEN) > 0);
+	}
+
+	@Test
+	public void testRunSummary() throws Exception {
+		manager.generateTests(SUITE_NAME);
+		manager.runTests(SUITE_NAME, false);
+
+		RunMetrics metrics = getLatestMetrics();
+		assertNotNull(metrics);
+		assertTrue(metrics.getDuration() > 0);
+
+		assertEquals(2, findPhase(metrics, Phase.INITIALIZE).getCount());
+		assertEquals(2, findPhase(metrics, Phase.TRAVERSAL).getCount());
+
+		// the histories are taken from the manifest, so no history file is read
+		assertNull(findPhase(metrics, Phase.UNMARSHAL));
+		assertTrue(findCounter(metrics, Counter.MANIFEST_HITS) > 0);
+
+		// test data equals reference data, so only the hashes are compared
+		assertEquals(2, findCounter(metrics, Counter.HASH_MATCHES));
+		assertEquals(12, findCounter(metrics, Counter.ELEMENTS_GENERATED));
+		assertEquals(0, findCounter(metrics, Counter.RESULT_CACHE_HITS));
+
+		manager.setResultCache(true);
+		manager.runTests(SUITE_NAME, false);
+		manager.runTests(SUITE_NAME, false);
+
+		metrics = getLatestMetrics();
+		assertEquals(2, findCounter(metrics, Counter.RESULT_CACHE_HITS));
+		assertEquals(0, findCounter(metrics, Counter.ELEMENTS_GENERATED));
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		Metrics.setEnabled(false);
+
+		MetricsSnapshot start = Metrics.snapshot();
+		manager.generateTests(SUITE_NAME);
+		MetricsSnapshot metrics = Metrics.snapshot().since(start);
+
+		for (Phase phase : Phase.values()) {
+			assertEquals(0, metrics.getCount(phase));
+			assertEquals(0, metrics.getTime(phase));
+		}
+
+		for (Counter counter : Counter.values()) {
+			assertEquals(0, metrics.getCounter(counter));
+		}
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+
+		// registered by the manager
+		assertTrue(server.isRegistered(name));
+
+		MetricsMXBean bean = JMX.newMXBeanProxy(server, name, MetricsMXBean.class);
+		assertTrue(bean.isEnabled());
+
+		long elements = bean.getCounters().get(Counter.ELEMENTS_GENERATED.name());
+		manager.generateTests(SUITE_NAME);
+
+		assertEquals(elements + 12, (long) bean.getCounters().get(Counter.ELEMENTS_GENERATED.name()));
+		assertTrue(bean.getPhaseTimes().get(Phase.TRAVERSAL.name()) > 0);
+		assertTrue(bean.getPhaseCounts().get(Phase.INITIALIZE.name()) >= 2);
+	}
+}
@@ -0,0 +1,350 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.annotations.Node;
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.logging.Entry;
+import rtt.core.archive.logging.Result;
+import rtt.core.archive.logging.ResultType;
+import rtt.core.archive.logging.Testrun;
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+import rtt.core.manager.Manager;
+import rtt.core.manager.data.history.BinaryOutputCodec;
+import rtt.core.manager.data.history.BinaryOutputReader;
+import rtt.core.manager.data.history.OutputCodec;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.testing.compare.ElementHasher;
+import rtt.core.testing.compare.OutputCompare;
+import rtt.core.testing.compare.StreamingOutputCompare;
+import rtt.core.testing.compare.results.TestFailure;
+import rtt.core.tests.junit.ArchiveFixture;
+
+public class OutputCodecTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	private static final String CONFIG_NAME = ArchiveFixture.CONFIG_NAME;
+
+	@Node
+	public static class WordNode {
+
+		static volatile String suffix = "";
+
+		@Node.Value
+		public List<String> words = new ArrayList<>();
+
+		@Node.Value
+		public Map<String, Integer> lengths = new TreeMap<>();
+
+		@Node.Value(informational = true)
+		public String info = "info";
+
+		@Node.Initialize
+		public WordNode(InputStream is) throws Exception {
+			for (String word : new BufferedReader(new InputStreamReader(is)).readLine().split(" ")) {
+				words.add(word + suffix);
+				lengths.put(word, word.length());
+			}
+		}
+	}
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-codec");
+
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		List<File> inputFiles = new ArrayList<>();
+		for (String input : new String[] {"first", "second"}) {
+			inputFiles.add(fixture.writeInput(input, input + " a bb ccc"));
+		}
+
+		manager = fixture.createManager(WordNode.class, inputFiles);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		WordNode.suffix = "";
+	}
+
+	private static Element createElement(String address, String name, ElementType type,
+			GeneratorType generatedBy, String value, boolean informational) {
+
+		Element element = new Element();
+		element.setAddress(address);
+		element.setName(name);
+		element.setElementType(type);
+		element.setGeneratedBy(generatedBy);
+		element.setValue(value);
+		element.setInformational(informational);
+		element.setReturnType(String.class.getName());
+
+		return element;
+	}
+
+	private static Output createOutput() {
+		Element initialElement = createElement("1", "Initial Node",
+				ElementType.NODE, GeneratorType.OBJECT, "Node", false);
+
+		Element entry = createElement("1.1", "map [1]", ElementType.NODE, GeneratorType.MAP, null, false);
+		entry.getElements().add(createElement("1.1", "map [1]-Key",
+				ElementType.VALUE, GeneratorType.MAP, "key", false));
+		entry.getElements().add(createElement("1.1", "map [1]-Value",
+				ElementType.REFERENCE, GeneratorType.MAP, "1", false));
+		initialElement.getElements().add(entry);
+
+		Element list = createElement("1.2", "list", ElementType.NODE, GeneratorType.FIELD, "List", true);
+		for (int index = 1; index <= 12; index++) {
+			list.getElements().add(createElement("1.2." + index, "list[" + index + "]",
+					ElementType.VALUE, GeneratorType.ITERABLE, "välue " + index, true));
+		}
+		initialElement.getElements().add(list);
+
+		// addresses, which do not follow the generated scheme
+		initialElement.getElements().add(createElement("custom", "custom",
+				ElementType.VALUE, GeneratorType.METHOD, "", false));
+		initialElement.getElements().add(createElement(null, null,
+				ElementType.VALUE, GeneratorType.METHOD, "no address", false));
+		initialElement.getElements().add(createElement("1.05", "leading zero",
+				ElementType.VALUE, GeneratorType.ARRAY, "x", false));
+
+		Output output = new Output();
+		output.setInitialElement(initialElement);
+
+		return output;
+	}
+
+	private static byte[] write(OutputFormat format, Output output) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		OutputCodec.getCodec(format).write(output, outputStream);
+
+		return outputStream.toByteArray();
+	}
+
+	private static Output read(OutputFormat format, byte[] data) throws Exception {
+		return OutputCodec.getCodec(format).read(new ByteArrayInputStream(data));
+	}
+
+	private static void assertSameElements(Element expected, Element actual) {
+		assertEquals(expected.getAddress(), actual.getAddress());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getValue(), actual.getValue());
+		assertEquals(expected.getReturnType(), actual.getReturnType());
+		assertEquals(expected.getElementType(), actual.getElementType());
+		assertEquals(expected.getGeneratedBy(), actual.getGeneratedBy());
+		assertEquals(expected.isInformational(), actual.isInformational());
+
+		assertEquals(expected.getElements().size(), actual.getElements().size());
+		for (int index = 0; index < expected.getElements().size(); index++) {
+			assertSameElements(expected.getElements().get(index), actual.getElements().get(index));
+		}
+	}
+
+	private static boolean containsValue(Element element, String value) {
+		if (value.equals(element.getValue())) {
+			return true;
+		}
+
+		for (Element child : element.getElements()) {
+			if (containsValue(child, value)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private List<Result> getLatestResults() {
+		Testrun testrun = null;
+		for (Entry entry : manager.getArchive().getLogManager().getLogEntries()) {
+			if (entry instanceof Testrun) {
+				testrun = (Testrun) entry;
+			}
+		}
+
+		assertNotNull(testrun);
+		return testrun.getResult();
+	}
+
+	private OutputDataManager getDataManager(String caseName, OutputDataType type) {
+		return new OutputDataManager(manager.getArchive().getLoader(), SUITE_NAME,
+				caseName, manager.getArchive().getConfiguration(CONFIG_NAME), type);
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Output output = createOutput();
+
+		byte[] data = write(OutputFormat.BINARY, output);
+		Output decoded = read(OutputFormat.BINARY, data);
+
+		assertSameElements(output.getInitialElement(), decoded.getInitialElement());
+		assertEquals(ElementHasher.hash(output.getInitialElement()),
+				ElementHasher.hash(decoded.getInitialElement()));
+
+		// names and types are written once, addresses are implicit
+		assertTrue(data.length * 4 < write(OutputFormat.XML, output).length);
+	}
+
+	@Test
+	public void testEmptyOutput() throws Exception {
+		Output decoded = read(OutputFormat.BINARY, write(OutputFormat.BINARY, new Output()));
+		assertNull(decoded.getInitialElement());
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedData() throws Exception {
+		byte[] data = write(OutputFormat.BINARY, createOutput());
+		read(OutputFormat.BINARY, Arrays.copyOf(data, data.length / 2));
+	}
+
+	@Test
+	public void testSkipElement() throws Exception {
+		BinaryOutputReader reader = new BinaryOutputReader(
+				new ByteArrayInputStream(write(OutputFormat.BINARY, createOutput())));
+
+		assertEquals("Initial Node", reader.nextChild().getName());
+		assertEquals("map [1]", reader.nextChild().getName());
+		reader.skipElement();
+
+		Element list = reader.nextChild();
+		assertEquals("list", list.getName());
+		reader.skipElement();
+
+		assertEquals("custom", reader.nextChild().getName());
+		assertNull(reader.nextChild());
+
+		Element noAddress = reader.nextChild();
+		assertNull(noAddress.getAddress());
+		assertEquals("no address", noAddress.getValue());
+		assertNull(reader.nextChild());
+
+		assertEquals("1.05", reader.nextChild().getAddress());
+		assertNull(reader.nextChild());
+
+		// leave the initial element and the document
+		assertNull(reader.nextChild());
+		assertNull(reader.nextChild());
+	}
+
+	@Test
+	public void testStreamingCompareMixedFormats() throws Exception {
+		Output reference = createOutput();
+		Output actual = createOutput();
+		actual.getInitialElement().getElements().get(0).getElements().get(0).setValue("changed");
+
+		for (OutputFormat referenceFormat : OutputFormat.values()) {
+			for (OutputFormat actualFormat : OutputFormat.values()) {
+				List<TestFailure> equal = StreamingOutputCompare.compareOutput(
+						new ByteArrayInputStream(write(referenceFormat, reference)),
+						new ByteArrayInputStream(write(actualFormat, reference)), true);
+				assertTrue(equal.isEmpty());
+
+				List<TestFailure> expected = OutputCompare.compareOutput(reference, actual, false);
+				List<TestFailure> failures = StreamingOutputCompare.compareOutput(
+						new ByteArrayInputStream(write(referenceFormat, reference)),
+						new ByteArrayInputStream(write(actualFormat, actual)), false);
+
+				assertEquals(1, failures.size());
+				assertEquals(expected.get(0).getMessage(), failures.get(0).getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void testArchiveFormat() throws Exception {
+		assertEquals(OutputFormat.XML, manager.getOutputFormat());
+
+		// the reference data is stored in the default format
+		manager.generateTests(SUITE_NAME);
+		manager.setOutputFormat(OutputFormat.BINARY);
+		manager = fixture.reload(manager);
+		assertEquals(OutputFormat.BINARY, manager.getOutputFormat());
+
+		WordNode.suffix = "!";
+		manager.runTests(SUITE_NAME, false);
+
+		OutputDataManager refManager = getDataManager("first", OutputDataType.REFERENCE);
+		OutputDataManager testManager = getDataManager("first", OutputDataType.TEST);
+		assertEquals(OutputFormat.XML, refManager.getFormat(1));
+		assertEquals(OutputFormat.BINARY, testManager.getFormat(1));
+		assertTrue(containsValue(testManager.getOutputData(1).getInitialElement(), "first!"));
+
+		// XML reference data is compared with binary test data
+		for (Result result : getLatestResults()) {
+			assertEquals(ResultType.FAILED, result.getType());
+			assertEquals(1, result.getFailure().size());
+		}
+
+		List<Result> inMemory = getLatestResults();
+		manager.setStreamingOutput(true);
+		manager.runTests(SUITE_NAME, false);
+
+		List<Result> streamed = getLatestResults();
+		for (int index = 0; index < inMemory.size(); index++) {
+			assertEquals(inMemory.get(index).getFailure().get(0).getMsg(),
+					streamed.get(index).getFailure().get(0).getMsg());
+		}
+
+		WordNode.suffix = "";
+		manager.setStreamingOutput(false);
+		manager.runTests(SUITE_NAME, false);
+
+		for (Result result : getLatestResults()) {
+			assertEquals(ResultType.PASSED, result.getType());
+		}
+
+		// the reference data keeps its format
+		assertEquals(OutputFormat.BINARY, getDataManager("first", OutputDataType.TEST).getFormat(2));
+		assertEquals(OutputFormat.XML, getDataManager("first", OutputDataType.REFERENCE).getFormat(1));
+	}
+
+	@Test
+	public void testConvertedStream() throws Exception {
+		manager.setOutputFormat(OutputFormat.BINARY);
+		manager.generateTests(SUITE_NAME);
+
+		OutputDataManager refManager = getDataManager("first", OutputDataType.REFERENCE);
+		assertEquals(OutputFormat.BINARY, refManager.getFormat(1));
+
+		// the stored stream is binary, but readers of XML get XML
+		try (InputStream stored = new BufferedInputStream(refManager.getOutputDataInputStream(1))) {
+			assertTrue(BinaryOutputCodec.isBinary(stored));
+		}
+
+		try (InputStream xml = refManager.getOutputDataInputStream(1, OutputFormat.XML)) {
+			assertNotNull(xml);
+			assertSameElements(refManager.getOutputData(1).getInitialElement(),
+					OutputCodec.getCodec(OutputFormat.XML).read(xml).getInitialElement());
+		}
+
+		assertNull(refManager.getOutputDataInputStream(2, OutputFormat.XML));
+	}
+}
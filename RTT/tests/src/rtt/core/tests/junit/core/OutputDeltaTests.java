@@ -0,0 +1,285 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.annotations.Node;
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.logging.Entry;
+import rtt.core.archive.logging.Result;
+import rtt.core.archive.logging.ResultType;
+import rtt.core.archive.logging.Testrun;
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+import rtt.core.manager.Manager;
+import rtt.core.manager.data.history.OutputCodec;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.manager.data.history.OutputDelta;
+import rtt.core.tests.junit.ArchiveFixture;
+
+public class OutputDeltaTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	private static final String CONFIG_NAME = ArchiveFixture.CONFIG_NAME;
+
+	@Node
+	public static class WordNode {
+
+		static volatile String suffix = "";
+
+		@Node.Value
+		public List<String> words = new ArrayList<>();
+
+		@Node.Initialize
+		public WordNode(InputStream is) throws Exception {
+			for (String word : new BufferedReader(new InputStreamReader(is)).readLine().split(" ")) {
+				words.add(words.isEmpty() ? word + suffix : word);
+			}
+		}
+	}
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-delta");
+
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		manager = fixture.createManager(WordNode.class, Arrays.asList(
+				fixture.writeInput("first", "first a bb ccc dddd eeeee")));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		WordNode.suffix = "";
+	}
+
+	private static Element createElement(String address, String name, String value) {
+		Element element = new Element();
+		element.setAddress(address);
+		element.setName(name);
+		element.setElementType(value == null ? ElementType.NODE : ElementType.VALUE);
+		element.setGeneratedBy(GeneratorType.FIELD);
+		element.setValue(value);
+		element.setReturnType(String.class.getName());
+
+		return element;
+	}
+
+	/**
+	 * Creates output data with the given number of lists, each with 10
+	 * values. Each value is "list.index", followed by the given suffix.
+	 */
+	private static Output createOutput(int lists, String suffix) {
+		Element initialElement = createElement("1", "Initial Node", null);
+		for (int list = 1; list <= lists; list++) {
+			Element listElement = createElement("1." + list, "list" + list, null);
+			for (int index = 1; index <= 10; index++) {
+				listElement.getElements().add(createElement("1." + list + "." + index,
+						"list" + list + "[" + index + "]", list + "." + index + suffix));
+			}
+
+			initialElement.getElements().add(listElement);
+		}
+
+		Output output = new Output();
+		output.setInitialElement(initialElement);
+
+		return output;
+	}
+
+	private static Element getValue(Output output, int list, int index) {
+		return output.getInitialElement().getElements().get(list - 1).getElements().get(index - 1);
+	}
+
+	private static Output applyDelta(Output base, Output target) throws Exception {
+		ByteArrayOutputStream delta = new ByteArrayOutputStream();
+		OutputDelta.write(base, target, delta);
+
+		return OutputDelta.apply(base, new ByteArrayInputStream(delta.toByteArray()));
+	}
+
+	private static void assertSameElements(Element expected, Element actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+
+		assertEquals(expected.getAddress(), actual.getAddress());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getValue(), actual.getValue());
+		assertEquals(expected.getReturnType(), actual.getReturnType());
+		assertEquals(expected.getElementType(), actual.getElementType());
+		assertEquals(expected.getGeneratedBy(), actual.getGeneratedBy());
+		assertEquals(expected.isInformational(), actual.isInformational());
+
+		assertEquals(expected.getElements().size(), actual.getElements().size());
+		for (int index = 0; index < expected.getElements().size(); index++) {
+			assertSameElements(expected.getElements().get(index), actual.getElements().get(index));
+		}
+	}
+
+	private OutputDataManager getDataManager(OutputDataType type) {
+		return new OutputDataManager(manager.getArchive().getLoader(), SUITE_NAME,
+				"first", manager.getArchive().getConfiguration(CONFIG_NAME), type);
+	}
+
+	private List<Result> getLatestResults() {
+		Testrun testrun = null;
+		for (Entry entry : manager.getArchive().getLogManager().getLogEntries()) {
+			if (entry instanceof Testrun) {
+				testrun = (Testrun) entry;
+			}
+		}
+
+		assertNotNull(testrun);
+		return testrun.getResult();
+	}
+
+	@Test
+	public void testApply() throws Exception {
+		List<Output> targets = new ArrayList<>();
+		targets.add(createOutput(5, ""));
+		targets.add(createOutput(6, ""));
+		targets.add(createOutput(4, ""));
+		targets.add(createOutput(5, "!"));
+		targets.add(new Output());
+
+		// a changed value
+		Output changed = createOutput(5, "");
+		getValue(changed, 3, 4).setValue("changed");
+		getValue(changed, 3, 4).setInformational(true);
+		targets.add(changed);
+
+		// an inserted and a removed element
+		Output inserted = createOutput(5, "");
+		inserted.getInitialElement().getElements().get(1).getElements().add(4,
+				createElement("new", "new", "new"));
+		inserted.getInitialElement().getElements().get(3).getElements().remove(0);
+		targets.add(inserted);
+
+		// a replaced initial element
+		Output replaced = createOutput(2, "");
+		replaced.getInitialElement().setName("Other Node");
+		targets.add(replaced);
+
+		for (Output target : targets) {
+			assertSameElements(target.getInitialElement(),
+					applyDelta(createOutput(5, ""), target).getInitialElement());
+			assertSameElements(target.getInitialElement(),
+					applyDelta(new Output(), target).getInitialElement());
+		}
+	}
+
+	@Test
+	public void testDeltaSize() throws Exception {
+		Output base = createOutput(100, "");
+		Output target = createOutput(100, "");
+		getValue(target, 50, 5).setValue("changed");
+
+		ByteArrayOutputStream delta = new ByteArrayOutputStream();
+		int changedElements = OutputDelta.write(base, target, delta);
+
+		// the initial element, the list and the value
+		assertEquals(3, changedElements);
+
+		ByteArrayOutputStream full = new ByteArrayOutputStream();
+		OutputCodec.getCodec(OutputFormat.BINARY).write(target, full);
+		assertTrue(delta.size() * 20 < full.size());
+	}
+
+	@Test
+	public void testHistory() throws Exception {
+		OutputDataManager refManager = getDataManager(OutputDataType.REFERENCE);
+		refManager.setDeltaChainLength(3);
+
+		for (int version = 1; version <= 10; version++) {
+			Output output = createOutput(10, "");
+			getValue(output, version, 1).setValue("version " + version);
+
+			assertEquals(version, refManager.addData(output, 1));
+		}
+
+		// a completely changed output is stored completely
+		refManager.addData(createOutput(10, "!"), 1);
+		refManager.save();
+
+		OutputDataManager loadedManager = getDataManager(OutputDataType.REFERENCE);
+		int[] expectedLengths = {0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 0};
+		for (int version = 1; version <= 10; version++) {
+			assertEquals(expectedLengths[version - 1], loadedManager.getDeltaChainLength(version));
+
+			Output expected = createOutput(10, "");
+			getValue(expected, version, 1).setValue("version " + version);
+			assertSameElements(expected.getInitialElement(),
+					loadedManager.getOutputData(version).getInitialElement());
+
+			try (InputStream inputStream = loadedManager.getOutputDataInputStream(version)) {
+				Output output = OutputCodec.getCodec(OutputFormat.XML).read(inputStream);
+				assertSameElements(expected.getInitialElement(), output.getInitialElement());
+			}
+		}
+
+		assertEquals(0, loadedManager.getDeltaChainLength(11));
+		assertSameElements(createOutput(10, "!").getInitialElement(),
+				loadedManager.getOutputData(11).getInitialElement());
+	}
+
+	@Test
+	public void testRunTests() throws Exception {
+		assertEquals(0, manager.getDeltaChainLength());
+		manager.setDeltaChainLength(2);
+		assertEquals(2, manager.getDeltaChainLength());
+
+		manager.generateTests(SUITE_NAME);
+		for (String suffix : new String[] {"!", "?", "!"}) {
+			WordNode.suffix = suffix;
+			manager.runTests(SUITE_NAME, false);
+
+			assertEquals(ResultType.FAILED, getLatestResults().get(0).getType());
+		}
+
+		WordNode.suffix = "";
+		manager.setStreamingOutput(true);
+		manager.runTests(SUITE_NAME, false);
+		assertEquals(ResultType.PASSED, getLatestResults().get(0).getType());
+
+		// streamed output data is always stored completely
+		OutputDataManager testManager = getDataManager(OutputDataType.TEST);
+		int[] expectedLengths = {0, 1, 2, 0};
+		for (int version = 1; version <= 4; version++) {
+			assertEquals(expectedLengths[version - 1], testManager.getDeltaChainLength(version));
+		}
+
+		assertEquals("first!", getValue(testManager.getOutputData(3), 1, 1).getValue());
+
+		manager.setStreamingOutput(false);
+		WordNode.suffix = "?";
+		manager.runTests(SUITE_NAME, false);
+
+		// the failures of the delta version are reported like before
+		Result result = getLatestResults().get(0);
+		assertEquals(ResultType.FAILED, result.getType());
+		assertEquals(1, result.getFailure().size());
+		assertEquals(1, getDataManager(OutputDataType.TEST).getDeltaChainLength(5));
+	}
+}
@@ -0,0 +1,286 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.annotations.Node;
+import rtt.core.archive.history.OutputFormat;
+import rtt.core.archive.output.Element;
+import rtt.core.archive.output.ElementType;
+import rtt.core.archive.output.GeneratorType;
+import rtt.core.archive.output.Output;
+import rtt.core.manager.Manager;
+import rtt.core.manager.data.history.LazyOutput;
+import rtt.core.manager.data.history.OutputCodec;
+import rtt.core.manager.data.history.OutputDataManager;
+import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.manager.data.history.OutputIndex;
+import rtt.core.manager.data.history.OutputManager;
+import rtt.core.manager.data.history.XMLOutputSink;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.tests.junit.ArchiveFixture.WordNode;
+
+public class OutputIndexTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	private static final String CONFIG_NAME = ArchiveFixture.CONFIG_NAME;
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-index");
+
+	private Path tempFolder;
+	private File archive;
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		tempFolder = fixture.getFolder();
+		archive = fixture.getArchive();
+
+		manager = fixture.createManager(WordNode.class, Arrays.asList(
+				fixture.writeInput("first", "first a bb ccc")));
+	}
+
+	private static Element createElement(String address, String name, ElementType type,
+			GeneratorType generatedBy, String value) {
+
+		Element element = new Element();
+		element.setAddress(address);
+		element.setName(name);
+		element.setElementType(type);
+		element.setGeneratedBy(generatedBy);
+		element.setValue(value);
+		element.setReturnType(String.class.getName());
+
+		return element;
+	}
+
+	private static Output createOutput(int listSize) {
+		Element initialElement = createElement("1", "Initial Node",
+				ElementType.NODE, GeneratorType.OBJECT, "Node");
+
+		Element entry = createElement("1.1", "map [1]", ElementType.NODE, GeneratorType.MAP, null);
+		entry.getElements().add(createElement("1.1", "map [1]-Key",
+				ElementType.VALUE, GeneratorType.MAP, "key"));
+		entry.getElements().add(createElement("1.1", "map [1]-Value",
+				ElementType.REFERENCE, GeneratorType.MAP, "1.2.3"));
+		initialElement.getElements().add(entry);
+
+		Element list = createElement("1.2", "list", ElementType.NODE, GeneratorType.FIELD, "List");
+		list.setInformational(true);
+		for (int index = 1; index <= listSize; index++) {
+			list.getElements().add(createElement("1.2." + index, "list[" + (index % 100) + "]",
+					ElementType.VALUE, GeneratorType.ITERABLE, "välue " + index));
+		}
+		initialElement.getElements().add(list);
+
+		// addresses, which do not follow the generated scheme
+		initialElement.getElements().add(createElement("custom", "custom",
+				ElementType.VALUE, GeneratorType.METHOD, ""));
+		initialElement.getElements().add(createElement(null, null,
+				ElementType.VALUE, GeneratorType.METHOD, "no address"));
+
+		// a name, which equals its return type, and a value larger than the read buffer
+		StringBuilder value = new StringBuilder();
+		while (value.length() < 20000) {
+			value.append("long value ");
+		}
+
+		Element sameName = createElement("1.5", String.class.getName(),
+				ElementType.VALUE, GeneratorType.METHOD, value.toString());
+		sameName.getElements().add(createElement("1.5.1", "child",
+				ElementType.VALUE, GeneratorType.FIELD, "after long value"));
+		initialElement.getElements().add(sameName);
+
+		Output output = new Output();
+		output.setInitialElement(initialElement);
+
+		return output;
+	}
+
+	private LazyOutput openLazyOutput(Output output) throws Exception {
+		File dataFile = tempFolder.resolve("output.bin").toFile();
+		try (OutputStream outputStream = new FileOutputStream(dataFile)) {
+			OutputCodec.getCodec(OutputFormat.BINARY).write(output, outputStream);
+		}
+
+		File indexFile = tempFolder.resolve("output.index").toFile();
+		try (InputStream inputStream = Files.newInputStream(dataFile.toPath())) {
+			OutputIndex.write(inputStream, indexFile);
+		}
+
+		return new LazyOutput(dataFile, indexFile);
+	}
+
+	private static void assertSameElements(Element expected, Element actual) {
+		assertEquals(expected.getAddress(), actual.getAddress());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getValue(), actual.getValue());
+		assertEquals(expected.getReturnType(), actual.getReturnType());
+		assertEquals(expected.getElementType(), actual.getElementType());
+		assertEquals(expected.getGeneratedBy(), actual.getGeneratedBy());
+		assertEquals(expected.isInformational(), actual.isInformational());
+
+		assertEquals(expected.getElements().size(), actual.getElements().size());
+		for (int index = 0; index < expected.getElements().size(); index++) {
+			assertSameElements(expected.getElements().get(index), actual.getElements().get(index));
+		}
+	}
+
+	private List<String> getEntries(String suffix) throws Exception {
+		manager.saveArchive(archive);
+		manager.close();
+
+		List<String> entries = new ArrayList<>();
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry entry = zipEntries.nextElement();
+				if (!entry.isDirectory() && entry.getName().endsWith(suffix)) {
+					entries.add(entry.getName());
+				}
+			}
+		}
+
+		manager = fixture.openManager();
+
+		return entries;
+	}
+
+	private OutputDataManager getDataManager(OutputDataType type) {
+		return new OutputDataManager(manager.getArchive().getLoader(), SUITE_NAME,
+				"first", manager.getArchive().getConfiguration(CONFIG_NAME), type);
+	}
+
+	@Test
+	public void testLazyOutput() throws Exception {
+		Output output = createOutput(12);
+		try (LazyOutput lazyOutput = openLazyOutput(output)) {
+			assertEquals(21, lazyOutput.getElementCount());
+			assertSameElements(output.getInitialElement(), lazyOutput.getOutput().getInitialElement());
+		}
+
+		try (LazyOutput lazyOutput = openLazyOutput(new Output())) {
+			assertEquals(0, lazyOutput.getElementCount());
+			assertNull(lazyOutput.getOutput().getInitialElement());
+			assertNull(lazyOutput.getElement("1"));
+		}
+	}
+
+	@Test
+	public void testGetElement() throws Exception {
+		Output output = createOutput(12);
+		try (LazyOutput lazyOutput = openLazyOutput(output)) {
+			// a reference is resolved without reading the elements before it
+			Element reference = lazyOutput.getElement("1.1").getElements().get(1);
+			assertEquals(ElementType.REFERENCE, reference.getElementType());
+			assertEquals("välue 3", lazyOutput.getElement(reference.getValue()).getValue());
+
+			// elements sharing an address with their parent are not found directly
+			assertEquals("map [1]", lazyOutput.getElement("1.1").getName());
+
+			assertEquals("Initial Node", lazyOutput.getElement("1").getName());
+			assertEquals("custom", lazyOutput.getElement("custom").getName());
+			assertEquals("after long value", lazyOutput.getElement("1.5.1").getValue());
+			assertSameElements(output.getInitialElement().getElements().get(1),
+					lazyOutput.getElement("1.2"));
+
+			assertNull(lazyOutput.getElement("1.2.13"));
+			assertNull(lazyOutput.getElement(null));
+		}
+	}
+
+	@Test
+	public void testRandomAccess() throws Exception {
+		try (LazyOutput lazyOutput = openLazyOutput(createOutput(20000))) {
+			List<Element> list = lazyOutput.getOutput().getInitialElement().getElements().get(1).getElements();
+			assertEquals(20000, list.size());
+
+			Random random = new Random(42);
+			for (int i = 0; i < 100; i++) {
+				int index = random.nextInt(list.size());
+				Element element = list.get(index);
+
+				assertEquals("1.2." + (index + 1), element.getAddress());
+				assertEquals("välue " + (index + 1), element.getValue());
+				assertEquals("list[" + ((index + 1) % 100) + "]", element.getName());
+			}
+
+			assertEquals("välue 12345", lazyOutput.getElement("1.2.12345").getValue());
+		}
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		Output output = createOutput(12);
+		try (LazyOutput lazyOutput = openLazyOutput(output)) {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			lazyOutput.write(new XMLOutputSink(outputStream));
+
+			Output written = OutputCodec.getCodec(OutputFormat.XML).read(
+					new ByteArrayInputStream(outputStream.toByteArray()));
+			assertSameElements(output.getInitialElement(), written.getInitialElement());
+		}
+	}
+
+	@Test
+	public void testArchive() throws Exception {
+		manager.setOutputFormat(OutputFormat.BINARY);
+		manager.generateTests(SUITE_NAME);
+
+		manager.setStreamingOutput(true);
+		manager.runTests(SUITE_NAME, false);
+
+		// equal reference and test data share their blob and its index
+		assertEquals(1, getEntries("." + OutputManager.INDEX_EXTENSION).size());
+
+		for (OutputDataType type : OutputDataType.values()) {
+			OutputDataManager dataManager = getDataManager(type);
+			try (LazyOutput lazyOutput = dataManager.getLazyOutputData(1)) {
+				assertNotNull(lazyOutput);
+				assertSameElements(dataManager.getOutputData(1).getInitialElement(),
+						lazyOutput.getOutput().getInitialElement());
+			}
+		}
+
+		assertNull(getDataManager(OutputDataType.REFERENCE).getLazyOutputData(2));
+
+		// output data in the xml format has no index
+		OutputDataManager xmlManager = getDataManager(OutputDataType.REFERENCE);
+		xmlManager.setOutputFormat(OutputFormat.XML);
+		Output output = xmlManager.getOutputData(1);
+		output.getInitialElement().getElements().get(0).setValue("changed");
+		assertEquals(2, xmlManager.addData(output, 1));
+		assertNull(xmlManager.getLazyOutputData(2));
+
+		assertEquals(1, getEntries("." + OutputManager.INDEX_EXTENSION).size());
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidIndex() throws Exception {
+		OutputIndex.write(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6 }),
+				tempFolder.resolve("output.index").toFile());
+	}
+}
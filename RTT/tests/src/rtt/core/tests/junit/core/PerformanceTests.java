@@ -0,0 +1,220 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.annotations.Node;
+import rtt.core.archive.history.CostMeasure;
+import rtt.core.archive.history.CostMetric;
+import rtt.core.archive.history.CostPhase;
+import rtt.core.archive.history.ExecutionCost;
+import rtt.core.archive.logging.Entry;
+import rtt.core.archive.logging.Failure;
+import rtt.core.archive.logging.Result;
+import rtt.core.archive.logging.ResultType;
+import rtt.core.archive.logging.Testrun;
+import rtt.core.manager.Manager;
+import rtt.core.testing.compare.CostCompare;
+import rtt.core.testing.compare.results.PerformanceFailure;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.utils.GenerationInformation.GenerationResult;
+
+public class PerformanceTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+
+	@Node
+	public static class CostlyNode {
+
+		static volatile int allocation = 1024;
+
+		private String input;
+		private byte[] buffer;
+
+		@Node.Initialize
+		public CostlyNode(InputStream is) throws Exception {
+			input = new BufferedReader(new InputStreamReader(is)).readLine();
+			buffer = new byte[allocation];
+		}
+
+		@Node.Value
+		public String value() {
+			return input + buffer.length / allocation;
+		}
+	}
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-performance");
+
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		manager = fixture.createManager(CostlyNode.class, fixture.writeInputs("first", "second"));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		CostlyNode.allocation = 1024;
+	}
+
+	private List<Result> getLatestResults() {
+		Testrun testrun = null;
+		for (Entry entry : manager.getArchive().getLogManager().getLogEntries()) {
+			if (entry instanceof Testrun) {
+				testrun = (Testrun) entry;
+			}
+		}
+
+		assertNotNull(testrun);
+		return testrun.getResult();
+	}
+
+	private static CostMeasure findMeasure(ExecutionCost cost, CostPhase phase, CostMetric metric) {
+		for (CostMeasure measure : cost.getMeasure()) {
+			if (measure.getPhase() == phase && measure.getMetric() == metric) {
+				return measure;
+			}
+		}
+
+		return null;
+	}
+
+	private static ExecutionCost createCost(int iterations, double mean, double stdDev) {
+		CostMeasure measure = new CostMeasure();
+		measure.setPhase(CostPhase.TRAVERSAL);
+		measure.setMetric(CostMetric.WALL_TIME);
+		measure.setMean(mean);
+		measure.setStdDev(stdDev);
+		measure.setMin(mean - stdDev);
+
+		ExecutionCost cost = new ExecutionCost();
+		cost.setIterations(iterations);
+		cost.getMeasure().add(measure);
+
+		return cost;
+	}
+
+	@Test
+	public void testCostIsMeasured() throws Exception {
+		manager.setCostMeasurement(1, 3);
+
+		for (GenerationResult result : manager.generateTests(SUITE_NAME).getResults(true)) {
+			assertTrue(result.noError);
+			assertNotNull(result.cost);
+			assertEquals(1, result.cost.getWarmup());
+			assertEquals(3, result.cost.getIterations());
+
+			for (CostPhase phase : CostPhase.values()) {
+				CostMeasure measure = findMeasure(result.cost, phase, CostMetric.WALL_TIME);
+				assertNotNull(measure);
+				assertTrue(measure.getMin() > 0);
+				assertTrue(measure.getMean() >= measure.getMin());
+			}
+		}
+	}
+
+	@Test
+	public void testWithoutMeasurement() throws Exception {
+		for (GenerationResult result : manager.generateTests(SUITE_NAME).getResults(true)) {
+			assertTrue(result.noError);
+			assertEquals(null, result.cost);
+		}
+	}
+
+	@Test
+	public void testRegression() throws Exception {
+		manager.setCostMeasurement(2, 5);
+		manager.setPerformanceCheck(true);
+		// a generous tolerance keeps the unchanged run stable
+		manager.setCostTolerance(5.0);
+
+		manager.generateTests(SUITE_NAME);
+
+		manager.runTests(SUITE_NAME, false);
+		for (Result result : getLatestResults()) {
+			assertEquals(ResultType.PASSED, result.getType());
+		}
+
+		// the output data stays equal, but the allocations increase
+		CostlyNode.allocation = 16 * 1024 * 1024;
+
+		manager.runTests(SUITE_NAME, false);
+		for (Result result : getLatestResults()) {
+			assertEquals(ResultType.FAILED, result.getType());
+			
+			boolean allocationFailure = false;
+			for (Failure failure : result.getFailure()) {
+				allocationFailure |= failure.getMsg().contains("INITIALIZE ALLOCATED_BYTES");
+			}
+			
+			assertTrue(allocationFailure);
+		}
+	}
+
+	@Test
+	public void testSingleIteration() throws Exception {
+		manager.setCostMeasurement(1, 1);
+		manager.setPerformanceCheck(true);
+		manager.setCostTolerance(0.1);
+
+		manager.generateTests(SUITE_NAME);
+
+		// a single iteration can not be compared, even if it increases
+		CostlyNode.allocation = 16 * 1024 * 1024;
+
+		manager.runTests(SUITE_NAME, false);
+		for (Result result : getLatestResults()) {
+			assertEquals(ResultType.PASSED, result.getType());
+		}
+	}
+
+	@Test
+	public void testCompareCost() throws Exception {
+		ExecutionCost refCost = createCost(10, 1000, 10);
+
+		// unchanged cost
+		assertTrue(CostCompare.compareCost(refCost,
+				createCost(10, 1010, 10), 0.1).isEmpty());
+
+		// a stable increase of 50%
+		List<PerformanceFailure> failures = CostCompare.compareCost(
+				refCost, createCost(10, 1500, 10), 0.1);
+
+		assertEquals(1, failures.size());
+		assertEquals(CostPhase.TRAVERSAL, failures.get(0).getPhase());
+		assertEquals(CostMetric.WALL_TIME, failures.get(0).getMetric());
+
+		// the same increase within noisy measures is not significant
+		assertTrue(CostCompare.compareCost(refCost,
+				createCost(3, 1500, 400), 0.1).isEmpty());
+
+		// a single iteration can not be compared
+		assertTrue(CostCompare.compareCost(createCost(1, 1000, 0),
+				createCost(10, 1500, 10), 0.1).isEmpty());
+
+		// deterministic measures are compared directly
+		assertEquals(1, CostCompare.compareCost(createCost(2, 1000, 0),
+				createCost(2, 1200, 0), 0.1).size());
+
+		// but not, if a single iteration has no deviation by definition
+		assertTrue(CostCompare.compareCost(createCost(1, 1000, 0),
+				createCost(1, 1200, 0), 0.1).isEmpty());
+		assertTrue(CostCompare.compareCost(createCost(10, 1000, 0),
+				createCost(1, 1200, 0), 0.1).isEmpty());
+
+		// versions without measured cost
+		assertTrue(CostCompare.compareCost(null, refCost, 0.1).isEmpty());
+	}
+}
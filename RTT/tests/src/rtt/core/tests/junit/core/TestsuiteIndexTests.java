@@ -0,0 +1,188 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import rtt.core.archive.Archive;
+import rtt.core.archive.testsuite.Testcase;
+import rtt.core.archive.testsuite.VersionData;
+import rtt.core.manager.Manager;
+import rtt.core.manager.Manager.TestCaseMode;
+
+public class TestsuiteIndexTests {
+	
+	private Path archivePath;
+	private List<File> inputFiles;
+	private Manager manager;
+	private Archive archive;
+
+	@Before
+	public void setUp() throws Exception {
+		archivePath = Files.createTempDirectory("rtt-index").resolve("archive.zip");
+		
+		inputFiles = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			inputFiles.add(Paths.get("tests/testsets/ccc/" + i + ".testcase").toFile());
+		}
+		
+		manager = new Manager(archivePath.toFile(), false, true);
+		manager.createArchive(archivePath.toFile());
+		manager.addAllFiles(inputFiles, "suite", TestCaseMode.SKIP);
+		
+		archive = manager.getArchive();
+	}
+	
+	@After
+	public void tearDown() throws Exception {
+		if (manager != null) {
+			manager.close();
+		}
+		
+		Files.deleteIfExists(archivePath);
+		Files.deleteIfExists(archivePath.getParent());
+	}
+	
+	@Test
+	public void testLookup() throws Exception {
+		assertNotNull(archive.getTestsuite("suite"));
+		assertNull(archive.getTestsuite("unknown"));
+		
+		for (int i = 1; i <= 3; i++) {
+			assertEquals(String.valueOf(i), 
+					archive.getTestcase("suite", String.valueOf(i)).getName());
+		}
+		
+		assertNull(archive.getTestcase("suite", "4"));
+		assertNull(archive.getTestcase("unknown", "1"));
+	}
+	
+	@Test
+	public void testCachedViews() throws Exception {
+		List<Testcase> cases = archive.getTestcases("suite");
+		assertEquals(3, cases.size());
+		assertSame(cases, archive.getTestcases("suite"));
+		assertSame(archive.getTestsuites(), archive.getTestsuites());
+	}
+	
+	@Test
+	public void testRemoveAndRestoreTestcase() throws Exception {
+		List<Testcase> cases = archive.getTestcases("suite");
+		assertTrue(archive.removeTestcase("suite", "1"));
+		
+		assertNull(archive.getTestcase("suite", "1"));
+		assertNotNull(archive.getTestcase("suite", "1", true));
+		assertEquals(2, archive.getTestcases("suite").size());
+		assertEquals(3, archive.getTestcases("suite", true).size());
+		
+		// the former view is not modified
+		assertEquals(3, cases.size());
+		
+		manager.addAllFiles(inputFiles.subList(0, 1), "suite", TestCaseMode.SKIP);
+		
+		cases = archive.getTestcases("suite");
+		assertEquals(3, cases.size());
+		assertEquals("1", cases.get(2).getName());
+	}
+	
+	@Test
+	public void testRemoveAndRestoreTestsuite() throws Exception {
+		assertEquals(1, archive.getTestsuites().size());
+		assertTrue(manager.removeTestsuite("suite"));
+		
+		assertNull(archive.getTestsuite("suite"));
+		assertFalse(archive.hasTestcase("suite", "1"));
+		assertTrue(archive.getTestsuites().isEmpty());
+		
+		manager.addAllFiles(inputFiles, "suite", TestCaseMode.SKIP);
+		
+		assertEquals(1, archive.getTestsuites().size());
+		assertEquals(3, archive.getTestcases("suite").size());
+	}
+	
+	@Test
+	public void testIndexAfterReload() throws Exception {
+		manager.saveArchive(archivePath.toFile());
+		manager.loadArchive(archivePath.toFile());
+		archive = manager.getArchive();
+		
+		assertNotNull(archive.getTestcase("suite", "2"));
+		assertEquals(3, archive.getTestcases("suite").size());
+	}
+	
+	@Test
+	public void testVersionData() throws Exception {
+		Testcase testcase = archive.getTestcase("suite", "1");
+		assertNull(archive.getVersionData(testcase, "config", false));
+		
+		VersionData versionData = archive.getVersionData(testcase, "config", true);
+		assertNotNull(versionData);
+		assertSame(versionData, archive.getVersionData(testcase, "config", false));
+		
+		// version data added directly to the test case is found as well
+		VersionData otherData = new VersionData();
+		otherData.setConfig("other");
+		testcase.getVersionData().add(otherData);
+		
+		assertSame(otherData, archive.getVersionData(testcase, "other", false));
+		assertEquals(2, testcase.getVersionData().size());
+	}
+	
+	@Test
+	public void testConcurrentLookups() throws Exception {
+		manager.saveArchive(archivePath.toFile());
+		manager.loadArchive(archivePath.toFile());
+		archive = manager.getArchive();
+		
+		// the indexes are built and updated by several threads at once
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			final String configName = "config" + i;
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					for (int round = 0; round < 100; round++) {
+						assertEquals(3, archive.getTestcases("suite").size());
+						for (int i = 1; i <= 3; i++) {
+							Testcase testcase = archive.getTestcase("suite", String.valueOf(i));
+							assertNotNull(archive.getVersionData(testcase, configName, true));
+						}
+					}
+					
+					return null;
+				}
+			});
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		for (int i = 1; i <= 3; i++) {
+			assertEquals(8, archive.getTestcase("suite", String.valueOf(i)).getVersionData().size());
+		}
+	}
+}
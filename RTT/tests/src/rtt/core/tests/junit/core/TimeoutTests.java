@@ -0,0 +1,155 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.annotations.Node;
+import rtt.core.manager.Manager;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.utils.GenerationInformation;
+import rtt.core.utils.GenerationInformation.GenerationResult;
+
+public class TimeoutTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+	private static final long SLEEP_TIME = 30000;
+
+	@Node
+	public static class SleepingNode {
+
+		private String input;
+
+		@Node.Initialize
+		public SleepingNode(InputStream is) throws Exception {
+			input = new BufferedReader(new InputStreamReader(is)).readLine();
+			if (input.startsWith("sleep")) {
+				Thread.sleep(SLEEP_TIME);
+			}
+		}
+
+		@Node.Value
+		public String value() {
+			return input;
+		}
+	}
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-timeout");
+
+	private Manager manager;
+
+	@Before
+	public void setUp() throws Exception {
+		manager = fixture.createManager(SleepingNode.class,
+				fixture.writeInputs("fast", "sleep1", "sleep2", "last"));
+	}
+
+	private String getState(GenerationResult result) {
+		if (result.timedOut) {
+			return result.caseName + ":timeout";
+		}
+
+		if (result.cancelled) {
+			return result.caseName + ":cancelled";
+		}
+
+		return result.caseName + ":" + result.noError;
+	}
+
+	private List<String> getStates(GenerationInformation infos) {
+		List<String> states = new ArrayList<>();
+		for (GenerationResult result : infos.getResults(true)) {
+			states.add(getState(result));
+		}
+
+		return states;
+	}
+
+	@Test(timeout=SLEEP_TIME)
+	public void testCaseTimeout() throws Exception {
+		manager.setTimeouts("config", 200, 0);
+
+		List<String> expected = new ArrayList<>();
+		expected.add("fast:true");
+		expected.add("sleep1:timeout");
+		expected.add("sleep2:timeout");
+		expected.add("last:true");
+
+		assertEquals(expected, getStates(manager.generateTests(SUITE_NAME)));
+		assertEquals(expected, getStates(manager.runTests(SUITE_NAME, false)));
+	}
+
+	@Test(timeout=SLEEP_TIME)
+	public void testParallelTimeout() throws Exception {
+		manager.setWorkerCount(2);
+		manager.setTimeouts("config", 200, 0);
+
+		List<String> states = getStates(manager.runTests(SUITE_NAME, false));
+		assertEquals("sleep1:timeout", states.get(1));
+		assertEquals("sleep2:timeout", states.get(2));
+	}
+
+	@Test(timeout=SLEEP_TIME)
+	public void testTestcaseTimeout() throws Exception {
+		manager.setTimeouts("config", SLEEP_TIME * 2, 0);
+		manager.setTimeoutToTest(SUITE_NAME, "sleep1", 200L);
+		manager.setTimeoutToTest(SUITE_NAME, "sleep2", 200L);
+
+		List<String> states = getStates(manager.generateTests(SUITE_NAME));
+		assertEquals("sleep1:timeout", states.get(1));
+		assertEquals("sleep2:timeout", states.get(2));
+	}
+
+	@Test(timeout=SLEEP_TIME)
+	public void testSuiteTimeout() throws Exception {
+		manager.setTimeouts("config", 0, 300);
+
+		List<String> states = getStates(manager.generateTests(SUITE_NAME));
+		assertEquals("fast:true", states.get(0));
+		assertEquals("sleep1:timeout", states.get(1));
+
+		// the remaining test cases exceed the limit of the test suite
+		assertEquals("sleep2:timeout", states.get(2));
+		assertEquals("last:timeout", states.get(3));
+	}
+
+	@Test(timeout=SLEEP_TIME)
+	public void testCancel() throws Exception {
+		manager.setTimeouts("config", SLEEP_TIME * 2, 0);
+		assertFalse(manager.isCancelled());
+
+		Thread canceller = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					return;
+				}
+
+				manager.cancel();
+			}
+		};
+
+		canceller.start();
+		List<String> states = getStates(manager.runTests(SUITE_NAME, false));
+		canceller.join();
+
+		assertTrue(manager.isCancelled());
+		assertEquals("fast:true", states.get(0));
+		assertEquals("sleep1:cancelled", states.get(1));
+		assertEquals("sleep2:cancelled", states.get(2));
+		assertEquals("last:cancelled", states.get(3));
+	}
+}
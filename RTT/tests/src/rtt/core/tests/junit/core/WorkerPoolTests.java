@@ -0,0 +1,248 @@
+package rtt.core.tests.junit.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.tools.ant.Project;
+import org.junit.Rule;
+import org.junit.Test;
+
+import rtt.annotations.Node;
+import rtt.core.manager.Manager;
+import rtt.core.tests.RepositoryGenerator;
+import rtt.core.tests.junit.ArchiveFixture;
+import rtt.core.utils.GenerationInformation;
+import rtt.core.utils.GenerationInformation.GenerationResult;
+
+public class WorkerPoolTests {
+
+	private static final String SUITE_NAME = ArchiveFixture.SUITE_NAME;
+
+	// executes the test task like a taskdef with a class path, which 
+	// needs no launcher of Ant for reading the manifests of the jar files
+	private static final String LAUNCHER_SOURCE =
+			"public class AntLauncher {\n" +
+			"	public static void main(String[] args) throws Exception {\n" +
+			"		org.apache.tools.ant.Project project = new org.apache.tools.ant.Project();\n" +
+			"		org.apache.tools.ant.AntClassLoader loader = project.createClassLoader(null);\n" +
+			"		for (String entry : args[0].split(java.io.File.pathSeparator)) {\n" +
+			"			loader.addPathComponent(new java.io.File(entry));\n" +
+			"		}\n" +
+			"		Class<?> type = loader.loadClass(\"rtt.ant.RunTest\");\n" +
+			"		org.apache.tools.ant.Task task = (org.apache.tools.ant.Task) type.getConstructor().newInstance();\n" +
+			"		task.setProject(project);\n" +
+			"		type.getMethod(\"setArchive\", String.class).invoke(task, args[1]);\n" +
+			"		type.getMethod(\"setIsolated\", boolean.class).invoke(task, true);\n" +
+			"		task.execute();\n" +
+			"	}\n" +
+			"}\n";
+
+	@Node
+	public static class ExitingNode {
+
+		private String input;
+
+		@Node.Initialize
+		public ExitingNode(InputStream is) throws Exception {
+			input = new BufferedReader(new InputStreamReader(is)).readLine();
+			if (input.startsWith("exit")) {
+				System.exit(1);
+			}
+
+			if (input.startsWith("sleep")) {
+				// ignores the interrupt, so only the worker can be killed
+				long end = System.currentTimeMillis() + 30000;
+				while (System.currentTimeMillis() < end) {
+					try {
+						Thread.sleep(end - System.currentTimeMillis());
+					} catch (InterruptedException e) {
+						// continue sleeping
+					}
+				}
+			}
+
+			// the output of the tested classes must not disturb the protocol
+			System.out.println("Output of test case: " + input);
+		}
+
+		@Node.Value
+		public String value() {
+			return input;
+		}
+	}
+
+	@Rule
+	public ArchiveFixture fixture = new ArchiveFixture("rtt-worker");
+
+	private Manager createManager(String archiveName, String initialNode,
+			List<File> inputFiles) throws Exception {
+
+		return fixture.createManager(fixture.getFolder().resolve(archiveName).toFile(),
+				initialNode, new ArrayList<String>(), inputFiles);
+	}
+
+	private List<String> getStates(GenerationInformation infos) {
+		List<String> states = new ArrayList<>();
+		for (GenerationResult result : infos.getResults(true)) {
+			states.add(result.caseName + ":" + result.noError + ":" + result.hasReplaced);
+		}
+
+		return states;
+	}
+
+	private List<String> generate(String archiveName, boolean isolated,
+			boolean streaming) throws Exception {
+
+		Manager manager = createManager(archiveName,
+				RepositoryGenerator.class.getName(), fixture.copyTestsets("ccc", "cec", "cfc"));
+
+		manager.setIsolatedExecution(isolated);
+		manager.setStreamingOutput(streaming);
+
+		try {
+			List<String> states = getStates(manager.generateTests(SUITE_NAME));
+			states.addAll(getStates(manager.runTests(SUITE_NAME, false)));
+
+			if (isolated) {
+				// the worker is reused, even if a test case failed
+				assertEquals(1, manager.getWorkerPool().getStartedCount());
+			}
+
+			return states;
+		} finally {
+			manager.close();
+		}
+	}
+
+	@Test
+	public void testSameResultsAsLocal() throws Exception {
+		List<String> local = generate("local.zip", false, false);
+
+		assertEquals(local, generate("isolated.zip", true, false));
+		assertEquals(local, generate("streamed.zip", true, true));
+	}
+
+	@Test
+	public void testSystemExit() throws Exception {
+		Manager manager = createManager("exit.zip",
+				ExitingNode.class.getName(), fixture.writeInputs("first", "exit", "last"));
+
+		manager.setIsolatedExecution(true);
+		try {
+			List<GenerationResult> results = manager.generateTests(SUITE_NAME).getResults(true);
+
+			assertTrue(results.get(0).noError);
+			assertFalse(results.get(1).noError);
+			assertTrue(results.get(2).noError);
+
+			// a new worker has been started for the last test case
+			assertEquals(2, manager.getWorkerPool().getStartedCount());
+		} finally {
+			manager.close();
+		}
+	}
+
+	@Test
+	public void testRecycling() throws Exception {
+		Manager manager = createManager("recycle.zip",
+				ExitingNode.class.getName(), fixture.writeInputs("a", "b", "c", "d", "e"));
+
+		manager.setIsolatedExecution(true);
+		manager.getWorkerPool().setMaxCases(2);
+		try {
+			for (GenerationResult result : manager.generateTests(SUITE_NAME).getResults(true)) {
+				assertTrue(result.noError);
+			}
+
+			assertEquals(3, manager.getWorkerPool().getStartedCount());
+		} finally {
+			manager.close();
+		}
+	}
+
+	@Test(timeout=60000)
+	public void testAntTask() throws Exception {
+		File archive = fixture.getFolder().resolve("ant.zip").toFile();
+		Manager manager = createManager("ant.zip",
+				ExitingNode.class.getName(), fixture.writeInputs("first", "second"));
+		try {
+			manager.generateTests(SUITE_NAME);
+			manager.saveArchive(archive);
+		} finally {
+			manager.close();
+		}
+
+		// RTT is loaded by Ant, the class path of the process contains only Ant
+		String antClasspath = new File(Project.class.getProtectionDomain()
+				.getCodeSource().getLocation().toURI()).getPath();
+
+		Path launcherFolder = Files.createDirectories(fixture.getFolder().resolve("launcher"));
+		Path launcherFile = launcherFolder.resolve("AntLauncher.java");
+		Files.write(launcherFile, LAUNCHER_SOURCE.getBytes(StandardCharsets.UTF_8));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, "-cp", antClasspath,
+				"-d", launcherFolder.toString(), launcherFile.toString()));
+
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			if (argument.startsWith("--add-opens")) {
+				command.add(argument);
+			}
+		}
+
+		command.add("-cp");
+		command.add(antClasspath + File.pathSeparator + launcherFolder);
+		command.add("AntLauncher");
+		command.add(System.getProperty("java.class.path"));
+		command.add(archive.getPath());
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		StringBuilder output = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				output.append(line).append('\n');
+			}
+		}
+
+		assertEquals(output.toString(), 0, process.waitFor());
+	}
+
+	@Test(timeout=20000)
+	public void testTimeoutKillsWorker() throws Exception {
+		Manager manager = createManager("timeout.zip",
+				ExitingNode.class.getName(), fixture.writeInputs("first", "sleep", "last"));
+
+		manager.setIsolatedExecution(true);
+		manager.setTimeouts("config", 2000, 0);
+		try {
+			List<GenerationResult> results = manager.generateTests(SUITE_NAME).getResults(true);
+
+			assertTrue(results.get(0).noError);
+			assertTrue(results.get(1).timedOut);
+			assertTrue(results.get(2).noError);
+
+			// the killed worker has been replaced
+			assertTrue(manager.getWorkerPool().getStartedCount() >= 2);
+		} finally {
+			manager.close();
+		}
+	}
+}
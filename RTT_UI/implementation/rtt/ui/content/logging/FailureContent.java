@@ -18,6 +18,7 @@ import org.eclipse.ui.IWorkbenchPage;
 
 import rtt.core.archive.Archive;
 import rtt.core.archive.configuration.Configuration;
+import rtt.core.archive.history.OutputFormat;
 import rtt.core.archive.logging.Failure;
 import rtt.core.archive.logging.Result;
 import rtt.core.exceptions.RTTException;
@@ -68,7 +69,8 @@ public class FailureContent extends AbstractLogContent {
 	}
 	
 	private InputStream getInputStream(OutputDataManager manager, Integer version) {
-		return manager.getOutputDataInputStream(version);
+		// the compare editor can only read XML
+		return manager.getOutputDataInputStream(version, OutputFormat.XML);
 	}
 
 	@Override
@@ -84,8 +86,8 @@ public class FailureContent extends AbstractLogContent {
 				final ResourceSet left = new ResourceSetImpl();
 				final ResourceSet right = new ResourceSetImpl();
 				
-				OutputDataManager refManager = new OutputDataManager(archive.getLoader(), suiteName, caseName, activeConfig, OutputDataType.REFERENCE);
-				OutputDataManager testManager = new OutputDataManager(archive.getLoader(), suiteName, caseName, activeConfig, OutputDataType.TEST);		
+				OutputDataManager refManager = new OutputDataManager(archive.getLoader(), suiteName, caseName, activeConfig, OutputDataType.REFERENCE, archive.getManifestManager());
+				OutputDataManager testManager = new OutputDataManager(archive.getLoader(), suiteName, caseName, activeConfig, OutputDataType.TEST, archive.getManifestManager());		
 				
 				RttPluginUtil.loadResource(right, URI.createURI("reference_data.rtt"), getInputStream(refManager, refVersion));				
 				RttPluginUtil.loadResource(left, URI.createURI("test_data.rtt"), getInputStream(testManager, testVersion));
@@ -49,6 +49,7 @@ public class TestResultContent extends AbstractLogContent {
 	private ContentIcon getContentIcon(Result result) {
 		switch (result.getType()) {
 		case FAILED:
+		case TIMEOUT:
 			return ContentIcon.FAILED;
 			
 		case PASSED:
@@ -104,7 +104,7 @@ public class InputEditorInput implements IStorageEditorInput {
 						throw new RuntimeException("Could not open manager.");
 					}
 					
-					InputManager inputManager = new InputManager(manager.getArchive().getLoader(), suiteName, caseName);
+					InputManager inputManager = new InputManager(manager.getArchive().getLoader(), suiteName, caseName, manager.getArchive().getManifestManager());
 					InputStream bais = new ByteArrayInputStream(inputManager.getInput(versionNr).getValue().getBytes());
 
 					manager.close();
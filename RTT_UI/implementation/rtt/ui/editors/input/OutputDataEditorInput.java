@@ -1,5 +1,10 @@
 package rtt.ui.editors.input;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
@@ -8,11 +13,14 @@ import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IPersistableElement;
 
+import rtt.core.archive.history.OutputFormat;
 import rtt.core.exceptions.RTTException;
 import rtt.core.loader.ArchiveLoader;
 import rtt.core.manager.Manager;
+import rtt.core.manager.data.history.LazyOutput;
 import rtt.core.manager.data.history.OutputDataManager;
 import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
+import rtt.core.manager.data.history.XMLOutputSink;
 import rtt.ui.model.RttProject;
 import rtt.ui.utils.RttLog;
 import rtt.ui.utils.RttPluginUtil;
@@ -49,9 +57,10 @@ public class OutputDataEditorInput implements IEditorInput {
 			ArchiveLoader loader = manager.getArchive().getLoader();
 			
 			OutputDataManager outputManager = new OutputDataManager(
-					loader, suiteName, caseName, project.getActiveConfiguration(), type);
+					loader, suiteName, caseName, project.getActiveConfiguration(), type,
+					manager.getArchive().getManifestManager());
 			
-			RttPluginUtil.loadResource(resourceSet, PARSER_URI, outputManager.getOutputDataInputStream(version));
+			RttPluginUtil.loadResource(resourceSet, PARSER_URI, getInputStream(outputManager));
 		} catch (RTTException e) {
 			RttLog.log(e);
 		} finally {
@@ -60,6 +69,22 @@ public class OutputDataEditorInput implements IEditorInput {
 			}
 		}
 	}
+	
+	private InputStream getInputStream(OutputDataManager outputManager) {
+		// binary versions are converted from the lazy view, element by element
+		try (LazyOutput lazyOutput = outputManager.getLazyOutputData(version)) {
+			if (lazyOutput != null) {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				lazyOutput.write(new XMLOutputSink(outputStream));
+				
+				return new ByteArrayInputStream(outputStream.toByteArray());
+			}
+		} catch (IOException e) {
+			RttLog.log(e);
+		}
+		
+		return outputManager.getOutputDataInputStream(version, OutputFormat.XML);
+	}
 
 	public OutputDataType getType() {
 		return type;
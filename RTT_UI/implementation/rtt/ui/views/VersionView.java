@@ -33,6 +33,7 @@ import org.eclipse.ui.part.ViewPart;
 import rtt.core.exceptions.RTTException;
 import rtt.core.loader.ArchiveLoader;
 import rtt.core.manager.Manager;
+import rtt.core.manager.data.ManifestManager;
 import rtt.core.manager.data.history.InputManager;
 import rtt.core.manager.data.history.OutputDataManager;
 import rtt.core.manager.data.history.OutputDataManager.OutputDataType;
@@ -275,15 +276,16 @@ public class VersionView extends ViewPart implements ISelectionListener {
 							Manager manager = project.getManager();
 							if (manager != null) {
 								ArchiveLoader loader = manager.getArchive().getLoader();
+								ManifestManager manifest = manager.getArchive().getManifestManager();
 								ProjectContent currentProject = item.getContent(ProjectContent.class);
 								
-								InputManager inputManager = new InputManager(loader, suiteName, caseName);
+								InputManager inputManager = new InputManager(loader, suiteName, caseName, manifest);
 								childs.add(new HistoryContent(currentProject, inputManager, VersionType.INPUT));
 
-								OutputDataManager refManager = new OutputDataManager(loader, suiteName, caseName, project.getActiveConfiguration(), OutputDataType.REFERENCE);
+								OutputDataManager refManager = new OutputDataManager(loader, suiteName, caseName, project.getActiveConfiguration(), OutputDataType.REFERENCE, manifest);
 								childs.add(new HistoryContent(currentProject, refManager, VersionType.REFERENCE));
 
-								OutputDataManager testManager = new OutputDataManager(loader, suiteName, caseName, project.getActiveConfiguration(), OutputDataType.TEST);
+								OutputDataManager testManager = new OutputDataManager(loader, suiteName, caseName, project.getActiveConfiguration(), OutputDataType.TEST, manifest);
 								childs.add(new HistoryContent(currentProject, testManager, VersionType.TEST));
 								
 								manager.close();